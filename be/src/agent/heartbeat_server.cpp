@@ -28,9 +28,11 @@
 
 #include "common/config.h"
 #include "common/status.h"
+#include "olap/memtable_flush_executor.h"
 #include "olap/storage_engine.h"
 #include "runtime/exec_env.h"
 #include "runtime/heartbeat_flags.h"
+#include "runtime/load_channel_mgr.h"
 #include "service/backend_options.h"
 #include "util/debug_util.h"
 #include "util/network_util.h"
@@ -82,6 +84,7 @@ void HeartbeatServer::heartbeat(THeartbeatResult& heartbeat_result,
         heartbeat_result.backend_info.__set_be_node_role(config::be_node_role);
         // If be is gracefully stop, then k_doris_exist is set to true
         heartbeat_result.backend_info.__set_is_shutdown(doris::k_doris_exit);
+        _fill_load_statistics(&heartbeat_result.backend_info);
     }
     watch.stop();
     if (watch.elapsed_time() > 1000L * 1000L * 1000L) {
@@ -89,6 +92,20 @@ void HeartbeatServer::heartbeat(THeartbeatResult& heartbeat_result,
     }
 }
 
+void HeartbeatServer::_fill_load_statistics(TBackendInfo* backend_info) {
+    ExecEnv* env = ExecEnv::GetInstance();
+    if (env->memtable_memory_limiter() != nullptr) {
+        backend_info->__set_load_mem_usage(env->memtable_memory_limiter()->mem_usage());
+    }
+    if (env->load_channel_mgr() != nullptr) {
+        backend_info->__set_load_channel_num(env->load_channel_mgr()->load_channel_num());
+    }
+    if (_olap_engine != nullptr && _olap_engine->memtable_flush_executor() != nullptr) {
+        backend_info->__set_flush_queue_size(
+                _olap_engine->memtable_flush_executor()->flush_queue_size());
+    }
+}
+
 Status HeartbeatServer::_heartbeat(const TMasterInfo& master_info) {
     std::lock_guard<std::mutex> lk(_hb_mtx);
 
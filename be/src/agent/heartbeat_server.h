@@ -28,6 +28,7 @@
 namespace doris {
 class ExecEnv;
 class THeartbeatResult;
+class TBackendInfo;
 class TMasterInfo;
 
 const uint32_t HEARTBEAT_INTERVAL = 10;
@@ -52,6 +53,7 @@ public:
 
 private:
     Status _heartbeat(const TMasterInfo& master_info);
+    void _fill_load_statistics(TBackendInfo* backend_info);
 
     StorageEngine* _olap_engine;
     int64_t _be_epoch;
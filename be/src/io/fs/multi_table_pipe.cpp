@@ -59,6 +59,16 @@ Status MultiTablePipe::append_json(const char* data, size_t size) {
     return dispatch(table, data + prefix_len, size - prefix_len, cb);
 }
 
+Status MultiTablePipe::append_to_table(const std::string& table, const char* data, size_t size,
+                                       bool is_json) {
+    if (table.empty()) {
+        return Status::InternalError("table name is empty");
+    }
+    AppendFunc cb = is_json ? &KafkaConsumerPipe::append_json
+                            : &KafkaConsumerPipe::append_with_line_delimiter;
+    return dispatch(table, data, size, cb);
+}
+
 KafkaConsumerPipePtr MultiTablePipe::get_pipe_by_table(const std::string& table) {
     auto pipe = _planned_pipes.find(table);
     DCHECK(pipe != _planned_pipes.end());
@@ -40,6 +40,10 @@ public:
 
     Status append_json(const char* data, size_t size) override;
 
+    // append data whose destination table is not in the data itself, e.g. the table name
+    // is carried by the key of the kafka message
+    Status append_to_table(const std::string& table, const char* data, size_t size, bool is_json);
+
     // for pipe consumers, i.e. scanners, to get underlying KafkaConsumerPipes
     KafkaConsumerPipePtr get_pipe_by_table(const std::string& table);
 
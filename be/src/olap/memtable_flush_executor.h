@@ -121,6 +121,11 @@ public:
     Status create_flush_token(std::unique_ptr<FlushToken>& flush_token, RowsetWriter* rowset_writer,
                               bool should_serial, bool is_high_priority);
 
+    // number of flush tasks waiting in both normal and high priority flush pools
+    int flush_queue_size() const {
+        return _flush_pool->get_queue_size() + _high_prio_flush_pool->get_queue_size();
+    }
+
 private:
     void _register_metrics();
     static void _deregister_metrics();
@@ -64,6 +64,12 @@ public:
 
     void stop();
 
+    // number of load channels currently open on this backend
+    size_t load_channel_num() {
+        std::lock_guard<std::mutex> l(_lock);
+        return _load_channels.size();
+    }
+
 private:
     Status _get_load_channel(std::shared_ptr<LoadChannel>& channel, bool& is_eof,
                              const UniqueId& load_id, const PTabletWriterAddBlockRequest& request);
@@ -25,6 +25,7 @@
 #include <utility>
 
 #include "common/logging.h"
+#include "io/fs/multi_table_pipe.h"
 #include "librdkafka/rdkafkacpp.h"
 #include "runtime/routine_load/data_consumer.h"
 #include "runtime/stream_load/stream_load_context.h"
@@ -120,6 +121,12 @@ Status KafkaDataConsumerGroup::start_all(std::shared_ptr<StreamLoadContext> ctx,
         append_data = &io::KafkaConsumerPipe::append_with_line_delimiter;
     }
 
+    // the destination table of each message is given by its key
+    std::shared_ptr<io::MultiTablePipe> multi_table_pipe;
+    if (ctx->is_multi_table && ctx->kafka_info->table_name_from_key) {
+        multi_table_pipe = std::static_pointer_cast<io::MultiTablePipe>(kafka_pipe);
+    }
+
     MonotonicStopWatch watch;
     watch.start();
     bool eos = false;
@@ -162,8 +169,16 @@ Status KafkaDataConsumerGroup::start_all(std::shared_ptr<StreamLoadContext> ctx,
                         << ", partition: " << msg->partition() << ", offset: " << msg->offset()
                         << ", len: " << msg->len();
 
-            Status st = (kafka_pipe.get()->*append_data)(static_cast<const char*>(msg->payload()),
-                                                         static_cast<size_t>(msg->len()));
+            Status st;
+            if (multi_table_pipe != nullptr) {
+                const std::string* key = msg->key();
+                st = multi_table_pipe->append_to_table(
+                        key == nullptr ? "" : *key, static_cast<const char*>(msg->payload()),
+                        static_cast<size_t>(msg->len()), ctx->format == TFileFormatType::FORMAT_JSON);
+            } else {
+                st = (kafka_pipe.get()->*append_data)(static_cast<const char*>(msg->payload()),
+                                                      static_cast<size_t>(msg->len()));
+            }
             if (st.ok()) {
                 left_rows--;
                 left_bytes -= msg->len();
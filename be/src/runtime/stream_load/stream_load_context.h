@@ -54,6 +54,9 @@ public:
               topic(t_info.topic),
               begin_offset(t_info.partition_begin_offset),
               properties(t_info.properties) {
+        if (t_info.__isset.table_name_from_key) {
+            table_name_from_key = t_info.table_name_from_key;
+        }
         // The offset(begin_offset) sent from FE is the starting offset,
         // and the offset(cmt_offset) reported by BE to FE is the consumed offset,
         // so we need to minus 1 here.
@@ -85,6 +88,9 @@ public:
     std::map<int32_t, int64_t> cmt_offset;
     //custom kafka property key -> value
     std::map<std::string, std::string> properties;
+    // for multi-table load, whether the destination table is the key of the message
+    // instead of the prefix of the message body
+    bool table_name_from_key = false;
 };
 
 class MessageBodySink;
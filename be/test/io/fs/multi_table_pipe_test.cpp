@@ -71,4 +71,21 @@ TEST_F(MultiTablePipeTest, append_json) {
     EXPECT_EQ(pipe.get_pipe_by_table("test_table_3")->get_queue_size(), 3);
 }
 
+TEST_F(MultiTablePipeTest, append_to_table) {
+    config::multi_table_batch_plan_threshold = 3;
+
+    auto exec_env = doris::ExecEnv::GetInstance();
+    std::shared_ptr<StreamLoadContext> ctx = std::make_shared<StreamLoadContext>(exec_env);
+    MultiTablePipe pipe(ctx);
+
+    std::string data = "data|with|delimiter";
+    EXPECT_FALSE(pipe.append_to_table("", data.c_str(), data.size(), true).ok());
+    static_cast<void>(pipe.append_to_table("test_table_1", data.c_str(), data.size(), true));
+    static_cast<void>(pipe.append_to_table("test_table_2", data.c_str(), data.size(), true));
+    static_cast<void>(pipe.append_to_table("test_table_1", data.c_str(), data.size(),
+                                           true)); // should trigger plan, for table 1&2
+    EXPECT_EQ(pipe.get_pipe_by_table("test_table_1")->get_queue_size(), 2);
+    EXPECT_EQ(pipe.get_pipe_by_table("test_table_2")->get_queue_size(), 1);
+}
+
 } // end namespace doris
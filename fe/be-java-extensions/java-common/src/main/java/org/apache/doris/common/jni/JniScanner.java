@@ -66,6 +66,23 @@ public abstract class JniScanner {
         vectorTable.appendData(index, value);
     }
 
+    /**
+     * Columnar fast path for the scanners whose reader already produces columnar batches in off-heap memory,
+     * such as Arrow vectors. The values are copied in bulk instead of appended one by one through ColumnValue.
+     * The validity bitmap is Arrow style(bit 1 means not null), and 0 means that there is no null value.
+     */
+    protected void appendFixedLengthData(int index, long dataAddress, long validityBitmap, int rows) {
+        vectorTable.appendFixedLengthData(index, dataAddress, validityBitmap, rows);
+    }
+
+    protected void appendBooleanBitmap(int index, long valueBitmap, long validityBitmap, int rows) {
+        vectorTable.appendBooleanBitmap(index, valueBitmap, validityBitmap, rows);
+    }
+
+    protected void appendBinaryData(int index, long offsetsAddress, long dataAddress, long validityBitmap, int rows) {
+        vectorTable.appendBinaryData(index, offsetsAddress, dataAddress, validityBitmap, rows);
+    }
+
     protected int getBatchSize() {
         return batchSize;
     }
@@ -30,6 +30,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -781,6 +782,183 @@ public class VectorColumn {
         return result;
     }
 
+    /**
+     * Get the values in [start, end) of a primitive column as a primitive array(boolean[], byte[], short[], int[],
+     * long[], float[] or double[]) by a bulk copy from off-heap memory, without boxing.
+     * The values of null rows are undefined, use {@link #getNullMap(int, int)} to get the null flags.
+     */
+    public Object getPrimitiveColumn(int start, int end) {
+        int length = end - start;
+        switch (columnType.getType()) {
+            case BOOLEAN:
+                return OffHeap.getBoolean(null, data + start, length);
+            case BYTE:
+            case TINYINT:
+                return OffHeap.getByte(null, data + start, length);
+            case SMALLINT:
+                return OffHeap.getShort(null, data + 2L * start, length);
+            case INT:
+                return OffHeap.getInt(null, data + 4L * start, length);
+            case BIGINT:
+                return OffHeap.getLong(null, data + 8L * start, length);
+            case FLOAT:
+                return OffHeap.getFloat(null, data + 4L * start, length);
+            case DOUBLE:
+                return OffHeap.getDouble(null, data + 8L * start, length);
+            default:
+                throw new RuntimeException("Not a primitive column: " + columnType.getName());
+        }
+    }
+
+    /**
+     * Get the null flags in [start, end), or null if there is no null value in this column.
+     */
+    public boolean[] getNullMap(int start, int end) {
+        if (!hasNull()) {
+            return null;
+        }
+        if (nulls != null) {
+            return Arrays.copyOfRange(nulls, start, end);
+        }
+        return OffHeap.getBoolean(null, nullMap + start, end - start);
+    }
+
+    /**
+     * Append a primitive array produced by {@link #getPrimitiveColumn(int, int)} or a batch UDF by a bulk copy
+     * into off-heap memory. batchNulls can be null if there is no null value.
+     */
+    public void appendPrimitiveColumn(Object batch, boolean[] batchNulls) {
+        int rows;
+        long arrayOffset;
+        switch (columnType.getType()) {
+            case BOOLEAN:
+                rows = ((boolean[]) batch).length;
+                arrayOffset = OffHeap.BOOLEAN_ARRAY_OFFSET;
+                break;
+            case BYTE:
+            case TINYINT:
+                rows = ((byte[]) batch).length;
+                arrayOffset = OffHeap.BYTE_ARRAY_OFFSET;
+                break;
+            case SMALLINT:
+                rows = ((short[]) batch).length;
+                arrayOffset = OffHeap.SHORT_ARRAY_OFFSET;
+                break;
+            case INT:
+                rows = ((int[]) batch).length;
+                arrayOffset = OffHeap.INT_ARRAY_OFFSET;
+                break;
+            case BIGINT:
+                rows = ((long[]) batch).length;
+                arrayOffset = OffHeap.LONG_ARRAY_OFFSET;
+                break;
+            case FLOAT:
+                rows = ((float[]) batch).length;
+                arrayOffset = OffHeap.FLOAT_ARRAY_OFFSET;
+                break;
+            case DOUBLE:
+                rows = ((double[]) batch).length;
+                arrayOffset = OffHeap.DOUBLE_ARRAY_OFFSET;
+                break;
+            default:
+                throw new RuntimeException("Not a primitive column: " + columnType.getName());
+        }
+        long typeSize = columnType.getTypeSize();
+        reserve(appendIndex + rows);
+        OffHeap.UNSAFE.copyMemory(batch, arrayOffset, null, data + typeSize * appendIndex, typeSize * rows);
+        if (batchNulls != null) {
+            if (batchNulls.length != rows) {
+                throw new RuntimeException("The size of null map " + batchNulls.length
+                        + " doesn't match the number of rows " + rows);
+            }
+            OffHeap.UNSAFE.copyMemory(batchNulls, OffHeap.BOOLEAN_ARRAY_OFFSET, null, nullMap + appendIndex, rows);
+            for (boolean isNull : batchNulls) {
+                if (isNull) {
+                    numNulls++;
+                }
+            }
+        }
+        appendIndex += rows;
+    }
+
+    /**
+     * Append rows of fixed-length values by a bulk copy from the off-heap memory of other columnar format, such as
+     * the data buffer of Arrow IntVector. The caller should make sure that the memory layout of the values is the
+     * same as this column.
+     *
+     * @param validityBitmap the address of Arrow style validity bitmap, bit 1 means not null. 0 if there is no null.
+     */
+    public void appendFixedLengthValues(long dataAddress, long validityBitmap, int rows) {
+        long typeSize = columnType.getTypeSize();
+        if (typeSize <= 0 || columnType.isComplexType()) {
+            throw new RuntimeException("Not a fixed length column: " + columnType.getName());
+        }
+        reserve(appendIndex + rows);
+        OffHeap.copyMemory(null, dataAddress, null, data + typeSize * appendIndex, typeSize * rows);
+        appendValidityBitmap(validityBitmap, rows);
+        appendIndex += rows;
+    }
+
+    /**
+     * Append rows of boolean values from a bit-packed bitmap, such as the data buffer of Arrow BitVector.
+     */
+    public void appendBooleanBitmap(long valueBitmap, long validityBitmap, int rows) {
+        if (columnType.getType() != Type.BOOLEAN) {
+            throw new RuntimeException("Not a boolean column: " + columnType.getName());
+        }
+        reserve(appendIndex + rows);
+        byte[] bits = OffHeap.getByte(null, valueBitmap, (rows + 7) >> 3);
+        byte[] values = new byte[rows];
+        for (int i = 0; i < rows; ++i) {
+            values[i] = (byte) ((bits[i >> 3] >> (i & 7)) & 1);
+        }
+        OffHeap.UNSAFE.copyMemory(values, OffHeap.BYTE_ARRAY_OFFSET, null, data + appendIndex, rows);
+        appendValidityBitmap(validityBitmap, rows);
+        appendIndex += rows;
+    }
+
+    /**
+     * Append rows of binary values stored as Arrow variable-width layout, such as VarCharVector:
+     * the offsets are rows + 1 int32 start offsets, and the bytes of all rows are continuous in data.
+     * The bytes are copied in bulk, and the offsets are rebased on the current bytes of this column.
+     */
+    public void appendBinaryValues(long offsetsAddress, long dataAddress, long validityBitmap, int rows) {
+        if (!columnType.isStringType()) {
+            throw new RuntimeException("Not a string column: " + columnType.getName());
+        }
+        reserve(appendIndex + rows);
+        int[] srcOffsets = OffHeap.getInt(null, offsetsAddress, rows + 1);
+        int startOffset = childColumns[0].appendBytes(dataAddress + srcOffsets[0], srcOffsets[rows] - srcOffsets[0]);
+        int base = startOffset - srcOffsets[0];
+        int[] dstOffsets = new int[rows];
+        for (int i = 0; i < rows; ++i) {
+            dstOffsets[i] = base + srcOffsets[i + 1];
+        }
+        OffHeap.UNSAFE.copyMemory(dstOffsets, OffHeap.INT_ARRAY_OFFSET, null, offsets + 4L * appendIndex, 4L * rows);
+        appendValidityBitmap(validityBitmap, rows);
+        appendIndex += rows;
+    }
+
+    // Convert the Arrow style validity bitmap into the null map from appendIndex, the rows are not null by default.
+    private void appendValidityBitmap(long validityBitmap, int rows) {
+        if (validityBitmap == 0) {
+            return;
+        }
+        byte[] bits = OffHeap.getByte(null, validityBitmap, (rows + 7) >> 3);
+        for (int i = 0; i < rows; i += 8) {
+            byte valid = bits[i >> 3];
+            if (valid == (byte) 0xFF) {
+                continue;
+            }
+            int end = Math.min(rows, i + 8);
+            for (int j = i; j < end; ++j) {
+                if ((valid & (1 << (j & 7))) == 0) {
+                    putNull(appendIndex + j);
+                }
+            }
+        }
+    }
+
     public int appendBigInteger(BigInteger v) {
         reserve(appendIndex + 1);
         putBigInteger(appendIndex, v);
@@ -1022,6 +1200,15 @@ public class VectorColumn {
         return result;
     }
 
+    // Append the bytes from off-heap memory, only for the child column of string
+    private int appendBytes(long srcAddress, int length) {
+        reserve(appendIndex + length);
+        int result = appendIndex;
+        OffHeap.copyMemory(null, srcAddress, null, data + appendIndex, length);
+        appendIndex += length;
+        return result;
+    }
+
     public int appendString(String str) {
         byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
         return appendBytes(bytes, 0, bytes.length);
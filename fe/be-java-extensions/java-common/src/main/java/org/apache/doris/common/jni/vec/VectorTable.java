@@ -132,6 +132,29 @@ public class VectorTable {
         appendData(fieldId, batch, null, isNullable);
     }
 
+    /**
+     * Append a primitive array without boxing, see {@link VectorColumn#appendPrimitiveColumn(Object, boolean[])}.
+     */
+    public void appendPrimitiveData(int fieldId, Object batch, boolean[] batchNulls) {
+        assert (!onlyReadable);
+        columns[fieldId].appendPrimitiveColumn(batch, batchNulls);
+    }
+
+    public void appendFixedLengthData(int fieldId, long dataAddress, long validityBitmap, int rows) {
+        assert (!onlyReadable);
+        columns[fieldId].appendFixedLengthValues(dataAddress, validityBitmap, rows);
+    }
+
+    public void appendBooleanBitmap(int fieldId, long valueBitmap, long validityBitmap, int rows) {
+        assert (!onlyReadable);
+        columns[fieldId].appendBooleanBitmap(valueBitmap, validityBitmap, rows);
+    }
+
+    public void appendBinaryData(int fieldId, long offsetsAddress, long dataAddress, long validityBitmap, int rows) {
+        assert (!onlyReadable);
+        columns[fieldId].appendBinaryValues(offsetsAddress, dataAddress, validityBitmap, rows);
+    }
+
     /**
      * Get materialized data, each type is wrapped by its Java type. For example: int -> Integer, decimal -> BigDecimal
      *
@@ -0,0 +1,136 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.jni.vec;
+
+import org.apache.doris.common.jni.utils.OffHeap;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class VectorColumnTest {
+    @BeforeClass
+    public static void setUp() {
+        OffHeap.setTesting();
+    }
+
+    // bit 1 means not null
+    private static long allocateValidity(boolean[] nulls) {
+        int numBytes = (nulls.length + 7) >> 3;
+        long address = OffHeap.allocateMemory(numBytes);
+        for (int i = 0; i < numBytes; ++i) {
+            byte valid = 0;
+            for (int j = i * 8; j < Math.min(nulls.length, i * 8 + 8); ++j) {
+                if (!nulls[j]) {
+                    valid |= (byte) (1 << (j & 7));
+                }
+            }
+            OffHeap.putByte(null, address + i, valid);
+        }
+        return address;
+    }
+
+    @Test
+    public void testAppendFixedLengthValues() {
+        int rows = 100;
+        long data = OffHeap.allocateMemory(4L * rows);
+        boolean[] nulls = new boolean[rows];
+        for (int i = 0; i < rows; ++i) {
+            OffHeap.putInt(null, data + 4L * i, i * 10);
+            nulls[i] = i % 9 == 0;
+        }
+        long validity = allocateValidity(nulls);
+
+        VectorColumn column = VectorColumn.createWritableColumn(new ColumnType("c", ColumnType.Type.INT), 8);
+        column.appendInt(-1);
+        column.appendFixedLengthValues(data, validity, rows);
+        column.appendFixedLengthValues(data, 0, 2);
+        Assert.assertEquals(rows + 3, column.numRows());
+        Integer[] values = column.getIntColumn(0, rows + 3);
+        Assert.assertEquals(Integer.valueOf(-1), values[0]);
+        for (int i = 0; i < rows; ++i) {
+            if (nulls[i]) {
+                Assert.assertNull(values[i + 1]);
+            } else {
+                Assert.assertEquals(Integer.valueOf(i * 10), values[i + 1]);
+            }
+        }
+        Assert.assertEquals(Integer.valueOf(0), values[rows + 1]);
+        Assert.assertEquals(Integer.valueOf(10), values[rows + 2]);
+        column.close();
+        OffHeap.freeMemory(data);
+        OffHeap.freeMemory(validity);
+    }
+
+    @Test
+    public void testAppendBooleanBitmap() {
+        // values: 1, 0, 1, 1, 0, 0, 0, 0, 1, 1
+        long bitmap = OffHeap.allocateMemory(2);
+        OffHeap.putByte(null, bitmap, (byte) 0b00001101);
+        OffHeap.putByte(null, bitmap + 1, (byte) 0b00000011);
+        boolean[] nulls = new boolean[10];
+        nulls[2] = true;
+        long validity = allocateValidity(nulls);
+
+        VectorColumn column = VectorColumn.createWritableColumn(new ColumnType("b", ColumnType.Type.BOOLEAN), 4);
+        column.appendBooleanBitmap(bitmap, validity, 10);
+        Boolean[] values = column.getBooleanColumn(0, 10);
+        Assert.assertArrayEquals(new Boolean[] {true, false, null, true, false, false, false, false, true, true},
+                values);
+        column.close();
+        OffHeap.freeMemory(bitmap);
+        OffHeap.freeMemory(validity);
+    }
+
+    @Test
+    public void testAppendBinaryValues() {
+        String[] strings = {"doris", "", null, "arrow", "jni"};
+        int rows = strings.length;
+        // arrow offsets start from a non-zero position to test rebasing
+        long offsets = OffHeap.allocateMemory(4L * (rows + 1));
+        long data = OffHeap.allocateMemory(64);
+        int offset = 3;
+        OffHeap.putInt(null, offsets, offset);
+        boolean[] nulls = new boolean[rows];
+        for (int i = 0; i < rows; ++i) {
+            if (strings[i] == null) {
+                nulls[i] = true;
+            } else {
+                byte[] bytes = strings[i].getBytes(StandardCharsets.UTF_8);
+                for (int j = 0; j < bytes.length; ++j) {
+                    OffHeap.putByte(null, data + offset + j, bytes[j]);
+                }
+                offset += bytes.length;
+            }
+            OffHeap.putInt(null, offsets + 4L * (i + 1), offset);
+        }
+        long validity = allocateValidity(nulls);
+
+        VectorColumn column = VectorColumn.createWritableColumn(new ColumnType("s", ColumnType.Type.STRING), 2);
+        column.appendStringAndOffset("first");
+        column.appendBinaryValues(offsets, data, validity, rows);
+        String[] values = column.getStringColumn(0, rows + 1);
+        Assert.assertArrayEquals(new String[] {"first", "doris", "", null, "arrow", "jni"}, values);
+        column.close();
+        OffHeap.freeMemory(offsets);
+        OffHeap.freeMemory(data);
+        OffHeap.freeMemory(validity);
+    }
+}
@@ -42,6 +42,8 @@ public abstract class BaseExecutor {
 
     // By convention, the function in the class must be called evaluate()
     public static final String UDF_FUNCTION_NAME = "evaluate";
+    // The optional batch function of udf, which takes and returns primitive arrays
+    public static final String UDF_BATCH_FUNCTION_NAME = "evaluateBatch";
     public static final String UDAF_CREATE_FUNCTION = "create";
     public static final String UDAF_DESTROY_FUNCTION = "destroy";
     public static final String UDAF_ADD_FUNCTION = "add";
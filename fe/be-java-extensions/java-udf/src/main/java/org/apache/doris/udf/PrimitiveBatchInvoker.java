@@ -0,0 +1,36 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.udf;
+
+/**
+ * Invoke a UDF method whose arguments are all primitive types over a batch of rows.
+ * The implementations are generated by {@link PrimitiveBatchInvokerGenerator} for each UDF method, so the values
+ * are passed from the primitive arrays to the UDF method directly, without boxing and reflection on each row.
+ */
+public interface PrimitiveBatchInvoker {
+    /**
+     * @param udf the UDF instance
+     * @param state the aggregate state passed as the first argument of UDAF add(), null for UDF
+     * @param inputs the primitive arrays of arguments, such as int[] for int argument
+     * @param nulls the rows to skip because of null input, can be null if there is no null value. The UDF method is
+     *              not called for a skipped row, and its output is left as the default value to be masked as null
+     * @param output the primitive array to save the results such as long[] for long return value, null for UDAF
+     * @param numRows the number of rows to evaluate
+     */
+    void invoke(Object udf, Object state, Object[] inputs, boolean[] nulls, Object output, int numRows);
+}
@@ -0,0 +1,292 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.udf;
+
+import org.apache.doris.catalog.PrimitiveType;
+
+import com.esotericsoftware.asm.ClassWriter;
+import com.esotericsoftware.asm.Label;
+import com.esotericsoftware.asm.MethodVisitor;
+import com.esotericsoftware.asm.Opcodes;
+import com.esotericsoftware.asm.Type;
+import org.apache.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generate the bytecode of {@link PrimitiveBatchInvoker} for a UDF method with primitive signature, eg:
+ * <pre>
+ *     public void invoke(Object udf, Object state, Object[] inputs, boolean[] nulls, Object output, int numRows) {
+ *         MyUdf u = (MyUdf) udf;
+ *         int[] arg0 = (int[]) inputs[0];
+ *         long[] arg1 = (long[]) inputs[1];
+ *         long[] result = (long[]) output;
+ *         for (int i = 0; i < numRows; ++i) {
+ *             if (nulls == null || !nulls[i]) {
+ *                 result[i] = u.evaluate(arg0[i], arg1[i]);
+ *             }
+ *         }
+ *     }
+ * </pre>
+ * For UDAF, the add(State state, ...) method is called with the same state on each row and the result is ignored.
+ * The ASM shaded in reflectasm is used, so no extra dependency is introduced.
+ */
+public class PrimitiveBatchInvokerGenerator {
+    private static final Logger LOG = Logger.getLogger(PrimitiveBatchInvokerGenerator.class);
+
+    private static final String INVOKER_INTERNAL_NAME = Type.getInternalName(PrimitiveBatchInvoker.class);
+    private static final String INVOKE_DESC =
+            "(Ljava/lang/Object;Ljava/lang/Object;[Ljava/lang/Object;[ZLjava/lang/Object;I)V";
+    private static final AtomicLong NEXT_ID = new AtomicLong(0);
+
+    // local variable slots of the generated invoke()
+    private static final int UDF_SLOT = 1;
+    private static final int STATE_SLOT = 2;
+    private static final int INPUTS_SLOT = 3;
+    private static final int NULLS_SLOT = 4;
+    private static final int OUTPUT_SLOT = 5;
+    private static final int NUM_ROWS_SLOT = 6;
+    private static final int FIRST_ARG_SLOT = 7;
+
+    /**
+     * Get the java primitive class of the sql type, or null if it is not a primitive type.
+     */
+    public static Class<?> getPrimitiveClass(PrimitiveType type) {
+        switch (type) {
+            case BOOLEAN:
+                return boolean.class;
+            case TINYINT:
+                return byte.class;
+            case SMALLINT:
+                return short.class;
+            case INT:
+                return int.class;
+            case BIGINT:
+                return long.class;
+            case FLOAT:
+                return float.class;
+            case DOUBLE:
+                return double.class;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Return true if the java classes of the arguments are exactly the primitive classes of the sql types.
+     *
+     * @param argClasses the argument classes of the method, start from firstPos
+     */
+    public static boolean isPrimitiveSignature(Class<?>[] argClasses, int firstPos,
+            org.apache.doris.catalog.Type[] parameterTypes) {
+        if (argClasses.length - firstPos != parameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            Class<?> primitiveClass = getPrimitiveClass(parameterTypes[i].getPrimitiveType());
+            if (primitiveClass == null || primitiveClass != argClasses[i + firstPos]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate the invoker of UDF method evaluate(), return null if the signature is not supported or failed.
+     */
+    public static PrimitiveBatchInvoker generate(Class<?> udfClass, Method method) {
+        Class<?> retClass = method.getReturnType();
+        if (!retClass.isPrimitive() || retClass == void.class || retClass == char.class) {
+            return null;
+        }
+        return generate(udfClass, method, false);
+    }
+
+    /**
+     * Generate the invoker of UDAF method add(), return null if the signature is not supported or failed.
+     */
+    public static PrimitiveBatchInvoker generateForAdd(Class<?> udafClass, Method method) {
+        Class<?>[] argClasses = method.getParameterTypes();
+        if (argClasses.length == 0 || argClasses[0].isPrimitive()
+                || !Modifier.isPublic(argClasses[0].getModifiers())) {
+            return null;
+        }
+        return generate(udafClass, method, true);
+    }
+
+    private static PrimitiveBatchInvoker generate(Class<?> udfClass, Method method, boolean withState) {
+        // the generated class is in another class loader, so it can only access the public members
+        if (!Modifier.isPublic(udfClass.getModifiers()) || !Modifier.isPublic(method.getModifiers())
+                || Modifier.isStatic(method.getModifiers()) || udfClass.isInterface()) {
+            return null;
+        }
+        Class<?>[] argClasses = method.getParameterTypes();
+        for (int i = withState ? 1 : 0; i < argClasses.length; ++i) {
+            if (!argClasses[i].isPrimitive() || argClasses[i] == char.class) {
+                return null;
+            }
+        }
+        String className = PrimitiveBatchInvokerGenerator.class.getName() + "$Invoker" + NEXT_ID.getAndIncrement();
+        try {
+            byte[] bytes = generateBytecode(className.replace('.', '/'), udfClass, method, withState);
+            InvokerClassLoader loader = new InvokerClassLoader(udfClass.getClassLoader());
+            Class<?> invokerClass = loader.define(className, bytes);
+            return (PrimitiveBatchInvoker) invokerClass.getConstructor().newInstance();
+        } catch (Throwable t) {
+            // fallback to the reflection path
+            LOG.warn("failed to generate primitive invoker for " + method.toGenericString(), t);
+            return null;
+        }
+    }
+
+    private static byte[] generateBytecode(String internalName, Class<?> udfClass, Method method,
+            boolean withState) {
+        String udfInternalName = Type.getInternalName(udfClass);
+        Class<?>[] argClasses = method.getParameterTypes();
+        int firstPos = withState ? 1 : 0;
+        int numArgs = argClasses.length - firstPos;
+        Type returnType = Type.getType(method.getReturnType());
+        int typedUdfSlot = FIRST_ARG_SLOT + numArgs;
+        int typedStateSlot = typedUdfSlot + 1;
+        int resultSlot = typedStateSlot + 1;
+        int rowSlot = resultSlot + 1;
+
+        // class file version 1.6 doesn't require stack map frames
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internalName, null,
+                "java/lang/Object", new String[] {INVOKER_INTERNAL_NAME});
+
+        MethodVisitor ctor = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        ctor.visitCode();
+        ctor.visitVarInsn(Opcodes.ALOAD, 0);
+        ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        ctor.visitInsn(Opcodes.RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, UDF_SLOT);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, udfInternalName);
+        mv.visitVarInsn(Opcodes.ASTORE, typedUdfSlot);
+        if (withState) {
+            mv.visitVarInsn(Opcodes.ALOAD, STATE_SLOT);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(argClasses[0]));
+            mv.visitVarInsn(Opcodes.ASTORE, typedStateSlot);
+        } else {
+            mv.visitVarInsn(Opcodes.ALOAD, OUTPUT_SLOT);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, arrayDescriptor(method.getReturnType()));
+            mv.visitVarInsn(Opcodes.ASTORE, resultSlot);
+        }
+        for (int j = 0; j < numArgs; ++j) {
+            mv.visitVarInsn(Opcodes.ALOAD, INPUTS_SLOT);
+            pushInt(mv, j);
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, arrayDescriptor(argClasses[j + firstPos]));
+            mv.visitVarInsn(Opcodes.ASTORE, FIRST_ARG_SLOT + j);
+        }
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitVarInsn(Opcodes.ISTORE, rowSlot);
+
+        Label loop = new Label();
+        Label call = new Label();
+        Label next = new Label();
+        Label end = new Label();
+        mv.visitLabel(loop);
+        mv.visitVarInsn(Opcodes.ILOAD, rowSlot);
+        mv.visitVarInsn(Opcodes.ILOAD, NUM_ROWS_SLOT);
+        mv.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+        // skip the null rows
+        mv.visitVarInsn(Opcodes.ALOAD, NULLS_SLOT);
+        mv.visitJumpInsn(Opcodes.IFNULL, call);
+        mv.visitVarInsn(Opcodes.ALOAD, NULLS_SLOT);
+        mv.visitVarInsn(Opcodes.ILOAD, rowSlot);
+        mv.visitInsn(Opcodes.BALOAD);
+        mv.visitJumpInsn(Opcodes.IFNE, next);
+        mv.visitLabel(call);
+        if (!withState) {
+            mv.visitVarInsn(Opcodes.ALOAD, resultSlot);
+            mv.visitVarInsn(Opcodes.ILOAD, rowSlot);
+        }
+        // u.evaluate(arg0[i], arg1[i], ...) or u.add(state, arg0[i], arg1[i], ...)
+        mv.visitVarInsn(Opcodes.ALOAD, typedUdfSlot);
+        if (withState) {
+            mv.visitVarInsn(Opcodes.ALOAD, typedStateSlot);
+        }
+        for (int j = 0; j < numArgs; ++j) {
+            mv.visitVarInsn(Opcodes.ALOAD, FIRST_ARG_SLOT + j);
+            mv.visitVarInsn(Opcodes.ILOAD, rowSlot);
+            mv.visitInsn(Type.getType(argClasses[j + firstPos]).getOpcode(Opcodes.IALOAD));
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, udfInternalName, method.getName(),
+                Type.getMethodDescriptor(method), false);
+        if (!withState) {
+            mv.visitInsn(returnType.getOpcode(Opcodes.IASTORE));
+        } else if (returnType.getSize() == 1) {
+            mv.visitInsn(Opcodes.POP);
+        } else if (returnType.getSize() == 2) {
+            mv.visitInsn(Opcodes.POP2);
+        }
+        mv.visitLabel(next);
+        mv.visitIincInsn(rowSlot, 1);
+        mv.visitJumpInsn(Opcodes.GOTO, loop);
+        mv.visitLabel(end);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static String arrayDescriptor(Class<?> componentClass) {
+        return "[" + Type.getDescriptor(componentClass);
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+
+    // Define the generated class under the class loader of udf, and load the invoker interface
+    // from the class loader of executor.
+    private static class InvokerClassLoader extends ClassLoader {
+        InvokerClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(PrimitiveBatchInvoker.class.getName())) {
+                return PrimitiveBatchInvoker.class;
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
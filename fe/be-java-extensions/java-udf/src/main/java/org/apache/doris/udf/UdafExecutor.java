@@ -24,6 +24,7 @@ import org.apache.doris.common.jni.utils.JavaUdfDataType;
 import org.apache.doris.common.jni.utils.OffHeap;
 import org.apache.doris.common.jni.utils.UdfUtils;
 import org.apache.doris.common.jni.vec.ColumnValueConverter;
+import org.apache.doris.common.jni.vec.VectorColumn;
 import org.apache.doris.common.jni.vec.VectorTable;
 import org.apache.doris.thrift.TJavaUdfExecutorCtorParams;
 
@@ -55,6 +56,8 @@ public class UdafExecutor extends BaseExecutor {
     private HashMap<Long, Object> stateObjMap;
     private Class retClass;
     private int addIndex;
+    // The generated invoker if add() only takes primitive types except the state, or null.
+    private PrimitiveBatchInvoker addInvoker;
     private VectorTable outputTable = null;
 
     /**
@@ -94,6 +97,10 @@ public class UdafExecutor extends BaseExecutor {
             Map<String, String> inputParams) throws UdfRuntimeException {
         try {
             VectorTable inputTable = VectorTable.createReadableTable(inputParams);
+            if (isSinglePlace && addInvoker != null) {
+                addBatchSinglePrimitive(rowStart, rowEnd, placeAddr, inputTable);
+                return;
+            }
             Object[][] inputs = inputTable.getMaterializedData(rowStart, rowEnd,
                     getInputConverters(inputTable.getNumColumns()));
             if (isSinglePlace) {
@@ -107,6 +114,44 @@ public class UdafExecutor extends BaseExecutor {
         }
     }
 
+    private Object getOrCreateState(Long place) throws UdfRuntimeException {
+        Object state = stateObjMap.get(place);
+        if (state == null) {
+            state = createAggState();
+            stateObjMap.put(place, state);
+        }
+        return state;
+    }
+
+    /**
+     * Add the rows to a single place by the generated invoker, the values are read from the off-heap columns as
+     * primitive arrays without boxing. The rows with any null input are skipped, while the row path fails with
+     * NullPointerException because a null can't be passed to a primitive argument.
+     */
+    private void addBatchSinglePrimitive(int rowStart, int rowEnd, long placeAddr, VectorTable inputTable)
+            throws UdfRuntimeException {
+        Object state = getOrCreateState(placeAddr);
+        int numColumns = inputTable.getNumColumns();
+        Object[] inputs = new Object[numColumns];
+        boolean[] nulls = null;
+        for (int j = 0; j < numColumns; ++j) {
+            VectorColumn column = inputTable.getColumn(j);
+            inputs[j] = column.getPrimitiveColumn(rowStart, rowEnd);
+            boolean[] columnNulls = column.getNullMap(rowStart, rowEnd);
+            if (columnNulls == null) {
+                continue;
+            }
+            if (nulls == null) {
+                nulls = columnNulls;
+            } else {
+                for (int i = 0; i < nulls.length; ++i) {
+                    nulls[i] |= columnNulls[i];
+                }
+            }
+        }
+        addInvoker.invoke(udf, state, inputs, nulls, null, rowEnd - rowStart);
+    }
+
     public void addBatchSingle(int rowStart, int rowEnd, long placeAddr, Object[][] inputs) throws UdfRuntimeException {
         Long curPlace = placeAddr;
         Object[] inputArgs = new Object[argTypes.length + 1];
@@ -352,6 +397,11 @@ public class UdafExecutor extends BaseExecutor {
                 }
             }
             if (idx == methods.length) {
+                Method addMethod = allMethods.get(UDAF_ADD_FUNCTION);
+                if (addMethod != null && parameterTypes.length > 0
+                        && PrimitiveBatchInvokerGenerator.isPrimitiveSignature(argClass, 1, parameterTypes)) {
+                    addInvoker = PrimitiveBatchInvokerGenerator.generateForAdd(c, addMethod);
+                }
                 return;
             }
             StringBuilder sb = new StringBuilder();
@@ -23,6 +23,7 @@ import org.apache.doris.common.exception.UdfRuntimeException;
 import org.apache.doris.common.jni.utils.JavaUdfDataType;
 import org.apache.doris.common.jni.utils.UdfUtils;
 import org.apache.doris.common.jni.vec.ColumnValueConverter;
+import org.apache.doris.common.jni.vec.VectorColumn;
 import org.apache.doris.common.jni.vec.VectorTable;
 import org.apache.doris.thrift.TJavaUdfExecutorCtorParams;
 
@@ -46,6 +47,12 @@ public class UdfExecutor extends BaseExecutor {
 
     private int evaluateIndex;
 
+    // The optional batch method evaluateBatch(), which takes primitive arrays and returns a primitive array.
+    // -1 means that the udf has no batch method.
+    private int evaluateBatchIndex = -1;
+    // The generated invoker if evaluate() only takes and returns primitive types, or null.
+    private PrimitiveBatchInvoker primitiveInvoker;
+
     private VectorTable outputTable = null;
 
     /**
@@ -95,6 +102,11 @@ public class UdfExecutor extends BaseExecutor {
                 outputTable.close();
             }
             outputTable = VectorTable.createWritableTable(outputParams, numRows);
+            boolean isNullable = Boolean.parseBoolean(outputParams.getOrDefault("is_nullable", "true"));
+            if (evaluateBatchIndex >= 0 || primitiveInvoker != null) {
+                evaluatePrimitive(inputTable, numRows, isNullable);
+                return outputTable.getMetaAddress();
+            }
 
             // If the return type is primitive, we can't cast the array of primitive type as array of Object,
             // so we have to new its wrapped Object.
@@ -109,7 +121,6 @@ public class UdfExecutor extends BaseExecutor {
                 }
                 result[i] = methodAccess.invoke(udf, evaluateIndex, parameters);
             }
-            boolean isNullable = Boolean.parseBoolean(outputParams.getOrDefault("is_nullable", "true"));
             outputTable.appendData(0, result, getOutputConverter(), isNullable);
             return outputTable.getMetaAddress();
         } catch (Exception e) {
@@ -118,6 +129,49 @@ public class UdfExecutor extends BaseExecutor {
         }
     }
 
+    /**
+     * Evaluate the batch on the primitive arrays read from the off-heap columns directly, and write the
+     * primitive result back without boxing. The rows with any null input are null in the result and evaluate() is
+     * not called for them. Note that the row path fails with NullPointerException instead, because a null can't be
+     * passed to a primitive argument.
+     */
+    private void evaluatePrimitive(VectorTable inputTable, int numRows, boolean isNullable)
+            throws UdfRuntimeException {
+        int numColumns = inputTable.getNumColumns();
+        Object[] inputs = new Object[numColumns];
+        boolean[] nulls = null;
+        for (int j = 0; j < numColumns; ++j) {
+            VectorColumn column = inputTable.getColumn(j);
+            inputs[j] = column.getPrimitiveColumn(0, numRows);
+            boolean[] columnNulls = column.getNullMap(0, numRows);
+            if (columnNulls == null) {
+                continue;
+            }
+            if (nulls == null) {
+                nulls = columnNulls;
+            } else {
+                for (int i = 0; i < numRows; ++i) {
+                    nulls[i] |= columnNulls[i];
+                }
+            }
+        }
+        if (nulls != null && !isNullable) {
+            throw new UdfRuntimeException("Null input of UDF whose return type is not nullable");
+        }
+        Object result;
+        if (evaluateBatchIndex >= 0) {
+            result = methodAccess.invoke(udf, evaluateBatchIndex, inputs);
+            if (result == null || Array.getLength(result) != numRows) {
+                throw new UdfRuntimeException("The result size of " + UDF_BATCH_FUNCTION_NAME
+                        + " doesn't match the number of rows " + numRows);
+            }
+        } else {
+            result = Array.newInstance(method.getReturnType(), numRows);
+            primitiveInvoker.invoke(udf, null, inputs, nulls, result, numRows);
+        }
+        outputTable.appendPrimitiveData(0, result, nulls);
+    }
+
     public Method getMethod() {
         return method;
     }
@@ -146,6 +200,10 @@ public class UdfExecutor extends BaseExecutor {
             Constructor<?> ctor = c.getConstructor();
             udf = ctor.newInstance();
             Method[] methods = c.getMethods();
+            if (initBatchMethod(c, methods, funcRetType, parameterTypes)) {
+                LOG.debug("Loaded batch UDF '" + className + "' from " + jarPath);
+                return;
+            }
             for (Method m : methods) {
                 // By convention, the udf must contain the function "evaluate"
                 if (!m.getName().equals(UDF_FUNCTION_NAME)) {
@@ -190,6 +248,11 @@ public class UdfExecutor extends BaseExecutor {
                 LOG.debug("Loaded UDF '" + className + "' from " + jarPath);
                 retType.setKeyType(keyType);
                 retType.setValueType(valueType);
+                if (PrimitiveBatchInvokerGenerator.isPrimitiveSignature(argClass, 0, parameterTypes)
+                        && m.getReturnType() == PrimitiveBatchInvokerGenerator.getPrimitiveClass(
+                                funcRetType.getPrimitiveType())) {
+                    primitiveInvoker = PrimitiveBatchInvokerGenerator.generate(c, m);
+                }
                 return;
             }
 
@@ -218,4 +281,36 @@ public class UdfExecutor extends BaseExecutor {
             throw new UdfRuntimeException("Unable to call create UDF instance.", e);
         }
     }
+
+    /**
+     * Find the optional batch method, eg: long[] evaluateBatch(int[] a, long[] b).
+     * Only the udf whose arguments and return value are all primitive types can have a batch method.
+     */
+    private boolean initBatchMethod(Class<?> c, Method[] methods, Type funcRetType, Type... parameterTypes)
+            throws Exception {
+        Class<?> retClass = PrimitiveBatchInvokerGenerator.getPrimitiveClass(funcRetType.getPrimitiveType());
+        if (retClass == null || parameterTypes.length == 0) {
+            return false;
+        }
+        for (Method m : methods) {
+            if (!m.getName().equals(UDF_BATCH_FUNCTION_NAME) || m.getReturnType().getComponentType() != retClass) {
+                continue;
+            }
+            Class<?>[] batchArgClass = m.getParameterTypes();
+            Class<?>[] componentClass = new Class<?>[batchArgClass.length];
+            for (int i = 0; i < batchArgClass.length; ++i) {
+                componentClass[i] = batchArgClass[i].getComponentType();
+            }
+            if (!PrimitiveBatchInvokerGenerator.isPrimitiveSignature(componentClass, 0, parameterTypes)) {
+                continue;
+            }
+            method = m;
+            argClass = componentClass;
+            evaluateBatchIndex = methodAccess.getIndex(UDF_BATCH_FUNCTION_NAME, batchArgClass);
+            retType = UdfUtils.setReturnType(funcRetType, retClass).second;
+            argTypes = UdfUtils.setArgTypes(parameterTypes, componentClass, false).second;
+            return true;
+        }
+        return false;
+    }
 }
@@ -15,10 +15,18 @@
 // specific language governing permissions and limitations
 // under the License.
 
-package org.apache.doris.binlog;
+package org.apache.doris.udf;
 
-import org.apache.doris.thrift.TBinlog;
+public class PrimitiveAddUdf {
+    public long evaluate(int a, long b) {
+        return a + b;
+    }
 
-public interface BinlogComparator {
-    boolean isExpired(TBinlog binlog, long expired);
+    public long[] evaluateBatch(int[] a, long[] b) {
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; ++i) {
+            result[i] = a[i] + b[i];
+        }
+        return result;
+    }
 }
@@ -0,0 +1,107 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.udf;
+
+import com.esotericsoftware.reflectasm.MethodAccess;
+
+import java.lang.reflect.Method;
+
+/**
+ * Benchmark of the row path by reflection with boxed arguments, the generated invoker and the batch method.
+ * It is not a test and asserts nothing, run it by the main method with optional arguments: rows iterations.
+ */
+public class PrimitiveBatchInvokerBenchmark {
+    private static final int WARMUP_ITERATIONS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int numRows = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        PrimitiveAddUdf udf = new PrimitiveAddUdf();
+        MethodAccess udfAccess = MethodAccess.get(PrimitiveAddUdf.class);
+        int evaluateIndex = udfAccess.getIndex("evaluate", int.class, long.class);
+        int batchIndex = udfAccess.getIndex("evaluateBatch", int[].class, long[].class);
+        Method evaluate = PrimitiveAddUdf.class.getMethod("evaluate", int.class, long.class);
+        PrimitiveBatchInvoker udfInvoker = PrimitiveBatchInvokerGenerator.generate(PrimitiveAddUdf.class, evaluate);
+
+        PrimitiveSumUdaf udaf = new PrimitiveSumUdaf();
+        MethodAccess udafAccess = MethodAccess.get(PrimitiveSumUdaf.class);
+        int addIndex = udafAccess.getIndex("add", PrimitiveSumUdaf.State.class, int.class);
+        Method add = PrimitiveSumUdaf.class.getMethod("add", PrimitiveSumUdaf.State.class, int.class);
+        PrimitiveBatchInvoker udafInvoker = PrimitiveBatchInvokerGenerator.generateForAdd(PrimitiveSumUdaf.class,
+                add);
+
+        int[] a = new int[numRows];
+        long[] b = new long[numRows];
+        boolean[] nulls = new boolean[numRows];
+        for (int i = 0; i < numRows; ++i) {
+            a[i] = i;
+            b[i] = i * 2L;
+            nulls[i] = i % 10 == 0;
+        }
+        long[] result = new long[numRows];
+        PrimitiveSumUdaf.State state = udaf.create();
+
+        Runnable[] paths = {
+                () -> udfRowPath(udfAccess, udf, evaluateIndex, a, b, result),
+                () -> udfInvoker.invoke(udf, null, new Object[] {a, b}, null, result, numRows),
+                () -> System.arraycopy(udfAccess.invoke(udf, batchIndex, a, b), 0, result, 0, numRows),
+                () -> udafRowPath(udafAccess, udaf, addIndex, state, a, nulls),
+                () -> udafInvoker.invoke(udaf, state, new Object[] {a}, nulls, null, numRows)
+        };
+        String[] names = {"udf row path", "udf generated invoker", "udf batch method", "udaf row path",
+                "udaf generated invoker"};
+        System.out.printf("rows: %d, iterations: %d%n", numRows, iterations);
+        for (int i = 0; i < paths.length; ++i) {
+            for (int k = 0; k < WARMUP_ITERATIONS; ++k) {
+                paths[i].run();
+            }
+            long start = System.nanoTime();
+            for (int k = 0; k < iterations; ++k) {
+                paths[i].run();
+            }
+            long cost = System.nanoTime() - start;
+            System.out.printf("%-24s %10.1f ns/row%n", names[i], (double) cost / iterations / numRows);
+        }
+        // keep the results alive
+        System.out.printf("checksum: %d%n", result[numRows - 1] + udaf.getValue(state));
+    }
+
+    private static void udfRowPath(MethodAccess methodAccess, Object udf, int index, int[] a, long[] b,
+            long[] result) {
+        Object[] parameters = new Object[2];
+        for (int i = 0; i < a.length; ++i) {
+            parameters[0] = a[i];
+            parameters[1] = b[i];
+            result[i] = (Long) methodAccess.invoke(udf, index, parameters);
+        }
+    }
+
+    private static void udafRowPath(MethodAccess methodAccess, Object udaf, int index, Object state, int[] values,
+            boolean[] nulls) {
+        Object[] parameters = new Object[2];
+        parameters[0] = state;
+        for (int i = 0; i < values.length; ++i) {
+            if (nulls[i]) {
+                continue;
+            }
+            parameters[1] = values[i];
+            methodAccess.invoke(udaf, index, parameters);
+        }
+    }
+}
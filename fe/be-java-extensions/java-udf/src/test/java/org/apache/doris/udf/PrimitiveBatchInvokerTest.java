@@ -0,0 +1,176 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.udf;
+
+import org.apache.doris.common.jni.utils.OffHeap;
+import org.apache.doris.common.jni.vec.ColumnType;
+import org.apache.doris.common.jni.vec.VectorColumn;
+
+import com.esotericsoftware.reflectasm.MethodAccess;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+public class PrimitiveBatchInvokerTest {
+    private static final int NUM_ROWS = 4096;
+
+    @BeforeClass
+    public static void setUp() {
+        OffHeap.setTesting();
+    }
+
+    @Test
+    public void testPrimitiveColumn() {
+        VectorColumn column = VectorColumn.createWritableColumn(new ColumnType("c", ColumnType.Type.INT), 4);
+        int[] values = new int[NUM_ROWS];
+        boolean[] nulls = new boolean[NUM_ROWS];
+        for (int i = 0; i < NUM_ROWS; ++i) {
+            values[i] = i * 3;
+            nulls[i] = i % 7 == 0;
+        }
+        column.appendPrimitiveColumn(values, nulls);
+        Assert.assertEquals(NUM_ROWS, column.numRows());
+        Assert.assertTrue(column.hasNull());
+        Assert.assertArrayEquals(values, (int[]) column.getPrimitiveColumn(0, NUM_ROWS));
+        Assert.assertArrayEquals(new int[] {30, 33}, (int[]) column.getPrimitiveColumn(10, 12));
+        Assert.assertArrayEquals(nulls, column.getNullMap(0, NUM_ROWS));
+        Assert.assertEquals(Integer.valueOf(3), column.getIntColumn(1, 2)[0]);
+        Assert.assertNull(column.getIntColumn(7, 8)[0]);
+        column.close();
+
+        VectorColumn notNullColumn = VectorColumn.createWritableColumn(
+                new ColumnType("d", ColumnType.Type.DOUBLE), NUM_ROWS);
+        notNullColumn.appendPrimitiveColumn(new double[] {1.5, 2.5}, null);
+        Assert.assertNull(notNullColumn.getNullMap(0, 2));
+        Assert.assertArrayEquals(new double[] {1.5, 2.5}, (double[]) notNullColumn.getPrimitiveColumn(0, 2), 0);
+        notNullColumn.close();
+    }
+
+    @Test
+    public void testGenerateUdfInvoker() throws Exception {
+        Method evaluate = PrimitiveAddUdf.class.getMethod("evaluate", int.class, long.class);
+        PrimitiveBatchInvoker invoker = PrimitiveBatchInvokerGenerator.generate(PrimitiveAddUdf.class, evaluate);
+        Assert.assertNotNull(invoker);
+
+        int[] a = {1, 2, 3};
+        long[] b = {10L, 20L, 30L};
+        long[] result = new long[3];
+        invoker.invoke(new PrimitiveAddUdf(), null, new Object[] {a, b}, new boolean[] {false, true, false}, result,
+                3);
+        Assert.assertArrayEquals(new long[] {11L, 0L, 33L}, result);
+
+        // boxed signature is not supported
+        Method boxed = SimpleAddUdf.class.getMethod("evaluate", Integer.class, int.class);
+        Assert.assertNull(PrimitiveBatchInvokerGenerator.generate(SimpleAddUdf.class, boxed));
+    }
+
+    @Test
+    public void testGenerateUdafInvoker() throws Exception {
+        Method add = PrimitiveSumUdaf.class.getMethod("add", PrimitiveSumUdaf.State.class, int.class);
+        PrimitiveBatchInvoker invoker = PrimitiveBatchInvokerGenerator.generateForAdd(PrimitiveSumUdaf.class, add);
+        Assert.assertNotNull(invoker);
+
+        PrimitiveSumUdaf udaf = new PrimitiveSumUdaf();
+        PrimitiveSumUdaf.State state = udaf.create();
+        invoker.invoke(udaf, state, new Object[] {new int[] {1, 2, 3, 4}}, new boolean[] {false, false, true, false},
+                null, 4);
+        Assert.assertEquals(7L, udaf.getValue(state));
+        invoker.invoke(udaf, state, new Object[] {new int[] {5, 6}}, null, null, 2);
+        Assert.assertEquals(18L, udaf.getValue(state));
+    }
+
+    /**
+     * The row path by reflection with boxed arguments, the generated invoker and the batch method give the same
+     * results.
+     */
+    @Test
+    public void testRowAndBatchPath() throws Exception {
+        PrimitiveAddUdf udf = new PrimitiveAddUdf();
+        MethodAccess methodAccess = MethodAccess.get(PrimitiveAddUdf.class);
+        int evaluateIndex = methodAccess.getIndex("evaluate", int.class, long.class);
+        int batchIndex = methodAccess.getIndex("evaluateBatch", int[].class, long[].class);
+        PrimitiveBatchInvoker invoker = PrimitiveBatchInvokerGenerator.generate(PrimitiveAddUdf.class,
+                PrimitiveAddUdf.class.getMethod("evaluate", int.class, long.class));
+
+        int[] a = new int[NUM_ROWS];
+        long[] b = new long[NUM_ROWS];
+        for (int i = 0; i < NUM_ROWS; ++i) {
+            a[i] = i;
+            b[i] = i * 2L;
+        }
+        long[] rowResult = new long[NUM_ROWS];
+        rowPath(methodAccess, udf, evaluateIndex, a, b, rowResult);
+        long[] invokerResult = new long[NUM_ROWS];
+        invoker.invoke(udf, null, new Object[] {a, b}, null, invokerResult, NUM_ROWS);
+        long[] batchResult = (long[]) methodAccess.invoke(udf, batchIndex, a, b);
+
+        Assert.assertArrayEquals(rowResult, invokerResult);
+        Assert.assertArrayEquals(rowResult, batchResult);
+    }
+
+    /**
+     * A null input of a primitive argument throws NullPointerException on the row path because it can't be
+     * unboxed. The generated invoker doesn't call the UDF for such rows, and the result of these rows is null.
+     */
+    @Test
+    public void testNullInput() throws Exception {
+        DivideUdf udf = new DivideUdf();
+        MethodAccess methodAccess = MethodAccess.get(DivideUdf.class);
+        int evaluateIndex = methodAccess.getIndex("evaluate", int.class);
+        try {
+            methodAccess.invoke(udf, evaluateIndex, new Object[] {null});
+            Assert.fail("null input of primitive argument should fail on the row path");
+        } catch (NullPointerException e) {
+            // expected
+        }
+
+        PrimitiveBatchInvoker invoker = PrimitiveBatchInvokerGenerator.generate(DivideUdf.class,
+                DivideUdf.class.getMethod("evaluate", int.class));
+        // the value of a null row is 0, the UDF would throw ArithmeticException if it was called
+        int[] values = {5, 0, 20};
+        boolean[] nulls = {false, true, false};
+        int[] result = new int[3];
+        invoker.invoke(udf, null, new Object[] {values}, nulls, result, 3);
+        Assert.assertArrayEquals(new int[] {20, 0, 5}, result);
+
+        VectorColumn column = VectorColumn.createWritableColumn(new ColumnType("r", ColumnType.Type.INT), 3);
+        column.appendPrimitiveColumn(result, nulls);
+        Integer[] output = column.getIntColumn(0, 3);
+        Assert.assertEquals(Integer.valueOf(20), output[0]);
+        Assert.assertNull(output[1]);
+        Assert.assertEquals(Integer.valueOf(5), output[2]);
+        column.close();
+    }
+
+    public static class DivideUdf {
+        public int evaluate(int a) {
+            return 100 / a;
+        }
+    }
+
+    private static void rowPath(MethodAccess methodAccess, Object udf, int index, int[] a, long[] b, long[] result) {
+        Object[] parameters = new Object[2];
+        for (int i = 0; i < a.length; ++i) {
+            parameters[0] = a[i];
+            parameters[1] = b[i];
+            result[i] = (Long) methodAccess.invoke(udf, index, parameters);
+        }
+    }
+}
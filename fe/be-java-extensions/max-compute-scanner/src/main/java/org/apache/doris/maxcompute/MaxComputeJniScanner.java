@@ -31,7 +31,16 @@ import com.aliyun.odps.type.TypeInfo;
 import com.aliyun.odps.type.TypeInfoFactory;
 import com.google.common.base.Strings;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -286,10 +295,14 @@ public class MaxComputeJniScanner extends JniScanner {
                 List<FieldVector> fieldVectors = batch.getFieldVectors();
                 int batchRows = 0;
                 for (FieldVector column : fieldVectors) {
-                    columnValue.reset(column);
+                    int columnId = readColumnsToId.get(column.getName());
                     batchRows = column.getValueCount();
+                    if (appendColumnarData(columnId, column, batchRows)) {
+                        continue;
+                    }
+                    columnValue.reset(column);
                     for (int j = 0; j < batchRows; j++) {
-                        appendData(readColumnsToId.get(column.getName()), columnValue);
+                        appendData(columnId, columnValue);
                     }
                 }
                 if (partitionSpec != null) {
@@ -311,4 +324,64 @@ public class MaxComputeJniScanner extends JniScanner {
         }
         return curReadRows;
     }
+
+    /**
+     * Copy the arrow vector in bulk if its memory layout is the same as the doris column,
+     * return false if the type is not supported and the values should be appended one by one.
+     */
+    private boolean appendColumnarData(int columnId, FieldVector column, int rows) {
+        if (rows == 0) {
+            return true;
+        }
+        long validity = column.getNullCount() == 0 ? 0 : column.getValidityBuffer().memoryAddress();
+        switch (types[columnId].getType()) {
+            case BOOLEAN:
+                if (column instanceof BitVector) {
+                    appendBooleanBitmap(columnId, column.getDataBuffer().memoryAddress(), validity, rows);
+                    return true;
+                }
+                return false;
+            case TINYINT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+                if (isSameNumericType(types[columnId].getType(), column)) {
+                    appendFixedLengthData(columnId, column.getDataBuffer().memoryAddress(), validity, rows);
+                    return true;
+                }
+                return false;
+            case CHAR:
+            case VARCHAR:
+            case STRING:
+                if (column instanceof VarCharVector || column instanceof VarBinaryVector) {
+                    appendBinaryData(columnId, column.getOffsetBuffer().memoryAddress(),
+                            column.getDataBuffer().memoryAddress(), validity, rows);
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSameNumericType(ColumnType.Type type, FieldVector column) {
+        switch (type) {
+            case TINYINT:
+                return column instanceof TinyIntVector;
+            case SMALLINT:
+                return column instanceof SmallIntVector;
+            case INT:
+                return column instanceof IntVector;
+            case BIGINT:
+                return column instanceof BigIntVector;
+            case FLOAT:
+                return column instanceof Float4Vector;
+            case DOUBLE:
+                return column instanceof Float8Vector;
+            default:
+                return false;
+        }
+    }
 }
@@ -397,6 +397,13 @@ public class Config extends ConfigBase {
     @ConfField(description = {"MySQL 服务的最大任务线程数", "The max number of task threads in MySQL service"})
     public static int max_mysql_service_task_threads_num = 4096;
 
+    @ConfField(description = {"是否使用虚拟线程处理 MySQL 连接上的请求，仅在 FE 运行于 JDK 21 及以上版本时生效。"
+            + "开启后 max_mysql_service_task_threads_num 不再生效",
+            "Whether to process requests of MySQL connections in virtual threads. "
+                    + "Only takes effect when FE runs on JDK 21 or later. "
+                    + "If enabled, max_mysql_service_task_threads_num will not take effect"})
+    public static boolean mysql_service_use_virtual_threads = false;
+
     @ConfField(description = {"BackendServiceProxy数量, 用于池化GRPC channel",
             "BackendServiceProxy pool size for pooling GRPC channels."})
     public static int backend_proxy_num = 48;
@@ -1737,6 +1744,38 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = false)
     public static int max_query_profile_num = 100;
 
+    /**
+     * Max memory size in bytes of query profiles kept in FE.
+     * The least recently used profiles are evicted when exceeded, and spilled to disk
+     * if enable_profile_spill is true.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static long max_query_profile_memory_bytes = 256 * 1024 * 1024L;
+
+    /**
+     * Set to true to spill evicted query profiles to local disk, so that they can still be fetched by query id.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static boolean enable_profile_spill = false;
+
+    /**
+     * The directory to save spilled query profiles.
+     */
+    @ConfField
+    public static String spilled_profile_dir = System.getenv("DORIS_HOME") + "/log/profile";
+
+    /**
+     * Max disk size in bytes of spilled query profiles. The oldest segments are deleted when exceeded.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static long max_spilled_profile_bytes = 4 * 1024 * 1024 * 1024L;
+
+    /**
+     * The size in bytes of one spilled profile segment file.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static long spilled_profile_segment_bytes = 64 * 1024 * 1024L;
+
     /**
      * Set to true to disable backend black list, so that even if we failed to send task to a backend,
      * that backend won't be added to black list.
@@ -2288,4 +2327,75 @@ public class Config extends ConfigBase {
                     + "If it is less than this value, it will be diagnosed as balanced."
     })
     public static double diagnose_balance_max_tablet_num_ratio = 1.1;
+
+    @ConfField(description = {"FE 缓存的 BE 常量折叠结果的最大数量，0 表示不缓存。",
+            "The max number of constant folding results from BE cached in FE, 0 means disable the cache."})
+    public static long be_fold_constant_cache_size = 10000;
+
+    @ConfField(description = {"Nereids 解析树缓存的最大语句数，按语句原文缓存，0 表示不缓存。",
+            "The max number of statements in the parse tree cache of Nereids parser, which is keyed by the "
+                    + "statement text. 0 means disable the cache."})
+    public static long nereids_parse_tree_cache_size = 1000;
+
+    @ConfField(description = {"超过该长度的语句不放入 Nereids 解析树缓存。",
+            "The statements longer than this are not put into the parse tree cache of Nereids parser."})
+    public static int nereids_parse_tree_cache_max_sql_length = 1024;
+
+    @ConfField(description = {"FE 启动时是否用常见语句预热 Nereids 解析器的 ANTLR DFA 缓存。",
+            "Whether to warm up the ANTLR DFA cache of Nereids parser with common statements when FE starts."})
+    public static boolean enable_nereids_parser_warm_up = true;
+
+    @ConfField(description = {"FE 缓存的 group commit 导入计划的最大数量，按表、导入列和会话变量缓存，0 表示不缓存。",
+            "The max number of group commit load plans cached in FE, which are keyed by the table, "
+                    + "the target columns and the session variables. 0 means disable the cache."})
+    public static long group_commit_plan_cache_size = 1024;
+
+    @ConfField(mutable = true, description = {"FE 合并并发 group commit insert 的最长等待时间，同一张表的 insert "
+            + "在该时间内合并为一次请求发送给 BE，0 表示不合并。",
+            "The max wait time of FE to coalesce the concurrent group commit inserts. The inserts into the same "
+                    + "table in this time are sent to BE in one request. 0 means disable the coalescing."})
+    public static long group_commit_insert_coalesce_interval_ms = 0;
+
+    @ConfField(mutable = true, description = {"FE 合并 group commit insert 时，一次请求的最大行数，达到后立即发送。",
+            "The max number of rows in one request when FE coalesces the group commit inserts. "
+                    + "The request is sent immediately when it is reached."})
+    public static int group_commit_insert_coalesce_max_rows = 4096;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"是否开启 routine load 自适应调度。开启后异步刷新 Kafka "
+            + "分区的最新 offset，对没有新数据的任务逐步退避调度，并按积压量放大任务的批大小。",
+            "Whether to enable the adaptive scheduling of routine load. If enabled, the latest offsets of kafka "
+                    + "partitions are refreshed asynchronously, the idle tasks are scheduled with back-off, "
+                    + "and the batch size of the task is scaled by the lag."})
+    public static boolean enable_routine_load_adaptive_schedule = false;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"routine load 自适应调度时，任务批大小相对于作业"
+            + " max_batch_rows 和 max_batch_size 的最大放大倍数。",
+            "The max scale of the batch size of a routine load task relative to max_batch_rows and "
+                    + "max_batch_size of the job in adaptive scheduling."})
+    public static int routine_load_max_batch_scale = 4;
+
+    @ConfField(mutable = true, description = {"LOAD DATA LOCAL INFILE 是否将客户端发送的数据包直接流式写入 stream load 请求，"
+            + "而不经过线程池和中间缓冲区。",
+            "Whether to stream the packets sent by the client of LOAD DATA LOCAL INFILE to the stream load request "
+                    + "directly, without the thread pool and the intermediate buffers."})
+    public static boolean enable_mysql_load_streaming = true;
+
+    @ConfField(mutable = true, description = {
+            "是否根据 BE 心跳上报的导入负载和表的副本分布选择 Stream Load 重定向的 BE",
+            "Whether to choose the backend for stream load redirection by the load statistics reported "
+                    + "in BE heartbeat and the replica locality of the target table"})
+    public static boolean enable_load_aware_stream_load_redirect = false;
+
+    @ConfField(mutable = true, masterOnly = true, description = {
+            "Broker Load 是否逐表提交导入任务。开启后，一张表的文件列举完成后就立即创建并提交该表的导入任务，"
+                    + "同时继续列举其他表的文件。同一张表的文件仍由一个导入任务导入",
+            "Whether broker load submits its loading tasks table by table. If enabled, the loading task of a table "
+                    + "is created and submitted as soon as all files of the table are listed, while the files of "
+                    + "other tables are still being listed. The files of one table are still loaded by one task"})
+    public static boolean enable_broker_load_submit_task_per_table = false;
+
+    @ConfField(mutable = true, description = {
+            "一次 get binlog 请求最多返回的 binlog 数量",
+            "The max number of binlogs returned by one get binlog request"})
+    public static int max_get_binlog_batch_num = 100;
 }
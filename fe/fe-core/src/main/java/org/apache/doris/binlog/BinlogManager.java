@@ -326,6 +326,24 @@ public class BinlogManager {
         }
     }
 
+    // get binlogs by dbId, return at most limit binlogs whose commitSeq > prevCommitSeq
+    public Pair<TStatus, List<TBinlog>> getBinlogs(long dbId, long tableId, long prevCommitSeq, int limit) {
+        TStatus status = new TStatus(TStatusCode.OK);
+        lock.readLock().lock();
+        try {
+            DBBinlog dbBinlog = dbBinlogMap.get(dbId);
+            if (dbBinlog == null) {
+                status.setStatusCode(TStatusCode.BINLOG_NOT_FOUND_DB);
+                LOG.warn("dbBinlog not found. dbId: {}", dbId);
+                return Pair.of(status, null);
+            }
+
+            return dbBinlog.getBinlogs(tableId, prevCommitSeq, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     // get binlog by dbId, return first binlog.version > version
     public Pair<TStatus, Long> getBinlogLag(long dbId, long tableId, long prevCommitSeq) {
         TStatus status = new TStatus(TStatusCode.OK);
@@ -23,10 +23,12 @@ import org.apache.doris.thrift.TBinlogType;
 import org.apache.doris.thrift.TStatus;
 import org.apache.doris.thrift.TStatusCode;
 
-import java.util.TreeSet;
+import com.google.common.collect.Lists;
+
+import java.util.List;
 
 public class BinlogUtils {
-    public static Pair<TStatus, TBinlog> getBinlog(TreeSet<TBinlog> binlogs, long prevCommitSeq) {
+    public static Pair<TStatus, TBinlog> getBinlog(SegmentedBinlogs binlogs, long prevCommitSeq) {
         TStatus status = new TStatus(TStatusCode.OK);
         TBinlog firstBinlog = binlogs.first();
 
@@ -37,9 +39,7 @@ public class BinlogUtils {
         }
 
         // find first binlog whose commitSeq > commitSeq
-        TBinlog guard = new TBinlog();
-        guard.setCommitSeq(prevCommitSeq);
-        TBinlog binlog = binlogs.higher(guard);
+        TBinlog binlog = binlogs.higher(prevCommitSeq);
 
         // all commitSeq <= prevCommitSeq
         if (binlog == null) {
@@ -50,25 +50,34 @@ public class BinlogUtils {
         }
     }
 
-    public static Pair<TStatus, Long> getBinlogLag(TreeSet<TBinlog> binlogs, long prevCommitSeq) {
+    // same as getBinlog, but return at most limit binlogs whose commitSeq > prevCommitSeq
+    public static Pair<TStatus, List<TBinlog>> getBinlogs(SegmentedBinlogs binlogs, long prevCommitSeq, int limit) {
         TStatus status = new TStatus(TStatusCode.OK);
         TBinlog firstBinlog = binlogs.first();
 
         if (firstBinlog.getCommitSeq() > prevCommitSeq) {
-            return Pair.of(status, Long.valueOf(binlogs.size()));
+            status.setStatusCode(TStatusCode.BINLOG_TOO_OLD_COMMIT_SEQ);
+            return Pair.of(status, Lists.newArrayList(firstBinlog));
         }
 
-        // find first binlog whose commitSeq > commitSeq
-        TBinlog guard = new TBinlog();
-        guard.setCommitSeq(prevCommitSeq);
-        TBinlog binlog = binlogs.higher(guard);
+        List<TBinlog> result = binlogs.tail(prevCommitSeq, limit);
+        if (result.isEmpty()) {
+            status.setStatusCode(TStatusCode.BINLOG_TOO_NEW_COMMIT_SEQ);
+            return Pair.of(status, null);
+        }
+        return Pair.of(status, result);
+    }
 
-        // all prevCommitSeq <= commitSeq
-        if (binlog == null) {
-            return Pair.of(status, 0L);
-        } else {
-            return Pair.of(status, Long.valueOf(binlogs.tailSet(binlog).size()));
+    public static Pair<TStatus, Long> getBinlogLag(SegmentedBinlogs binlogs, long prevCommitSeq) {
+        TStatus status = new TStatus(TStatusCode.OK);
+        TBinlog firstBinlog = binlogs.first();
+
+        if (firstBinlog.getCommitSeq() > prevCommitSeq) {
+            return Pair.of(status, Long.valueOf(binlogs.size()));
         }
+
+        // count binlogs whose commitSeq > prevCommitSeq
+        return Pair.of(status, binlogs.countAfter(prevCommitSeq));
     }
 
     public static TBinlog newDummyBinlog(long dbId, long tableId) {
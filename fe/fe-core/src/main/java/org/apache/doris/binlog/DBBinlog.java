@@ -26,15 +26,14 @@ import org.apache.doris.thrift.TStatusCode;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Comparator;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class DBBinlog {
@@ -44,13 +43,13 @@ public class DBBinlog {
     // guard for allBinlogs && tableBinlogMap
     private ReentrantReadWriteLock lock;
     // all binlogs contain table binlogs && create table binlog etc ...
-    private TreeSet<TBinlog> allBinlogs;
+    private SegmentedBinlogs allBinlogs;
     // table binlogs
     private Map<Long, TableBinlog> tableBinlogMap;
 
     // Pair(commitSeq, timestamp), used for gc
     // need UpsertRecord to add timestamps for gc
-    private List<Pair<Long, Long>> timestamps;
+    private Deque<Pair<Long, Long>> timestamps;
 
     private List<TBinlog> tableDummyBinlogs;
 
@@ -61,11 +60,9 @@ public class DBBinlog {
         this.dbId = binlog.getDbId();
         this.binlogConfigCache = binlogConfigCache;
 
-        // allBinlogs treeset order by commitSeq
-        allBinlogs = Sets.newTreeSet(Comparator.comparingLong(TBinlog::getCommitSeq));
         tableDummyBinlogs = Lists.newArrayList();
         tableBinlogMap = Maps.newHashMap();
-        timestamps = Lists.newArrayList();
+        timestamps = new ArrayDeque<>();
 
         TBinlog dummy;
         if (binlog.getType() == TBinlogType.DUMMY) {
@@ -73,7 +70,8 @@ public class DBBinlog {
         } else {
             dummy = BinlogUtils.newDummyBinlog(dbId, -1);
         }
-        allBinlogs.add(dummy);
+        // allBinlogs order by commitSeq
+        allBinlogs = new SegmentedBinlogs(dummy);
     }
 
     public static DBBinlog recoverDbBinlog(BinlogConfigCache binlogConfigCache, TBinlog dbDummy,
@@ -194,6 +192,26 @@ public class DBBinlog {
         }
     }
 
+    public Pair<TStatus, List<TBinlog>> getBinlogs(long tableId, long prevCommitSeq, int limit) {
+        TStatus status = new TStatus(TStatusCode.OK);
+        lock.readLock().lock();
+        try {
+            if (tableId >= 0) {
+                TableBinlog tableBinlog = tableBinlogMap.get(tableId);
+                if (tableBinlog == null) {
+                    LOG.warn("table binlog not found. tableId: {}", tableId);
+                    status.setStatusCode(TStatusCode.BINLOG_NOT_FOUND_TABLE);
+                    return Pair.of(status, null);
+                }
+                return tableBinlog.getBinlogs(prevCommitSeq, limit);
+            }
+
+            return BinlogUtils.getBinlogs(allBinlogs, prevCommitSeq, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     public Pair<TStatus, Long> getBinlogLag(long tableId, long prevCommitSeq) {
         TStatus status = new TStatus(TStatusCode.OK);
         lock.readLock().lock();
@@ -324,29 +342,12 @@ public class DBBinlog {
         long expiredCommitSeq = -1;
         lock.writeLock().lock();
         try {
-            Iterator<Pair<Long, Long>> timeIter = timestamps.iterator();
-            while (timeIter.hasNext()) {
-                Pair<Long, Long> pair = timeIter.next();
-                if (pair.second <= expiredMs) {
-                    expiredCommitSeq = pair.first;
-                    timeIter.remove();
-                } else {
-                    break;
-                }
+            while (!timestamps.isEmpty() && timestamps.peekFirst().second <= expiredMs) {
+                expiredCommitSeq = timestamps.pollFirst().first;
             }
 
-            Iterator<TBinlog> binlogIter = allBinlogs.iterator();
-            TBinlog dummy = binlogIter.next();
-            dummy.setCommitSeq(expiredCommitSeq);
-
-            while (binlogIter.hasNext()) {
-                TBinlog binlog = binlogIter.next();
-                if (binlog.getCommitSeq() <= expiredCommitSeq) {
-                    binlogIter.remove();
-                } else {
-                    break;
-                }
-            }
+            allBinlogs.first().setCommitSeq(expiredCommitSeq);
+            allBinlogs.removeUpTo(expiredCommitSeq);
         } finally {
             lock.writeLock().unlock();
         }
@@ -382,28 +383,12 @@ public class DBBinlog {
 
         lock.writeLock().lock();
         try {
-            Iterator<Pair<Long, Long>> timeIter = timestamps.iterator();
-            while (timeIter.hasNext()) {
-                long commitSeq = timeIter.next().first;
-                if (commitSeq <= largestExpiredCommitSeq) {
-                    timeIter.remove();
-                } else {
-                    break;
-                }
+            while (!timestamps.isEmpty() && timestamps.peekFirst().first <= largestExpiredCommitSeq) {
+                timestamps.pollFirst();
             }
 
-            Iterator<TBinlog> binlogIter = allBinlogs.iterator();
-            TBinlog dummy = binlogIter.next();
-            dummy.setCommitSeq(largestExpiredCommitSeq);
-
-            while (binlogIter.hasNext()) {
-                TBinlog binlog = binlogIter.next();
-                if (binlog.getCommitSeq() <= largestExpiredCommitSeq) {
-                    binlogIter.remove();
-                } else {
-                    break;
-                }
-            }
+            allBinlogs.first().setCommitSeq(largestExpiredCommitSeq);
+            allBinlogs.removeUpTo(largestExpiredCommitSeq);
         } finally {
             lock.writeLock().unlock();
         }
@@ -0,0 +1,340 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.binlog;
+
+import org.apache.doris.thrift.TBinlog;
+
+import com.google.common.collect.Lists;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Binlogs of a db or a table in commit seq order.
+ *
+ * Binlogs are appended to segments of at most SEGMENT_SIZE binlogs, indexed by the commit seq
+ * of their first binlog, instead of one TreeSet node per binlog. Each segment records the largest
+ * timestamp of its binlogs, so gc drops whole expired segments without checking every binlog,
+ * and a batch of binlogs after a commit seq can be read with one lookup.
+ *
+ * The first element is always the dummy binlog, whose commit seq is the largest expired commit seq.
+ * Not thread safe, guarded by the lock of the owner.
+ */
+public class SegmentedBinlogs extends AbstractCollection<TBinlog> {
+    public static final int SEGMENT_SIZE = 1024;
+
+    private static class Segment {
+        // binlogs before start have been removed from the head of this segment
+        private final ArrayList<TBinlog> binlogs = Lists.newArrayListWithCapacity(SEGMENT_SIZE);
+        private int start = 0;
+        private long maxTimestamp = Long.MIN_VALUE;
+
+        private int size() {
+            return binlogs.size() - start;
+        }
+
+        private TBinlog first() {
+            return binlogs.get(start);
+        }
+
+        private TBinlog last() {
+            return binlogs.get(binlogs.size() - 1);
+        }
+
+        private void add(int index, TBinlog binlog) {
+            binlogs.add(index, binlog);
+            maxTimestamp = Math.max(maxTimestamp, binlog.getTimestamp());
+        }
+
+        // index of the first binlog whose commit seq > commitSeq (or >= commitSeq if inclusive)
+        private int upperBound(long commitSeq, boolean inclusive) {
+            int low = start;
+            int high = binlogs.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long midSeq = binlogs.get(mid).getCommitSeq();
+                if (midSeq < commitSeq || (!inclusive && midSeq == commitSeq)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // remove binlogs in [start, end) from the head of this segment
+        private void removeHead(int end, List<TBinlog> removed) {
+            for (int i = start; i < end; ++i) {
+                removed.add(binlogs.get(i));
+                binlogs.set(i, null);
+            }
+            start = end;
+        }
+    }
+
+    private final TBinlog dummy;
+    // commit seq of the first binlog -> segment, no segment is empty
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    // number of binlogs in segments
+    private int binlogNum = 0;
+
+    public SegmentedBinlogs(TBinlog dummy) {
+        this.dummy = dummy;
+    }
+
+    public TBinlog first() {
+        return dummy;
+    }
+
+    @Override
+    public int size() {
+        return binlogNum + 1;
+    }
+
+    public int getSegmentNum() {
+        return segments.size();
+    }
+
+    @Override
+    public boolean add(TBinlog binlog) {
+        long commitSeq = binlog.getCommitSeq();
+        if (commitSeq == dummy.getCommitSeq()) {
+            return false;
+        }
+
+        Map.Entry<Long, Segment> tail = segments.lastEntry();
+        if (tail == null || commitSeq > tail.getValue().last().getCommitSeq()) {
+            // append, the common case
+            Segment segment;
+            if (tail == null || tail.getValue().binlogs.size() >= SEGMENT_SIZE) {
+                segment = new Segment();
+                segments.put(commitSeq, segment);
+            } else {
+                segment = tail.getValue();
+            }
+            segment.add(segment.binlogs.size(), binlog);
+        } else {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(commitSeq);
+            if (entry == null) {
+                entry = segments.firstEntry();
+            }
+            Segment segment = entry.getValue();
+            int index = segment.upperBound(commitSeq, true);
+            if (index < segment.binlogs.size() && segment.binlogs.get(index).getCommitSeq() == commitSeq) {
+                return false;
+            }
+            segment.add(index, binlog);
+            if (entry.getKey() > commitSeq) {
+                segments.remove(entry.getKey());
+                segments.put(commitSeq, segment);
+            }
+        }
+        ++binlogNum;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof TBinlog)) {
+            return false;
+        }
+        TBinlog binlog = (TBinlog) o;
+        if (binlog == dummy) {
+            return true;
+        }
+        Map.Entry<Long, Segment> entry = segments.floorEntry(binlog.getCommitSeq());
+        if (entry == null) {
+            return false;
+        }
+        Segment segment = entry.getValue();
+        int index = segment.upperBound(binlog.getCommitSeq(), true);
+        return index < segment.binlogs.size() && segment.binlogs.get(index).equals(binlog);
+    }
+
+    /**
+     * Return the first binlog whose commit seq > commitSeq, or null if there is none.
+     */
+    public TBinlog higher(long commitSeq) {
+        List<TBinlog> binlogs = tail(commitSeq, 1);
+        return binlogs.isEmpty() ? null : binlogs.get(0);
+    }
+
+    /**
+     * Return at most limit binlogs whose commit seq > commitSeq, in commit seq order.
+     */
+    public List<TBinlog> tail(long commitSeq, int limit) {
+        List<TBinlog> result = Lists.newArrayList();
+        Map.Entry<Long, Segment> floor = segments.floorEntry(commitSeq);
+        if (floor != null) {
+            Segment segment = floor.getValue();
+            int from = segment.upperBound(commitSeq, false);
+            int end = Math.min(segment.binlogs.size(), from + limit);
+            result.addAll(segment.binlogs.subList(from, end));
+        }
+        for (Segment segment : segments.tailMap(commitSeq, false).values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            int end = Math.min(segment.binlogs.size(), segment.start + limit - result.size());
+            result.addAll(segment.binlogs.subList(segment.start, end));
+        }
+        return result;
+    }
+
+    /**
+     * Return the number of binlogs whose commit seq > commitSeq.
+     */
+    public long countAfter(long commitSeq) {
+        long count = 0;
+        Map.Entry<Long, Segment> floor = segments.floorEntry(commitSeq);
+        if (floor != null) {
+            Segment segment = floor.getValue();
+            count += segment.binlogs.size() - segment.upperBound(commitSeq, false);
+        }
+        for (Segment segment : segments.tailMap(commitSeq, false).values()) {
+            count += segment.size();
+        }
+        return count;
+    }
+
+    /**
+     * Remove binlogs whose commit seq <= commitSeq, return the removed binlogs in commit seq order.
+     * The dummy binlog is not removed and not changed.
+     */
+    public List<TBinlog> removeUpTo(long commitSeq) {
+        List<TBinlog> removed = Lists.newArrayList();
+        Iterator<Segment> iter = segments.values().iterator();
+        while (iter.hasNext()) {
+            Segment segment = iter.next();
+            if (segment.last().getCommitSeq() <= commitSeq) {
+                segment.removeHead(segment.binlogs.size(), removed);
+                iter.remove();
+            } else {
+                segment.removeHead(segment.upperBound(commitSeq, false), removed);
+                break;
+            }
+        }
+        binlogNum -= removed.size();
+        return removed;
+    }
+
+    /**
+     * Remove binlogs from the head until the first one whose timestamp > expiredMs,
+     * return the removed binlogs in commit seq order.
+     * The dummy binlog is not removed and not changed.
+     */
+    public List<TBinlog> removeExpired(long expiredMs) {
+        List<TBinlog> removed = Lists.newArrayList();
+        Iterator<Segment> iter = segments.values().iterator();
+        while (iter.hasNext()) {
+            Segment segment = iter.next();
+            if (segment.maxTimestamp <= expiredMs) {
+                segment.removeHead(segment.binlogs.size(), removed);
+                iter.remove();
+                continue;
+            }
+            int end = segment.start;
+            while (end < segment.binlogs.size() && segment.binlogs.get(end).getTimestamp() <= expiredMs) {
+                ++end;
+            }
+            segment.removeHead(end, removed);
+            // maxTimestamp may belong to a binlog already removed by removeUpTo,
+            // so all the remaining binlogs may have expired.
+            if (segment.size() == 0) {
+                iter.remove();
+                continue;
+            }
+            break;
+        }
+        binlogNum -= removed.size();
+        return removed;
+    }
+
+    /**
+     * Iterate the dummy binlog and then all binlogs in commit seq order.
+     * Removing the dummy binlog is not supported.
+     */
+    @Override
+    public Iterator<TBinlog> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<TBinlog> {
+        private boolean dummyReturned = false;
+        private final Iterator<Segment> segmentIter = segments.values().iterator();
+        private Segment segment = null;
+        // index of the next binlog in segment
+        private int index = 0;
+        // index of the last returned binlog in segment, -1 if it can not be removed
+        private int lastIndex = -1;
+
+        @Override
+        public boolean hasNext() {
+            if (!dummyReturned) {
+                return true;
+            }
+            while (segment == null || index >= segment.binlogs.size()) {
+                if (!segmentIter.hasNext()) {
+                    return false;
+                }
+                segment = segmentIter.next();
+                index = segment.start;
+            }
+            return true;
+        }
+
+        @Override
+        public TBinlog next() {
+            if (!dummyReturned) {
+                dummyReturned = true;
+                return dummy;
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = index;
+            return segment.binlogs.get(index++);
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            if (lastIndex == segment.start) {
+                segment.binlogs.set(lastIndex, null);
+                segment.start++;
+            } else {
+                segment.binlogs.remove(lastIndex);
+                --index;
+            }
+            lastIndex = -1;
+            --binlogNum;
+            if (segment.size() == 0) {
+                segmentIter.remove();
+                segment = null;
+            }
+        }
+    }
+}
@@ -23,13 +23,10 @@ import org.apache.doris.thrift.TBinlog;
 import org.apache.doris.thrift.TBinlogType;
 import org.apache.doris.thrift.TStatus;
 
-import com.google.common.collect.Sets;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.TreeSet;
+import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class TableBinlog {
@@ -38,22 +35,20 @@ public class TableBinlog {
     private long dbId;
     private long tableId;
     private ReentrantReadWriteLock lock;
-    private TreeSet<TBinlog> binlogs;
+    private SegmentedBinlogs binlogs;
     private BinlogConfigCache binlogConfigCache;
 
     public TableBinlog(BinlogConfigCache binlogConfigCache, TBinlog binlog, long dbId, long tableId) {
         this.dbId = dbId;
         this.tableId = tableId;
         lock = new ReentrantReadWriteLock();
-        binlogs = Sets.newTreeSet(Comparator.comparingLong(TBinlog::getCommitSeq));
-
         TBinlog dummy;
         if (binlog.getType() == TBinlogType.DUMMY) {
             dummy = binlog;
         } else {
             dummy = BinlogUtils.newDummyBinlog(binlog.getDbId(), tableId);
         }
-        binlogs.add(dummy);
+        binlogs = new SegmentedBinlogs(dummy);
         this.binlogConfigCache = binlogConfigCache;
     }
 
@@ -93,6 +88,15 @@ public class TableBinlog {
         }
     }
 
+    public Pair<TStatus, List<TBinlog>> getBinlogs(long prevCommitSeq, int limit) {
+        lock.readLock().lock();
+        try {
+            return BinlogUtils.getBinlogs(binlogs, prevCommitSeq, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     public Pair<TStatus, Long> getBinlogLag(long prevCommitSeq) {
         lock.readLock().lock();
         try {
@@ -102,34 +106,22 @@ public class TableBinlog {
         }
     }
 
-    private Pair<TBinlog, Long> getLastUpsertAndLargestCommitSeq(long expired, BinlogComparator checker) {
-        if (binlogs.size() <= 1) {
+    // expiredBinlogs are removed from binlogs in commit seq order, update dummy binlog and table_ref by them
+    private Pair<TBinlog, Long> getLastUpsertAndLargestCommitSeq(List<TBinlog> expiredBinlogs) {
+        if (expiredBinlogs.isEmpty()) {
             return null;
         }
 
-        Iterator<TBinlog> iter = binlogs.iterator();
-        TBinlog dummyBinlog = iter.next();
         TBinlog tombstoneUpsert = null;
-        TBinlog lastExpiredBinlog = null;
-        while (iter.hasNext()) {
-            TBinlog binlog = iter.next();
-            if (checker.isExpired(binlog, expired)) {
-                lastExpiredBinlog = binlog;
-                --binlog.table_ref;
-                if (binlog.getType() == TBinlogType.UPSERT) {
-                    tombstoneUpsert = binlog;
-                }
-                iter.remove();
-            } else {
-                break;
+        for (TBinlog binlog : expiredBinlogs) {
+            --binlog.table_ref;
+            if (binlog.getType() == TBinlogType.UPSERT) {
+                tombstoneUpsert = binlog;
             }
         }
 
-        if (lastExpiredBinlog == null) {
-            return null;
-        }
-
-        dummyBinlog.setCommitSeq(lastExpiredBinlog.getCommitSeq());
+        TBinlog lastExpiredBinlog = expiredBinlogs.get(expiredBinlogs.size() - 1);
+        getDummyBinlog().setCommitSeq(lastExpiredBinlog.getCommitSeq());
 
         return Pair.of(tombstoneUpsert, lastExpiredBinlog.getCommitSeq());
     }
@@ -141,8 +133,7 @@ public class TableBinlog {
         // step 1: get tombstoneUpsertBinlog and dummyBinlog
         lock.writeLock().lock();
         try {
-            BinlogComparator check = (binlog, expire) -> binlog.getCommitSeq() <= expire;
-            tombstoneInfo = getLastUpsertAndLargestCommitSeq(expiredCommitSeq, check);
+            tombstoneInfo = getLastUpsertAndLargestCommitSeq(binlogs.removeUpTo(expiredCommitSeq));
         } finally {
             lock.writeLock().unlock();
         }
@@ -184,8 +175,7 @@ public class TableBinlog {
         Pair<TBinlog, Long> tombstoneInfo;
         lock.writeLock().lock();
         try {
-            BinlogComparator check = (binlog, expire) -> binlog.getTimestamp() <= expire;
-            tombstoneInfo = getLastUpsertAndLargestCommitSeq(expiredMs, check);
+            tombstoneInfo = getLastUpsertAndLargestCommitSeq(binlogs.removeExpired(expiredMs));
         } finally {
             lock.writeLock().unlock();
         }
@@ -210,24 +200,13 @@ public class TableBinlog {
     public void replayGc(long largestExpiredCommitSeq) {
         lock.writeLock().lock();
         try {
-            long lastSeq = -1;
-            Iterator<TBinlog> iter = binlogs.iterator();
-            TBinlog dummyBinlog = iter.next();
-
-            while (iter.hasNext()) {
-                TBinlog binlog = iter.next();
-                long commitSeq = binlog.getCommitSeq();
-                if (commitSeq <= largestExpiredCommitSeq) {
-                    lastSeq = commitSeq;
-                    --binlog.table_ref;
-                    iter.remove();
-                } else {
-                    break;
-                }
+            List<TBinlog> expiredBinlogs = binlogs.removeUpTo(largestExpiredCommitSeq);
+            for (TBinlog binlog : expiredBinlogs) {
+                --binlog.table_ref;
             }
 
-            if (lastSeq != -1) {
-                dummyBinlog.setCommitSeq(lastSeq);
+            if (!expiredBinlogs.isEmpty()) {
+                getDummyBinlog().setCommitSeq(expiredBinlogs.get(expiredBinlogs.size() - 1).getCommitSeq());
             }
         } finally {
             lock.writeLock().unlock();
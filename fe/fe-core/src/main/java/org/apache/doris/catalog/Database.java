@@ -397,6 +397,9 @@ public class Database extends MetaObject implements Writable, DatabaseIf<Table>
                 if (table.getType() == TableType.ELASTICSEARCH) {
                     Env.getCurrentEnv().getEsRepository().registerTable((EsTable) table);
                 }
+                if (table instanceof MTMV) {
+                    Env.getCurrentEnv().getMtmvRelationManager().registerMTMV((MTMV) table);
+                }
             }
             return Pair.of(result, isTableExist);
         } finally {
@@ -417,6 +420,9 @@ public class Database extends MetaObject implements Writable, DatabaseIf<Table>
             idToTable.put(table.getId(), table);
             nameToTable.put(table.getName(), table);
             lowerCaseToTableName.put(tableName.toLowerCase(), tableName);
+            if (table instanceof MTMV) {
+                Env.getCurrentEnv().getMtmvRelationManager().registerMTMV((MTMV) table);
+            }
         }
         table.unmarkDropped();
         return result;
@@ -431,6 +437,9 @@ public class Database extends MetaObject implements Writable, DatabaseIf<Table>
             this.nameToTable.remove(tableName);
             this.idToTable.remove(table.getId());
             this.lowerCaseToTableName.remove(tableName.toLowerCase());
+            if (table instanceof MTMV) {
+                Env.getCurrentEnv().getMtmvRelationManager().deregisterMTMV(table.getId());
+            }
             table.markDropped();
         }
     }
@@ -175,6 +175,7 @@ import org.apache.doris.master.MetaHelper;
 import org.apache.doris.master.PartitionInMemoryInfoCollector;
 import org.apache.doris.meta.MetaContext;
 import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.mtmv.MTMVRelationManager;
 import org.apache.doris.mysql.privilege.AccessControllerManager;
 import org.apache.doris.mysql.privilege.Auth;
 import org.apache.doris.mysql.privilege.PrivPredicate;
@@ -479,6 +480,8 @@ public class Env {
 
     private BinlogManager binlogManager;
 
+    private MTMVRelationManager mtmvRelationManager;
+
     private BinlogGcer binlogGcer;
 
     private QueryCancelWorker queryCancelWorker;
@@ -592,6 +595,10 @@ public class Env {
         return binlogManager;
     }
 
+    public MTMVRelationManager getMtmvRelationManager() {
+        return mtmvRelationManager;
+    }
+
     private static class SingletonHolder {
         private static final Env INSTANCE = new Env();
     }
@@ -715,6 +722,7 @@ public class Env {
         this.loadManagerAdapter = new LoadManagerAdapter();
         this.hiveTransactionMgr = new HiveTransactionMgr();
         this.binlogManager = new BinlogManager();
+        this.mtmvRelationManager = new MTMVRelationManager();
         this.binlogGcer = new BinlogGcer();
         this.columnIdFlusher = new ColumnIdFlushDaemon();
         this.queryCancelWorker = new QueryCancelWorker(systemInfo);
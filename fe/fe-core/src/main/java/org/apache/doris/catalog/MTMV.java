@@ -18,15 +18,124 @@
 package org.apache.doris.catalog;
 
 import org.apache.doris.common.io.Text;
+import org.apache.doris.mtmv.BaseTableInfo;
+import org.apache.doris.mtmv.EnvInfo;
+import org.apache.doris.mtmv.MTMVCache;
+import org.apache.doris.mtmv.MTMVRefreshSnapshot;
+import org.apache.doris.persist.gson.GsonUtils;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.annotations.SerializedName;
 
 import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Set;
 
 public class MTMV extends OlapTable {
+    private String querySql;
+    private EnvInfo envInfo;
+    private Set<BaseTableInfo> baseTables = ImmutableSet.of();
+    // the partition versions of base tables when the data of MTMV is refreshed
+    private MTMVRefreshSnapshot refreshSnapshot;
+    // lazily built plan of the definition query, used by query rewrite
+    private volatile MTMVCache cache;
+
+    public String getQuerySql() {
+        return querySql;
+    }
+
+    public EnvInfo getEnvInfo() {
+        return envInfo;
+    }
+
+    public Set<BaseTableInfo> getBaseTables() {
+        return baseTables;
+    }
+
+    public MTMVRefreshSnapshot getRefreshSnapshot() {
+        return refreshSnapshot;
+    }
+
+    /**
+     * set the definition query and the base tables it reads.
+     * The MTMV is registered with its new base tables if it is already registered.
+     */
+    public void setDefinition(String querySql, EnvInfo envInfo, Set<BaseTableInfo> baseTables) {
+        synchronized (this) {
+            this.querySql = querySql;
+            this.envInfo = envInfo;
+            this.baseTables = ImmutableSet.copyOf(baseTables);
+            this.cache = null;
+        }
+        Env.getCurrentEnv().getMtmvRelationManager().refreshMTMV(this);
+    }
+
+    /**
+     * called after the data of MTMV is refreshed, the cached plan is dropped in case the base tables are altered.
+     */
+    public synchronized void setRefreshSnapshot(MTMVRefreshSnapshot refreshSnapshot) {
+        this.refreshSnapshot = refreshSnapshot;
+        this.cache = null;
+    }
+
+    /**
+     * whether the data of MTMV is the same as the result of the definition query on the current base tables.
+     */
+    public boolean isFresh() {
+        MTMVRefreshSnapshot snapshot = refreshSnapshot;
+        return querySql != null && snapshot != null && snapshot.isFresh(baseTables);
+    }
+
+    /**
+     * get the plan of the definition query, build it at the first time.
+     */
+    public MTMVCache getOrCreateCache() {
+        MTMVCache current = cache;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (cache == null) {
+                cache = MTMVCache.from(this);
+            }
+            return cache;
+        }
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        super.write(out);
+        Text.writeString(out, GsonUtils.GSON.toJson(new MTMVInfo(this)));
+    }
 
     @Override
     public void readFields(DataInput in) throws IOException {
         super.readFields(in);
-        Text.readString(in);
+        MTMVInfo info = GsonUtils.GSON.fromJson(Text.readString(in), MTMVInfo.class);
+        if (info != null) {
+            querySql = info.querySql;
+            envInfo = info.envInfo;
+            baseTables = info.baseTables == null ? ImmutableSet.of() : ImmutableSet.copyOf(info.baseTables);
+            refreshSnapshot = info.refreshSnapshot;
+        }
+    }
+
+    private static class MTMVInfo {
+        @SerializedName("qs")
+        private String querySql;
+        @SerializedName("ei")
+        private EnvInfo envInfo;
+        @SerializedName("bt")
+        private Set<BaseTableInfo> baseTables;
+        @SerializedName("rs")
+        private MTMVRefreshSnapshot refreshSnapshot;
+
+        private MTMVInfo(MTMV mtmv) {
+            this.querySql = mtmv.querySql;
+            this.envInfo = mtmv.envInfo;
+            this.baseTables = mtmv.baseTables;
+            this.refreshSnapshot = mtmv.refreshSnapshot;
+        }
     }
 }
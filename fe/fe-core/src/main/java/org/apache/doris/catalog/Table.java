@@ -54,6 +54,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -79,6 +80,12 @@ public abstract class Table extends MetaObject implements Writable, TableIf {
     @SerializedName(value = "createTime")
     protected long createTime;
     protected QueryableReentrantReadWriteLock rwLock;
+    // increased when a writer which may change the meta acquires the write lock and again when it releases
+    // the write lock, so the planner reading meta without lock could find out whether the table is changed
+    // concurrently. Transactions only change the data versions, they lock by the data write lock methods.
+    protected final AtomicLong metaVersion = new AtomicLong(0);
+    // whether the holder of the write lock may change the meta, only accessed with the write lock held
+    private boolean metaWriteLocked = false;
 
     /*
      *  fullSchema and nameToColumn should contains all columns, both visible and shadow.
@@ -176,9 +183,30 @@ public abstract class Table extends MetaObject implements Writable, TableIf {
 
     public void writeLock() {
         this.rwLock.writeLock().lock();
+        beginMetaWrite();
     }
 
     public boolean writeLockIfExist() {
+        if (dataWriteLockIfExist()) {
+            beginMetaWrite();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean tryWriteLock(long timeout, TimeUnit unit) {
+        if (tryDataWriteLock(timeout, unit)) {
+            beginMetaWrite();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Acquire the write lock for a transaction, which only changes the data versions of partitions and replicas,
+     * so the meta version is not changed.
+     */
+    public boolean dataWriteLockIfExist() {
         this.rwLock.writeLock().lock();
         if (isDropped) {
             this.rwLock.writeLock().unlock();
@@ -187,7 +215,11 @@ public abstract class Table extends MetaObject implements Writable, TableIf {
         return true;
     }
 
-    public boolean tryWriteLock(long timeout, TimeUnit unit) {
+    /**
+     * Try to acquire the write lock for a transaction, which only changes the data versions of partitions and
+     * replicas, so the meta version is not changed.
+     */
+    public boolean tryDataWriteLock(long timeout, TimeUnit unit) {
         try {
             boolean res = this.rwLock.writeLock().tryLock(timeout, unit);
             if (!res && unit.toSeconds(timeout) >= 1) {
@@ -201,7 +233,38 @@ public abstract class Table extends MetaObject implements Writable, TableIf {
         }
     }
 
+    public void dataWriteLockOrMetaException() throws MetaNotFoundException {
+        this.rwLock.writeLock().lock();
+        if (isDropped) {
+            this.rwLock.writeLock().unlock();
+            throw new MetaNotFoundException("unknown table, tableName=" + name);
+        }
+    }
+
+    public boolean tryDataWriteLockOrMetaException(long timeout, TimeUnit unit) throws MetaNotFoundException {
+        if (tryDataWriteLock(timeout, unit)) {
+            if (isDropped) {
+                this.rwLock.writeLock().unlock();
+                throw new MetaNotFoundException("unknown table, tableName=" + name);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void beginMetaWrite() {
+        if (!metaWriteLocked) {
+            metaWriteLocked = true;
+            metaVersion.incrementAndGet();
+        }
+    }
+
     public void writeUnlock() {
+        // the outermost unlock ends the meta change
+        if (metaWriteLocked && this.rwLock.getWriteHoldCount() == 1) {
+            metaWriteLocked = false;
+            metaVersion.incrementAndGet();
+        }
         this.rwLock.writeLock().unlock();
     }
 
@@ -209,6 +272,26 @@ public abstract class Table extends MetaObject implements Writable, TableIf {
         return this.rwLock.writeLock().isHeldByCurrentThread();
     }
 
+    public boolean isWriteLocked() {
+        return this.rwLock.isWriteLocked();
+    }
+
+    /**
+     * The version is odd while some writer which may change the meta holds the write lock. If the version is even
+     * and is the same before and after reading some meta without lock, the meta read is consistent,
+     * see isMetaVersionValid().
+     */
+    public long getMetaVersion() {
+        return metaVersion.get();
+    }
+
+    /**
+     * Whether the meta read without lock since the version was got is consistent.
+     */
+    public boolean isMetaVersionValid(long version) {
+        return (version & 1) == 0 && metaVersion.get() == version;
+    }
+
     public <E extends Exception> void writeLockOrException(E e) throws E {
         writeLock();
         if (isDropped) {
@@ -73,6 +73,19 @@ public interface TableIf {
 
     boolean tryWriteLockIfExist(long timeout, TimeUnit unit);
 
+    // lock for transactions which only change the data versions, see Table.getMetaVersion()
+    default boolean dataWriteLockIfExist() {
+        return writeLockIfExist();
+    }
+
+    default void dataWriteLockOrMetaException() throws MetaNotFoundException {
+        writeLockOrMetaException();
+    }
+
+    default boolean tryDataWriteLockOrMetaException(long timeout, TimeUnit unit) throws MetaNotFoundException {
+        return tryWriteLockOrMetaException(timeout, unit);
+    }
+
     long getId();
 
     String getName();
@@ -29,10 +29,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.reflect.Method;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -59,6 +62,8 @@ import java.util.function.Supplier;
  *    Wrapper over ThreadPoolExecutor, user can use it to construct thread pool more flexibly.
  * 4. newDaemonScheduledThreadPool
  *    Wrapper over ScheduledThreadPoolExecutor, but without delay task num limit and thread num limit now(NOTICE).
+ * 5. newVirtualThreadPerTaskExecutor
+ *    Start a new virtual thread for each task, only available when FE runs on JDK 21 or later.
  *
  *  All thread pool constructed by ThreadPoolManager will be added to the nameToThreadPoolMap,
  *  so the thread pool name in fe must be unique.
@@ -68,6 +73,7 @@ import java.util.function.Supplier;
  */
 
 public class ThreadPoolManager {
+    private static final Logger LOG = LogManager.getLogger(ThreadPoolManager.class);
 
     private static Map<String, ThreadPoolExecutor> nameToThreadPoolMap = Maps.newConcurrentMap();
 
@@ -208,6 +214,45 @@ public class ThreadPoolManager {
         return scheduledThreadPoolExecutor;
     }
 
+    /**
+     * Whether the running JVM supports virtual threads (JDK 21+).
+     * FE is compiled with source level 8, so the virtual thread api is only accessed by reflection.
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Create an executor which starts a new virtual thread for each task.
+     * Virtual threads are named as poolName-ID and are always daemon threads.
+     * Return null if the running JVM does not support virtual threads, caller should fall back to
+     * a platform thread pool.
+     * NOTICE: the returned executor has no thread num limit, and it can not be registered to metrics
+     * because it is not a ThreadPoolExecutor.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String poolName) {
+        if (!isVirtualThreadSupported()) {
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+            builder = nameMethod.invoke(builder, poolName + "-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newExecutor.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            LOG.warn("failed to create virtual thread executor {}", poolName, e);
+            return null;
+        }
+    }
+
     /**
      * Create a thread factory that names threads with a prefix and also sets the threads to daemon.
      */
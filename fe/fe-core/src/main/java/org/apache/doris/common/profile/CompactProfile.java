@@ -0,0 +1,450 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.profile;
+
+import org.apache.doris.common.util.Counter;
+import org.apache.doris.common.util.RuntimeProfile;
+import org.apache.doris.thrift.TCounter;
+import org.apache.doris.thrift.TRuntimeProfileNode;
+import org.apache.doris.thrift.TRuntimeProfileTree;
+import org.apache.doris.thrift.TUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CompactProfile keeps the fragment profiles of one execution in aggregated form.
+ * Instead of keeping a RuntimeProfile tree for every fragment instance, the final report of each
+ * instance is merged into per profile node counters (min/max/sum and estimated percentiles) as soon
+ * as it arrives. Profile nodes of different instances are matched by their name path, which contains
+ * the plan node id, eg: "VOLAP_SCAN_NODE (id=0)".
+ *
+ * After seal() is called, the aggregated counters are serialized into a compressed byte array
+ * and the in-memory structures are released. The RuntimeProfile tree is only built when someone
+ * views the profile.
+ */
+public class CompactProfile {
+    private static final Logger LOG = LogManager.getLogger(CompactProfile.class);
+
+    // counter values are bucketed by their highest one bit, bucket 0 is for values <= 0
+    private static final int HISTOGRAM_BUCKET_NUM = 64;
+
+    // fragment idx -> (name path -> node), nodes are kept in pre-order of the first report
+    private List<Map<String, NodeStats>> fragmentNodes;
+    private int[] fragmentInstanceNums;
+    private byte[] serialized;
+
+    public CompactProfile(int fragmentNum) {
+        fragmentNodes = Lists.newArrayListWithCapacity(fragmentNum);
+        for (int i = 0; i < fragmentNum; i++) {
+            fragmentNodes.add(Maps.newLinkedHashMap());
+        }
+        fragmentInstanceNums = new int[fragmentNum];
+    }
+
+    private CompactProfile() {
+    }
+
+    public static class CounterStats {
+        private final String parent;
+        private final TUnit type;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private long sum = 0;
+        private int count = 0;
+        private final int[] histogram = new int[HISTOGRAM_BUCKET_NUM];
+
+        public CounterStats(String parent, TUnit type) {
+            this.parent = parent;
+            this.type = type;
+        }
+
+        public void add(long value) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+            histogram[bucketOf(value)]++;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public TUnit getType() {
+            return type;
+        }
+
+        // Estimate the percentile by the upper bound of the bucket it falls in.
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * count);
+            long accumulated = 0;
+            for (int i = 0; i < HISTOGRAM_BUCKET_NUM; i++) {
+                accumulated += histogram[i];
+                if (accumulated >= rank) {
+                    long upperBound = i == 0 ? 0 : (i == HISTOGRAM_BUCKET_NUM - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.max(min, Math.min(max, upperBound));
+                }
+            }
+            return max;
+        }
+
+        private static int bucketOf(long value) {
+            if (value <= 0) {
+                return 0;
+            }
+            return Math.min(HISTOGRAM_BUCKET_NUM - 1, 64 - Long.numberOfLeadingZeros(value));
+        }
+    }
+
+    public static class NodeStats {
+        private final String name;
+        private final String parentPath;
+        private final int nodeId;
+        private int instanceNum = 0;
+        private final Map<String, CounterStats> counters = Maps.newLinkedHashMap();
+
+        public NodeStats(String name, String parentPath, int nodeId) {
+            this.name = name;
+            this.parentPath = parentPath;
+            this.nodeId = nodeId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getInstanceNum() {
+            return instanceNum;
+        }
+
+        public Map<String, CounterStats> getCounters() {
+            return counters;
+        }
+    }
+
+    /**
+     * Merge the final profile of one fragment instance.
+     * The caller must make sure that each instance is merged only once,
+     * because the counters in the report are accumulated values.
+     */
+    public synchronized void merge(int fragmentIdx, TRuntimeProfileTree tree) {
+        if (fragmentNodes == null) {
+            LOG.warn("compact profile has been sealed, ignore the late report of fragment {}", fragmentIdx);
+            return;
+        }
+        Preconditions.checkArgument(fragmentIdx < fragmentNodes.size(),
+                fragmentIdx + " vs. " + fragmentNodes.size());
+        if (tree.nodes == null || tree.nodes.isEmpty()) {
+            return;
+        }
+        fragmentInstanceNums[fragmentIdx]++;
+        // The root node is the instance itself, whose name differs between instances.
+        mergeNode(fragmentNodes.get(fragmentIdx), tree.nodes, 0, "", "");
+    }
+
+    // pre-order traversal, return the index of the next node
+    private int mergeNode(Map<String, NodeStats> nodes, List<TRuntimeProfileNode> tnodes, int idx,
+            String parentPath, String path) {
+        TRuntimeProfileNode tnode = tnodes.get(idx);
+        NodeStats stats = nodes.get(path);
+        if (stats == null) {
+            stats = new NodeStats(tnode.name, parentPath, tnode.isSetMetadata() ? (int) tnode.metadata : -1);
+            nodes.put(path, stats);
+        }
+        stats.instanceNum++;
+        if (tnode.counters != null) {
+            Map<String, String> counterParents = Maps.newHashMap();
+            if (tnode.child_counters_map != null) {
+                for (Map.Entry<String, Set<String>> entry : tnode.child_counters_map.entrySet()) {
+                    for (String child : entry.getValue()) {
+                        counterParents.put(child, entry.getKey());
+                    }
+                }
+            }
+            for (TCounter tcounter : tnode.counters) {
+                CounterStats counter = stats.counters.get(tcounter.name);
+                if (counter == null) {
+                    counter = new CounterStats(counterParents.getOrDefault(tcounter.name, RuntimeProfile.ROOT_COUNTER),
+                            tcounter.type);
+                    stats.counters.put(tcounter.name, counter);
+                } else if (counter.type != tcounter.type) {
+                    LOG.warn("Cannot merge counters with the same name but different types, name={}, type={}",
+                            tcounter.name, tcounter.type);
+                    continue;
+                }
+                counter.add(tcounter.value);
+            }
+        }
+        int next = idx + 1;
+        for (int i = 0; i < tnode.num_children; i++) {
+            TRuntimeProfileNode tchild = tnodes.get(next);
+            next = mergeNode(nodes, tnodes, next, path, path + "/" + tchild.name);
+        }
+        return next;
+    }
+
+    /**
+     * Serialize the aggregated counters and release the in-memory structures.
+     * Reports arriving after seal() are ignored.
+     */
+    public synchronized void seal() {
+        if (fragmentNodes == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bos))) {
+                write(out);
+            }
+            serialized = bos.toByteArray();
+            fragmentNodes = null;
+        } catch (IOException e) {
+            // keep the in-memory structures, the profile is still readable
+            LOG.warn("failed to serialize compact profile", e);
+        }
+    }
+
+    public synchronized boolean isSealed() {
+        return fragmentNodes == null;
+    }
+
+    // Return the size of serialized profile in bytes, or -1 if not sealed.
+    public synchronized long getSerializedSize() {
+        return serialized == null ? -1 : serialized.length;
+    }
+
+    // Roughly estimate the heap size in bytes.
+    public synchronized long estimateMemorySize() {
+        if (fragmentNodes == null) {
+            return serialized.length;
+        }
+        long size = 0;
+        for (Map<String, NodeStats> nodes : fragmentNodes) {
+            for (Map.Entry<String, NodeStats> entry : nodes.entrySet()) {
+                size += 128 + entry.getKey().length() * 4L;
+                size += entry.getValue().counters.size() * (96L + HISTOGRAM_BUCKET_NUM * Integer.BYTES);
+            }
+        }
+        return size;
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(fragmentNodes.size());
+        for (int i = 0; i < fragmentNodes.size(); i++) {
+            out.writeInt(fragmentInstanceNums[i]);
+            Map<String, NodeStats> nodes = fragmentNodes.get(i);
+            out.writeInt(nodes.size());
+            for (Map.Entry<String, NodeStats> entry : nodes.entrySet()) {
+                NodeStats node = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeUTF(node.name);
+                out.writeUTF(node.parentPath);
+                out.writeInt(node.nodeId);
+                out.writeInt(node.instanceNum);
+                out.writeInt(node.counters.size());
+                for (Map.Entry<String, CounterStats> counterEntry : node.counters.entrySet()) {
+                    CounterStats counter = counterEntry.getValue();
+                    out.writeUTF(counterEntry.getKey());
+                    out.writeUTF(counter.parent);
+                    out.writeInt(counter.type.getValue());
+                    out.writeLong(counter.min);
+                    out.writeLong(counter.max);
+                    out.writeLong(counter.sum);
+                    out.writeInt(counter.count);
+                    // only write non-empty buckets
+                    int nonEmpty = 0;
+                    for (int bucket : counter.histogram) {
+                        nonEmpty += bucket == 0 ? 0 : 1;
+                    }
+                    out.writeByte(nonEmpty);
+                    for (int b = 0; b < HISTOGRAM_BUCKET_NUM; b++) {
+                        if (counter.histogram[b] != 0) {
+                            out.writeByte(b);
+                            out.writeInt(counter.histogram[b]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static CompactProfile read(byte[] bytes) throws IOException {
+        CompactProfile profile = new CompactProfile();
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+            int fragmentNum = in.readInt();
+            profile.fragmentNodes = Lists.newArrayListWithCapacity(fragmentNum);
+            profile.fragmentInstanceNums = new int[fragmentNum];
+            for (int i = 0; i < fragmentNum; i++) {
+                profile.fragmentInstanceNums[i] = in.readInt();
+                int nodeNum = in.readInt();
+                Map<String, NodeStats> nodes = Maps.newLinkedHashMap();
+                for (int n = 0; n < nodeNum; n++) {
+                    String path = in.readUTF();
+                    NodeStats node = new NodeStats(in.readUTF(), in.readUTF(), in.readInt());
+                    node.instanceNum = in.readInt();
+                    int counterNum = in.readInt();
+                    for (int c = 0; c < counterNum; c++) {
+                        String name = in.readUTF();
+                        CounterStats counter = new CounterStats(in.readUTF(), TUnit.findByValue(in.readInt()));
+                        counter.min = in.readLong();
+                        counter.max = in.readLong();
+                        counter.sum = in.readLong();
+                        counter.count = in.readInt();
+                        int nonEmpty = in.readByte();
+                        for (int b = 0; b < nonEmpty; b++) {
+                            int bucket = in.readByte();
+                            counter.histogram[bucket] = in.readInt();
+                        }
+                        node.counters.put(name, counter);
+                    }
+                    nodes.put(path, node);
+                }
+                profile.fragmentNodes.add(nodes);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Build the "Fragments" profile tree, each fragment has one merged instance child.
+     */
+    public synchronized RuntimeProfile buildFragmentsProfile(Map<Integer, String> planNodeMap) {
+        if (fragmentNodes != null) {
+            return build(planNodeMap);
+        }
+        try {
+            return read(serialized).build(planNodeMap);
+        } catch (IOException e) {
+            LOG.warn("failed to deserialize compact profile", e);
+            RuntimeProfile fragmentsProfile = new RuntimeProfile("Fragments");
+            fragmentsProfile.addInfoString("Error", "failed to read compact profile: " + e.getMessage());
+            return fragmentsProfile;
+        }
+    }
+
+    private RuntimeProfile build(Map<Integer, String> planNodeMap) {
+        RuntimeProfile fragmentsProfile = new RuntimeProfile("Fragments");
+        for (int i = 0; i < fragmentNodes.size(); i++) {
+            RuntimeProfile fragmentProfile = new RuntimeProfile("Fragment " + i);
+            fragmentsProfile.addChild(fragmentProfile);
+            Map<String, RuntimeProfile> pathToProfile = Maps.newHashMap();
+            for (Map.Entry<String, NodeStats> entry : fragmentNodes.get(i).entrySet()) {
+                NodeStats node = entry.getValue();
+                RuntimeProfile nodeProfile;
+                if (entry.getKey().isEmpty()) {
+                    nodeProfile = new RuntimeProfile("Instance" + "(instance_num=" + fragmentInstanceNums[i] + ")",
+                            node.nodeId);
+                    fragmentProfile.addChild(nodeProfile);
+                } else {
+                    RuntimeProfile parent = pathToProfile.get(node.parentPath);
+                    if (parent == null) {
+                        continue;
+                    }
+                    if (node.name.startsWith("PipelineTask") || node.name.startsWith("PipelineContext")) {
+                        // flatten pipeline level nodes, so that operators are attached to the instance
+                        pathToProfile.put(entry.getKey(), parent);
+                        continue;
+                    }
+                    nodeProfile = new RuntimeProfile(node.name, node.nodeId);
+                    parent.addChildWithCheck(nodeProfile, planNodeMap);
+                }
+                if (node.instanceNum != fragmentInstanceNums[i]) {
+                    nodeProfile.addInfoString("InstanceNum", String.valueOf(node.instanceNum));
+                }
+                for (String counterName : node.counters.keySet()) {
+                    addCounter(nodeProfile, node, counterName);
+                }
+                pathToProfile.put(entry.getKey(), nodeProfile);
+            }
+        }
+        return fragmentsProfile;
+    }
+
+    // parent counter must be added before its children
+    private static void addCounter(RuntimeProfile profile, NodeStats node, String counterName) {
+        if (profile.getCounterMap().containsKey(counterName)) {
+            return;
+        }
+        CounterStats stats = node.counters.get(counterName);
+        String parent = stats.parent;
+        if (!parent.equals(RuntimeProfile.ROOT_COUNTER)) {
+            if (node.counters.containsKey(parent)) {
+                addCounter(profile, node, parent);
+            } else {
+                parent = RuntimeProfile.ROOT_COUNTER;
+            }
+        }
+        profile.addCounter(counterName, new PercentileCounter(stats), parent);
+    }
+
+    /**
+     * Print the aggregated values of a counter.
+     * Time counters are printed as avg, max, min and percentiles, others are printed as sum.
+     */
+    public static class PercentileCounter extends Counter {
+        private final CounterStats stats;
+
+        public PercentileCounter(CounterStats stats) {
+            super(stats.type, stats.sum, 1);
+            this.stats = stats;
+        }
+
+        @Override
+        public String print() {
+            if (!isTimeType()) {
+                return RuntimeProfile.printCounter(stats.sum, stats.type);
+            }
+            long avg = stats.count == 0 ? 0 : stats.sum / stats.count;
+            return RuntimeProfile.AVG_TIME_PRE + RuntimeProfile.printCounter(avg, stats.type) + ", "
+                    + RuntimeProfile.MAX_TIME_PRE + RuntimeProfile.printCounter(stats.max, stats.type) + ", "
+                    + RuntimeProfile.MIN_TIME_PRE + RuntimeProfile.printCounter(stats.min, stats.type) + ", "
+                    + "p50 " + RuntimeProfile.printCounter(stats.getPercentile(0.5), stats.type) + ", "
+                    + "p99 " + RuntimeProfile.printCounter(stats.getPercentile(0.99), stats.type);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.doris.common.Status;
 import org.apache.doris.common.util.DebugUtil;
 import org.apache.doris.common.util.RuntimeProfile;
 import org.apache.doris.common.util.TimeUtils;
+import org.apache.doris.thrift.TRuntimeProfileTree;
 import org.apache.doris.thrift.TUniqueId;
 import org.apache.doris.thrift.TUnit;
 
@@ -66,12 +67,19 @@ public class ExecutionProfile {
     // A countdown latch to mark the completion of each instance.
     // instance id -> dummy value
     private MarkedCountDownLatch<TUniqueId, Long> profileDoneSignal;
+    // Only set in compact mode. The final report of each instance is merged into it,
+    // and no instance profile is kept.
+    private CompactProfile compactProfile;
 
     private int waitCount = 0;
 
     private TUniqueId queryId;
 
     public ExecutionProfile(TUniqueId queryId, int fragmentNum) {
+        this(queryId, fragmentNum, false);
+    }
+
+    public ExecutionProfile(TUniqueId queryId, int fragmentNum, boolean isCompact) {
         executionProfile = new RuntimeProfile("Execution Profile " + DebugUtil.printId(queryId));
         RuntimeProfile fragmentsProfile = new RuntimeProfile("Fragments");
         executionProfile.addChild(fragmentsProfile);
@@ -83,9 +91,30 @@ public class ExecutionProfile {
         loadChannelProfile = new RuntimeProfile("LoadChannels");
         executionProfile.addChild(loadChannelProfile);
         this.queryId = queryId;
+        if (isCompact) {
+            compactProfile = new CompactProfile(fragmentNum);
+        }
+    }
+
+    public boolean isCompact() {
+        return compactProfile != null;
+    }
+
+    // Roughly estimate the heap size in bytes, the execution profile tree is included in root profile.
+    public long estimateCompactMemorySize() {
+        return compactProfile == null ? 0 : compactProfile.estimateMemorySize();
+    }
+
+    // Merge the final profile of one instance, only used in compact mode.
+    public void mergeInstanceProfile(int fragmentIdx, TRuntimeProfileTree instanceProfile) {
+        Preconditions.checkState(compactProfile != null);
+        compactProfile.merge(fragmentIdx, instanceProfile);
     }
 
     public RuntimeProfile getAggregatedFragmentsProfile(Map<Integer, String> planNodeMap) {
+        if (compactProfile != null) {
+            return compactProfile.buildFragmentsProfile(planNodeMap);
+        }
         RuntimeProfile fragmentsProfile = new RuntimeProfile("Fragments");
         for (int i = 0; i < fragmentProfiles.size(); ++i) {
             RuntimeProfile oldFragmentProfile = fragmentProfiles.get(i);
@@ -142,6 +171,9 @@ public class ExecutionProfile {
         for (RuntimeProfile fragmentProfile : fragmentProfiles) {
             fragmentProfile.sortChildren();
         }
+        if (isFinished && compactProfile != null) {
+            compactProfile.seal();
+        }
     }
 
     public void onCancel() {
@@ -188,6 +220,10 @@ public class ExecutionProfile {
     }
 
     public void addInstanceProfile(int instanceIdx, RuntimeProfile instanceProfile) {
+        if (compactProfile != null) {
+            // instance profiles are merged into compact profile when reported
+            return;
+        }
         Preconditions.checkArgument(instanceIdx < fragmentProfiles.size(),
                 instanceIdx + " vs. " + fragmentProfiles.size());
         fragmentProfiles.get(instanceIdx).addChild(instanceProfile);
@@ -118,6 +118,15 @@ public class Profile {
         return builder.toString();
     }
 
+    // Roughly estimate the heap size in bytes of this profile.
+    public long estimateMemorySize() {
+        long size = rootProfile.estimateMemorySize();
+        if (executionProfile != null) {
+            size += executionProfile.estimateCompactMemorySize();
+        }
+        return size;
+    }
+
     public String getProfileBrief() {
         Gson gson = new GsonBuilder().setPrettyPrinting().create();
         return gson.toJson(rootProfile.toBrief());
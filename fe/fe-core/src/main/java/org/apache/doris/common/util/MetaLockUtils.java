@@ -106,6 +106,59 @@ public class MetaLockUtils {
         return true;
     }
 
+    /**
+     * Lock tables for a transaction, which only changes the data versions, see Table.getMetaVersion().
+     */
+    public static List<? extends TableIf> dataWriteLockTablesIfExist(List<? extends TableIf> tableList) {
+        List<TableIf> lockedTablesList = Lists.newArrayListWithCapacity(tableList.size());
+        for (TableIf table : tableList) {
+            if (table.dataWriteLockIfExist()) {
+                lockedTablesList.add(table);
+            }
+        }
+        return lockedTablesList;
+    }
+
+    /**
+     * Lock tables for a transaction, which only changes the data versions, see Table.getMetaVersion().
+     */
+    public static void dataWriteLockTablesOrMetaException(List<? extends TableIf> tableList)
+            throws MetaNotFoundException {
+        for (int i = 0; i < tableList.size(); i++) {
+            try {
+                tableList.get(i).dataWriteLockOrMetaException();
+            } catch (MetaNotFoundException e) {
+                for (int j = i - 1; j >= 0; j--) {
+                    tableList.get(j).writeUnlock();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Try to lock tables for a transaction, which only changes the data versions, see Table.getMetaVersion().
+     */
+    public static boolean tryDataWriteLockTablesOrMetaException(List<? extends TableIf> tableList, long timeout,
+            TimeUnit unit) throws MetaNotFoundException {
+        for (int i = 0; i < tableList.size(); i++) {
+            try {
+                if (!tableList.get(i).tryDataWriteLockOrMetaException(timeout, unit)) {
+                    for (int j = i - 1; j >= 0; j--) {
+                        tableList.get(j).writeUnlock();
+                    }
+                    return false;
+                }
+            } catch (MetaNotFoundException e) {
+                for (int j = i - 1; j >= 0; j--) {
+                    tableList.get(j).writeUnlock();
+                }
+                throw e;
+            }
+        }
+        return true;
+    }
+
     public static void writeUnlockTables(List<? extends TableIf> tableList) {
         for (int i = tableList.size() - 1; i >= 0; i--) {
             tableList.get(i).writeUnlock();
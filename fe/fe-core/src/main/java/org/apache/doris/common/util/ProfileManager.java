@@ -21,6 +21,7 @@ import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.AuthenticationException;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.profile.MultiProfileTreeBuilder;
 import org.apache.doris.common.profile.Profile;
 import org.apache.doris.common.profile.ProfileTreeBuilder;
@@ -35,15 +36,16 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Deque;
+import java.io.IOException;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /*
  * if you want to visit the attribute(such as queryID,defaultDb)
@@ -75,6 +77,16 @@ public class ProfileManager {
 
         public StatsErrorEstimator statsErrorEstimator;
 
+        // estimated heap size in bytes
+        private long memorySize = 0;
+        // the order and time of the first push, used to list profiles from new to old
+        private long sequence = 0;
+        private long pushTime = 0;
+        // the position in the eviction clock, advanced when the profile gets a second chance
+        private long clock = 0;
+        // set when read, an evicting profile which is referenced gets a second chance
+        private volatile boolean referenced = false;
+
         // lazy load profileContent because sometimes profileContent is very large
         public String getProfileContent() {
             // Not cache the profile content because it may change during insert
@@ -96,15 +108,30 @@ public class ProfileManager {
         }
     }
 
-    // only protect queryIdDeque; queryIdToProfileMap is concurrent, no need to protect
-    private ReentrantReadWriteLock lock;
-    private ReadLock readLock;
-    private WriteLock writeLock;
+    // Profiles are distributed into shards by query id. Each shard has its own lock, which only
+    // protects its insertion order, so pushing profiles of different queries does not contend on one
+    // global lock. queryIdToProfileMap is concurrent and read without lock.
+    // max_query_profile_num and max_query_profile_memory_bytes limit all shards in total.
+    private static final int SHARD_NUM = 16;
+    private final ProfileShard[] shards;
+    private final AtomicLong totalMemorySize = new AtomicLong(0);
+    private final AtomicInteger totalNum = new AtomicInteger(0);
+
+    private static class ProfileShard {
+        private final ReentrantLock lock = new ReentrantLock();
+        // insertion ordered, a profile updated multiple times keeps its first position
+        private final LinkedHashMap<String, ProfileElement> elements = new LinkedHashMap<>();
+    }
 
-    // record the order of profiles by queryId
-    private Deque<String> queryIdDeque;
+    private final AtomicLong pushSequence = new AtomicLong(0);
     private Map<String, ProfileElement> queryIdToProfileMap; // from QueryId to RuntimeProfile
 
+    // Evicted profiles are spilled to local disk asynchronously if enable_profile_spill is true.
+    // They are kept in queryIdToProfileMap until spilled, so a profile is always readable.
+    private volatile ProfileSpillStore spillStore;
+    private ThreadPoolExecutor spillExecutor;
+    private boolean spillInitFailed = false;
+
     public static ProfileManager getInstance() {
         if (INSTANCE == null) {
             synchronized (ProfileManager.class) {
@@ -117,16 +144,21 @@ public class ProfileManager {
     }
 
     private ProfileManager() {
-        lock = new ReentrantReadWriteLock(true);
-        readLock = lock.readLock();
-        writeLock = lock.writeLock();
-        queryIdDeque = new LinkedList<>();
+        shards = new ProfileShard[SHARD_NUM];
+        for (int i = 0; i < SHARD_NUM; i++) {
+            shards[i] = new ProfileShard();
+        }
         queryIdToProfileMap = new ConcurrentHashMap<>();
     }
 
+    private ProfileShard getShard(String queryId) {
+        return shards[Math.floorMod(queryId.hashCode(), SHARD_NUM)];
+    }
+
     public ProfileElement createElement(Profile profile) {
         ProfileElement element = new ProfileElement(profile);
         element.infoStrings.putAll(profile.getSummaryProfile().getAsInfoStings());
+        element.memorySize = profile.estimateMemorySize();
         MultiProfileTreeBuilder builder = new MultiProfileTreeBuilder(profile.getRootProfile());
         try {
             builder.build();
@@ -152,85 +184,197 @@ public class ProfileManager {
         if (Strings.isNullOrEmpty(key)) {
             LOG.warn("the key or value of Map is null, "
                     + "may be forget to insert 'QUERY_ID' or 'JOB_ID' column into infoStrings");
+            return;
         }
 
-        writeLock.lock();
-        // a profile may be updated multiple times in queryIdToProfileMap,
-        // and only needs to be inserted into the queryIdDeque for the first time.
-        queryIdToProfileMap.put(key, element);
+        List<Map.Entry<String, ProfileElement>> evicted = Lists.newArrayList();
+        ProfileShard shard = getShard(key);
+        shard.lock.lock();
         try {
-            if (!queryIdDeque.contains(key)) {
-                if (queryIdDeque.size() >= Config.max_query_profile_num) {
-                    queryIdToProfileMap.remove(queryIdDeque.getFirst());
-                    queryIdDeque.removeFirst();
-                }
-                queryIdDeque.addLast(key);
+            // a profile may be updated multiple times, and keeps the sequence of the first push.
+            ProfileElement old = shard.elements.get(key);
+            if (old != null) {
+                element.sequence = old.sequence;
+                element.pushTime = old.pushTime;
+                element.clock = old.clock;
+                totalMemorySize.addAndGet(-old.memorySize);
+            } else {
+                element.sequence = pushSequence.incrementAndGet();
+                element.pushTime = System.currentTimeMillis();
+                element.clock = element.sequence;
+                totalNum.incrementAndGet();
             }
+            shard.elements.put(key, element);
+            totalMemorySize.addAndGet(element.memorySize);
+            queryIdToProfileMap.put(key, element);
         } finally {
-            writeLock.unlock();
+            shard.lock.unlock();
         }
-    }
+        evict(key, evicted);
 
-    public List<List<String>> getAllQueries() {
-        return getQueryWithType(null);
+        for (Map.Entry<String, ProfileElement> entry : evicted) {
+            if (!spill(entry.getKey(), entry.getValue())) {
+                queryIdToProfileMap.remove(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
-    public List<List<String>> getQueryWithType(ProfileType type) {
-        List<List<String>> result = Lists.newArrayList();
-        readLock.lock();
-        try {
-            Iterator reverse = queryIdDeque.descendingIterator();
-            while (reverse.hasNext()) {
-                String queryId = (String) reverse.next();
-                ProfileElement profileElement = queryIdToProfileMap.get(queryId);
-                if (profileElement == null) {
+    // Evict profiles in second chance (clock) order until all shards fit the global budget. The victim
+    // is taken from the shard whose eldest profile is the first in clock order, and the profile just pushed is
+    // never evicted. Shard locks are taken one at a time, so must be called without any shard lock held.
+    private void evict(String pushedKey, List<Map.Entry<String, ProfileElement>> evicted) {
+        int checked = 0;
+        while (totalMemorySize.get() > Config.max_query_profile_memory_bytes
+                || totalNum.get() > Math.max(1, Config.max_query_profile_num)) {
+            ProfileShard victim = null;
+            long minClock = Long.MAX_VALUE;
+            for (ProfileShard shard : shards) {
+                shard.lock.lock();
+                try {
+                    if (shard.elements.isEmpty()
+                            || (shard.elements.size() == 1 && shard.elements.containsKey(pushedKey))) {
+                        continue;
+                    }
+                    long clock = shard.elements.values().iterator().next().clock;
+                    if (clock < minClock) {
+                        minClock = clock;
+                        victim = shard;
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            victim.lock.lock();
+            try {
+                if (victim.elements.isEmpty()) {
                     continue;
                 }
-                Map<String, String> infoStrings = profileElement.infoStrings;
-                if (type != null && !infoStrings.get(SummaryProfile.TASK_TYPE).equalsIgnoreCase(type.name())) {
+                Iterator<Map.Entry<String, ProfileElement>> iter = victim.elements.entrySet().iterator();
+                Map.Entry<String, ProfileElement> eldest = iter.next();
+                ProfileElement element = eldest.getValue();
+                boolean secondChance = element.referenced && checked < totalNum.get();
+                if (eldest.getKey().equals(pushedKey) || secondChance) {
+                    // move to tail, and take the next eldest one in the next round
+                    element.referenced = false;
+                    element.clock = pushSequence.incrementAndGet();
+                    iter.remove();
+                    victim.elements.put(eldest.getKey(), element);
+                    checked++;
                     continue;
                 }
+                iter.remove();
+                totalMemorySize.addAndGet(-element.memorySize);
+                totalNum.decrementAndGet();
+                evicted.add(eldest);
+            } finally {
+                victim.lock.unlock();
+            }
+        }
+    }
+
+    private boolean spill(String queryId, ProfileElement element) {
+        ProfileSpillStore store = getSpillStore();
+        if (store == null) {
+            return false;
+        }
+        spillExecutor.execute(() -> {
+            try {
+                store.spill(queryId, element.infoStrings.get(SummaryProfile.USER), element.pushTime,
+                        element.getProfileContent(), element.getProfileBrief());
+            } catch (Throwable t) {
+                LOG.warn("failed to spill profile {}", queryId, t);
+            } finally {
+                queryIdToProfileMap.remove(queryId, element);
+            }
+        });
+        return true;
+    }
 
-                List<String> row = Lists.newArrayList();
-                for (String str : SummaryProfile.SUMMARY_KEYS) {
-                    row.add(infoStrings.get(str));
+    private ProfileSpillStore getSpillStore() {
+        if (!Config.enable_profile_spill) {
+            return null;
+        }
+        if (spillStore == null) {
+            synchronized (this) {
+                if (spillStore == null && !spillInitFailed) {
+                    ProfileSpillStore store = new ProfileSpillStore(Config.spilled_profile_dir);
+                    try {
+                        store.init();
+                    } catch (IOException e) {
+                        LOG.warn("failed to init profile spill store, disable spilling", e);
+                        spillInitFailed = true;
+                        return null;
+                    }
+                    // Run in caller thread when the queue is full, so that evicted profiles are never lost.
+                    spillExecutor = ThreadPoolManager.newDaemonFixedThreadPool(1, 1024, "profile-spill-pool",
+                            true, new ThreadPoolExecutor.CallerRunsPolicy());
+                    spillStore = store;
                 }
-                result.add(row);
             }
-        } finally {
-            readLock.unlock();
+        }
+        return spillStore;
+    }
+
+    private ProfileElement getElement(String queryId) {
+        ProfileElement element = queryIdToProfileMap.get(queryId);
+        if (element != null) {
+            element.referenced = true;
+        }
+        return element;
+    }
+
+    public List<List<String>> getAllQueries() {
+        return getQueryWithType(null);
+    }
+
+    public List<List<String>> getQueryWithType(ProfileType type) {
+        List<ProfileElement> elements = Lists.newArrayList(queryIdToProfileMap.values());
+        // from new to old
+        elements.sort((e1, e2) -> Long.compare(e2.sequence, e1.sequence));
+        List<List<String>> result = Lists.newArrayList();
+        for (ProfileElement profileElement : elements) {
+            Map<String, String> infoStrings = profileElement.infoStrings;
+            if (type != null && !infoStrings.get(SummaryProfile.TASK_TYPE).equalsIgnoreCase(type.name())) {
+                continue;
+            }
+
+            List<String> row = Lists.newArrayList();
+            for (String str : SummaryProfile.SUMMARY_KEYS) {
+                row.add(infoStrings.get(str));
+            }
+            result.add(row);
         }
         return result;
     }
 
     public String getProfile(String queryID) {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null) {
-                return null;
-            }
+        ProfileElement element = getElement(queryID);
+        if (element != null) {
             return element.getProfileContent();
-        } finally {
-            readLock.unlock();
         }
+        ProfileSpillStore.SpilledProfile spilledProfile = getSpilledProfile(queryID);
+        return spilledProfile == null ? null : spilledProfile.content;
     }
 
     public String getProfileBrief(String queryID) {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null) {
-                return null;
-            }
+        ProfileElement element = getElement(queryID);
+        if (element != null) {
             return element.getProfileBrief();
-        } finally {
-            readLock.unlock();
         }
+        ProfileSpillStore.SpilledProfile spilledProfile = getSpilledProfile(queryID);
+        return spilledProfile == null ? null : spilledProfile.brief;
+    }
+
+    private ProfileSpillStore.SpilledProfile getSpilledProfile(String queryID) {
+        ProfileSpillStore store = spillStore;
+        return store == null ? null : store.get(queryID);
     }
 
     public ProfileElement findProfileElementObject(String queryId) {
-        return queryIdToProfileMap.get(queryId);
+        return getElement(queryId);
     }
 
     /**
@@ -241,72 +385,51 @@ public class ProfileManager {
      * @throws DdlException
      */
     public void checkAuthByUserAndQueryId(String user, String queryId) throws AuthenticationException {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryId);
-            if (element == null) {
-                throw new AuthenticationException("query with id " + queryId + " not found");
-            }
-            if (!element.infoStrings.get(SummaryProfile.USER).equals(user)) {
-                throw new AuthenticationException("Access deny to view query with id: " + queryId);
-            }
-        } finally {
-            readLock.unlock();
+        ProfileElement element = queryIdToProfileMap.get(queryId);
+        String profileUser;
+        if (element != null) {
+            profileUser = element.infoStrings.get(SummaryProfile.USER);
+        } else {
+            ProfileSpillStore store = spillStore;
+            profileUser = store == null ? null : store.getUser(queryId);
+        }
+        if (profileUser == null) {
+            throw new AuthenticationException("query with id " + queryId + " not found");
+        }
+        if (!profileUser.equals(user)) {
+            throw new AuthenticationException("Access deny to view query with id: " + queryId);
         }
     }
 
     public ProfileTreeNode getFragmentProfileTree(String queryID, String executionId) throws AnalysisException {
-        MultiProfileTreeBuilder builder;
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null || element.builder == null) {
-                throw new AnalysisException("failed to get fragment profile tree. err: "
-                        + (element == null ? "not found" : element.errMsg));
-            }
-            builder = element.builder;
-        } finally {
-            readLock.unlock();
+        ProfileElement element = getElement(queryID);
+        if (element == null || element.builder == null) {
+            throw new AnalysisException("failed to get fragment profile tree. err: "
+                    + (element == null ? "not found" : element.errMsg));
         }
-        return builder.getFragmentTreeRoot(executionId);
+        return element.builder.getFragmentTreeRoot(executionId);
     }
 
     public List<Triple<String, String, Long>> getFragmentInstanceList(String queryID,
             String executionId, String fragmentId)
             throws AnalysisException {
-        MultiProfileTreeBuilder builder;
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null || element.builder == null) {
-                throw new AnalysisException("failed to get instance list. err: "
-                        + (element == null ? "not found" : element.errMsg));
-            }
-            builder = element.builder;
-        } finally {
-            readLock.unlock();
+        ProfileElement element = getElement(queryID);
+        if (element == null || element.builder == null) {
+            throw new AnalysisException("failed to get instance list. err: "
+                    + (element == null ? "not found" : element.errMsg));
         }
-
-        return builder.getInstanceList(executionId, fragmentId);
+        return element.builder.getInstanceList(executionId, fragmentId);
     }
 
     public ProfileTreeNode getInstanceProfileTree(String queryID, String executionId,
             String fragmentId, String instanceId)
             throws AnalysisException {
-        MultiProfileTreeBuilder builder;
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null || element.builder == null) {
-                throw new AnalysisException("failed to get instance profile tree. err: "
-                        + (element == null ? "not found" : element.errMsg));
-            }
-            builder = element.builder;
-        } finally {
-            readLock.unlock();
+        ProfileElement element = getElement(queryID);
+        if (element == null || element.builder == null) {
+            throw new AnalysisException("failed to get instance profile tree. err: "
+                    + (element == null ? "not found" : element.errMsg));
         }
-
-        return builder.getInstanceTreeRoot(executionId, fragmentId, instanceId);
+        return element.builder.getInstanceTreeRoot(executionId, fragmentId, instanceId);
     }
 
     // Return the tasks info of the specified load job
@@ -322,31 +445,21 @@ public class ProfileManager {
     }
 
     private MultiProfileTreeBuilder getMultiProfileTreeBuilder(String jobId) throws AnalysisException {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(jobId);
-            if (element == null || element.builder == null) {
-                throw new AnalysisException("failed to get task ids. err: "
-                        + (element == null ? "not found" : element.errMsg));
-            }
-            return element.builder;
-        } finally {
-            readLock.unlock();
+        ProfileElement element = getElement(jobId);
+        if (element == null || element.builder == null) {
+            throw new AnalysisException("failed to get task ids. err: "
+                    + (element == null ? "not found" : element.errMsg));
         }
+        return element.builder;
     }
 
     public String getQueryIdByTraceId(String traceId) {
-        readLock.lock();
-        try {
-            for (Map.Entry<String, ProfileElement> entry : queryIdToProfileMap.entrySet()) {
-                if (entry.getValue().infoStrings.getOrDefault(SummaryProfile.TRACE_ID, "").equals(traceId)) {
-                    return entry.getKey();
-                }
+        for (Map.Entry<String, ProfileElement> entry : queryIdToProfileMap.entrySet()) {
+            if (entry.getValue().infoStrings.getOrDefault(SummaryProfile.TRACE_ID, "").equals(traceId)) {
+                return entry.getKey();
             }
-            return "";
-        } finally {
-            readLock.unlock();
         }
+        return "";
     }
 
     public void setStatsErrorEstimator(String queryId, StatsErrorEstimator statsErrorEstimator) {
@@ -357,12 +470,22 @@ public class ProfileManager {
     }
 
     public void cleanProfile() {
-        writeLock.lock();
-        try {
-            queryIdToProfileMap.clear();
-            queryIdDeque.clear();
-        } finally {
-            writeLock.unlock();
+        for (ProfileShard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (Map.Entry<String, ProfileElement> entry : shard.elements.entrySet()) {
+                    queryIdToProfileMap.remove(entry.getKey());
+                    totalMemorySize.addAndGet(-entry.getValue().memorySize);
+                    totalNum.decrementAndGet();
+                }
+                shard.elements.clear();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        ProfileSpillStore store = spillStore;
+        if (store != null) {
+            store.clear();
         }
     }
 }
@@ -0,0 +1,293 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.util;
+
+import org.apache.doris.common.Config;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ProfileSpillStore saves the profiles evicted from ProfileManager to local disk.
+ *
+ * Profiles are appended to segment files named as profile_{createTime}_{seq}.seg, so segments are ordered by time.
+ * Each record is:
+ *     | record len (int) | timestamp (long) | query id (utf) | user (utf) | payload len (int) | gzip payload |
+ * and the payload contains the profile content and the profile brief.
+ * Only the record headers are kept in memory as the index, and the oldest segment is deleted as a whole
+ * when the total size exceeds Config.max_spilled_profile_bytes.
+ */
+public class ProfileSpillStore {
+    private static final Logger LOG = LogManager.getLogger(ProfileSpillStore.class);
+
+    private static final String SEGMENT_PREFIX = "profile_";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    public static class SpilledProfile {
+        public final String queryId;
+        public final String user;
+        public final long timestamp;
+        public final String content;
+        public final String brief;
+
+        public SpilledProfile(String queryId, String user, long timestamp, String content, String brief) {
+            this.queryId = queryId;
+            this.user = user;
+            this.timestamp = timestamp;
+            this.content = content;
+            this.brief = brief;
+        }
+    }
+
+    private static class Segment {
+        private final File file;
+        private long size = 0;
+        private final List<String> queryIds = Lists.newArrayList();
+
+        private Segment(File file) {
+            this.file = file;
+        }
+    }
+
+    private static class IndexEntry {
+        private final Segment segment;
+        private final long offset;
+        private final String user;
+
+        private IndexEntry(Segment segment, long offset, String user) {
+            this.segment = segment;
+            this.offset = offset;
+            this.user = user;
+        }
+    }
+
+    private final File dir;
+    private long nextSegmentSeq = 0;
+    // ordered by create time, the last one is the active segment to append
+    private final Deque<Segment> segments = new LinkedList<>();
+    private final Map<String, IndexEntry> index = Maps.newConcurrentMap();
+    private long totalSize = 0;
+
+    public ProfileSpillStore(String dirPath) {
+        this.dir = new File(dirPath);
+    }
+
+    /**
+     * Load the index of existing segments, called once before spilling.
+     */
+    public synchronized void init() throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("failed to create spilled profile dir " + dir.getAbsolutePath());
+        }
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, (f1, f2) -> f1.getName().compareTo(f2.getName()));
+        for (File file : files) {
+            Segment segment = new Segment(file);
+            try {
+                loadSegment(segment);
+            } catch (IOException e) {
+                LOG.warn("failed to load spilled profile segment {}, skip the broken tail", file, e);
+            }
+            segments.addLast(segment);
+            totalSize += segment.size;
+            nextSegmentSeq++;
+        }
+        LOG.info("load {} spilled profiles in {} segments from {}", index.size(), segments.size(), dir);
+    }
+
+    private void loadSegment(Segment segment) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(segment.file, "r")) {
+            long offset = 0;
+            long length = raf.length();
+            while (offset + Integer.BYTES <= length) {
+                raf.seek(offset);
+                int recordLen = raf.readInt();
+                if (offset + Integer.BYTES + recordLen > length) {
+                    break;
+                }
+                raf.readLong();
+                String queryId = raf.readUTF();
+                String user = raf.readUTF();
+                addIndex(segment, queryId, user, offset);
+                offset += Integer.BYTES + recordLen;
+            }
+            segment.size = offset;
+        }
+    }
+
+    private void addIndex(Segment segment, String queryId, String user, long offset) {
+        index.put(queryId, new IndexEntry(segment, offset, user));
+        segment.queryIds.add(queryId);
+    }
+
+    public synchronized void spill(String queryId, String user, long timestamp, String content, String brief)
+            throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(payload))) {
+            writeString(out, content);
+            writeString(out, brief);
+        }
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeLong(timestamp);
+        out.writeUTF(queryId);
+        out.writeUTF(user == null ? "" : user);
+        out.writeInt(payload.size());
+        payload.writeTo(out);
+        out.flush();
+
+        Segment segment = getActiveSegment();
+        long offset = segment.size;
+        try (DataOutputStream fileOut = new DataOutputStream(new FileOutputStream(segment.file, true))) {
+            fileOut.writeInt(record.size());
+            record.writeTo(fileOut);
+        } catch (IOException e) {
+            // drop the partially written record, otherwise the next record is appended after it
+            // and its offset no longer matches segment.size
+            truncate(segment.file, offset);
+            throw e;
+        }
+        segment.size += Integer.BYTES + record.size();
+        totalSize += Integer.BYTES + record.size();
+        addIndex(segment, queryId, user, offset);
+        gc();
+    }
+
+    private void truncate(File file, long size) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+        } catch (IOException e) {
+            LOG.warn("failed to truncate spilled profile segment {} to {}", file, size, e);
+        }
+    }
+
+    private Segment getActiveSegment() {
+        Segment active = segments.peekLast();
+        if (active == null || active.size >= Config.spilled_profile_segment_bytes) {
+            String name = SEGMENT_PREFIX + System.currentTimeMillis() + "_" + (nextSegmentSeq++) + SEGMENT_SUFFIX;
+            active = new Segment(new File(dir, name));
+            segments.addLast(active);
+        }
+        return active;
+    }
+
+    // drop the oldest segments as a whole, keep the active one
+    private void gc() {
+        while (totalSize > Config.max_spilled_profile_bytes && segments.size() > 1) {
+            Segment oldest = segments.pollFirst();
+            for (String queryId : oldest.queryIds) {
+                IndexEntry entry = index.get(queryId);
+                if (entry != null && entry.segment == oldest) {
+                    index.remove(queryId);
+                }
+            }
+            totalSize -= oldest.size;
+            if (!oldest.file.delete()) {
+                LOG.warn("failed to delete spilled profile segment {}", oldest.file);
+            }
+        }
+    }
+
+    public boolean contains(String queryId) {
+        return index.containsKey(queryId);
+    }
+
+    public String getUser(String queryId) {
+        IndexEntry entry = index.get(queryId);
+        return entry == null ? null : entry.user;
+    }
+
+    /**
+     * Return the spilled profile, or null if not found.
+     */
+    public SpilledProfile get(String queryId) {
+        IndexEntry entry = index.get(queryId);
+        if (entry == null) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(entry.segment.file, "r")) {
+            raf.seek(entry.offset + Integer.BYTES);
+            long timestamp = raf.readLong();
+            String id = raf.readUTF();
+            String user = raf.readUTF();
+            byte[] payload = new byte[raf.readInt()];
+            raf.readFully(payload);
+            try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+                return new SpilledProfile(id, user, timestamp, readString(in), readString(in));
+            }
+        } catch (IOException e) {
+            // the segment may be deleted by gc
+            LOG.warn("failed to read spilled profile {}", queryId, e);
+            return null;
+        }
+    }
+
+    public synchronized void clear() {
+        for (Segment segment : segments) {
+            if (!segment.file.delete()) {
+                LOG.warn("failed to delete spilled profile segment {}", segment.file);
+            }
+        }
+        segments.clear();
+        index.clear();
+        totalSize = 0;
+    }
+
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = (str == null ? "" : str).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) {
+            throw new EOFException("invalid string length " + len);
+        }
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -750,4 +750,35 @@ public class RuntimeProfile {
     public Map<String, String> getInfoStrings() {
         return infoStrings;
     }
+
+    // Roughly estimate the heap size in bytes of this profile tree.
+    // It is used to limit the memory of profiles kept in ProfileManager, so it does not need to be accurate.
+    public long estimateMemorySize() {
+        long size = 256 + (name == null ? 0 : name.length() * 2L);
+        // map entry + counter object + counter name
+        for (String counterName : counterMap.keySet()) {
+            size += 96 + counterName.length() * 2L;
+        }
+        infoStringsLock.readLock().lock();
+        try {
+            for (Map.Entry<String, String> entry : infoStrings.entrySet()) {
+                int valueLength = entry.getValue() == null ? 0 : entry.getValue().length();
+                size += 64 + (entry.getKey().length() + valueLength) * 2L;
+            }
+        } finally {
+            infoStringsLock.readLock().unlock();
+        }
+        for (String info : planNodeInfos) {
+            size += 48 + info.length() * 2L;
+        }
+        childLock.readLock().lock();
+        try {
+            for (Pair<RuntimeProfile, Boolean> child : childList) {
+                size += child.first.estimateMemorySize();
+            }
+        } finally {
+            childLock.readLock().unlock();
+        }
+        return size;
+    }
 }
@@ -561,6 +561,7 @@ public class InternalCatalog implements CatalogIf<Database> {
         if (db.getDbProperties().getIcebergProperty().isExist()) {
             icebergTableCreationRecordMgr.deregisterDb(db);
         }
+        Env.getCurrentEnv().getMtmvRelationManager().deregisterMTMVs(db);
         for (Table table : db.getTables()) {
             unprotectDropTable(db, table, isForeDrop, isReplay, recycleTime);
         }
@@ -3192,6 +3193,8 @@ public class InternalCatalog implements CatalogIf<Database> {
         recreateTabletInvertIndex();
         // rebuild es state state
         getEsRepository().loadTableFromCatalog();
+        // rebuild the base table index of MTMVs
+        Env.getCurrentEnv().getMtmvRelationManager().loadFromCatalog();
         LOG.info("finished replay databases from image");
         return newChecksum;
     }
@@ -27,6 +27,7 @@ import org.apache.doris.common.LoadException;
 import org.apache.doris.httpv2.entity.ResponseEntityBuilder;
 import org.apache.doris.httpv2.entity.RestBaseResult;
 import org.apache.doris.httpv2.exception.UnauthorizedException;
+import org.apache.doris.load.StreamLoadRedirectPolicy;
 import org.apache.doris.mysql.privilege.PrivPredicate;
 import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.resource.Tag;
@@ -50,7 +51,9 @@ import org.springframework.web.servlet.view.RedirectView;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -284,7 +287,7 @@ public class LoadAction extends RestBaseController {
                     return new RestBaseResult(e.getMessage());
                 }
             } else {
-                redirectAddr = selectRedirectBackend(clusterName, groupCommit);
+                redirectAddr = selectRedirectBackend(clusterName, groupCommit, fullDbName, tableName);
             }
 
             LOG.info("redirect load action to destination={}, stream: {}, db: {}, tbl: {}, label: {}",
@@ -333,6 +336,11 @@ public class LoadAction extends RestBaseController {
     }
 
     private TNetworkAddress selectRedirectBackend(String clusterName, boolean groupCommit) throws LoadException {
+        return selectRedirectBackend(clusterName, groupCommit, null, null);
+    }
+
+    private TNetworkAddress selectRedirectBackend(String clusterName, boolean groupCommit, String fullDbName,
+            String tableName) throws LoadException {
         Backend backend = null;
         BeSelectionPolicy policy = null;
         if (groupCommit) {
@@ -350,11 +358,20 @@ public class LoadAction extends RestBaseController {
             policy = new BeSelectionPolicy.Builder()
                     .addTags(userTags)
                     .needLoadAvailable().build();
-            List<Long> backendIds = Env.getCurrentSystemInfo().selectBackendIdsByPolicy(policy, 1);
+            boolean loadAware = Config.enable_load_aware_stream_load_redirect;
+            List<Long> backendIds = Env.getCurrentSystemInfo().selectBackendIdsByPolicy(policy, loadAware ? -1 : 1);
             if (backendIds.isEmpty()) {
                 throw new LoadException(SystemInfoService.NO_BACKEND_LOAD_AVAILABLE_MSG + ", policy: " + policy);
             }
-            backend = Env.getCurrentSystemInfo().getBackend(backendIds.get(0));
+            if (loadAware) {
+                List<Backend> candidates = backendIds.stream().map(Env.getCurrentSystemInfo()::getBackend)
+                        .filter(Objects::nonNull).collect(Collectors.toList());
+                if (!candidates.isEmpty()) {
+                    backend = StreamLoadRedirectPolicy.getInstance().select(candidates, fullDbName, tableName);
+                }
+            } else {
+                backend = Env.getCurrentSystemInfo().getBackend(backendIds.get(0));
+            }
         }
         if (backend == null) {
             throw new LoadException(SystemInfoService.NO_BACKEND_LOAD_AVAILABLE_MSG + ", policy: " + policy);
@@ -22,6 +22,7 @@ import org.apache.doris.analysis.ExportStmt;
 import org.apache.doris.analysis.Expr;
 import org.apache.doris.analysis.FromClause;
 import org.apache.doris.analysis.LimitElement;
+import org.apache.doris.analysis.LiteralExpr;
 import org.apache.doris.analysis.LoadStmt;
 import org.apache.doris.analysis.OutFileClause;
 import org.apache.doris.analysis.SelectList;
@@ -38,12 +39,18 @@ import org.apache.doris.analysis.UserIdentity;
 import org.apache.doris.catalog.Column;
 import org.apache.doris.catalog.Database;
 import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.ListPartitionItem;
 import org.apache.doris.catalog.MaterializedIndex;
 import org.apache.doris.catalog.MaterializedIndex.IndexExtState;
 import org.apache.doris.catalog.OlapTable;
 import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.PartitionItem;
+import org.apache.doris.catalog.PartitionKey;
 import org.apache.doris.catalog.TableIf;
 import org.apache.doris.catalog.TableIf.TableType;
+import org.apache.doris.catalog.Type;
+import org.apache.doris.catalog.external.HMSExternalTable;
+import org.apache.doris.catalog.external.HMSExternalTable.DLAType;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.FeMetaVersion;
 import org.apache.doris.common.Pair;
@@ -52,15 +59,23 @@ import org.apache.doris.common.io.Text;
 import org.apache.doris.common.io.Writable;
 import org.apache.doris.common.util.SqlParserUtils;
 import org.apache.doris.common.util.TimeUtils;
+import org.apache.doris.datasource.HMSExternalCatalog;
 import org.apache.doris.datasource.InternalCatalog;
+import org.apache.doris.datasource.hive.HiveMetaStoreCache;
 import org.apache.doris.nereids.StatementContext;
 import org.apache.doris.nereids.analyzer.UnboundRelation;
 import org.apache.doris.nereids.analyzer.UnboundSlot;
 import org.apache.doris.nereids.analyzer.UnboundStar;
 import org.apache.doris.nereids.glue.LogicalPlanAdapter;
+import org.apache.doris.nereids.trees.expressions.And;
 import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.GreaterThanEqual;
+import org.apache.doris.nereids.trees.expressions.IsNull;
+import org.apache.doris.nereids.trees.expressions.LessThan;
 import org.apache.doris.nereids.trees.expressions.NamedExpression;
+import org.apache.doris.nereids.trees.expressions.Or;
 import org.apache.doris.nereids.trees.expressions.StatementScopeIdGenerator;
+import org.apache.doris.nereids.trees.expressions.literal.Literal;
 import org.apache.doris.nereids.trees.plans.logical.LogicalCheckPolicy;
 import org.apache.doris.nereids.trees.plans.logical.LogicalFileSink;
 import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
@@ -74,14 +89,17 @@ import org.apache.doris.qe.SessionVariable;
 import org.apache.doris.scheduler.exception.JobException;
 import org.apache.doris.thrift.TNetworkAddress;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.annotations.SerializedName;
 import lombok.Data;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -92,10 +110,12 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Data
@@ -317,14 +337,12 @@ public class ExportJob implements Writable {
 
     /**
      * This method used to generate outfile sql for view table or external table.
-     * @throws UserException
+     * There is no tablet to divide in view and external table. A partitioned hive table is divided into
+     * 'parallelism' parts by ranges of its first partition column, so each part only scans the partitions
+     * in its range. Other sources are exported by one part, because a filter which does not prune the scan
+     * makes every part read the whole source again.
      */
     private void generateViewOrExternalTableOutfile(List<String> qualifiedTableName) {
-        // Because there is no division of tablets in view and external table
-        // we set parallelism = 1;
-        this.parallelism = 1;
-        LOG.debug("Because there is no division of tablets in view and external table, we set parallelism = 1");
-
         // build source columns
         List<NamedExpression> selectLists = Lists.newArrayList();
         if (exportColumns.isEmpty()) {
@@ -335,28 +353,117 @@ public class ExportJob implements Writable {
             });
         }
 
-        List<StatementBase> logicalPlanAdapters = Lists.newArrayList();
+        List<Optional<Expression>> splitPredicates = Lists.newArrayList();
+        if (this.parallelism > 1) {
+            generateHivePartitionRangePredicates().forEach(predicate -> splitPredicates.add(Optional.of(predicate)));
+        }
+        if (splitPredicates.isEmpty()) {
+            splitPredicates.add(Optional.empty());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Export Job [{}]: view or external table can not be split by partitions, "
+                        + "set parallelism = 1", id);
+            }
+        } else {
+            LOG.info("Export Job [{}]: split hive table into {} parts by partition ranges",
+                    id, splitPredicates.size());
+        }
+        this.parallelism = splitPredicates.size();
 
-        // generate LogicalPlan
-        LogicalPlan plan = generateOneLogicalPlan(qualifiedTableName, ImmutableList.of(),
-                ImmutableList.of(), selectLists);
-        // generate  LogicalPlanAdapter
-        StatementBase statementBase = generateLogicalPlanAdapter(plan);
+        for (Optional<Expression> splitPredicate : splitPredicates) {
+            // generate LogicalPlan
+            LogicalPlan plan = generateOneLogicalPlan(qualifiedTableName, ImmutableList.of(),
+                    ImmutableList.of(), selectLists, splitPredicate);
+            // generate  LogicalPlanAdapter
+            StatementBase statementBase = generateLogicalPlanAdapter(plan);
+            selectStmtListPerParallel.add(Lists.newArrayList(statementBase));
+        }
+    }
 
-        logicalPlanAdapters.add(statementBase);
-        selectStmtListPerParallel.add(logicalPlanAdapters);
+    /**
+     * Return the predicates of partition ranges if the export table is a partitioned hive table,
+     * otherwise return empty list.
+     */
+    private List<Expression> generateHivePartitionRangePredicates() {
+        if (!(exportTable instanceof HMSExternalTable)) {
+            return ImmutableList.of();
+        }
+        HMSExternalTable hiveTable = (HMSExternalTable) exportTable;
+        if (hiveTable.isView() || hiveTable.getDlaType() != DLAType.HIVE
+                || CollectionUtils.isEmpty(hiveTable.getPartitionColumns())) {
+            return ImmutableList.of();
+        }
+        HiveMetaStoreCache cache = Env.getCurrentEnv().getExtMetaCacheMgr()
+                .getMetaStoreCache((HMSExternalCatalog) hiveTable.getCatalog());
+        Collection<PartitionItem> partitionItems = cache.getPartitionValues(hiveTable.getDbName(),
+                hiveTable.getName(), hiveTable.getPartitionColumnTypes()).getIdToPartitionItem().values();
+        Column partitionColumn = hiveTable.getPartitionColumns().get(0);
+        return generatePartitionRangePredicates(new UnboundSlot(this.tableName.getTbl(), partitionColumn.getName()),
+                partitionColumn.getType(), partitionItems, this.parallelism);
+    }
+
+    /**
+     * Divide the list partitions into at most 'parallelism' ranges of the first partition column,
+     * each range has about the same number of partitions.
+     * The ranges have no gap, so the rows of a partition added after this are still exported once,
+     * and the rows whose first partition column is null are exported by the first range.
+     */
+    @VisibleForTesting
+    static List<Expression> generatePartitionRangePredicates(Expression partitionSlot, Type type,
+            Collection<PartitionItem> partitionItems, int parallelism) {
+        List<LiteralExpr> values = Lists.newArrayList();
+        for (PartitionItem item : partitionItems) {
+            for (PartitionKey key : ((ListPartitionItem) item).getItems()) {
+                // the default partition only has null values, which are exported by the first range
+                if (!key.isHiveDefaultPartition()) {
+                    values.add(key.getKeys().get(0));
+                }
+            }
+        }
+        Collections.sort(values);
+        // the lower bounds of the ranges except the first one
+        List<LiteralExpr> bounds = Lists.newArrayList();
+        for (int i = 1; i < parallelism && !values.isEmpty(); i++) {
+            LiteralExpr bound = values.get((int) ((long) i * values.size() / parallelism));
+            LiteralExpr lastBound = bounds.isEmpty() ? values.get(0) : bounds.get(bounds.size() - 1);
+            if (bound.compareTo(lastBound) > 0) {
+                bounds.add(bound);
+            }
+        }
+        if (bounds.isEmpty()) {
+            return ImmutableList.of();
+        }
+        List<Expression> predicates = Lists.newArrayList();
+        Expression lowerBound = null;
+        for (LiteralExpr bound : bounds) {
+            Expression upperBound = Literal.fromLegacyLiteral(bound, type);
+            Expression predicate = new LessThan(partitionSlot, upperBound);
+            predicates.add(lowerBound == null
+                    ? new Or(predicate, new IsNull(partitionSlot))
+                    : new And(new GreaterThanEqual(partitionSlot, lowerBound), predicate));
+            lowerBound = upperBound;
+        }
+        predicates.add(new GreaterThanEqual(partitionSlot, lowerBound));
+        return predicates;
     }
 
     private LogicalPlan generateOneLogicalPlan(List<String> qualifiedTableName, List<Long> tabletIds,
             List<String> partitions, List<NamedExpression> selectLists) {
+        return generateOneLogicalPlan(qualifiedTableName, tabletIds, partitions, selectLists, Optional.empty());
+    }
+
+    private LogicalPlan generateOneLogicalPlan(List<String> qualifiedTableName, List<Long> tabletIds,
+            List<String> partitions, List<NamedExpression> selectLists, Optional<Expression> splitPredicate) {
         // UnboundRelation
         LogicalPlan plan = new UnboundRelation(StatementScopeIdGenerator.newRelationId(), qualifiedTableName,
                 partitions, false, tabletIds, ImmutableList.of(), Optional.empty());
         // LogicalCheckPolicy
         plan = new LogicalCheckPolicy<>(plan);
         // LogicalFilter
-        if (this.whereExpression.isPresent()) {
-            plan = new LogicalFilter<>(ExpressionUtils.extractConjunctionToSet(this.whereExpression.get()), plan);
+        Set<Expression> conjuncts = Sets.newLinkedHashSet();
+        this.whereExpression.ifPresent(expr -> conjuncts.addAll(ExpressionUtils.extractConjunctionToSet(expr)));
+        splitPredicate.ifPresent(conjuncts::add);
+        if (!conjuncts.isEmpty()) {
+            plan = new LogicalFilter<>(conjuncts, plan);
         }
         // LogicalFilter
         plan = new LogicalProject(selectLists, plan);
@@ -0,0 +1,242 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.load;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.planner.GroupCommitPlanner;
+import org.apache.doris.proto.InternalService.PDataRow;
+import org.apache.doris.proto.InternalService.PGroupCommitInsertResponse;
+import org.apache.doris.qe.SessionVariable;
+import org.apache.doris.system.Backend;
+import org.apache.doris.thrift.TStatusCode;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesce the concurrent group commit inserts into the same table from different sessions.
+ * The rows are appended to a per-table batch, and the batch is sent to BE in one request when
+ * the rows reach Config.group_commit_insert_coalesce_max_rows or Config.group_commit_insert_coalesce_interval_ms
+ * is passed since the first insert of batch. Each insert is acknowledged when the response of its batch returns,
+ * i.e. the rows are written to wal by BE.
+ * BE only returns the number of filtered rows of the whole request, so the loaded and filtered rows of each insert
+ * are known only if no row or all rows are filtered. Otherwise each insert reports the loaded and filtered rows of
+ * the whole request, which share the same label. If the request fails, the inserts are resent one by one, so
+ * that only the inserts with bad rows fail. If some rows are filtered, the inserts into the table are not coalesced
+ * for a while.
+ */
+public class GroupCommitInsertCoalescer {
+    private static final Logger LOG = LogManager.getLogger(GroupCommitInsertCoalescer.class);
+    private static final long FILTERED_BACKOFF_MS = 60 * 1000L;
+
+    private final Map<String, Batch> batches = Maps.newHashMap();
+    // table id -> the time until which the inserts into the table are not coalesced
+    private final Map<Long, Long> filteredTables = Maps.newConcurrentMap();
+    private final ScheduledThreadPoolExecutor flushTimer = ThreadPoolManager.newDaemonScheduledThreadPool(1,
+            "group-commit-coalesce-timer", true);
+    private final ThreadPoolExecutor flushExecutor = ThreadPoolManager.newDaemonFixedThreadPool(16, 1024,
+            "group-commit-coalesce-pool", true);
+
+    private static class PendingInsert {
+        private final List<PDataRow> rows;
+        private final CompletableFuture<PGroupCommitInsertResponse> future = new CompletableFuture<>();
+
+        private PendingInsert(List<PDataRow> rows) {
+            this.rows = rows;
+        }
+    }
+
+    private static class Batch {
+        private final Database db;
+        private final OlapTable table;
+        private final List<String> targetColumnNames;
+        private final SessionVariable sessionVariable;
+        private final Backend backend;
+        private final List<PendingInsert> inserts = Lists.newArrayList();
+        private int rowNum = 0;
+
+        private Batch(Database db, OlapTable table, List<String> targetColumnNames, SessionVariable sessionVariable,
+                Backend backend) {
+            this.db = db;
+            this.table = table;
+            this.targetColumnNames = targetColumnNames;
+            this.sessionVariable = sessionVariable;
+            this.backend = backend;
+        }
+    }
+
+    /**
+     * Append the rows to the batch of table, the returned future is done when the batch is written.
+     */
+    public Future<PGroupCommitInsertResponse> submit(Database db, OlapTable table, List<String> targetColumnNames,
+            SessionVariable sessionVariable, Backend backend, List<PDataRow> rows) {
+        PendingInsert insert = new PendingInsert(rows);
+        Long backoffUntil = filteredTables.get(table.getId());
+        if (backoffUntil != null) {
+            if (System.currentTimeMillis() < backoffUntil) {
+                Batch batch = new Batch(db, table, targetColumnNames, sessionVariable, backend);
+                batch.inserts.add(insert);
+                batch.rowNum = rows.size();
+                submitFlush(batch);
+                return insert.future;
+            }
+            filteredTables.remove(table.getId(), backoffUntil);
+        }
+        // the inserts of a batch are sent to the backend of the first insert
+        String key = table.getId() + "." + table.getBaseSchemaVersion() + "." + backend.getId() + "."
+                + (targetColumnNames == null ? "*" : String.join(",", targetColumnNames).toLowerCase())
+                + "." + GroupCommitPlanner.getSessionKey(sessionVariable);
+        Batch fullBatch = null;
+        synchronized (batches) {
+            Batch batch = batches.get(key);
+            if (batch == null) {
+                batch = new Batch(db, table, targetColumnNames, sessionVariable, backend);
+                batches.put(key, batch);
+                Batch newBatch = batch;
+                flushTimer.schedule(() -> flushIfCurrent(key, newBatch),
+                        Config.group_commit_insert_coalesce_interval_ms, TimeUnit.MILLISECONDS);
+            }
+            batch.inserts.add(insert);
+            batch.rowNum += rows.size();
+            if (batch.rowNum >= Config.group_commit_insert_coalesce_max_rows) {
+                batches.remove(key);
+                fullBatch = batch;
+            }
+        }
+        if (fullBatch != null) {
+            submitFlush(fullBatch);
+        }
+        return insert.future;
+    }
+
+    private void flushIfCurrent(String key, Batch batch) {
+        synchronized (batches) {
+            // the batch may be flushed because it is full
+            if (batches.get(key) != batch) {
+                return;
+            }
+            batches.remove(key);
+        }
+        submitFlush(batch);
+    }
+
+    private void submitFlush(Batch batch) {
+        try {
+            flushExecutor.execute(() -> flush(batch));
+        } catch (Exception e) {
+            LOG.warn("failed to submit group commit batch of table {}", batch.table.getName(), e);
+            batch.inserts.forEach(insert -> insert.future.completeExceptionally(e));
+        }
+    }
+
+    private void flush(Batch batch) {
+        List<PDataRow> rows = Lists.newArrayListWithCapacity(batch.rowNum);
+        batch.inserts.forEach(insert -> rows.addAll(insert.rows));
+        PGroupCommitInsertResponse response;
+        try {
+            response = send(batch.db, batch.table, batch.targetColumnNames, batch.sessionVariable, batch.backend,
+                    rows);
+        } catch (Throwable e) {
+            LOG.warn("failed to group commit {} inserts of table {}", batch.inserts.size(),
+                    batch.table.getName(), e);
+            batch.inserts.forEach(insert -> insert.future.completeExceptionally(e));
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("group commit {} inserts with {} rows of table {}, label {}", batch.inserts.size(),
+                    rows.size(), batch.table.getName(), response.getLabel());
+        }
+        if (batch.inserts.size() == 1) {
+            batch.inserts.get(0).future.complete(response);
+            return;
+        }
+        int code = response.getStatus().getStatusCode();
+        if (code != TStatusCode.OK.getValue() && code != TStatusCode.DATA_QUALITY_ERROR.getValue()) {
+            // the rows of a failed request are not loaded, resend the inserts one by one,
+            // so the inserts without bad rows are not failed by others.
+            // DATA_QUALITY_ERROR means the schema is changed, which is retried by each insert after replanning
+            LOG.info("group commit {} inserts of table {} failed, resend them one by one, status: {}",
+                    batch.inserts.size(), batch.table.getName(), response.getStatus());
+            for (PendingInsert insert : batch.inserts) {
+                try {
+                    insert.future.complete(send(batch.db, batch.table, batch.targetColumnNames,
+                            batch.sessionVariable, batch.backend, insert.rows));
+                } catch (Throwable e) {
+                    insert.future.completeExceptionally(e);
+                }
+            }
+            return;
+        }
+        long filteredRows = response.getFilteredRows();
+        if (filteredRows > 0) {
+            // the rows are written, so they can not be resent, just stop coalescing the inserts of the table
+            filteredTables.put(batch.table.getId(), System.currentTimeMillis() + FILTERED_BACKOFF_MS);
+            if (filteredRows < rows.size()) {
+                LOG.info("{} of {} rows of {} inserts into table {} are filtered, label: {}, "
+                        + "return the counts of the whole request to each insert", filteredRows, rows.size(),
+                        batch.inserts.size(), batch.table.getName(), response.getLabel());
+            }
+        }
+        for (PendingInsert insert : batch.inserts) {
+            insert.future.complete(splitResponse(response, insert.rows.size(), rows.size()));
+        }
+    }
+
+    // see GroupCommitPlanner#executeGroupCommitInsert(Backend, List)
+    protected PGroupCommitInsertResponse send(Database db, OlapTable table, List<String> targetColumnNames,
+            SessionVariable sessionVariable, Backend backend, List<PDataRow> rows) throws Exception {
+        UUID uuid = UUID.randomUUID();
+        TUniqueId loadId = new TUniqueId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        GroupCommitPlanner planner = GroupCommitPlanner.getOrCreate(db, table, targetColumnNames, sessionVariable,
+                loadId);
+        return planner.executeGroupCommitInsert(backend, rows).get();
+    }
+
+    // the filtered rows can be attributed to the inserts only if no row or all rows of the request are filtered.
+    // otherwise the rows without error are already written and can not be resent, and it is unknown which
+    // inserts the filtered rows belong to, so the counts of the whole request are returned to each insert.
+    private PGroupCommitInsertResponse splitResponse(PGroupCommitInsertResponse response, int rowNum,
+            int batchRowNum) {
+        if (response.getStatus().getStatusCode() != TStatusCode.OK.getValue()) {
+            return response;
+        }
+        long filteredRows = response.getFilteredRows();
+        if (filteredRows == 0) {
+            return response.toBuilder().setLoadedRows(rowNum).build();
+        }
+        if (filteredRows >= batchRowNum) {
+            return response.toBuilder().setLoadedRows(0).setFilteredRows(rowNum).build();
+        }
+        return response;
+    }
+}
@@ -45,6 +45,12 @@ public class GroupCommitManager {
 
     private final Map<Long, SchemaChangeStatus> statusMap = new ConcurrentHashMap<>();
 
+    private final GroupCommitInsertCoalescer insertCoalescer = new GroupCommitInsertCoalescer();
+
+    public GroupCommitInsertCoalescer getInsertCoalescer() {
+        return insertCoalescer;
+    }
+
     public boolean isBlock(long tableId) {
         if (statusMap.containsKey(tableId)) {
             return statusMap.get(tableId) == SchemaChangeStatus.BLOCK;
@@ -0,0 +1,221 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.load;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MaterializedIndex;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.Replica;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.system.Backend;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Select the backend to redirect a stream load to by "power of two choices":
+ * pick two random candidates and keep the less loaded one.
+ *
+ * The load of a backend is estimated from the load statistics reported by heartbeat
+ * (memtable memory, flush queue and open load channels) plus the number of loads this FE
+ * has redirected to it since the last heartbeat, which are not yet reflected in the statistics.
+ * Backends holding more replicas of the target table get a small bonus, because the data
+ * written to local replicas need not be sent over the network. The bonus is at most 1, so it is only
+ * computed when the scores of the two candidates are that close, and it is cached per table until
+ * the meta of the table changes.
+ */
+public class StreamLoadRedirectPolicy {
+    // memtable memory is normalized by the default write_buffer_size of BE,
+    // so that one full memtable weighs as much as one running load.
+    private static final long MEMTABLE_MEM_UNIT = 200L * 1024 * 1024;
+    // limit the number of tablets visited when computing locality of a large table
+    private static final int MAX_LOCALITY_TABLETS = 1024;
+
+    private static final StreamLoadRedirectPolicy INSTANCE = new StreamLoadRedirectPolicy();
+
+    // backend id -> loads redirected to it in the current heartbeat window
+    private final Map<Long, InFlightCounter> inFlightCounters = new ConcurrentHashMap<>();
+    // table id -> locality of the table
+    private final Cache<Long, TableLocality> localityCache = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    public static StreamLoadRedirectPolicy getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Choose one backend from the candidates and count it as in flight.
+     * dbName and tableName are used for locality and may be null.
+     */
+    public Backend select(List<Backend> candidates, String dbName, String tableName) {
+        Preconditions.checkArgument(!candidates.isEmpty());
+        Backend chosen;
+        if (candidates.size() == 1) {
+            chosen = candidates.get(0);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            Backend a = candidates.get(first);
+            Backend b = candidates.get(second);
+            double scoreA = getScore(a);
+            double scoreB = getScore(b);
+            // the locality bonus is in [0, 1], it can't change the choice unless the scores are close
+            if (Math.abs(scoreA - scoreB) <= 1) {
+                Map<Long, Double> locality = getLocality(dbName, tableName);
+                scoreA -= locality.getOrDefault(a.getId(), 0.0);
+                scoreB -= locality.getOrDefault(b.getId(), 0.0);
+            }
+            chosen = scoreA <= scoreB ? a : b;
+        }
+        getCounter(chosen.getId()).increase();
+        return chosen;
+    }
+
+    public long getInFlight(long backendId) {
+        InFlightCounter counter = inFlightCounters.get(backendId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private double getScore(Backend backend) {
+        return getInFlight(backend.getId())
+                + backend.getLoadChannelNum()
+                + backend.getFlushQueueSize()
+                + (double) backend.getLoadMemUsage() / MEMTABLE_MEM_UNIT;
+    }
+
+    private InFlightCounter getCounter(long backendId) {
+        return inFlightCounters.computeIfAbsent(backendId, k -> new InFlightCounter());
+    }
+
+    private Map<Long, Double> getLocality(String dbName, String tableName) {
+        if (dbName == null || tableName == null) {
+            return Collections.emptyMap();
+        }
+        Database db = Env.getCurrentInternalCatalog().getDbNullable(dbName);
+        if (db == null) {
+            return Collections.emptyMap();
+        }
+        Table table = db.getTableNullable(tableName);
+        if (!(table instanceof OlapTable)) {
+            return Collections.emptyMap();
+        }
+        return getLocality((OlapTable) table);
+    }
+
+    // the replicas are only moved under the write lock of table, which changes the meta version,
+    // the loads committed to the table don't.
+    @VisibleForTesting
+    Map<Long, Double> getLocality(OlapTable table) {
+        TableLocality cached = localityCache.getIfPresent(table.getId());
+        if (cached != null && table.isMetaVersionValid(cached.metaVersion)) {
+            return cached.locality;
+        }
+        TableLocality locality = computeLocality(table);
+        localityCache.put(table.getId(), locality);
+        return locality.locality;
+    }
+
+    // backend id -> ratio of the visited tablets of the table which have a replica on it
+    private TableLocality computeLocality(OlapTable olapTable) {
+        Map<Long, Double> locality = Maps.newHashMap();
+        long metaVersion;
+        int tabletNum = 0;
+        olapTable.readLock();
+        try {
+            // stable under the read lock
+            metaVersion = olapTable.getMetaVersion();
+            outer:
+            for (Partition partition : olapTable.getPartitions()) {
+                MaterializedIndex baseIndex = partition.getBaseIndex();
+                for (Tablet tablet : baseIndex.getTablets()) {
+                    if (tabletNum >= MAX_LOCALITY_TABLETS) {
+                        break outer;
+                    }
+                    tabletNum++;
+                    for (Replica replica : tablet.getReplicas()) {
+                        locality.merge(replica.getBackendId(), 1.0, Double::sum);
+                    }
+                }
+            }
+        } finally {
+            olapTable.readUnlock();
+        }
+        if (tabletNum > 0) {
+            final int total = tabletNum;
+            locality.replaceAll((k, v) -> v / total);
+        }
+        return new TableLocality(metaVersion, Collections.unmodifiableMap(locality));
+    }
+
+    private static class TableLocality {
+        private final long metaVersion;
+        private final Map<Long, Double> locality;
+
+        private TableLocality(long metaVersion, Map<Long, Double> locality) {
+            this.metaVersion = metaVersion;
+            this.locality = locality;
+        }
+    }
+
+    // Count of loads redirected to a backend. Reset every heartbeat interval, after which
+    // the loads are expected to be reflected in the statistics reported by the backend.
+    private static class InFlightCounter {
+        private final AtomicLong count = new AtomicLong(0);
+        private volatile long windowStartMs = System.currentTimeMillis();
+
+        private void rollIfExpired() {
+            long now = System.currentTimeMillis();
+            if (now - windowStartMs >= FeConstants.heartbeat_interval_second * 1000L) {
+                windowStartMs = now;
+                count.set(0);
+            }
+        }
+
+        void increase() {
+            rollIfExpired();
+            count.incrementAndGet();
+        }
+
+        long get() {
+            rollIfExpired();
+            return count.get();
+        }
+    }
+}
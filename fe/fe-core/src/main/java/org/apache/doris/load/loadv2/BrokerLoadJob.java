@@ -24,6 +24,7 @@ import org.apache.doris.catalog.Database;
 import org.apache.doris.catalog.Env;
 import org.apache.doris.catalog.OlapTable;
 import org.apache.doris.catalog.Table;
+import org.apache.doris.catalog.TableIf.TableType;
 import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.DataQualityException;
@@ -50,6 +51,7 @@ import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.qe.OriginStatement;
 import org.apache.doris.qe.SessionVariable;
 import org.apache.doris.service.FrontendOptions;
+import org.apache.doris.thrift.TBrokerFileStatus;
 import org.apache.doris.thrift.TUniqueId;
 import org.apache.doris.transaction.BeginTransactionException;
 import org.apache.doris.transaction.TransactionState;
@@ -82,6 +84,9 @@ public class BrokerLoadJob extends BulkLoadJob {
     private Profile jobProfile;
     // If set to true, the profile of load job with be pushed to ProfileManager
     private boolean enableProfile = false;
+    // If set to true, loading tasks are created and submitted by the pending task table by table
+    // while files are still being listed, instead of after all files are listed.
+    private boolean submitTaskPerTable = false;
 
     // for log replay and unit test
     public BrokerLoadJob() {
@@ -111,6 +116,7 @@ public class BrokerLoadJob extends BulkLoadJob {
 
     @Override
     protected void unprotectedExecuteJob() {
+        submitTaskPerTable = Config.enable_broker_load_submit_task_per_table && !brokerDesc.isMultiLoadBroker();
         LoadTask task = new BrokerLoadPendingTask(this, fileGroupAggInfo.getAggKeyToFileGroups(),
                 brokerDesc, getPriority());
         idToTasks.put(task.getSignature(), task);
@@ -164,10 +170,22 @@ public class BrokerLoadJob extends BulkLoadJob {
 
             // add task id into finishedTaskIds
             finishedTaskIds.add(attachment.getTaskId());
+            if (submitTaskPerTable) {
+                // loading tasks have been submitted by the pending task,
+                // commit txn here if all of them have already finished.
+                if (finishedTaskIds.size() != idToTasks.size()) {
+                    return;
+                }
+            }
         } finally {
             writeUnlock();
         }
 
+        if (submitTaskPerTable) {
+            commitTxnAfterAllTasksFinished();
+            return;
+        }
+
         try {
             Database db = getDb();
             createLoadingTask(db, attachment);
@@ -195,9 +213,7 @@ public class BrokerLoadJob extends BulkLoadJob {
                 Lists.newArrayList(fileGroupAggInfo.getAllTableIds()));
         // divide job into broker loading task by table
         List<LoadLoadingTask> newLoadingTasks = Lists.newArrayList();
-        this.jobProfile = new Profile("BrokerLoadJob " + id + ". " + label, true);
-        ProgressManager progressManager = Env.getCurrentProgressManager();
-        progressManager.registerProgressSimple(String.valueOf(id));
+        initJobProfile();
         MetaLockUtils.readLockTables(tableList);
         try {
             for (Map.Entry<FileGroupAggKey, List<BrokerFileGroup>> entry
@@ -206,33 +222,10 @@ public class BrokerLoadJob extends BulkLoadJob {
                 List<BrokerFileGroup> brokerFileGroups = entry.getValue();
                 long tableId = aggKey.getTableId();
                 OlapTable table = (OlapTable) db.getTableNullable(tableId);
-                // Generate loading task and init the plan of task
-                LoadLoadingTask task = new LoadLoadingTask(db, table, brokerDesc,
-                        brokerFileGroups, getDeadlineMs(), getExecMemLimit(),
-                        isStrictMode(), isPartialUpdate(), transactionId, this, getTimeZone(), getTimeout(),
-                        getLoadParallelism(), getSendBatchParallelism(),
-                        getMaxFilterRatio() <= 0, enableProfile ? jobProfile : null, isSingleTabletLoadPerSink(),
-                        useNewLoadScanNode(), getPriority());
-
-                UUID uuid = UUID.randomUUID();
-                TUniqueId loadId = new TUniqueId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
-                task.init(loadId, attachment.getFileStatusByTable(aggKey),
-                        attachment.getFileNumByTable(aggKey), getUserInfo());
-                idToTasks.put(task.getSignature(), task);
                 // idToTasks contains previous LoadPendingTasks, so idToTasks is just used to save all tasks.
                 // use newLoadingTasks to save new created loading tasks and submit them later.
-                newLoadingTasks.add(task);
-                // load id will be added to loadStatistic when executing this task
-                // save all related tables and rollups in transaction state
-                TransactionState txnState = Env.getCurrentGlobalTransactionMgr()
-                        .getTransactionState(dbId, transactionId);
-                if (txnState == null) {
-                    throw new UserException("txn does not exist: " + transactionId);
-                }
-                txnState.addTableIndexes(table);
-                if (isPartialUpdate()) {
-                    txnState.setSchemaForPartialUpdate(table);
-                }
+                newLoadingTasks.add(newLoadingTask(db, table, brokerFileGroups,
+                        attachment.getFileStatusByTable(aggKey), attachment.getFileNumByTable(aggKey)));
             }
         } finally {
             MetaLockUtils.readUnlockTables(tableList);
@@ -243,6 +236,66 @@ public class BrokerLoadJob extends BulkLoadJob {
         }
     }
 
+    /**
+     * Called by the pending task to load all files of one file group agg key while the files of the remaining
+     * agg keys are still being listed, if loading tasks are submitted table by table.
+     * The task is planned here on the pending task thread, like the tasks created in createLoadingTask.
+     */
+    public void submitLoadingTask(FileGroupAggKey aggKey, List<BrokerFileGroup> fileGroups,
+            List<List<TBrokerFileStatus>> fileStatusList, int fileNum) throws UserException {
+        if (isTxnDone()) {
+            throw new UserException("Load job " + id + " has been " + state + ", stop listing files");
+        }
+        Database db = getDb();
+        OlapTable table = (OlapTable) db.getTableOrMetaException(aggKey.getTableId(), TableType.OLAP);
+        LoadLoadingTask task;
+        if (jobProfile == null) {
+            initJobProfile();
+            loadStartTimestamp = System.currentTimeMillis();
+        }
+        table.readLock();
+        try {
+            task = newLoadingTask(db, table, fileGroups, fileStatusList, fileNum);
+        } finally {
+            table.readUnlock();
+        }
+        Env.getCurrentEnv().getLoadingLoadTaskScheduler().submit(task);
+    }
+
+    private void initJobProfile() {
+        this.jobProfile = new Profile("BrokerLoadJob " + id + ". " + label, true);
+        ProgressManager progressManager = Env.getCurrentProgressManager();
+        progressManager.registerProgressSimple(String.valueOf(id));
+    }
+
+    // Generate loading task and init the plan of task. Table's read lock should be held.
+    private LoadLoadingTask newLoadingTask(Database db, OlapTable table, List<BrokerFileGroup> brokerFileGroups,
+            List<List<TBrokerFileStatus>> fileStatusList, int fileNum) throws UserException {
+        LoadLoadingTask task = new LoadLoadingTask(db, table, brokerDesc,
+                brokerFileGroups, getDeadlineMs(), getExecMemLimit(),
+                isStrictMode(), isPartialUpdate(), transactionId, this, getTimeZone(), getTimeout(),
+                getLoadParallelism(), getSendBatchParallelism(),
+                getMaxFilterRatio() <= 0, enableProfile ? jobProfile : null, isSingleTabletLoadPerSink(),
+                useNewLoadScanNode(), getPriority());
+
+        UUID uuid = UUID.randomUUID();
+        TUniqueId loadId = new TUniqueId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        task.init(loadId, fileStatusList, fileNum, getUserInfo());
+        idToTasks.put(task.getSignature(), task);
+        // load id will be added to loadStatistic when executing this task
+        // save all related tables and rollups in transaction state
+        TransactionState txnState = Env.getCurrentGlobalTransactionMgr()
+                .getTransactionState(dbId, transactionId);
+        if (txnState == null) {
+            throw new UserException("txn does not exist: " + transactionId);
+        }
+        txnState.addTableIndexes(table);
+        if (isPartialUpdate()) {
+            txnState.setSchemaForPartialUpdate(table);
+        }
+        return task;
+    }
+
     private void onLoadingTaskFinished(BrokerLoadingTaskAttachment attachment) {
         writeLock();
         try {
@@ -275,6 +328,10 @@ public class BrokerLoadJob extends BulkLoadJob {
             writeUnlock();
         }
 
+        commitTxnAfterAllTasksFinished();
+    }
+
+    private void commitTxnAfterAllTasksFinished() {
         if (LOG.isDebugEnabled()) {
             LOG.debug(new LogBuilder(LogKey.LOAD_JOB, id)
                     .add("commit_infos", Joiner.on(",").join(commitInfos))
@@ -292,7 +349,7 @@ public class BrokerLoadJob extends BulkLoadJob {
         try {
             db = getDb();
             tableList = db.getTablesOnIdOrderOrThrowException(Lists.newArrayList(fileGroupAggInfo.getAllTableIds()));
-            MetaLockUtils.writeLockTablesOrMetaException(tableList);
+            MetaLockUtils.dataWriteLockTablesOrMetaException(tableList);
         } catch (MetaNotFoundException e) {
             LOG.warn(new LogBuilder(LogKey.LOAD_JOB, id)
                     .add("database_id", dbId)
@@ -321,6 +378,10 @@ public class BrokerLoadJob extends BulkLoadJob {
         }
     }
 
+    public boolean isSubmitTaskPerTable() {
+        return submitTaskPerTable;
+    }
+
     private void writeProfile() {
         if (!enableProfile) {
             return;
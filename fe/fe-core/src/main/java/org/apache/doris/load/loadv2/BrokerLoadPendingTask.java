@@ -57,8 +57,16 @@ public class BrokerLoadPendingTask extends LoadTask {
     @Override
     void executeTask() throws UserException {
         LOG.info("begin to execute broker pending task. job: {}", callback.getCallbackId());
-        getAllFileStatus();
-        ((BrokerLoadJob) callback).beginTxn();
+        if (((BrokerLoadJob) callback).isSubmitTaskPerTable()) {
+            // txn must be begun before the first loading task is submitted.
+            ((BrokerLoadJob) callback).beginTxn();
+            // loading tasks may have been submitted, a retry would list and load the files again.
+            this.retryTime = 0;
+            getAllFileStatus();
+        } else {
+            getAllFileStatus();
+            ((BrokerLoadJob) callback).beginTxn();
+        }
     }
 
     private void getAllFileStatus() throws UserException {
@@ -130,7 +138,16 @@ public class BrokerLoadPendingTask extends LoadTask {
 
             totalFileSize += tableTotalFileSize;
             totalFileNum += tableTotalFileNum;
-            ((BrokerPendingTaskAttachment) attachment).addFileStatus(aggKey, fileStatusList);
+            if (((BrokerLoadJob) callback).isSubmitTaskPerTable()) {
+                // all files of this table are listed, load them while listing the files of next table.
+                // the files of one table are loaded by one loading task, because the tablets of
+                // the table are written by the same txn, and only one rowset is kept for each tablet.
+                ((BrokerLoadJob) callback).setLoadFileInfo(totalFileNum, totalFileSize);
+                ((BrokerLoadJob) callback).submitLoadingTask(aggKey, fileGroups, fileStatusList,
+                        tableTotalFileNum);
+            } else {
+                ((BrokerPendingTaskAttachment) attachment).addFileStatus(aggKey, fileStatusList);
+            }
             LOG.info("get {} files to be loaded. total size: {}. cost: {} ms, job: {}",
                     tableTotalFileNum, tableTotalFileSize, (System.currentTimeMillis() - start),
                     callback.getCallbackId());
@@ -47,6 +47,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -57,6 +58,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -76,7 +78,7 @@ public class MysqlLoadManager {
     private  ThreadPoolExecutor mysqlLoadPool;
     private final TokenManager tokenManager;
 
-    private static class MySqlLoadContext {
+    static class MySqlLoadContext {
         private boolean finished;
         private HttpPut request;
         private boolean isCancelled;
@@ -111,6 +113,59 @@ public class MysqlLoadManager {
         }
     }
 
+    /**
+     * Streams the file of LOAD DATA LOCAL INFILE from the mysql channel to the stream load request.
+     * The packets are read in the thread executing the request and written to the chunked request body
+     * directly, so there is no extra copy and no thread blocked in the pool, and the data in flight is
+     * bounded by one mysql packet.
+     */
+    static class MysqlChannelEntity extends AbstractHttpEntity {
+        private final ConnectContext context;
+        private final MySqlLoadContext loadContext;
+
+        MysqlChannelEntity(ConnectContext context, MySqlLoadContext loadContext) {
+            this.context = context;
+            this.loadContext = loadContext;
+            setContentType(ContentType.TEXT_PLAIN.toString());
+            setChunked(true);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException("mysql channel entity can only be written to a stream");
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            ByteBuffer buffer = context.getMysqlChannel().fetchOnePacket();
+            // MySql client will send an empty packet when eof
+            while (buffer != null && buffer.remaining() != 0) {
+                outStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                buffer = context.getMysqlChannel().fetchOnePacket();
+            }
+            if (buffer == null) {
+                throw new IOException("mysql client connection is closed while sending file");
+            }
+            loadContext.setFinished(true);
+            outStream.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return !loadContext.isFinished();
+        }
+    }
+
     private static class MySqlLoadFailRecord {
         private final String label;
 
@@ -183,7 +238,7 @@ public class MysqlLoadManager {
         LOG.info("Executing mysql load with id: {}.", loadId);
         try (final CloseableHttpClient httpclient = HttpClients.createDefault()) {
             for (String file : filePaths) {
-                InputStreamEntity entity = getInputStreamEntity(context, clientLocal, file, loadId);
+                AbstractHttpEntity entity = getHttpEntity(context, clientLocal, file, loadId);
                 HttpPut request = generateRequestForMySqlLoad(entity, dataDesc, database, table, token);
                 loadContext.setRequest(request);
                 try (final CloseableHttpResponse response = httpclient.execute(request)) {
@@ -203,15 +258,9 @@ public class MysqlLoadManager {
             }
         } catch (Throwable t) {
             LOG.warn("Execute mysql load {} failed, msg: {}", loadId, t);
-            // drain the data from client conn util empty packet received, otherwise the connection will be reset
             if (clientLocal && loadContextMap.containsKey(loadId) && !loadContextMap.get(loadId).isFinished()) {
                 LOG.warn("Not drained yet, try reading left data from client connection for load {}.", loadId);
-                ByteBuffer buffer = context.getMysqlChannel().fetchOnePacket();
-                // MySql client will send an empty packet when eof
-                while (buffer != null && buffer.limit() != 0) {
-                    buffer = context.getMysqlChannel().fetchOnePacket();
-                }
-                LOG.debug("Finished reading the left bytes.");
+                drainMysqlChannel(context);
             }
             // make cancel message to user
             if (loadContextMap.containsKey(loadId) && loadContextMap.get(loadId).isCancelled()) {
@@ -282,7 +331,7 @@ public class MysqlLoadManager {
         return null;
     }
 
-    private InputStreamEntity getInputStreamEntity(
+    private AbstractHttpEntity getHttpEntity(
             ConnectContext context,
             boolean isClientLocal,
             String file,
@@ -292,6 +341,9 @@ public class MysqlLoadManager {
         if (isClientLocal) {
             // mysql client will check the file exist.
             replyClientForReadFile(context, file);
+            if (Config.enable_mysql_load_streaming && loadContextMap.containsKey(loadId)) {
+                return new MysqlChannelEntity(context, loadContextMap.get(loadId));
+            }
             inputStream = new ByteBufferNetworkInputStream();
             fillByteBufferAsync(context, (ByteBufferNetworkInputStream) inputStream, loadId);
         } else {
@@ -301,6 +353,18 @@ public class MysqlLoadManager {
         return new InputStreamEntity(inputStream, -1, ContentType.TEXT_PLAIN);
     }
 
+    // drain the data from client conn util empty packet received, otherwise the connection will be reset
+    static void drainMysqlChannel(ConnectContext context) throws IOException {
+        ByteBuffer buffer = context.getMysqlChannel().fetchOnePacket();
+        // MySql client will send an empty packet when eof
+        while (buffer != null && buffer.limit() != 0) {
+            buffer = context.getMysqlChannel().fetchOnePacket();
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Finished reading the left bytes.");
+        }
+    }
+
     private void replyClientForReadFile(ConnectContext context, String path) throws IOException {
         MysqlSerializer serializer = context.getMysqlChannel().getSerializer();
         serializer.reset();
@@ -333,7 +397,7 @@ public class MysqlLoadManager {
 
     // public only for test
     public HttpPut generateRequestForMySqlLoad(
-            InputStreamEntity entity,
+            AbstractHttpEntity entity,
             DataDescription desc,
             String database,
             String table,
@@ -646,7 +646,7 @@ public class SparkLoadJob extends BulkLoadJob {
         Database db = getDb();
         List<Table> tableList = db.getTablesOnIdOrderOrThrowException(
                 Lists.newArrayList(tableToLoadPartitions.keySet()));
-        MetaLockUtils.writeLockTablesOrMetaException(tableList);
+        MetaLockUtils.dataWriteLockTablesOrMetaException(tableList);
         try {
             Env.getCurrentGlobalTransactionMgr().commitTransaction(
                     dbId, tableList, transactionId, commitInfos,
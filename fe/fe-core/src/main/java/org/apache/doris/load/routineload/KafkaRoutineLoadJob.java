@@ -28,6 +28,7 @@ import org.apache.doris.common.DdlException;
 import org.apache.doris.common.InternalErrorCode;
 import org.apache.doris.common.LoadException;
 import org.apache.doris.common.Pair;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.io.Text;
 import org.apache.doris.common.util.DebugUtil;
@@ -37,6 +38,7 @@ import org.apache.doris.common.util.LogKey;
 import org.apache.doris.common.util.SmallFileMgr;
 import org.apache.doris.common.util.SmallFileMgr.SmallFile;
 import org.apache.doris.common.util.TimeUtils;
+import org.apache.doris.load.routineload.kafka.KafkaConfigType;
 import org.apache.doris.load.routineload.kafka.KafkaConfiguration;
 import org.apache.doris.load.routineload.kafka.KafkaDataSourceProperties;
 import org.apache.doris.persist.AlterRoutineLoadJobOperationLog;
@@ -68,6 +70,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * KafkaRoutineLoadJob is a kind of RoutineLoadJob which fetch data from kafka.
@@ -76,6 +80,11 @@ import java.util.UUID;
 public class KafkaRoutineLoadJob extends RoutineLoadJob {
     private static final Logger LOG = LogManager.getLogger(KafkaRoutineLoadJob.class);
 
+    // Shared by all kafka jobs to refresh the latest offsets without blocking the task scheduler,
+    // used when Config.enable_routine_load_adaptive_schedule is true.
+    private static final ExecutorService OFFSET_REFRESH_POOL = ThreadPoolManager.newDaemonFixedThreadPool(
+            4, 1024, "routine-load-offset-refresh-pool", true);
+
     public static final String KAFKA_FILE_CATALOG = "kafka";
     public static final String PROP_GROUP_ID = "group.id";
 
@@ -98,6 +107,10 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     // Will be updated periodically by calling hasMoreDataToConsume()
     private Map<Integer, Long> cachedPartitionWithLatestOffsets = Maps.newConcurrentMap();
 
+    // Whether there is a pending asynchronous refresh of cachedPartitionWithLatestOffsets,
+    // so that each job has at most one refresh in flight.
+    private final AtomicBoolean offsetRefreshing = new AtomicBoolean(false);
+
     // The kafka partition fetch from kafka server.
     // Will be updated periodically by calling updateKafkaPartitions();
     private List<Integer> newCurrentKafkaPartition = Lists.newArrayList();
@@ -138,6 +151,12 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return convertedCustomProperties;
     }
 
+    // for multi-table load, whether the destination table of each message is its key
+    public boolean isTableNameFromKey() {
+        return KafkaConfigType.TableNameLocation.KEY.name().equalsIgnoreCase(
+                jobProperties.get(KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getName()));
+    }
+
     private boolean isOffsetForTimes() {
         long offset = TimeUtils.timeStringToLong(this.kafkaDefaultOffSet);
         return offset != -1;
@@ -519,6 +538,12 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         if (MapUtils.isNotEmpty(kafkaDataSourceProperties.getCustomKafkaProperties())) {
             setCustomKafkaProperties(kafkaDataSourceProperties.getCustomKafkaProperties());
         }
+        if (isMultiTable() && MapUtils.isNotEmpty(kafkaDataSourceProperties.getTableNameProperties())) {
+            // keep it in job properties, which are persisted with the job
+            String tableNameLocation = kafkaDataSourceProperties.getTableNameProperties()
+                    .get(KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getName());
+            jobProperties.put(KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getName(), tableNameLocation);
+        }
         // set group id if not specified
         this.customProperties.putIfAbsent(PROP_GROUP_ID, name + "_" + UUID.randomUUID());
     }
@@ -568,6 +593,10 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         Map<String, String> dataSourceProperties = Maps.newHashMap();
         dataSourceProperties.put("kafka_broker_list", brokerList);
         dataSourceProperties.put("kafka_topic", topic);
+        if (isTableNameFromKey()) {
+            dataSourceProperties.put(KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getName(),
+                    KafkaConfigType.TableNameLocation.KEY.name().toLowerCase());
+        }
         return dataSourceProperties;
     }
 
@@ -719,6 +748,15 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
             }
         }
 
+        if (Config.enable_routine_load_adaptive_schedule) {
+            // do not block the task scheduler on kafka, the task will be checked again
+            // after the offsets of all partitions of this job are refreshed in background.
+            refreshLatestOffsetsAsync(taskId);
+            LOG.debug("no more data to consume in cached offsets, refresh asynchronously. task {}, job {}",
+                    taskId, id);
+            return false;
+        }
+
         try {
             // all offsets to be consumed are newer than offsets in cachedPartitionWithLatestOffsets,
             // maybe the cached offset is out-of-date, fetch from kafka server again
@@ -747,6 +785,56 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return false;
     }
 
+    private void refreshLatestOffsetsAsync(UUID taskId) {
+        if (!offsetRefreshing.compareAndSet(false, true)) {
+            return;
+        }
+        List<Integer> partitions;
+        readLock();
+        try {
+            partitions = Lists.newArrayList(currentKafkaPartitions);
+        } finally {
+            readUnlock();
+        }
+        try {
+            OFFSET_REFRESH_POOL.submit(() -> {
+                try {
+                    List<Pair<Integer, Long>> latestOffsets = KafkaUtil.getLatestOffsets(id, taskId, getBrokerList(),
+                            getTopic(), getConvertedCustomProperties(), partitions);
+                    for (Pair<Integer, Long> pair : latestOffsets) {
+                        cachedPartitionWithLatestOffsets.put(pair.first, pair.second);
+                    }
+                } catch (Exception e) {
+                    LOG.warn("failed to refresh latest partition offset of job {}. {}", id, e.getMessage(), e);
+                } finally {
+                    offsetRefreshing.set(false);
+                }
+            });
+        } catch (Exception e) {
+            offsetRefreshing.set(false);
+            LOG.warn("failed to submit latest partition offset refresh of job {}", id, e);
+        }
+    }
+
+    /**
+     * Returns how many times of max_batch_rows the given offsets lag behind the cached latest offsets,
+     * capped by Config.routine_load_max_batch_scale. At least 1 is returned.
+     */
+    public long getBatchScale(Map<Integer, Long> partitionIdToOffset) {
+        if (!Config.enable_routine_load_adaptive_schedule || maxBatchRows <= 0) {
+            return 1;
+        }
+        long lag = 0;
+        for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
+            Long latestOffset = cachedPartitionWithLatestOffsets.get(entry.getKey());
+            // the offset to be consumed may be a special value such as OFFSET_END_VAL, which can not estimate lag
+            if (latestOffset != null && entry.getValue() >= 0 && latestOffset > entry.getValue()) {
+                lag += latestOffset - entry.getValue();
+            }
+        }
+        return Math.max(1, Math.min(lag / maxBatchRows, Config.routine_load_max_batch_scale));
+    }
+
     @Override
     protected String getLag() {
         Map<Integer, Long> partitionIdToOffsetLag = ((KafkaProgress) progress).getLag(cachedPartitionWithLatestOffsets);
@@ -86,6 +86,9 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         tKafkaLoadInfo.setBrokers(routineLoadJob.getBrokerList());
         tKafkaLoadInfo.setPartitionBeginOffset(partitionIdToOffset);
         tKafkaLoadInfo.setProperties(routineLoadJob.getConvertedCustomProperties());
+        if (isMultiTable && routineLoadJob.isTableNameFromKey()) {
+            tKafkaLoadInfo.setTableNameFromKey(true);
+        }
         tRoutineLoadTask.setKafkaLoadInfo(tKafkaLoadInfo);
         tRoutineLoadTask.setType(TLoadSourceType.KAFKA);
         tRoutineLoadTask.setIsMultiTable(isMultiTable);
@@ -101,8 +104,10 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
             Env.getCurrentEnv().getRoutineLoadManager().addMultiLoadTaskTxnIdToRoutineLoadJobId(txnId, jobId);
         }
         tRoutineLoadTask.setMaxIntervalS(routineLoadJob.getMaxBatchIntervalS());
-        tRoutineLoadTask.setMaxBatchRows(routineLoadJob.getMaxBatchRows());
-        tRoutineLoadTask.setMaxBatchSize(routineLoadJob.getMaxBatchSizeBytes());
+        // consume more data in one txn if partitions lag far behind, to reduce the txn rate
+        long batchScale = routineLoadJob.getBatchScale(partitionIdToOffset);
+        tRoutineLoadTask.setMaxBatchRows(routineLoadJob.getMaxBatchRows() * batchScale);
+        tRoutineLoadTask.setMaxBatchSize(routineLoadJob.getMaxBatchSizeBytes() * batchScale);
         if (!routineLoadJob.getFormat().isEmpty() && routineLoadJob.getFormat().equalsIgnoreCase("json")) {
             tRoutineLoadTask.setFormat(TFileFormatType.FORMAT_JSON);
         } else {
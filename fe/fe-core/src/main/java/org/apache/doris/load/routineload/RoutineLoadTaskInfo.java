@@ -55,6 +55,7 @@ public abstract class RoutineLoadTaskInfo {
 
     protected UUID id;
     protected static final long INIT_TXN_ID = -1L;
+    private static final long MIN_IDLE_BACKOFF_MS = 1000L;
     protected long txnId = INIT_TXN_ID;
     protected long jobId;
     protected String clusterName;
@@ -71,6 +72,11 @@ public abstract class RoutineLoadTaskInfo {
 
     protected long timeoutMs = -1;
 
+    // the task will not be checked for new data before this time if it found no data last time.
+    // used when Config.enable_routine_load_adaptive_schedule is true.
+    private long nextIdleCheckTimeMs = -1;
+    private long idleBackoffMs = 0;
+
     protected boolean isMultiTable = false;
 
     // this status will be set when corresponding transaction's status is changed.
@@ -136,6 +142,25 @@ public abstract class RoutineLoadTaskInfo {
         this.lastScheduledTime = lastScheduledTime;
     }
 
+    public boolean isIdleBackoff(long nowMs) {
+        return nowMs < nextIdleCheckTimeMs;
+    }
+
+    /**
+     * Delays the next check of new data, the delay is doubled each time no data is found
+     * and capped by the max batch interval of the job.
+     */
+    public void backoffIdle(long maxBackoffMs) {
+        long maxMs = Math.max(maxBackoffMs, MIN_IDLE_BACKOFF_MS);
+        idleBackoffMs = Math.min(Math.max(idleBackoffMs * 2, MIN_IDLE_BACKOFF_MS), maxMs);
+        nextIdleCheckTimeMs = System.currentTimeMillis() + idleBackoffMs;
+    }
+
+    public void resetIdleBackoff() {
+        idleBackoffMs = 0;
+        nextIdleCheckTimeMs = -1;
+    }
+
     public long getTimeoutMs() {
         return timeoutMs;
     }
@@ -108,6 +108,12 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
                 needScheduleTasksQueue.put(routineLoadTaskInfo);
                 return;
             }
+            if (Config.enable_routine_load_adaptive_schedule
+                    && routineLoadTaskInfo.isIdleBackoff(System.currentTimeMillis())) {
+                // no data was found last time, do not check this task again till the back-off expires
+                needScheduleTasksQueue.put(routineLoadTaskInfo);
+                return;
+            }
             scheduleOneTask(routineLoadTaskInfo);
         } catch (Exception e) {
             LOG.warn("Taking routine load task from queue has been interrupted", e);
@@ -130,9 +136,14 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
 
         // check if topic has more data to consume
         if (!routineLoadTaskInfo.hasMoreDataToConsume()) {
+            if (Config.enable_routine_load_adaptive_schedule) {
+                RoutineLoadJob job = routineLoadManager.getJob(routineLoadTaskInfo.getJobId());
+                routineLoadTaskInfo.backoffIdle(job == null ? 0 : job.getMaxBatchIntervalS() * 1000);
+            }
             needScheduleTasksQueue.put(routineLoadTaskInfo);
             return;
         }
+        routineLoadTaskInfo.resetIdleBackoff();
 
         // allocate BE slot for this task.
         // this should be done before txn begin, or the txn may be begun successfully but failed to be allocated.
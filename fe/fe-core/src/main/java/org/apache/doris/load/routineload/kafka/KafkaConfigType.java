@@ -20,10 +20,12 @@ package org.apache.doris.load.routineload.kafka;
 public class KafkaConfigType {
 
     /**
-     * support in future
+     * KEY: the table name is the key of the kafka message
+     * VALUE: the table name is the prefix of the message value, separated by '|'
      */
-    enum TableNameLocation {
-        KEY
+    public enum TableNameLocation {
+        KEY,
+        VALUE
     }
 
     enum TableNameFormat {
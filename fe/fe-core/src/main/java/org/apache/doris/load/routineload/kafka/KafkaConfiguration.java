@@ -38,7 +38,7 @@ public enum KafkaConfiguration {
 
     KAFKA_DEFAULT_OFFSETS("kafka_default_offsets", "OFFSET_END", offset -> offset),
     KAFKA_ORIGIN_DEFAULT_OFFSETS("kafka_origin_default_offsets", null, offset -> offset),
-    KAFKA_TABLE_NAME_LOCATION("kafka_table_name_location", "key",
+    KAFKA_TABLE_NAME_LOCATION("kafka_table_name_location", "value",
             value -> value.replace(" ", "")),
     KAFKA_TABLE_NAME_FORMAT("kafka_table_name_format", "TEXT",
             value -> value.replace(" ", "")),
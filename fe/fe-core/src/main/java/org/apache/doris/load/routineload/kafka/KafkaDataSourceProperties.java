@@ -199,7 +199,16 @@ public class KafkaDataSourceProperties extends AbstractDataSourceProperties {
 
         Integer tableNameIndex = KafkaConfiguration.KAFKA_TEXT_TABLE_NAME_FIELD_INDEX.getParameterValue(
                 originalDataSourceProperties.get(KafkaConfiguration.KAFKA_TEXT_TABLE_NAME_FIELD_INDEX.getName()));
+        String tableNameLocation = KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getParameterValue(
+                originalDataSourceProperties.get(KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getName()));
+        if (Arrays.stream(KafkaConfigType.TableNameLocation.values())
+                .noneMatch(location -> location.name().equalsIgnoreCase(tableNameLocation))) {
+            throw new AnalysisException(KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getName()
+                    + " should be one of " + Arrays.toString(KafkaConfigType.TableNameLocation.values()));
+        }
         tableNameProperties = new HashMap<>();
+        tableNameProperties.put(KafkaConfiguration.KAFKA_TABLE_NAME_LOCATION.getName(),
+                tableNameLocation.toLowerCase());
         tableNameProperties.put(KafkaConfiguration.KAFKA_TABLE_NAME_FORMAT.getName(), tableNameFormat);
         tableNameProperties.put(KafkaConfiguration.KAFKA_TEXT_TABLE_NAME_FIELD_DELIMITER.getName(), tableNameDelimiter);
         tableNameProperties.put(KafkaConfiguration.KAFKA_TEXT_TABLE_NAME_FIELD_INDEX.getName(),
@@ -0,0 +1,79 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.mtmv;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.TableIf;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Objects;
+
+/**
+ * base table of MTMV, only the tables of internal catalog are supported now.
+ */
+public class BaseTableInfo {
+    @SerializedName("di")
+    private long dbId;
+    @SerializedName("ti")
+    private long tableId;
+
+    public BaseTableInfo(long dbId, long tableId) {
+        this.dbId = dbId;
+        this.tableId = tableId;
+    }
+
+    public long getDbId() {
+        return dbId;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    /**
+     * get the table, or null if the db or table has been dropped.
+     */
+    public TableIf getTableNullable() {
+        Database db = Env.getCurrentInternalCatalog().getDbNullable(dbId);
+        return db == null ? null : db.getTableNullable(tableId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BaseTableInfo that = (BaseTableInfo) o;
+        return dbId == that.dbId && tableId == that.tableId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dbId, tableId);
+    }
+
+    @Override
+    public String toString() {
+        return "BaseTableInfo{dbId=" + dbId + ", tableId=" + tableId + '}';
+    }
+}
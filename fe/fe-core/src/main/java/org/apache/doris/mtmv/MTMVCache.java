@@ -0,0 +1,103 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.mtmv;
+
+import org.apache.doris.analysis.UserIdentity;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MTMV;
+import org.apache.doris.nereids.CascadesContext;
+import org.apache.doris.nereids.NereidsPlanner;
+import org.apache.doris.nereids.StatementContext;
+import org.apache.doris.nereids.jobs.executor.Rewriter;
+import org.apache.doris.nereids.parser.NereidsParser;
+import org.apache.doris.nereids.properties.PhysicalProperties;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.commands.ExplainCommand.ExplainLevel;
+import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalSink;
+import org.apache.doris.qe.AutoCloseConnectContext;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.OriginStatement;
+import org.apache.doris.system.SystemInfoService;
+
+/**
+ * The rewritten logical plan of the MTMV definition query, used by materialized view query rewrite.
+ * The plan is built in an independent statement context, so the expr ids in it never conflict with the query
+ * to be rewritten, and the rewriter should only compare it structurally.
+ */
+public class MTMVCache {
+    private final Plan logicalPlan;
+
+    public MTMVCache(Plan logicalPlan) {
+        this.logicalPlan = logicalPlan;
+    }
+
+    public Plan getLogicalPlan() {
+        return logicalPlan;
+    }
+
+    /**
+     * analyze and rewrite the definition query of the MTMV.
+     */
+    public static MTMVCache from(MTMV mtmv) {
+        return new MTMVCache(buildPlan(mtmv.getQuerySql(), buildConnectContext(mtmv)));
+    }
+
+    /**
+     * Analyze the query and rewrite it by the rules before materialized view rewrite, so the plan is at the same
+     * stage as the query plan to be rewritten, e.g. the partitions and tablets of its scans are not pruned yet.
+     */
+    public static Plan buildPlan(String querySql, ConnectContext connectContext) {
+        try (AutoCloseConnectContext r = new AutoCloseConnectContext(connectContext)) {
+            StatementContext statementContext = new StatementContext(r.connectContext,
+                    new OriginStatement(querySql, 0));
+            r.connectContext.setStatementContext(statementContext);
+            LogicalPlan parsedPlan = new NereidsParser().parseSingle(querySql);
+            NereidsPlanner planner = new NereidsPlanner(statementContext);
+            planner.plan(parsedPlan, PhysicalProperties.ANY, ExplainLevel.ANALYZED_PLAN);
+            CascadesContext cascadesContext = planner.getCascadesContext();
+            Rewriter.getWholeTreeRewriterBeforeMaterializedViewRewrite(cascadesContext).execute();
+            Plan plan = cascadesContext.getRewritePlan();
+            if (plan instanceof LogicalSink) {
+                plan = plan.child(0);
+            }
+            return plan;
+        }
+    }
+
+    private static ConnectContext buildConnectContext(MTMV mtmv) {
+        ConnectContext ctx = new ConnectContext();
+        ctx.setEnv(Env.getCurrentEnv());
+        ctx.setQualifiedUser(UserIdentity.ROOT.getQualifiedUser());
+        ctx.setCurrentUserIdentity(UserIdentity.ROOT);
+        ctx.setCluster(SystemInfoService.DEFAULT_CLUSTER);
+        ctx.getSessionVariable().setEnableNereidsPlanner(true);
+        // the definition query must not be rewritten by other materialized views
+        ctx.getSessionVariable().setEnableMaterializedViewRewrite(false);
+        EnvInfo envInfo = mtmv.getEnvInfo();
+        if (envInfo != null) {
+            if (envInfo.getCtlName() != null) {
+                ctx.changeDefaultCatalog(envInfo.getCtlName());
+            }
+            if (envInfo.getDbName() != null) {
+                ctx.setDatabase(envInfo.getDbName());
+            }
+        }
+        return ctx;
+    }
+}
@@ -0,0 +1,110 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.mtmv;
+
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.TableIf;
+
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The visible versions of the base table partitions when MTMV is refreshed.
+ * MTMV is fresh only if the partitions and versions of all base tables are not changed since then,
+ * query rewrite use this to make sure the rewritten query returns the same result as the origin one.
+ */
+public class MTMVRefreshSnapshot {
+    // table id -> partition id -> visible version
+    @SerializedName("pv")
+    private Map<Long, Map<Long, Long>> partitionVersions = Maps.newHashMap();
+
+    public MTMVRefreshSnapshot() {
+    }
+
+    /**
+     * take a snapshot of the current partition versions of base tables.
+     * return null if some base table is dropped or is not an olap table.
+     */
+    public static MTMVRefreshSnapshot of(Collection<BaseTableInfo> baseTables) {
+        MTMVRefreshSnapshot snapshot = new MTMVRefreshSnapshot();
+        for (BaseTableInfo baseTable : baseTables) {
+            Map<Long, Long> versions = getPartitionVersions(baseTable);
+            if (versions == null) {
+                return null;
+            }
+            snapshot.partitionVersions.put(baseTable.getTableId(), versions);
+        }
+        return snapshot;
+    }
+
+    /**
+     * whether the partitions and versions of all base tables are the same as the snapshot.
+     */
+    public boolean isFresh(Collection<BaseTableInfo> baseTables) {
+        if (baseTables.size() != partitionVersions.size()) {
+            return false;
+        }
+        for (BaseTableInfo baseTable : baseTables) {
+            Map<Long, Long> snapshotVersions = partitionVersions.get(baseTable.getTableId());
+            if (snapshotVersions == null || !snapshotVersions.equals(getPartitionVersions(baseTable))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<Long, Long> getPartitionVersions(BaseTableInfo baseTable) {
+        TableIf table = baseTable.getTableNullable();
+        if (!(table instanceof OlapTable)) {
+            return null;
+        }
+        OlapTable olapTable = (OlapTable) table;
+        Map<Long, Long> versions = Maps.newHashMap();
+        olapTable.readLock();
+        try {
+            for (Partition partition : olapTable.getPartitions()) {
+                versions.put(partition.getId(), partition.getVisibleVersion());
+            }
+        } finally {
+            olapTable.readUnlock();
+        }
+        return versions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MTMVRefreshSnapshot that = (MTMVRefreshSnapshot) o;
+        return Objects.equals(partitionVersions, that.partitionVersions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitionVersions);
+    }
+}
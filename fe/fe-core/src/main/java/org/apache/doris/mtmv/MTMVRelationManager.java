@@ -0,0 +1,146 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.mtmv;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MTMV;
+import org.apache.doris.catalog.Table;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index MTMVs by their base tables, so query rewrite could find the candidate MTMVs of a query quickly
+ * instead of scanning all tables of all databases.
+ */
+public class MTMVRelationManager {
+    private static final Logger LOG = LogManager.getLogger(MTMVRelationManager.class);
+
+    // base table id -> MTMV id -> MTMV
+    private final Map<Long, Map<Long, MTMV>> tableToMTMVs = Maps.newConcurrentMap();
+    // MTMV id -> base table ids, used to deregister
+    private final Map<Long, Set<Long>> mtmvToTables = Maps.newConcurrentMap();
+
+    public synchronized void registerMTMV(MTMV mtmv) {
+        if (Env.isCheckpointThread()) {
+            return;
+        }
+        deregisterMTMV(mtmv.getId());
+        ImmutableSet.Builder<Long> tableIds = ImmutableSet.builder();
+        for (BaseTableInfo baseTable : mtmv.getBaseTables()) {
+            tableIds.add(baseTable.getTableId());
+            tableToMTMVs.computeIfAbsent(baseTable.getTableId(), k -> Maps.newConcurrentMap())
+                    .put(mtmv.getId(), mtmv);
+        }
+        mtmvToTables.put(mtmv.getId(), tableIds.build());
+        LOG.info("register MTMV {} with base tables {}", mtmv.getName(), mtmv.getBaseTables());
+    }
+
+    public synchronized void deregisterMTMV(long mtmvId) {
+        Set<Long> tableIds = mtmvToTables.remove(mtmvId);
+        if (tableIds == null) {
+            return;
+        }
+        for (Long tableId : tableIds) {
+            Map<Long, MTMV> mtmvs = tableToMTMVs.get(tableId);
+            if (mtmvs != null) {
+                mtmvs.remove(mtmvId);
+                if (mtmvs.isEmpty()) {
+                    tableToMTMVs.remove(tableId);
+                }
+            }
+        }
+    }
+
+    /**
+     * re-register the MTMV after its definition is changed, if it is registered.
+     */
+    public synchronized void refreshMTMV(MTMV mtmv) {
+        if (mtmvToTables.containsKey(mtmv.getId())) {
+            registerMTMV(mtmv);
+        }
+    }
+
+    /**
+     * deregister all MTMVs of the database which is being dropped.
+     */
+    public synchronized void deregisterMTMVs(Database db) {
+        for (Table table : db.getTables()) {
+            if (table instanceof MTMV) {
+                deregisterMTMV(table.getId());
+            }
+        }
+    }
+
+    public boolean isRegistered(long mtmvId) {
+        return mtmvToTables.containsKey(mtmvId);
+    }
+
+    public boolean isEmpty() {
+        return mtmvToTables.isEmpty();
+    }
+
+    /**
+     * get the MTMVs whose base tables are exactly the given tables.
+     */
+    public List<MTMV> getCandidateMTMVs(Set<Long> baseTableIds) {
+        if (baseTableIds.isEmpty()) {
+            return ImmutableList.of();
+        }
+        Map<Long, MTMV> mtmvs = tableToMTMVs.get(baseTableIds.iterator().next());
+        if (mtmvs == null) {
+            return ImmutableList.of();
+        }
+        List<MTMV> candidates = Lists.newArrayList();
+        for (MTMV mtmv : mtmvs.values()) {
+            if (baseTableIds.equals(mtmvToTables.get(mtmv.getId()))) {
+                candidates.add(mtmv);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * rebuild the index after loading image, the rest is maintained when replaying create and drop table.
+     */
+    public void loadFromCatalog() {
+        if (Env.isCheckpointThread()) {
+            return;
+        }
+        for (Long dbId : Env.getCurrentInternalCatalog().getDbIds()) {
+            Database db = Env.getCurrentInternalCatalog().getDbNullable(dbId);
+            if (db == null) {
+                continue;
+            }
+            for (Table table : db.getTables()) {
+                if (table instanceof MTMV) {
+                    registerMTMV((MTMV) table);
+                }
+            }
+        }
+    }
+}
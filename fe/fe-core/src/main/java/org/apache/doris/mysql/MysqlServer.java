@@ -51,11 +51,11 @@ public class MysqlServer {
     private AcceptingChannel<StreamConnection> server;
 
     // default task service.
-    private ExecutorService taskService = ThreadPoolManager.newDaemonCacheThreadPool(
-            Config.max_mysql_service_task_threads_num, "mysql-nio-pool", true);
+    private ExecutorService taskService;
 
     public MysqlServer(int port, ConnectScheduler connectScheduler) {
         this.port = port;
+        this.taskService = createTaskService();
         this.xnioWorker = Xnio.getInstance().createWorkerBuilder()
                 .setWorkerName("doris-mysql-nio")
                 .setWorkerIoThreads(Config.mysql_service_io_threads_num)
@@ -64,6 +64,21 @@ public class MysqlServer {
         this.acceptListener = new AcceptListener(connectScheduler);
     }
 
+    // Each connection blocks its task thread while planning and waiting for BE rpc,
+    // so use virtual threads if possible to support more concurrent sessions.
+    private static ExecutorService createTaskService() {
+        if (Config.mysql_service_use_virtual_threads) {
+            ExecutorService service = ThreadPoolManager.newVirtualThreadPerTaskExecutor("mysql-nio-vthread");
+            if (service != null) {
+                LOG.info("mysql server uses virtual threads to process requests");
+                return service;
+            }
+            LOG.warn("virtual thread is not supported by current jvm, fall back to platform thread pool");
+        }
+        return ThreadPoolManager.newDaemonCacheThreadPool(
+                Config.max_mysql_service_task_threads_num, "mysql-nio-pool", true);
+    }
+
     // start MySQL protocol service
     // return true if success, otherwise false
     public boolean start() {
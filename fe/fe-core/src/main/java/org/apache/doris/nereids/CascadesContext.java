@@ -17,8 +17,10 @@
 
 package org.apache.doris.nereids;
 
+import org.apache.doris.catalog.Database;
 import org.apache.doris.catalog.DatabaseIf;
 import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.Table;
 import org.apache.doris.catalog.TableIf;
 import org.apache.doris.common.Pair;
 import org.apache.doris.datasource.CatalogIf;
@@ -35,6 +37,7 @@ import org.apache.doris.nereids.jobs.rewrite.RewriteTopDownJob;
 import org.apache.doris.nereids.jobs.scheduler.JobPool;
 import org.apache.doris.nereids.jobs.scheduler.JobScheduler;
 import org.apache.doris.nereids.jobs.scheduler.JobStack;
+import org.apache.doris.nereids.jobs.scheduler.ParallelJobScheduler;
 import org.apache.doris.nereids.jobs.scheduler.ScheduleContext;
 import org.apache.doris.nereids.jobs.scheduler.SimpleJobScheduler;
 import org.apache.doris.nereids.memo.Group;
@@ -129,12 +132,21 @@ public class CascadesContext implements ScheduleContext {
         this.cteContext = Objects.requireNonNull(cteContext, "cteContext should not null");
         this.ruleSet = new RuleSet();
         this.jobPool = new JobStack();
-        this.jobScheduler = new SimpleJobScheduler();
+        this.jobScheduler = createJobScheduler(statementContext.getConnectContext());
         this.currentJobContext = new JobContext(this, requireProperties, Double.MAX_VALUE);
         this.subqueryExprIsAnalyzed = new HashMap<>();
         this.runtimeFilterContext = new RuntimeFilterContext(getConnectContext().getSessionVariable());
     }
 
+    private static JobScheduler createJobScheduler(ConnectContext connectContext) {
+        if (connectContext == null || connectContext.getSessionVariable().getNereidsOptimizeParallelism() <= 1) {
+            return new SimpleJobScheduler();
+        }
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        return new ParallelJobScheduler(sessionVariable.getNereidsOptimizeParallelism(),
+                sessionVariable.isEnableDeterministicParallelOptimize());
+    }
+
     /**
      * init a brand-new context to process whole tree
      */
@@ -494,7 +506,15 @@ public class CascadesContext implements ScheduleContext {
         if (db == null) {
             throw new RuntimeException("Database [" + dbName + "] does not exist in catalog [" + ctlName + "].");
         }
-        db.readLock();
+        // the table maps of internal database are concurrent maps, lookup them without lock in optimistic planning,
+        // so a long DDL holding the write lock of database does not block planning
+        ConnectContext connectContext = getConnectContext();
+        boolean optimistic = connectContext != null
+                && connectContext.getSessionVariable().isEnableOptimisticPlanning();
+        boolean needLock = !optimistic || !(db instanceof Database);
+        if (needLock) {
+            db.readLock();
+        }
         try {
             TableIf table = db.getTableNullable(tableName);
             if (table == null) {
@@ -502,7 +522,9 @@ public class CascadesContext implements ScheduleContext {
             }
             return table;
         } finally {
-            db.readUnlock();
+            if (needLock) {
+                db.readUnlock();
+            }
         }
     }
 
@@ -540,6 +562,61 @@ public class CascadesContext implements ScheduleContext {
         }
     }
 
+    /**
+     * Record the meta versions of tables instead of holding their read locks, used by optimistic planning.
+     * The planning result is consistent only if validate() returns true after planning.
+     */
+    public static class OptimisticLock {
+        private final Map<Table, Long> versions = Maps.newHashMap();
+
+        private OptimisticLock() {
+        }
+
+        /**
+         * Return empty if some table is not an internal table, then the caller should lock.
+         * If the meta of some table is being changed, wait for the change to finish, the lock is not held
+         * during planning. Transactions do not change the meta version, so loading never makes planning wait.
+         */
+        public static Optional<OptimisticLock> tryAcquire(LogicalPlan plan, CascadesContext cascadesContext) {
+            if (cascadesContext.tables == null) {
+                cascadesContext.extractTables(plan);
+            }
+            OptimisticLock lock = new OptimisticLock();
+            for (TableIf tableIf : cascadesContext.tables.values()) {
+                if (!(tableIf instanceof Table)) {
+                    return Optional.empty();
+                }
+                Table table = (Table) tableIf;
+                long version = table.getMetaVersion();
+                if (!table.isMetaVersionValid(version)) {
+                    if (!table.tryReadLock(1, TimeUnit.MINUTES)) {
+                        throw new RuntimeException(
+                                String.format("Failed to get read lock on table: %s", table.getName()));
+                    }
+                    try {
+                        version = table.getMetaVersion();
+                    } finally {
+                        table.readUnlock();
+                    }
+                }
+                lock.versions.put(table, version);
+            }
+            return Optional.of(lock);
+        }
+
+        /**
+         * whether the meta of all tables are not changed since acquired.
+         */
+        public boolean validate() {
+            for (Entry<Table, Long> entry : versions.entrySet()) {
+                if (!entry.getKey().isMetaVersionValid(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     public void putCTEIdToConsumer(LogicalCTEConsumer cteConsumer) {
         Set<LogicalCTEConsumer> consumers = this.statementContext.getCteIdToConsumers()
                 .computeIfAbsent(cteConsumer.getCteId(), k -> new HashSet<>());
@@ -25,6 +25,7 @@ import org.apache.doris.catalog.Column;
 import org.apache.doris.common.NereidsException;
 import org.apache.doris.common.Pair;
 import org.apache.doris.nereids.CascadesContext.Lock;
+import org.apache.doris.nereids.CascadesContext.OptimisticLock;
 import org.apache.doris.nereids.exceptions.AnalysisException;
 import org.apache.doris.nereids.glue.LogicalPlanAdapter;
 import org.apache.doris.nereids.glue.translator.PhysicalPlanTranslator;
@@ -77,6 +78,8 @@ import java.util.stream.Collectors;
  */
 public class NereidsPlanner extends Planner {
     public static final Logger LOG = LogManager.getLogger(NereidsPlanner.class);
+    // plan with lock after the tables are changed during so many times of optimistic planning
+    private static final int MAX_OPTIMISTIC_PLANNING_TIMES = 3;
     private CascadesContext cascadesContext;
     private final StatementContext statementContext;
     private final List<ScanNode> scanNodeList = Lists.newArrayList();
@@ -176,78 +179,134 @@ public class NereidsPlanner extends Planner {
             }
         }
 
+        if (statementContext.getConnectContext().getSessionVariable().isEnableOptimisticPlanning()) {
+            for (int i = 0; i < MAX_OPTIMISTIC_PLANNING_TIMES; i++) {
+                if (i > 0) {
+                    // the planning state collected by the failed try, e.g. cte consumers and hints, is dirty
+                    statementContext.resetPlanningState();
+                }
+                // pre-process logical plan out of memo, e.g. process SET_VAR hint
+                LogicalPlan preprocessedPlan = preprocess(plan);
+                initCascadesContext(preprocessedPlan, requireProperties);
+                Optional<OptimisticLock> lock = OptimisticLock.tryAcquire(preprocessedPlan, cascadesContext);
+                if (!lock.isPresent()) {
+                    return planWithLock(preprocessedPlan, requireProperties, explainLevel);
+                }
+                Optional<Plan> resultPlan = planWithOptimisticLock(preprocessedPlan, requireProperties,
+                        explainLevel, lock.get());
+                if (resultPlan.isPresent()) {
+                    return resultPlan.get();
+                }
+            }
+            // the tables are changed again and again, plan with lock to make sure the planning finishes
+            LOG.info("tables are changed during {} times of optimistic planning, plan again with lock",
+                    MAX_OPTIMISTIC_PLANNING_TIMES);
+            statementContext.resetPlanningState();
+        }
+
         // pre-process logical plan out of memo, e.g. process SET_VAR hint
         plan = preprocess(plan);
-
         initCascadesContext(plan, requireProperties);
+        return planWithLock(plan, requireProperties, explainLevel);
+    }
 
+    private Plan planWithLock(LogicalPlan plan, PhysicalProperties requireProperties, ExplainLevel explainLevel) {
         try (Lock lock = new Lock(plan, cascadesContext)) {
-            // resolve column, table and function
-            // analyze this query
-            analyze();
-            // minidump of input must be serialized first, this process ensure minidump string not null
-            try {
-                MinidumpUtils.serializeInputsToDumpFile(plan, cascadesContext.getTables());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            return doPlan(plan, requireProperties, explainLevel);
+        }
+    }
 
-            if (statementContext.getConnectContext().getExecutor() != null) {
-                statementContext.getConnectContext().getExecutor().getSummaryProfile().setQueryAnalysisFinishTime();
-                statementContext.getConnectContext().getExecutor().getSummaryProfile().setNereidsAnalysisTime();
+    /**
+     * Plan without holding the read locks of tables, so neither a DDL nor a load waits for planning,
+     * and planning only waits for a DDL which is changing the meta when planning starts.
+     * Return empty if the meta of some table is changed during planning, then the caller should plan again.
+     */
+    private Optional<Plan> planWithOptimisticLock(LogicalPlan plan, PhysicalProperties requireProperties,
+            ExplainLevel explainLevel, OptimisticLock lock) {
+        Plan resultPlan;
+        try {
+            resultPlan = doPlan(plan, requireProperties, explainLevel);
+        } catch (RuntimeException e) {
+            // reading the meta being changed may fail, only throw the exception if nothing is changed
+            if (lock.validate()) {
+                throw e;
             }
+            LOG.info("tables are changed during optimistic planning, plan again. error: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (!lock.validate()) {
+            LOG.info("tables are changed during optimistic planning, plan again");
+            return Optional.empty();
+        }
+        return Optional.of(resultPlan);
+    }
 
-            if (explainLevel == ExplainLevel.ANALYZED_PLAN || explainLevel == ExplainLevel.ALL_PLAN) {
-                analyzedPlan = cascadesContext.getRewritePlan();
-                if (explainLevel == ExplainLevel.ANALYZED_PLAN) {
-                    return analyzedPlan;
-                }
-            }
+    private Plan doPlan(LogicalPlan plan, PhysicalProperties requireProperties, ExplainLevel explainLevel) {
+        // resolve column, table and function
+        // analyze this query
+        analyze();
+        // minidump of input must be serialized first, this process ensure minidump string not null
+        try {
+            MinidumpUtils.serializeInputsToDumpFile(plan, cascadesContext.getTables());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
 
-            // rule-based optimize
-            rewrite();
-            if (explainLevel == ExplainLevel.REWRITTEN_PLAN || explainLevel == ExplainLevel.ALL_PLAN) {
-                rewrittenPlan = cascadesContext.getRewritePlan();
-                if (explainLevel == ExplainLevel.REWRITTEN_PLAN) {
-                    return rewrittenPlan;
-                }
-            }
+        if (statementContext.getConnectContext().getExecutor() != null) {
+            statementContext.getConnectContext().getExecutor().getSummaryProfile().setQueryAnalysisFinishTime();
+            statementContext.getConnectContext().getExecutor().getSummaryProfile().setNereidsAnalysisTime();
+        }
 
-            if (statementContext.getConnectContext().getExecutor() != null) {
-                statementContext.getConnectContext().getExecutor().getSummaryProfile().setNereidsRewriteTime();
+        if (explainLevel == ExplainLevel.ANALYZED_PLAN || explainLevel == ExplainLevel.ALL_PLAN) {
+            analyzedPlan = cascadesContext.getRewritePlan();
+            if (explainLevel == ExplainLevel.ANALYZED_PLAN) {
+                return analyzedPlan;
             }
+        }
 
-            optimize();
-            if (statementContext.getConnectContext().getExecutor() != null) {
-                statementContext.getConnectContext().getExecutor().getSummaryProfile().setNereidsOptimizeTime();
+        // rule-based optimize
+        rewrite();
+        if (explainLevel == ExplainLevel.REWRITTEN_PLAN || explainLevel == ExplainLevel.ALL_PLAN) {
+            rewrittenPlan = cascadesContext.getRewritePlan();
+            if (explainLevel == ExplainLevel.REWRITTEN_PLAN) {
+                return rewrittenPlan;
             }
+        }
 
-            // print memo before choose plan.
-            // if chooseNthPlan failed, we could get memo to debug
-            if (cascadesContext.getConnectContext().getSessionVariable().dumpNereidsMemo) {
-                String memo = cascadesContext.getMemo().toString();
-                LOG.info(ConnectContext.get().getQueryIdentifier() + "\n" + memo);
-            }
+        if (statementContext.getConnectContext().getExecutor() != null) {
+            statementContext.getConnectContext().getExecutor().getSummaryProfile().setNereidsRewriteTime();
+        }
 
-            int nth = cascadesContext.getConnectContext().getSessionVariable().getNthOptimizedPlan();
-            PhysicalPlan physicalPlan = chooseNthPlan(getRoot(), requireProperties, nth);
+        optimize();
+        if (statementContext.getConnectContext().getExecutor() != null) {
+            statementContext.getConnectContext().getExecutor().getSummaryProfile().setNereidsOptimizeTime();
+        }
 
-            physicalPlan = postProcess(physicalPlan);
-            if (cascadesContext.getConnectContext().getSessionVariable().dumpNereidsMemo) {
-                String tree = physicalPlan.treeString();
-                LOG.info(ConnectContext.get().getQueryIdentifier() + "\n" + tree);
-            }
-            if (explainLevel == ExplainLevel.OPTIMIZED_PLAN
-                    || explainLevel == ExplainLevel.ALL_PLAN
-                    || explainLevel == ExplainLevel.SHAPE_PLAN) {
-                optimizedPlan = physicalPlan;
-            }
-            // serialize optimized plan to dumpfile, dumpfile do not have this part means optimize failed
-            MinidumpUtils.serializeOutputToDumpFile(physicalPlan);
-            NereidsTracer.output(statementContext.getConnectContext());
+        // print memo before choose plan.
+        // if chooseNthPlan failed, we could get memo to debug
+        if (cascadesContext.getConnectContext().getSessionVariable().dumpNereidsMemo) {
+            String memo = cascadesContext.getMemo().toString();
+            LOG.info(ConnectContext.get().getQueryIdentifier() + "\n" + memo);
+        }
 
-            return physicalPlan;
+        int nth = cascadesContext.getConnectContext().getSessionVariable().getNthOptimizedPlan();
+        PhysicalPlan physicalPlan = chooseNthPlan(getRoot(), requireProperties, nth);
+
+        physicalPlan = postProcess(physicalPlan);
+        if (cascadesContext.getConnectContext().getSessionVariable().dumpNereidsMemo) {
+            String tree = physicalPlan.treeString();
+            LOG.info(ConnectContext.get().getQueryIdentifier() + "\n" + tree);
+        }
+        if (explainLevel == ExplainLevel.OPTIMIZED_PLAN
+                || explainLevel == ExplainLevel.ALL_PLAN
+                || explainLevel == ExplainLevel.SHAPE_PLAN) {
+            optimizedPlan = physicalPlan;
         }
+        // serialize optimized plan to dumpfile, dumpfile do not have this part means optimize failed
+        MinidumpUtils.serializeOutputToDumpFile(physicalPlan);
+        NereidsTracer.output(statementContext.getConnectContext());
+
+        return physicalPlan;
     }
 
     private LogicalPlan preprocess(LogicalPlan logicalPlan) {
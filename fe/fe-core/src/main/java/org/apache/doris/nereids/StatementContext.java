@@ -163,19 +163,19 @@ public class StatementContext {
         isOtherJoinReorder = otherJoinReorder;
     }
 
-    public ExprId getNextExprId() {
+    public synchronized ExprId getNextExprId() {
         return exprIdGenerator.getNextId();
     }
 
-    public CTEId getNextCTEId() {
+    public synchronized CTEId getNextCTEId() {
         return cteIdGenerator.getNextId();
     }
 
-    public ObjectId getNextObjectId() {
+    public synchronized ObjectId getNextObjectId() {
         return objectIdGenerator.getNextId();
     }
 
-    public RelationId getNextRelationId() {
+    public synchronized RelationId getNextRelationId() {
         return relationIdGenerator.getNextId();
     }
 
@@ -239,6 +239,29 @@ public class StatementContext {
         return rewrittenCteConsumer;
     }
 
+    /**
+     * Clear the state collected by planning, so the statement could be planned again from the parsed plan,
+     * e.g. after the tables are changed during optimistic planning.
+     * The id generators are kept since the parsed plan holds the ids allocated by them.
+     */
+    public void resetPlanningState() {
+        joinCount = 0;
+        maxNAryInnerJoin = 0;
+        isDpHyp = false;
+        isOtherJoinReorder = false;
+        isLeadingJoin = false;
+        columnAliasGenerator = null;
+        cteIdToConsumers.clear();
+        cteIdToProjects.clear();
+        consumerIdToFilters.clear();
+        cteIdToConsumerUnderProjects.clear();
+        cteIdToConsumerGroup.clear();
+        rewrittenCteProducer.clear();
+        rewrittenCteConsumer.clear();
+        hintMap.clear();
+        viewDdlSqlSet.clear();
+    }
+
     public void addViewDdlSql(String ddlSql) {
         this.viewDdlSqlSet.add(ddlSql);
     }
@@ -17,6 +17,7 @@
 
 package org.apache.doris.nereids.jobs.cascades;
 
+import org.apache.doris.common.Pair;
 import org.apache.doris.nereids.exceptions.AnalysisException;
 import org.apache.doris.nereids.jobs.Job;
 import org.apache.doris.nereids.jobs.JobContext;
@@ -34,8 +35,11 @@ import org.apache.doris.nereids.rules.RuleType;
 import org.apache.doris.nereids.trees.plans.Plan;
 import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
 
+import com.google.common.collect.Lists;
+
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Job to apply rule on {@link GroupExpression}.
@@ -62,8 +66,7 @@ public class ApplyRuleJob extends Job {
 
     @Override
     public final void execute() throws AnalysisException {
-        if (groupExpression.hasApplied(rule)
-                || groupExpression.isUnused()) {
+        if (!needApply()) {
             return;
         }
         countJobExecutionTimesOfGroupExpressions(groupExpression);
@@ -72,46 +75,92 @@ public class ApplyRuleJob extends Job {
                 = new GroupExpressionMatching(rule.getPattern(), groupExpression);
         for (Plan plan : groupExpressionMatching) {
             List<Plan> newPlans = rule.transform(plan, context.getCascadesContext());
-            for (Plan newPlan : newPlans) {
-                if (newPlan == plan) {
-                    continue;
-                }
-                CopyInResult result = context.getCascadesContext()
-                        .getMemo()
-                        .copyIn(newPlan, groupExpression.getOwnerGroup(), false);
-                if (!result.generateNewExpression) {
-                    continue;
+            copyInNewPlans(plan, newPlans, this::pushJob);
+        }
+        groupExpression.setApplied(rule);
+    }
+
+    public GroupExpression getGroupExpression() {
+        return groupExpression;
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    public boolean needApply() {
+        return !groupExpression.hasApplied(rule) && !groupExpression.isUnused();
+    }
+
+    /**
+     * Match the pattern and transform the matched plans without changing the memo,
+     * so it can run in parallel as long as the memo is not changed at the same time.
+     * The results should be copied into memo by {@link #commit}.
+     */
+    public List<Pair<Plan, List<Plan>>> matchAndTransform() {
+        List<Pair<Plan, List<Plan>>> transformed = Lists.newArrayList();
+        GroupExpressionMatching groupExpressionMatching
+                = new GroupExpressionMatching(rule.getPattern(), groupExpression);
+        for (Plan plan : groupExpressionMatching) {
+            transformed.add(Pair.of(plan, rule.transform(plan, context.getCascadesContext())));
+        }
+        return transformed;
+    }
+
+    /**
+     * Copy the results of {@link #matchAndTransform} into memo, and hand the jobs of the new group expressions
+     * to jobConsumer instead of pushing them into the job pool directly.
+     */
+    public void commit(List<Pair<Plan, List<Plan>>> transformed, Consumer<Job> jobConsumer) {
+        if (!needApply()) {
+            return;
+        }
+        countJobExecutionTimesOfGroupExpressions(groupExpression);
+        for (Pair<Plan, List<Plan>> planAndNewPlans : transformed) {
+            copyInNewPlans(planAndNewPlans.first, planAndNewPlans.second, jobConsumer);
+        }
+        groupExpression.setApplied(rule);
+    }
+
+    private void copyInNewPlans(Plan plan, List<Plan> newPlans, Consumer<Job> jobConsumer) {
+        for (Plan newPlan : newPlans) {
+            if (newPlan == plan) {
+                continue;
+            }
+            CopyInResult result = context.getCascadesContext()
+                    .getMemo()
+                    .copyIn(newPlan, groupExpression.getOwnerGroup(), false);
+            if (!result.generateNewExpression) {
+                continue;
+            }
+            GroupExpression newGroupExpression = result.correspondingExpression;
+            newGroupExpression.setFromRule(rule);
+            if (newPlan instanceof LogicalPlan) {
+                jobConsumer.accept(new OptimizeGroupExpressionJob(newGroupExpression, context));
+                if (!rule.getRuleType().equals(RuleType.LOGICAL_JOIN_COMMUTE)) {
+                    jobConsumer.accept(new DeriveStatsJob(newGroupExpression, context));
+                } else {
+                    // The Join Commute rule preserves the operator's expression and children,
+                    // thereby not altering the statistics. Hence, there is no need to derive statistics for it.
+                    newGroupExpression.setStatDerived(true);
                 }
-                GroupExpression newGroupExpression = result.correspondingExpression;
-                newGroupExpression.setFromRule(rule);
-                if (newPlan instanceof LogicalPlan) {
-                    pushJob(new OptimizeGroupExpressionJob(newGroupExpression, context));
-                    if (!rule.getRuleType().equals(RuleType.LOGICAL_JOIN_COMMUTE)) {
-                        pushJob(new DeriveStatsJob(newGroupExpression, context));
-                    } else {
-                        // The Join Commute rule preserves the operator's expression and children,
-                        // thereby not altering the statistics. Hence, there is no need to derive statistics for it.
-                        newGroupExpression.setStatDerived(true);
-                    }
+            } else {
+                jobConsumer.accept(new CostAndEnforcerJob(newGroupExpression, context));
+                if (newGroupExpression.children().stream().anyMatch(g -> g.getLogicalExpressions().isEmpty())) {
+                    // If a rule creates a new group when generating a physical plan,
+                    // then we need to derive statistics for it, e.g., logicalTopToPhysicalTopN rule:
+                    // logicalTopN ==> GlobalPhysicalTopN
+                    //                   -> localPhysicalTopN
+                    // These implementation rules integrate rules for plan shape transformation.
+                    jobConsumer.accept(new DeriveStatsJob(newGroupExpression, context));
                 } else {
-                    pushJob(new CostAndEnforcerJob(newGroupExpression, context));
-                    if (newGroupExpression.children().stream().anyMatch(g -> g.getLogicalExpressions().isEmpty())) {
-                        // If a rule creates a new group when generating a physical plan,
-                        // then we need to derive statistics for it, e.g., logicalTopToPhysicalTopN rule:
-                        // logicalTopN ==> GlobalPhysicalTopN
-                        //                   -> localPhysicalTopN
-                        // These implementation rules integrate rules for plan shape transformation.
-                        pushJob(new DeriveStatsJob(newGroupExpression, context));
-                    } else {
-                        newGroupExpression.setStatDerived(true);
-                    }
+                    newGroupExpression.setStatDerived(true);
                 }
-
-                NereidsTracer.logApplyRuleEvent(rule.toString(), plan, newGroupExpression.getPlan());
-                APPLY_RULE_TRACER.log(TransformEvent.of(groupExpression, plan, newPlans, rule.getRuleType()),
-                        rule::isRewrite);
             }
+
+            NereidsTracer.logApplyRuleEvent(rule.toString(), plan, newGroupExpression.getPlan());
+            APPLY_RULE_TRACER.log(TransformEvent.of(groupExpression, plan, newPlans, rule.getRuleType()),
+                    rule::isRewrite);
         }
-        groupExpression.setApplied(rule);
     }
 }
@@ -58,7 +58,7 @@ public class Optimizer {
         cascadesContext.getStatementContext().setOtherJoinReorder(false);
         if (!getSessionVariable().isDisableJoinReorder() && isDpHyp
                 && maxJoinCount <= getSessionVariable().getMaxJoinNumberOfReorder()) {
-            //RightNow, dphyper can only order 64 join operators
+            // the join graph wider than 64 relations is ordered as nested graphs, see HyperGraph.MAX_NODE_NUM
             dpHypOptimize();
         }
 
@@ -19,6 +19,7 @@ package org.apache.doris.nereids.jobs.executor;
 
 import org.apache.doris.nereids.CascadesContext;
 import org.apache.doris.nereids.jobs.rewrite.CostBasedRewriteJob;
+import org.apache.doris.nereids.jobs.rewrite.CustomRewriteJob;
 import org.apache.doris.nereids.jobs.rewrite.RewriteJob;
 import org.apache.doris.nereids.rules.RuleSet;
 import org.apache.doris.nereids.rules.RuleType;
@@ -111,9 +112,11 @@ import org.apache.doris.nereids.rules.rewrite.TransposeSemiJoinLogicalJoinProjec
 import org.apache.doris.nereids.rules.rewrite.batch.ApplyToJoin;
 import org.apache.doris.nereids.rules.rewrite.batch.CorrelateApplyToUnCorrelateApply;
 import org.apache.doris.nereids.rules.rewrite.batch.EliminateUselessPlanUnderApply;
+import org.apache.doris.nereids.rules.rewrite.mv.MaterializedViewRewrite;
 import org.apache.doris.nereids.rules.rewrite.mv.SelectMaterializedIndexWithAggregate;
 import org.apache.doris.nereids.rules.rewrite.mv.SelectMaterializedIndexWithoutAggregate;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -295,6 +298,10 @@ public class Rewriter extends AbstractBatchJobExecutor {
                             new PullUpProjectUnderLimit()
                     )
             ),
+            // rewrite before pruning partitions, so the partitions of materialized view could be pruned too
+            topic("Materialized view rewrite",
+                    custom(RuleType.MATERIALIZED_VIEW_REWRITE, MaterializedViewRewrite::new)
+            ),
             // TODO: these rules should be implementation rules, and generate alternative physical plans.
             topic("Table/Physical optimization",
                     topDown(
@@ -353,6 +360,10 @@ public class Rewriter extends AbstractBatchJobExecutor {
     private static final List<RewriteJob> WHOLE_TREE_REWRITE_JOBS_WITHOUT_COST_BASED
             = getWholeTreeRewriteJobs(false);
 
+    // the jobs before materialized view rewrite, used to build the plan of materialized view definition
+    private static final List<RewriteJob> WHOLE_TREE_REWRITE_JOBS_BEFORE_MATERIALIZED_VIEW_REWRITE
+            = getWholeTreeRewriteJobs(getJobsBefore(CTE_CHILDREN_REWRITE_JOBS, RuleType.MATERIALIZED_VIEW_REWRITE));
+
     private final List<RewriteJob> rewriteJobs;
 
     private Rewriter(CascadesContext cascadesContext, List<RewriteJob> rewriteJobs) {
@@ -368,6 +379,14 @@ public class Rewriter extends AbstractBatchJobExecutor {
         return new Rewriter(cascadesContext, WHOLE_TREE_REWRITE_JOBS);
     }
 
+    /**
+     * Rewrite the plan to the same stage as the query plan when it is rewritten by materialized views,
+     * so the tables of the plan are not pruned and the plan could be compared with the query structurally.
+     */
+    public static Rewriter getWholeTreeRewriterBeforeMaterializedViewRewrite(CascadesContext cascadesContext) {
+        return new Rewriter(cascadesContext, WHOLE_TREE_REWRITE_JOBS_BEFORE_MATERIALIZED_VIEW_REWRITE);
+    }
+
     public static Rewriter getCteChildrenRewriter(CascadesContext cascadesContext, List<RewriteJob> jobs) {
         return new Rewriter(cascadesContext, jobs);
     }
@@ -376,6 +395,17 @@ public class Rewriter extends AbstractBatchJobExecutor {
         return new Rewriter(cascadesContext, getWholeTreeRewriteJobs(jobs));
     }
 
+    private static List<RewriteJob> getJobsBefore(List<RewriteJob> jobs, RuleType ruleType) {
+        List<RewriteJob> jobsBefore = new ArrayList<>();
+        for (RewriteJob job : jobs) {
+            if (job instanceof CustomRewriteJob && ((CustomRewriteJob) job).getRuleType() == ruleType) {
+                break;
+            }
+            jobsBefore.add(job);
+        }
+        return jobsBefore;
+    }
+
     private static List<RewriteJob> getWholeTreeRewriteJobs(boolean withCostBased) {
         List<RewriteJob> withoutCostBased = Rewriter.CTE_CHILDREN_REWRITE_JOBS.stream()
                     .filter(j -> !(j instanceof CostBasedRewriteJob))
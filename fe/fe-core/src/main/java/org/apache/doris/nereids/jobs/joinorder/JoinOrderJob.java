@@ -40,7 +40,12 @@ import org.apache.logging.log4j.Logger;
  */
 public class JoinOrderJob extends Job {
     public static final Logger LOG = LogManager.getLogger(JoinOrderJob.class);
+    // the max number of csg-cmp pairs emitted for one join graph. It bounds the enumeration together with
+    // the deadline, and the plan only depends on the graph if this limit is reached first.
+    private static final int CSG_CMP_PAIR_LIMIT = 1000;
     private final Group group;
+    // all the join graphs of the plan, including the nested ones, are ordered in the budget of join_order_time_limit
+    private long deadline;
 
     public JoinOrderJob(Group group, JobContext context) {
         super(JobType.JOIN_ORDER, context);
@@ -49,6 +54,8 @@ public class JoinOrderJob extends Job {
 
     @Override
     public void execute() throws AnalysisException {
+        deadline = System.currentTimeMillis()
+                + context.getCascadesContext().getConnectContext().getSessionVariable().joinReorderTimeLimit;
         GroupExpression rootExpr = group.getLogicalExpression();
         int arity = rootExpr.arity();
         for (int i = 0; i < arity; i++) {
@@ -78,22 +85,46 @@ public class JoinOrderJob extends Job {
             DPhyperNode dPhyperNode = (DPhyperNode) node;
             hyperGraph.updateNode(node.getIndex(), optimizePlan(dPhyperNode.getGroup()));
         }
-        // TODO: Right now, we just hardcode the limit with 10000, maybe we need a better way to set it
-        int limit = 1000;
-        PlanReceiver planReceiver = new PlanReceiver(this.context, limit, hyperGraph,
+        PlanReceiver planReceiver = new PlanReceiver(this.context, CSG_CMP_PAIR_LIMIT, hyperGraph,
                 group.getLogicalProperties().getOutputSet());
-        if (!tryEnumerateJoin(hyperGraph, planReceiver, limit)) {
+        if (!tryEnumerateJoin(hyperGraph, planReceiver)) {
             return group;
         }
         return planReceiver.getBestPlan(hyperGraph.getNodesMap());
     }
 
-    private boolean tryEnumerateJoin(HyperGraph hyperGraph, PlanReceiver planReceiver, int limit) {
+    /**
+     * Enumerate the join graph in the rest of the time budget of join_order_time_limit, which is shared by all the
+     * graphs of the plan.
+     * The origin graph is enumerated with at most CSG_CMP_PAIR_LIMIT csg-cmp pairs in the first half of the rest
+     * budget. If the pair limit is reached, the graph is simplified until it can be enumerated within the limit,
+     * like a graph without time budget. If the time runs out first, the number of pairs emitted before it is
+     * taken as the limit instead, so the plan is built before the deadline.
+     */
+    private boolean tryEnumerateJoin(HyperGraph hyperGraph, PlanReceiver planReceiver) {
+        long now = System.currentTimeMillis();
+        long remaining = deadline - now;
+        if (remaining <= 0) {
+            LOG.info("no time left to order join graph with {} nodes, keep the origin join order",
+                    hyperGraph.getNodes().size());
+            return false;
+        }
         SubgraphEnumerator subgraphEnumerator = new SubgraphEnumerator(planReceiver, hyperGraph);
-        if (!subgraphEnumerator.enumerate()) {
-            GraphSimplifier graphSimplifier = new GraphSimplifier(hyperGraph);
-            return graphSimplifier.simplifyGraph(limit) && subgraphEnumerator.enumerate();
+        planReceiver.setDeadline(now + Math.max(1, remaining / 2));
+        if (subgraphEnumerator.enumerate()) {
+            return true;
+        }
+        int limit = Math.min(CSG_CMP_PAIR_LIMIT, Math.max(1, planReceiver.getEmitCount() - 1));
+        // the search of simplification steps takes at most a quarter of the rest budget
+        long simplifyDeadline = Math.min(deadline, System.currentTimeMillis() + Math.max(1, remaining / 4));
+        GraphSimplifier graphSimplifier = new GraphSimplifier(hyperGraph);
+        if (!graphSimplifier.simplifyGraph(limit, simplifyDeadline)) {
+            LOG.info("failed to simplify join graph with {} nodes in {} ms, keep the origin join order",
+                    hyperGraph.getNodes().size(), remaining);
+            return false;
         }
-        return true;
+        planReceiver.setLimit(limit);
+        planReceiver.setDeadline(deadline);
+        return subgraphEnumerator.enumerate();
     }
 }
@@ -163,6 +163,18 @@ public class GraphSimplifier {
      * @param limit the limit number of the csg-cmp pair
      */
     public boolean simplifyGraph(int limit) {
+        return simplifyGraph(limit, Long.MAX_VALUE);
+    }
+
+    /**
+     * Simplify the graph like {@link #simplifyGraph(int)}, but stop searching when the deadline is reached.
+     * If the deadline is reached before finding any valid step number, all the steps are applied,
+     * otherwise the least valid step number found so far is used.
+     *
+     * @param limit the limit number of the csg-cmp pair
+     * @param deadline the time in milliseconds when the search should stop
+     */
+    public boolean simplifyGraph(int limit, long deadline) {
         Preconditions.checkArgument(limit >= 1);
         int lowerBound = 0;
         int upperBound = 1;
@@ -171,6 +183,7 @@ public class GraphSimplifier {
         int numApplySteps = 0;
         Counter counter = new Counter(limit);
         SubgraphEnumerator enumerator = new SubgraphEnumerator(counter, graph);
+        boolean timeout = false;
         while (true) {
             while (numApplySteps < upperBound) {
                 if (!applySimplificationStep()) {
@@ -183,15 +196,29 @@ public class GraphSimplifier {
                 }
                 numApplySteps += 1;
             }
-            if (numApplySteps < upperBound || enumerator.enumerate()) {
+            if (numApplySteps < upperBound) {
+                break;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                timeout = true;
+                break;
+            }
+            if (enumerator.enumerate()) {
                 break;
             }
             upperBound *= 2;
         }
+        if (timeout) {
+            // We are out of time before finding a valid step number, the simplest graph is the only choice
+            while (applySimplificationStep()) {
+                numApplySteps += 1;
+            }
+            return enumerator.enumerate();
+        }
 
         // Try to search the lowest number of steps to satisfy the limit
-        upperBound = numApplySteps + 1;
-        while (lowerBound < upperBound) {
+        upperBound = numApplySteps;
+        while (lowerBound < upperBound && System.currentTimeMillis() <= deadline) {
             int mid = lowerBound + (upperBound - lowerBound) / 2;
             applyStepsWithNum(mid);
             if (enumerator.enumerate()) {
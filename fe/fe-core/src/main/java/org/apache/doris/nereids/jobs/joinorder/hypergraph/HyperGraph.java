@@ -51,6 +51,10 @@ import java.util.Set;
  * It's used for join ordering
  */
 public class HyperGraph {
+    // The max number of nodes in one graph, which is limited by the width of LongBitmap.
+    // A larger join is split into nested graphs, see buildDPhyperGraph()
+    public static final int MAX_NODE_NUM = Long.SIZE;
+
     private final List<Edge> edges = new ArrayList<>();
     private final List<AbstractNode> nodes = new ArrayList<>();
     private final HashMap<Slot, Long> slotToNodeMap = new HashMap<>();
@@ -329,17 +333,29 @@ public class HyperGraph {
     }
 
     public static HyperGraph toDPhyperGraph(Group group) {
+        return toDPhyperGraph(group, MAX_NODE_NUM);
+    }
+
+    /**
+     * Build the graph with at most maxNodeNum nodes. If the continuous join has more leaves than that,
+     * some join subtrees are kept as a single node, and they are ordered as an independent graph.
+     */
+    public static HyperGraph toDPhyperGraph(Group group, int maxNodeNum) {
+        Preconditions.checkArgument(maxNodeNum >= 2 && maxNodeNum <= MAX_NODE_NUM,
+                "the node number of hyper graph must be in [2, %s]", MAX_NODE_NUM);
         HyperGraph hyperGraph = new HyperGraph();
-        hyperGraph.buildDPhyperGraph(group.getLogicalExpressions().get(0));
+        hyperGraph.buildDPhyperGraph(group.getLogicalExpressions().get(0), maxNodeNum, new HashMap<>());
         return hyperGraph;
     }
 
     // Build Graph for DPhyper
-    private Pair<BitSet, Long> buildDPhyperGraph(GroupExpression groupExpression) {
+    private Pair<BitSet, Long> buildDPhyperGraph(GroupExpression groupExpression, int maxNodeNum,
+            Map<Group, Integer> nodeNumCache) {
         // process Project
         if (isValidProject(groupExpression.getPlan())) {
             LogicalProject<?> project = (LogicalProject<?>) groupExpression.getPlan();
-            Pair<BitSet, Long> res = this.buildDPhyperGraph(groupExpression.child(0).getLogicalExpressions().get(0));
+            Pair<BitSet, Long> res = this.buildDPhyperGraph(groupExpression.child(0).getLogicalExpressions().get(0),
+                    maxNodeNum, nodeNumCache);
             for (NamedExpression expr : project.getProjects()) {
                 if (expr instanceof Alias) {
                     this.addAlias((Alias) expr, res.second);
@@ -348,11 +364,24 @@ public class HyperGraph {
             return res;
         }
 
-        // process Join
-        if (isValidJoin(groupExpression.getPlan())) {
+        // process Join. If there is no room for both children, the join is a node.
+        if (maxNodeNum > 1 && isValidJoin(groupExpression.getPlan())) {
             LogicalJoin<?, ?> join = (LogicalJoin<?, ?>) groupExpression.getPlan();
-            Pair<BitSet, Long> left = this.buildDPhyperGraph(groupExpression.child(0).getLogicalExpressions().get(0));
-            Pair<BitSet, Long> right = this.buildDPhyperGraph(groupExpression.child(1).getLogicalExpressions().get(0));
+            GroupExpression leftExpression = groupExpression.child(0).getLogicalExpressions().get(0);
+            GroupExpression rightExpression = groupExpression.child(1).getLogicalExpressions().get(0);
+            int leftNodeNum = countDPhyperNodes(leftExpression, nodeNumCache);
+            int rightNodeNum = countDPhyperNodes(rightExpression, nodeNumCache);
+            int leftMaxNodeNum = leftNodeNum;
+            int rightMaxNodeNum = rightNodeNum;
+            if (leftNodeNum + rightNodeNum > maxNodeNum) {
+                // share the nodes between children in proportion to their size
+                leftMaxNodeNum = (int) ((long) maxNodeNum * leftNodeNum / (leftNodeNum + rightNodeNum));
+                leftMaxNodeNum = Math.min(leftNodeNum, Math.max(1, Math.min(maxNodeNum - 1, leftMaxNodeNum)));
+                rightMaxNodeNum = Math.min(rightNodeNum, maxNodeNum - leftMaxNodeNum);
+                leftMaxNodeNum = maxNodeNum - rightMaxNodeNum;
+            }
+            Pair<BitSet, Long> left = this.buildDPhyperGraph(leftExpression, leftMaxNodeNum, nodeNumCache);
+            Pair<BitSet, Long> right = this.buildDPhyperGraph(rightExpression, rightMaxNodeNum, nodeNumCache);
             return Pair.of(this.addEdge(join, left, right),
                     LongBitmap.or(left.second, right.second));
         }
@@ -362,6 +391,24 @@ public class HyperGraph {
         return Pair.of(new BitSet(), LongBitmap.newBitmap(idx));
     }
 
+    // count the nodes of the graph built from the group expression without the node limit
+    private static int countDPhyperNodes(GroupExpression groupExpression, Map<Group, Integer> nodeNumCache) {
+        Group group = groupExpression.getOwnerGroup();
+        Integer cached = nodeNumCache.get(group);
+        if (cached != null) {
+            return cached;
+        }
+        int nodeNum = 1;
+        if (isValidProject(groupExpression.getPlan())) {
+            nodeNum = countDPhyperNodes(groupExpression.child(0).getLogicalExpressions().get(0), nodeNumCache);
+        } else if (isValidJoin(groupExpression.getPlan())) {
+            nodeNum = countDPhyperNodes(groupExpression.child(0).getLogicalExpressions().get(0), nodeNumCache)
+                    + countDPhyperNodes(groupExpression.child(1).getLogicalExpressions().get(0), nodeNumCache);
+        }
+        nodeNumCache.put(group, nodeNum);
+        return nodeNum;
+    }
+
     // Build Graph for matching mv
     private Pair<BitSet, Long> buildStructInfo(Plan plan) {
         if (plan instanceof GroupPlan) {
@@ -79,6 +79,8 @@ public class PlanReceiver implements AbstractReceiver {
     final Set<Slot> finalOutputs;
     long startTime = System.currentTimeMillis();
     long timeLimit = ConnectContext.get().getSessionVariable().joinReorderTimeLimit;
+    // the time in milliseconds when the enumeration must stop, which is not changed by reset()
+    long deadline = Long.MAX_VALUE;
 
     public PlanReceiver(JobContext jobContext, int limit, HyperGraph hyperGraph, Set<Slot> outputs) {
         this.jobContext = jobContext;
@@ -87,6 +89,18 @@ public class PlanReceiver implements AbstractReceiver {
         this.finalOutputs = outputs;
     }
 
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public int getEmitCount() {
+        return emitCount;
+    }
+
 
     /**
      * Emit a new plan from bottom to top
@@ -107,7 +121,8 @@ public class PlanReceiver implements AbstractReceiver {
         processMissedEdges(left, right, edges);
 
         emitCount += 1;
-        if (emitCount > limit || System.currentTimeMillis() - startTime > timeLimit) {
+        long now = System.currentTimeMillis();
+        if (emitCount > limit || now - startTime > timeLimit || now > deadline) {
             return false;
         }
 
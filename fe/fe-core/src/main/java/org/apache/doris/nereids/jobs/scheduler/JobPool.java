@@ -19,6 +19,8 @@ package org.apache.doris.nereids.jobs.scheduler;
 
 import org.apache.doris.nereids.jobs.Job;
 
+import java.util.List;
+
 /**
  * Pool for all pending jobs.
  */
@@ -27,5 +29,15 @@ public interface JobPool {
 
     Job pop();
 
+    /**
+     * Return the next job to pop without removing it, or null if the pool is empty.
+     */
+    Job peek();
+
+    /**
+     * Return at most num jobs in the order to pop without removing them.
+     */
+    List<Job> peek(int num);
+
     boolean isEmpty();
 }
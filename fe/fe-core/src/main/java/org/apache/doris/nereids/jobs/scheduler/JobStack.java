@@ -19,6 +19,9 @@ package org.apache.doris.nereids.jobs.scheduler;
 
 import org.apache.doris.nereids.jobs.Job;
 
+import com.google.common.collect.Lists;
+
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -37,6 +40,20 @@ public class JobStack implements JobPool {
         return stack.pop();
     }
 
+    @Override
+    public Job peek() {
+        return stack.isEmpty() ? null : stack.peek();
+    }
+
+    @Override
+    public List<Job> peek(int num) {
+        List<Job> jobs = Lists.newArrayListWithCapacity(Math.min(num, stack.size()));
+        for (int i = stack.size() - 1; i >= 0 && jobs.size() < num; i--) {
+            jobs.add(stack.get(i));
+        }
+        return jobs;
+    }
+
     @Override
     public boolean isEmpty() {
         return stack.isEmpty();
@@ -0,0 +1,341 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.jobs.scheduler;
+
+import org.apache.doris.common.Pair;
+import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.nereids.CascadesContext;
+import org.apache.doris.nereids.jobs.Job;
+import org.apache.doris.nereids.jobs.cascades.ApplyRuleJob;
+import org.apache.doris.nereids.memo.Group;
+import org.apache.doris.nereids.memo.GroupExpression;
+import org.apache.doris.nereids.memo.Memo;
+import org.apache.doris.nereids.pattern.Pattern;
+import org.apache.doris.nereids.pattern.SubTreePattern;
+import org.apache.doris.nereids.rules.RuleType;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.qe.ConnectContext;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler that matches and transforms the rules of group expressions in parallel.
+ *
+ * OptimizeGroupExpressionJob pushes one ApplyRuleJob for each rule of the group expression, so these jobs are
+ * popped continuously. They are independent: a rule only inserts plans into the owner group of the group
+ * expression or new groups, which are never the children of the group expression, so the other rules match the
+ * same plans no matter which one is applied first. Such a batch of jobs is executed in two phases:
+ * 1. match and transform: the pattern matching and rule transformation of all jobs run concurrently, the memo is
+ *    only read in this phase.
+ * 2. commit: the transformed plans are copied into memo by the scheduler thread in the pop order, and the new jobs
+ *    are pushed so that the jobs derived from the first job are popped first, like the serial scheduler.
+ * So the memo is never changed concurrently and the plans are copied into memo in the same order as the serial
+ * scheduler. But the ids allocated by rules, such as expr ids, depend on the thread timing, so the best plan has
+ * the same shape as the serial scheduler while its ids may be different. If groups are merged in commit, the plans
+ * transformed before may refer to the merged groups, so the rest jobs of the batch are matched again in the
+ * scheduler thread.
+ *
+ * The ApplyRuleJobs of other group expressions waiting in the pool, mostly of other groups, are transformed ahead
+ * in the first phase too. They can not be committed before the jobs popped before them, so their results are kept
+ * until they are popped, and used only if none of the groups read by the matching has changed since then, which is
+ * checked by the versions of these groups and the merge count of memo. Otherwise they are matched again.
+ *
+ * The rules in SERIAL_RULES change the shared state of the statement in transformation, eg: OrExpansion registers
+ * the cte consumers it creates. They are never transformed in the first phase, but only once in commit.
+ *
+ * All sessions share a pool of the size of available processors, and the number of pool threads used by
+ * the batches running at the same time is limited by the pool size too, the scheduler thread runs its part
+ * of the batch itself when no pool thread is available.
+ *
+ * In deterministic mode, the first phase runs in the scheduler thread too and no job is transformed ahead, so
+ * the ids allocated by rules are stable, which is used by tests to compare the result with the serial scheduler.
+ */
+public class ParallelJobScheduler implements JobScheduler {
+    // the exploration and implementation rules only read the plans and the statement, except these ones
+    private static final ImmutableSet<RuleType> SERIAL_RULES = ImmutableSet.of(RuleType.OR_EXPANSION);
+    // the number of jobs on the top of pool to find the jobs to transform ahead
+    private static final int LOOK_AHEAD_JOBS = 64;
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+            POOL_SIZE, POOL_SIZE, "nereids-parallel-optimize", true);
+    // the pool threads not used by any batch
+    private static final Semaphore IDLE_THREADS = new Semaphore(POOL_SIZE);
+
+    private final int parallelism;
+    private final boolean deterministic;
+    // the jobs transformed ahead, which are still in the job pool
+    private final Map<ApplyRuleJob, Speculation> speculations = new IdentityHashMap<>();
+
+    public ParallelJobScheduler(int parallelism, boolean deterministic) {
+        this.parallelism = parallelism;
+        this.deterministic = deterministic;
+    }
+
+    @Override
+    public void executeJobPool(ScheduleContext scheduleContext) {
+        JobPool pool = scheduleContext.getJobPool();
+        CascadesContext context = (CascadesContext) scheduleContext;
+        while (!pool.isEmpty()) {
+            if (context.getConnectContext().getSessionVariable().enableNereidsTimeout
+                    && context.getStatementContext().getStopwatch().elapsed(TimeUnit.MILLISECONDS) > 5000) {
+                throw new RuntimeException("Nereids cost too much time ( > 5s )");
+            }
+            Job job = pool.pop();
+            if (!(job instanceof ApplyRuleJob)) {
+                job.execute();
+                continue;
+            }
+            ApplyRuleJob applyRuleJob = (ApplyRuleJob) job;
+            Speculation speculation = speculations.remove(applyRuleJob);
+            if (speculation != null) {
+                commit(context, Collections.singletonList(applyRuleJob), Collections.singletonList(
+                        speculation.isValid(context.getMemo()) ? speculation.transformed : null));
+                continue;
+            }
+            List<ApplyRuleJob> batch = popBatch(pool, applyRuleJob);
+            List<ApplyRuleJob> ahead = lookAhead(pool);
+            if (batch.size() == 1 && ahead.isEmpty()) {
+                job.execute();
+            } else {
+                executeBatch(context, batch, ahead);
+            }
+        }
+    }
+
+    // pop the continuous ApplyRuleJobs on the same group expression
+    private List<ApplyRuleJob> popBatch(JobPool pool, ApplyRuleJob first) {
+        List<ApplyRuleJob> batch = Lists.newArrayList(first);
+        GroupExpression groupExpression = first.getGroupExpression();
+        while (pool.peek() instanceof ApplyRuleJob
+                && ((ApplyRuleJob) pool.peek()).getGroupExpression() == groupExpression
+                && !speculations.containsKey(pool.peek())) {
+            batch.add((ApplyRuleJob) pool.pop());
+        }
+        return batch;
+    }
+
+    // the jobs waiting in the pool to transform ahead
+    private List<ApplyRuleJob> lookAhead(JobPool pool) {
+        if (deterministic || parallelism <= 1) {
+            return Collections.emptyList();
+        }
+        List<ApplyRuleJob> ahead = Lists.newArrayList();
+        for (Job job : pool.peek(LOOK_AHEAD_JOBS)) {
+            if (!(job instanceof ApplyRuleJob) || speculations.containsKey(job)) {
+                continue;
+            }
+            ApplyRuleJob applyRuleJob = (ApplyRuleJob) job;
+            if (applyRuleJob.needApply() && !SERIAL_RULES.contains(applyRuleJob.getRule().getRuleType())) {
+                ahead.add(applyRuleJob);
+            }
+        }
+        return ahead;
+    }
+
+    private void executeBatch(CascadesContext context, List<ApplyRuleJob> batch, List<ApplyRuleJob> ahead) {
+        // read the versions of groups before transforming, the memo is not changed until commit
+        List<Speculation> aheadSpeculations = Lists.newArrayListWithCapacity(ahead.size());
+        for (ApplyRuleJob job : ahead) {
+            aheadSpeculations.add(new Speculation(context.getMemo(), job));
+        }
+        List<ApplyRuleJob> jobs = Lists.newArrayList(batch);
+        jobs.addAll(ahead);
+        List<List<Pair<Plan, List<Plan>>>> transformed = matchAndTransform(context.getConnectContext(), jobs);
+        for (int i = 0; i < ahead.size(); i++) {
+            Speculation speculation = aheadSpeculations.get(i);
+            speculation.transformed = transformed.get(batch.size() + i);
+            if (speculation.transformed != null) {
+                speculations.put(ahead.get(i), speculation);
+            }
+        }
+        commit(context, batch, transformed.subList(0, batch.size()));
+    }
+
+    private void commit(CascadesContext context, List<ApplyRuleJob> batch,
+            List<List<Pair<Plan, List<Plan>>>> transformed) {
+        Memo memo = context.getMemo();
+        int mergeGroupCount = memo.getMergeGroupCount();
+        List<List<Job>> newJobs = Lists.newArrayListWithCapacity(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ApplyRuleJob job = batch.get(i);
+            List<Pair<Plan, List<Plan>>> result = transformed.get(i);
+            if (result == null || memo.getMergeGroupCount() != mergeGroupCount) {
+                // failed, stale or serial rule, match again to get the same result or exception as the serial
+                // scheduler
+                result = job.needApply() ? job.matchAndTransform() : Lists.newArrayList();
+            }
+            List<Job> jobs = Lists.newArrayList();
+            job.commit(result, jobs::add);
+            newJobs.add(jobs);
+        }
+        // the jobs derived from the first job in batch should be executed first
+        for (int i = newJobs.size() - 1; i >= 0; i--) {
+            for (Job job : newJobs.get(i)) {
+                context.pushJob(job);
+            }
+        }
+    }
+
+    // return the transformed plans of each job, null if the job failed or should be transformed in commit
+    private List<List<Pair<Plan, List<Plan>>>> matchAndTransform(ConnectContext connectContext,
+            List<ApplyRuleJob> batch) {
+        List<List<Pair<Plan, List<Plan>>>> results = Lists.newArrayList(Collections.nCopies(batch.size(), null));
+        if (deterministic || parallelism <= 1) {
+            transformRange(batch, results, 0, 1);
+            return results;
+        }
+
+        // split the batch into at most parallelism tasks, the first one runs in the scheduler thread
+        int poolThreads = 0;
+        while (poolThreads < Math.min(parallelism, batch.size()) - 1 && IDLE_THREADS.tryAcquire()) {
+            poolThreads++;
+        }
+        int taskNum = poolThreads + 1;
+        try {
+            List<Future<?>> futures = Lists.newArrayListWithCapacity(poolThreads);
+            for (int task = 1; task < taskNum; task++) {
+                int start = task;
+                futures.add(EXECUTOR.submit(() -> {
+                    boolean setContext = ConnectContext.get() != connectContext;
+                    if (setContext) {
+                        connectContext.setThreadLocalInfo();
+                    }
+                    try {
+                        transformRange(batch, results, start, taskNum);
+                    } finally {
+                        if (setContext) {
+                            ConnectContext.remove();
+                        }
+                    }
+                }));
+            }
+            transformRange(batch, results, 0, taskNum);
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("interrupted when optimizing in parallel", e);
+                } catch (ExecutionException e) {
+                    // the failed jobs are retried in commit
+                }
+            }
+        } finally {
+            IDLE_THREADS.release(poolThreads);
+        }
+        return results;
+    }
+
+    private void transformRange(List<ApplyRuleJob> batch, List<List<Pair<Plan, List<Plan>>>> results,
+            int start, int step) {
+        for (int i = start; i < batch.size(); i += step) {
+            ApplyRuleJob job = batch.get(i);
+            if (SERIAL_RULES.contains(job.getRule().getRuleType())) {
+                continue;
+            }
+            try {
+                results.set(i, job.needApply() ? job.matchAndTransform() : Lists.newArrayList());
+            } catch (Exception e) {
+                results.set(i, null);
+            }
+        }
+    }
+
+    /**
+     * The result of a job transformed ahead, and the versions of the groups read by the transformation. The groups
+     * read by matching the pattern and the groups under them are recorded, since rules may read the latter by
+     * GroupPlan, eg: their statistics. The owner group of the job is not recorded, because the rules on the same
+     * group expression are independent, as described in the class comment.
+     */
+    private static class Speculation {
+        private final int mergeGroupCount;
+        private final List<Group> groups = Lists.newArrayList();
+        private final List<Integer> versions = Lists.newArrayList();
+        private List<Pair<Plan, List<Plan>>> transformed;
+
+        private Speculation(Memo memo, ApplyRuleJob job) {
+            mergeGroupCount = memo.getMergeGroupCount();
+            int depth = matchDepth(job.getRule().getPattern());
+            collectGroups(job.getGroupExpression(), depth == Integer.MAX_VALUE ? depth : depth + 1,
+                    new IdentityHashMap<>());
+        }
+
+        private boolean isValid(Memo memo) {
+            if (memo.getMergeGroupCount() != mergeGroupCount) {
+                return false;
+            }
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i).getVersion() != versions.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // collect the child groups of groupExpression in depth levels
+        private void collectGroups(GroupExpression groupExpression, int depth, Map<Group, Integer> visitedDepth) {
+            if (depth <= 0) {
+                return;
+            }
+            for (Group child : groupExpression.children()) {
+                Integer visited = visitedDepth.get(child);
+                if (visited != null && visited >= depth) {
+                    continue;
+                }
+                if (visited == null) {
+                    groups.add(child);
+                    versions.add(child.getVersion());
+                }
+                visitedDepth.put(child, depth);
+                for (GroupExpression logicalExpression : child.getLogicalExpressions()) {
+                    collectGroups(logicalExpression, depth - 1, visitedDepth);
+                }
+                for (GroupExpression physicalExpression : child.getPhysicalExpressions()) {
+                    collectGroups(physicalExpression, depth - 1, visitedDepth);
+                }
+            }
+        }
+
+        // the levels of child groups whose expressions are read by matching the pattern, see GroupMatching
+        private static int matchDepth(Pattern<? extends Plan> pattern) {
+            if (pattern instanceof SubTreePattern) {
+                return Integer.MAX_VALUE;
+            }
+            int depth = 0;
+            for (Pattern<? extends Plan> child : pattern.children()) {
+                if (child.isGroup() || child.isMultiGroup()) {
+                    continue;
+                }
+                int childDepth = matchDepth(child);
+                depth = Math.max(depth, childDepth == Integer.MAX_VALUE ? childDepth : childDepth + 1);
+            }
+            return depth;
+        }
+    }
+}
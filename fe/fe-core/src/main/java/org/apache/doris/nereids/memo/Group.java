@@ -76,6 +76,9 @@ public class Group {
 
     private int chosenGroupExpressionId = -1;
 
+    // changed with the group expressions and statistics, to check whether the group changed since it was read
+    private int version = 0;
+
     /**
      * Constructor for Group.
      *
@@ -112,6 +115,7 @@ public class Group {
      * @return added {@link GroupExpression}
      */
     public GroupExpression addGroupExpression(GroupExpression groupExpression) {
+        version++;
         if (groupExpression.getPlan() instanceof LogicalPlan) {
             logicalExpressions.add(groupExpression);
         } else {
@@ -130,11 +134,13 @@ public class Group {
     }
 
     public void addLogicalExpression(GroupExpression groupExpression) {
+        version++;
         groupExpression.setOwnerGroup(this);
         logicalExpressions.add(groupExpression);
     }
 
     public void addPhysicalExpression(GroupExpression groupExpression) {
+        version++;
         groupExpression.setOwnerGroup(this);
         physicalExpressions.add(groupExpression);
     }
@@ -170,6 +176,7 @@ public class Group {
      * @return removed {@link GroupExpression}
      */
     public GroupExpression removeGroupExpression(GroupExpression groupExpression) {
+        version++;
         // use identityRemove to avoid equals() method
         if (groupExpression.getPlan() instanceof LogicalPlan) {
             Utils.identityRemove(logicalExpressions, groupExpression);
@@ -180,7 +187,11 @@ public class Group {
         return groupExpression;
     }
 
+    /**
+     * Remove all logical group expressions from this group.
+     */
     public List<GroupExpression> clearLogicalExpressions() {
+        version++;
         List<GroupExpression> move = logicalExpressions.stream()
                 .peek(groupExpr -> groupExpr.setOwnerGroup(null))
                 .collect(Collectors.toList());
@@ -188,7 +199,11 @@ public class Group {
         return move;
     }
 
+    /**
+     * Remove all physical group expressions from this group.
+     */
     public List<GroupExpression> clearPhysicalExpressions() {
+        version++;
         List<GroupExpression> move = physicalExpressions.stream()
                 .peek(groupExpr -> groupExpr.setOwnerGroup(null))
                 .collect(Collectors.toList());
@@ -289,9 +304,14 @@ public class Group {
     }
 
     public void setStatistics(Statistics statistics) {
+        version++;
         this.statistics = statistics;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     public LogicalProperties getLogicalProperties() {
         return logicalProperties;
     }
@@ -337,6 +357,8 @@ public class Group {
      * @param target the new owner group of expressions
      */
     public void mergeTo(Group target) {
+        version++;
+        target.version++;
         // move parentExpressions Ownership
         parentExpressions.keySet().forEach(parent -> target.addParentExpression(parent));
 
@@ -77,7 +77,13 @@ public class GroupExpression {
     // After mergeGroup(), source Group was cleaned up, but it may be in the Job Stack. So use this to mark and skip it.
     private boolean isUnused = false;
 
-    private final ObjectId id = StatementScopeIdGenerator.newObjectId();
+    private final ObjectId id;
+
+    // plan is immutable, so its hash code is computed only once. the hash code of group expression combines it
+    // with the ids of children groups, and is recomputed lazily after children changed.
+    private final int planHashCode;
+    private int hashCode;
+    private boolean hashCodeValid = false;
 
     /**
      * Just for UT.
@@ -101,11 +107,33 @@ public class GroupExpression {
         this.statDerived = false;
         this.lowestCostTable = Maps.newHashMap();
         this.requestPropertiesMap = Maps.newHashMap();
+        this.id = StatementScopeIdGenerator.newObjectId();
+        this.planHashCode = this.plan.hashCode();
         for (Group child : children) {
             child.addParentExpression(this);
         }
     }
 
+    // only used as the key to look up the memo, so it doesn't wrap the plan or reference the children groups.
+    private GroupExpression(Plan plan, List<Group> children, int planHashCode) {
+        this.plan = plan;
+        this.children = children;
+        this.ruleMasks = null;
+        this.lowestCostTable = null;
+        this.requestPropertiesMap = null;
+        this.id = null;
+        this.planHashCode = planHashCode;
+    }
+
+    /**
+     * Create a lookup key which equals to the group expression of plan with children groups, without allocating
+     * new plan or changing the parent expressions of children groups. Plan.equals doesn't compare the children,
+     * so the plan doesn't need to be replaced by GroupPlan children.
+     */
+    public static GroupExpression lookupKey(Plan plan, List<Group> children) {
+        return new GroupExpression(plan, children, plan.hashCode());
+    }
+
     public PhysicalProperties getOutputProperties(PhysicalProperties requestProperties) {
         PhysicalProperties outputProperties = requestPropertiesMap.get(requestProperties);
         Preconditions.checkNotNull(outputProperties);
@@ -139,6 +167,7 @@ public class GroupExpression {
     public void setChild(int i, Group group) {
         child(i).removeParentExpression(this);
         children.set(i, group);
+        hashCodeValid = false;
         group.addParentExpression(this);
     }
 
@@ -156,6 +185,7 @@ public class GroupExpression {
         oldChild.removeParentExpression(this);
         newChild.addParentExpression(this);
         Utils.replaceList(children, oldChild, newChild);
+        hashCodeValid = false;
     }
 
     public boolean hasApplied(Rule rule) {
@@ -282,6 +312,7 @@ public class GroupExpression {
         // clear
         this.children.forEach(child -> child.removeParentExpression(this));
         this.children.clear();
+        this.hashCodeValid = false;
         this.ownerGroup = null;
     }
 
@@ -302,12 +333,28 @@ public class GroupExpression {
             return false;
         }
         GroupExpression that = (GroupExpression) o;
-        return children.equals(that.children) && plan.equals(that.plan);
+        if (hashCode() != that.hashCode() || children.size() != that.children.size()) {
+            return false;
+        }
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i) != that.children.get(i)) {
+                return false;
+            }
+        }
+        return plan.equals(that.plan);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(children, plan);
+        if (!hashCodeValid) {
+            int result = planHashCode;
+            for (Group child : children) {
+                result = 31 * result + child.getGroupId().asInt();
+            }
+            hashCode = result;
+            hashCodeValid = true;
+        }
+        return hashCode;
     }
 
     public Statistics childStatistics(int idx) {
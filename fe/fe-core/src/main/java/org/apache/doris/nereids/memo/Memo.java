@@ -74,6 +74,8 @@ public class Memo {
     // we could not use Set, because Set does not have get method.
     private final Map<GroupExpression, GroupExpression> groupExpressions = Maps.newHashMap();
     private Group root;
+    // the number of merged groups, used to check whether the groups referenced by plans are still valid
+    private int mergeGroupCount = 0;
 
     // FOR TEST ONLY
     public Memo() {
@@ -118,6 +120,10 @@ public class Memo {
         return groupExpressions.size();
     }
 
+    public int getMergeGroupCount() {
+        return mergeGroupCount;
+    }
+
     private Plan skipProject(Plan plan, Group targetGroup) {
         // Some top project can't be eliminated
         if (plan instanceof LogicalProject) {
@@ -424,6 +430,11 @@ public class Memo {
             }
         }
         plan = replaceChildrenToGroupPlan(plan, childrenGroups);
+        // look up by key first, to avoid creating a group expression which is already in memo
+        GroupExpression existedGroupExpression = groupExpressions.get(GroupExpression.lookupKey(plan, childrenGroups));
+        if (existedGroupExpression != null) {
+            return reuseExistedGroupExpression(existedGroupExpression, targetGroup, planTable);
+        }
         GroupExpression newGroupExpression = new GroupExpression(plan, childrenGroups);
         return insertGroupExpression(newGroupExpression, targetGroup, plan.getLogicalProperties(), planTable);
         // TODO: need to derive logical property if generate new group. currently we not copy logical plan into
@@ -473,13 +484,10 @@ public class Memo {
             LogicalProperties logicalProperties, HashMap<Long, Group> planTable) {
         GroupExpression existedGroupExpression = groupExpressions.get(groupExpression);
         if (existedGroupExpression != null) {
-            if (target != null && !target.getGroupId().equals(existedGroupExpression.getOwnerGroup().getGroupId())) {
-                mergeGroup(target, existedGroupExpression.getOwnerGroup(), planTable);
-            }
             // When we create a GroupExpression, we will add it into ParentExpression of childGroup.
             // But if it already exists, we should remove it from ParentExpression of childGroup.
             groupExpression.children().forEach(childGroup -> childGroup.removeParentExpression(groupExpression));
-            return CopyInResult.of(false, existedGroupExpression);
+            return reuseExistedGroupExpression(existedGroupExpression, target, planTable);
         }
         if (target != null) {
             target.addGroupExpression(groupExpression);
@@ -491,6 +499,14 @@ public class Memo {
         return CopyInResult.of(true, groupExpression);
     }
 
+    private CopyInResult reuseExistedGroupExpression(GroupExpression existedGroupExpression, Group target,
+            HashMap<Long, Group> planTable) {
+        if (target != null && !target.getGroupId().equals(existedGroupExpression.getOwnerGroup().getGroupId())) {
+            mergeGroup(target, existedGroupExpression.getOwnerGroup(), planTable);
+        }
+        return CopyInResult.of(false, existedGroupExpression);
+    }
+
     /**
      * Merge two groups.
      * 1. find all group expression which has source as child
@@ -512,13 +528,13 @@ public class Memo {
                 return;
             }
             Group parentOwnerGroup = parent.getOwnerGroup();
-            HashSet<GroupExpression> enforcers = new HashSet<>(parentOwnerGroup.getEnforcers());
-            if (enforcers.contains(parent)) {
+            if (parentOwnerGroup.getEnforcers().contains(parent)) {
                 continue;
             }
             needReplaceChild.add(parent);
         }
         GROUP_MERGE_TRACER.log(GroupMergeEvent.of(source, destination, needReplaceChild));
+        mergeGroupCount++;
 
         for (GroupExpression reinsertGroupExpr : needReplaceChild) {
             // After change GroupExpression children, hashcode will change, so need to reinsert into map.
@@ -685,6 +701,15 @@ public class Memo {
         if (childrenGroups.isEmpty()) {
             return plan;
         }
+        // the plans generated by rules usually use the GroupPlan of children groups directly
+        boolean sameChildren = true;
+        for (int i = 0; i < childrenGroups.size() && sameChildren; i++) {
+            Plan child = plan.child(i);
+            sameChildren = child instanceof GroupPlan && ((GroupPlan) child).getGroup() == childrenGroups.get(i);
+        }
+        if (sameChildren) {
+            return plan;
+        }
         List<Plan> groupPlanChildren = childrenGroups.stream()
                 .map(GroupPlan::new)
                 .collect(ImmutableList.toImmutableList());
@@ -18,6 +18,7 @@
 package org.apache.doris.nereids.parser;
 
 import org.apache.doris.analysis.StatementBase;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.Pair;
 import org.apache.doris.nereids.DorisLexer;
 import org.apache.doris.nereids.DorisParser;
@@ -31,6 +32,9 @@ import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
 import org.apache.doris.nereids.types.DataType;
 import org.apache.doris.qe.SessionVariable;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -54,6 +58,32 @@ public class NereidsParser {
     private static final ParseErrorListener PARSE_ERROR_LISTENER = new ParseErrorListener();
     private static final PostProcessor POST_PROCESSOR = new PostProcessor();
 
+    // parse tree of multi statements keyed by the statement text, the tree is only read by LogicalPlanBuilder,
+    // so it can be shared, and a new logical plan with new ids is built from it for each query.
+    private static final Cache<String, ParserRuleContext> PARSE_TREE_CACHE = Caffeine.newBuilder()
+            .maximumSize(Config.nereids_parse_tree_cache_size)
+            .build();
+
+    // statements to warm up the DFA cache of parser, which cover the common clauses of query and load.
+    private static final List<String> WARM_UP_STATEMENTS = ImmutableList.of(
+            "select * from t where id = 1",
+            "select a, b from db.t where a = 'x' and b in (1, 2, 3) order by a desc limit 10 offset 5",
+            "select k, count(*), sum(v), avg(v), max(v) from t group by k having count(*) > 1",
+            "select distinct t1.a, t2.b from t1 join t2 on t1.id = t2.id left outer join t3 using (id)"
+                    + " where t1.c between 1 and 10 or t2.d like '%x%'",
+            "with cte as (select a, row_number() over (partition by b order by c) as rn from t)"
+                    + " select * from cte where rn <= 3",
+            "select case when a > 0 then cast(a as varchar(10)) else 'n' end, if(b is null, 0, b),"
+                    + " date_add(now(), interval 1 day) from t",
+            "select a from t1 where exists (select 1 from t2 where t1.a = t2.a) union all select a from t3",
+            "select /*+ SET_VAR(query_timeout = 10) */ a from t where b not in (select b from t2)",
+            "insert into t values (1, 'a', 1.5), (2, 'b', null)",
+            "insert into t (a, b) select a, b from t2 where a > 0",
+            "update t set a = a + 1 where b = 2",
+            "delete from t where a = 1",
+            "explain select * from t limit 1"
+    );
+
     /**
      * In MySQL protocol, client could send multi-statement in a single packet.
      * see <a href="https://dev.mysql.com/doc/internals/en/com-set-option.html">docs</a> for more information.
@@ -110,8 +140,45 @@ public class NereidsParser {
         return parse(sql, DorisParser::singleStatement);
     }
 
+    /**
+     * parse multi statements, the parse tree of short statements is cached.
+     */
     public List<Pair<LogicalPlan, StatementContext>> parseMultiple(String sql) {
-        return parse(sql, DorisParser::multiStatements);
+        boolean cacheable = Config.nereids_parse_tree_cache_size > 0
+                && sql.length() <= Config.nereids_parse_tree_cache_max_sql_length;
+        ParserRuleContext tree = cacheable ? PARSE_TREE_CACHE.getIfPresent(sql) : null;
+        if (tree == null) {
+            tree = toAst(sql, DorisParser::multiStatements);
+            if (cacheable) {
+                PARSE_TREE_CACHE.put(sql, tree);
+            }
+        }
+        return (List<Pair<LogicalPlan, StatementContext>>) new LogicalPlanBuilder().visit(tree);
+    }
+
+    /**
+     * Warm up the DFA cache of parser in background, so the first queries after FE started don't pay for
+     * the full LL prediction.
+     */
+    public static void startWarmUp() {
+        if (!Config.enable_nereids_parser_warm_up) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            NereidsParser parser = new NereidsParser();
+            for (String sql : WARM_UP_STATEMENTS) {
+                try {
+                    parser.toAst(sql, DorisParser::multiStatements);
+                } catch (Exception e) {
+                    LOG.warn("failed to warm up nereids parser with statement: {}", sql, e);
+                }
+            }
+            LOG.info("warm up nereids parser with {} statements in {} ms",
+                    WARM_UP_STATEMENTS.size(), System.currentTimeMillis() - start);
+        }, "nereids-parser-warm-up");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     public Expression parseExpression(String expression) {
@@ -363,11 +363,20 @@ public class RuntimeFilterGenerator extends PlanPostProcessor {
         List<TRuntimeFilterType> legalTypes = Arrays.stream(TRuntimeFilterType.values())
                 .filter(type -> (type.getValue() & ctx.getSessionVariable().getRuntimeFilterType()) > 0)
                 .collect(Collectors.toList());
+        RuntimeFilterSelector selector = ctx.getSessionVariable().isEnableCostBasedRuntimeFilter()
+                ? new RuntimeFilterSelector(ctx.getSessionVariable()) : null;
         List<EqualTo> hashJoinConjuncts = join.getEqualToConjuncts();
         for (int i = 0; i < hashJoinConjuncts.size(); i++) {
             EqualTo equalTo = ((EqualTo) JoinUtils.swapEqualToForChildrenOrder(
                     hashJoinConjuncts.get(i), join.left().getOutputSet()));
-            for (TRuntimeFilterType type : legalTypes) {
+            List<TRuntimeFilterType> types = legalTypes;
+            double expectedFilterRatio = -1;
+            if (selector != null) {
+                RuntimeFilterSelector.Selection selection = selector.select(join, equalTo, legalTypes);
+                types = selection.types;
+                expectedFilterRatio = selection.expectedFilterRatio;
+            }
+            for (TRuntimeFilterType type : types) {
                 //bitmap rf is generated by nested loop join.
                 if (type == TRuntimeFilterType.BITMAP) {
                     continue;
@@ -376,6 +385,13 @@ public class RuntimeFilterGenerator extends PlanPostProcessor {
                 join.pushDownRuntimeFilter(context, generator, join, equalTo.right(),
                         equalTo.left(), type, buildSideNdv, i);
             }
+            if (expectedFilterRatio >= 0) {
+                int exprOrder = i;
+                double ratio = expectedFilterRatio;
+                join.getRuntimeFilters().stream()
+                        .filter(rf -> rf.getExprOrder() == exprOrder)
+                        .forEach(rf -> rf.setExpectedFilterRatio(ratio));
+            }
         }
     }
 
@@ -0,0 +1,155 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.processor.post;
+
+import org.apache.doris.nereids.stats.ExpressionEstimation;
+import org.apache.doris.nereids.trees.expressions.EqualTo;
+import org.apache.doris.nereids.trees.plans.AbstractPlan;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.physical.AbstractPhysicalJoin;
+import org.apache.doris.qe.SessionVariable;
+import org.apache.doris.statistics.ColumnStatistic;
+import org.apache.doris.thrift.TRuntimeFilterType;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * Choose the runtime filter types of a hash join condition by statistics.
+ * The expected filter ratio of probe rows is estimated in two ways:
+ * 1. by value set: the build ndv in the probe value range compared to the probe ndv, used by IN and bloom filter.
+ * 2. by value range: the part of probe value range not covered by the build value range, used by min-max filter.
+ * Filters expected to filter less than runtime_filter_min_filter_ratio are not generated.
+ * Only the legal types of runtime_filter_type are chosen. IN_OR_BLOOM is preferred when the build ndv is
+ * close to runtime_filter_max_in_num, because the estimated ndv may be on the wrong side of it.
+ */
+public class RuntimeFilterSelector {
+    // the build ndv is taken as uncertain to be under runtime_filter_max_in_num
+    // if it is within this factor of the max in num
+    private static final double UNCERTAIN_NDV_FACTOR = 4;
+
+    private final SessionVariable sessionVariable;
+
+    /**
+     * the chosen types and the expected filter ratio of them.
+     */
+    public static class Selection {
+        public final List<TRuntimeFilterType> types;
+        public final double expectedFilterRatio;
+
+        public Selection(List<TRuntimeFilterType> types, double expectedFilterRatio) {
+            this.types = types;
+            this.expectedFilterRatio = expectedFilterRatio;
+        }
+    }
+
+    public RuntimeFilterSelector(SessionVariable sessionVariable) {
+        this.sessionVariable = sessionVariable;
+    }
+
+    /**
+     * choose runtime filter types for the join condition, whose left child is from probe side.
+     * Return the legal types with unknown filter ratio if the statistics is not available.
+     */
+    public Selection select(AbstractPhysicalJoin<? extends Plan, ? extends Plan> join, EqualTo equalTo,
+            List<TRuntimeFilterType> legalTypes) {
+        AbstractPlan probe = (AbstractPlan) join.left();
+        AbstractPlan build = (AbstractPlan) join.right();
+        if (probe.getStats() == null || build.getStats() == null) {
+            return new Selection(legalTypes, -1);
+        }
+        ExpressionEstimation estimator = new ExpressionEstimation();
+        ColumnStatistic probeStats = equalTo.left().accept(estimator, probe.getStats());
+        ColumnStatistic buildStats = equalTo.right().accept(estimator, build.getStats());
+        return select(probeStats, buildStats, legalTypes);
+    }
+
+    /**
+     * choose runtime filter types by the column statistics of probe and build expression.
+     */
+    public Selection select(ColumnStatistic probeStats, ColumnStatistic buildStats,
+            List<TRuntimeFilterType> legalTypes) {
+        if (probeStats.isUnKnown || buildStats.isUnKnown || probeStats.ndv <= 0) {
+            return new Selection(legalTypes, -1);
+        }
+        double valueFilterRatio = estimateValueFilterRatio(probeStats, buildStats);
+        double rangeFilterRatio = estimateRangeFilterRatio(probeStats, buildStats);
+        double minFilterRatio = sessionVariable.getRuntimeFilterMinFilterRatio();
+        ImmutableList.Builder<TRuntimeFilterType> types = ImmutableList.builder();
+        if (valueFilterRatio >= minFilterRatio) {
+            TRuntimeFilterType valueType = chooseValueFilterType(buildStats.ndv, legalTypes);
+            if (valueType != null) {
+                types.add(valueType);
+            }
+        }
+        if (rangeFilterRatio >= minFilterRatio && legalTypes.contains(TRuntimeFilterType.MIN_MAX)) {
+            types.add(TRuntimeFilterType.MIN_MAX);
+        }
+        return new Selection(types.build(), Math.max(valueFilterRatio, rangeFilterRatio));
+    }
+
+    /**
+     * a small build side is exactly kept by IN filter, a large one by bloom filter sized by the build ndv.
+     * IN_OR_BLOOM decides between them at runtime by the real build ndv, so it is used when the estimated ndv
+     * is close to the max in num, or when the preferred one is not legal.
+     * Return null if no legal type is suitable.
+     */
+    private TRuntimeFilterType chooseValueFilterType(double buildNdv, List<TRuntimeFilterType> legalTypes) {
+        int maxInNum = sessionVariable.getRuntimeFilterMaxInNum();
+        List<TRuntimeFilterType> preferredTypes;
+        if (buildNdv * UNCERTAIN_NDV_FACTOR <= maxInNum) {
+            preferredTypes = ImmutableList.of(TRuntimeFilterType.IN, TRuntimeFilterType.IN_OR_BLOOM,
+                    TRuntimeFilterType.BLOOM);
+        } else if (buildNdv > maxInNum * UNCERTAIN_NDV_FACTOR) {
+            // an IN filter with so many values is not used by BE
+            preferredTypes = ImmutableList.of(TRuntimeFilterType.BLOOM, TRuntimeFilterType.IN_OR_BLOOM);
+        } else {
+            preferredTypes = ImmutableList.of(TRuntimeFilterType.IN_OR_BLOOM, TRuntimeFilterType.BLOOM,
+                    TRuntimeFilterType.IN);
+        }
+        for (TRuntimeFilterType type : preferredTypes) {
+            if (legalTypes.contains(type)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static double estimateValueFilterRatio(ColumnStatistic probeStats, ColumnStatistic buildStats) {
+        double buildNdv = hasFiniteRange(probeStats) && hasFiniteRange(buildStats)
+                ? buildStats.ndvIntersection(probeStats) : buildStats.ndv;
+        return 1 - Math.min(1, buildNdv / probeStats.ndv);
+    }
+
+    private static double estimateRangeFilterRatio(ColumnStatistic probeStats, ColumnStatistic buildStats) {
+        if (!hasFiniteRange(probeStats) || !hasFiniteRange(buildStats)
+                || probeStats.maxValue <= probeStats.minValue) {
+            return 0;
+        }
+        double min = Math.max(probeStats.minValue, buildStats.minValue);
+        double max = Math.min(probeStats.maxValue, buildStats.maxValue);
+        double coveredRange = Math.max(0, max - min);
+        return 1 - coveredRange / (probeStats.maxValue - probeStats.minValue);
+    }
+
+    private static boolean hasFiniteRange(ColumnStatistic stats) {
+        return !Double.isInfinite(stats.minValue) && !Double.isInfinite(stats.maxValue)
+                && !Double.isNaN(stats.minValue) && !Double.isNaN(stats.maxValue);
+    }
+}
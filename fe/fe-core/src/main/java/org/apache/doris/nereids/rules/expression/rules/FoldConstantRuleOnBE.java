@@ -22,6 +22,7 @@ import org.apache.doris.analysis.ExprId;
 import org.apache.doris.catalog.Env;
 import org.apache.doris.catalog.PrimitiveType;
 import org.apache.doris.catalog.ScalarType;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.IdGenerator;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.util.DebugUtil;
@@ -32,6 +33,7 @@ import org.apache.doris.nereids.rules.expression.ExpressionRewriteContext;
 import org.apache.doris.nereids.trees.expressions.Alias;
 import org.apache.doris.nereids.trees.expressions.Cast;
 import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.functions.Nondeterministic;
 import org.apache.doris.nereids.trees.expressions.literal.Literal;
 import org.apache.doris.nereids.types.CharType;
 import org.apache.doris.nereids.types.DataType;
@@ -52,6 +54,8 @@ import org.apache.doris.thrift.TPrimitiveType;
 import org.apache.doris.thrift.TQueryGlobals;
 import org.apache.doris.thrift.TQueryOptions;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import org.apache.logging.log4j.LogManager;
@@ -73,6 +77,13 @@ import java.util.concurrent.TimeUnit;
  */
 public class FoldConstantRuleOnBE extends AbstractExpressionRewriteRule {
     private static final Logger LOG = LogManager.getLogger(FoldConstantRuleOnBE.class);
+
+    // the results of BE folding, shared by all the statements. Only the deterministic expressions are cached,
+    // and the session variables which affect the result are part of the key.
+    private static final Cache<FoldCacheKey, Expression> FOLD_CACHE = Caffeine.newBuilder()
+            .maximumSize(Config.be_fold_constant_cache_size)
+            .build();
+
     private final IdGenerator<ExprId> idGenerator = ExprId.createGenerator();
 
     @Override
@@ -92,19 +103,57 @@ public class FoldConstantRuleOnBE extends AbstractExpressionRewriteRule {
         if (constMap.isEmpty()) {
             return root;
         }
-        Map<String, Map<String, TExpr>> paramMap = new HashMap<>();
-        paramMap.put("0", staleConstTExprMap);
-        Map<String, Expression> resultMap = evalOnBE(paramMap, constMap, context.cascadesContext.getConnectContext());
+        ConnectContext connectContext = context.cascadesContext.getConnectContext();
+        Map<String, Expression> resultMap = new HashMap<>();
+        Map<String, FoldCacheKey> cacheKeys = new HashMap<>();
+        if (Config.be_fold_constant_cache_size > 0) {
+            String timeZone = getTimeZone(connectContext);
+            for (Entry<String, TExpr> entry : staleConstTExprMap.entrySet()) {
+                if (constMap.get(entry.getKey()).containsType(Nondeterministic.class)) {
+                    continue;
+                }
+                FoldCacheKey key = new FoldCacheKey(entry.getValue(), timeZone,
+                        connectContext.getSessionVariable().getSqlMode(),
+                        connectContext.getSessionVariable().repeatMaxNum);
+                Expression cached = FOLD_CACHE.getIfPresent(key);
+                if (cached != null) {
+                    resultMap.put(entry.getKey(), cached);
+                } else {
+                    cacheKeys.put(entry.getKey(), key);
+                }
+            }
+            staleConstTExprMap.keySet().removeAll(resultMap.keySet());
+        }
+        if (!staleConstTExprMap.isEmpty()) {
+            Map<String, Map<String, TExpr>> paramMap = new HashMap<>();
+            paramMap.put("0", staleConstTExprMap);
+            Map<String, Expression> beResultMap = evalOnBE(paramMap, constMap, connectContext);
+            for (Entry<String, Expression> entry : beResultMap.entrySet()) {
+                FoldCacheKey key = cacheKeys.get(entry.getKey());
+                if (key != null) {
+                    FOLD_CACHE.put(key, entry.getValue());
+                }
+            }
+            resultMap.putAll(beResultMap);
+        }
         if (!resultMap.isEmpty()) {
             return replace(root, constMap, resultMap);
         }
         return root;
     }
 
+    private static String getTimeZone(ConnectContext context) {
+        if (context.getSessionVariable().getTimeZone().equals("CST")) {
+            return TimeUtils.DEFAULT_TIME_ZONE;
+        }
+        return context.getSessionVariable().getTimeZone();
+    }
+
     private Expression replace(Expression root, Map<String, Expression> constMap, Map<String, Expression> resultMap) {
         for (Entry<String, Expression> entry : constMap.entrySet()) {
             if (entry.getValue().equals(root)) {
-                return resultMap.get(entry.getKey());
+                // the expression which failed to translate or fold is not in the result
+                return resultMap.getOrDefault(entry.getKey(), root);
             }
         }
         List<Expression> newChildren = new ArrayList<>();
@@ -166,12 +215,7 @@ public class FoldConstantRuleOnBE extends AbstractExpressionRewriteRule {
             TQueryGlobals queryGlobals = new TQueryGlobals();
             queryGlobals.setNowString(TimeUtils.DATETIME_FORMAT.format(LocalDateTime.now()));
             queryGlobals.setTimestampMs(System.currentTimeMillis());
-            queryGlobals.setTimeZone(TimeUtils.DEFAULT_TIME_ZONE);
-            if (context.getSessionVariable().getTimeZone().equals("CST")) {
-                queryGlobals.setTimeZone(TimeUtils.DEFAULT_TIME_ZONE);
-            } else {
-                queryGlobals.setTimeZone(context.getSessionVariable().getTimeZone());
-            }
+            queryGlobals.setTimeZone(getTimeZone(context));
 
             TQueryOptions tQueryOptions = new TQueryOptions();
             tQueryOptions.setRepeatMaxNum(context.getSessionVariable().repeatMaxNum);
@@ -243,5 +287,36 @@ public class FoldConstantRuleOnBE extends AbstractExpressionRewriteRule {
         }
         return resultMap;
     }
-}
 
+    private static class FoldCacheKey {
+        private final TExpr expr;
+        private final String timeZone;
+        private final long sqlMode;
+        private final int repeatMaxNum;
+
+        private FoldCacheKey(TExpr expr, String timeZone, long sqlMode, int repeatMaxNum) {
+            this.expr = expr;
+            this.timeZone = timeZone;
+            this.sqlMode = sqlMode;
+            this.repeatMaxNum = repeatMaxNum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FoldCacheKey that = (FoldCacheKey) o;
+            return sqlMode == that.sqlMode && repeatMaxNum == that.repeatMaxNum
+                    && expr.equals(that.expr) && timeZone.equals(that.timeZone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expr, timeZone, sqlMode, repeatMaxNum);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.rules.rewrite.mv;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MTMV;
+import org.apache.doris.common.util.DebugUtil;
+import org.apache.doris.datasource.InternalCatalog;
+import org.apache.doris.mysql.privilege.PrivPredicate;
+import org.apache.doris.nereids.jobs.JobContext;
+import org.apache.doris.nereids.trees.expressions.Alias;
+import org.apache.doris.nereids.trees.expressions.Cast;
+import org.apache.doris.nereids.trees.expressions.ComparisonPredicate;
+import org.apache.doris.nereids.trees.expressions.EqualTo;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.NamedExpression;
+import org.apache.doris.nereids.trees.expressions.Slot;
+import org.apache.doris.nereids.trees.expressions.StatementScopeIdGenerator;
+import org.apache.doris.nereids.trees.expressions.functions.agg.AggregateFunction;
+import org.apache.doris.nereids.trees.expressions.functions.agg.Count;
+import org.apache.doris.nereids.trees.expressions.functions.agg.Max;
+import org.apache.doris.nereids.trees.expressions.functions.agg.Min;
+import org.apache.doris.nereids.trees.expressions.functions.agg.Sum;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.Nvl;
+import org.apache.doris.nereids.trees.expressions.literal.BigIntLiteral;
+import org.apache.doris.nereids.trees.expressions.literal.Literal;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalAggregate;
+import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
+import org.apache.doris.nereids.trees.plans.logical.LogicalJoin;
+import org.apache.doris.nereids.trees.plans.logical.LogicalOlapScan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalProject;
+import org.apache.doris.nereids.trees.plans.visitor.CustomRewriter;
+import org.apache.doris.nereids.util.ExpressionUtils;
+import org.apache.doris.qe.ConnectContext;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Rewrite the query to read the multi-table async materialized view (MTMV) instead of the base tables.
+ *
+ * The plan is visited top down, and for each select-project-join-group by block, the MTMVs built on exactly
+ * the same base tables are tried. A MTMV could answer the block if:
+ * 1. the MTMV is fresh, i.e. the partition versions of its base tables are not changed since refreshed.
+ * 2. all predicates of the MTMV appear in the query, the rest predicates of the query are compensated
+ *    by a filter on the MTMV, and they could only reference the columns of MTMV.
+ * 3. if the MTMV has aggregate, the group by keys of the query must be a subset of the MTMV ones.
+ *    if they are the same, the aggregate functions are read from the MTMV directly,
+ *    otherwise they are rolled up by a new aggregate, e.g. sum(v) to sum(sum_v) and count(v) to sum(count_v).
+ * 4. all outputs of the block could be computed from the columns of MTMV.
+ */
+public class MaterializedViewRewrite implements CustomRewriter {
+    private static final Logger LOG = LogManager.getLogger(MaterializedViewRewrite.class);
+
+    @Override
+    public Plan rewriteRoot(Plan plan, JobContext jobContext) {
+        ConnectContext connectContext = jobContext.getCascadesContext().getConnectContext();
+        if (connectContext == null
+                || !connectContext.getSessionVariable().isEnableMaterializedViewRewrite()
+                || Env.getCurrentEnv().getMtmvRelationManager().isEmpty()) {
+            return plan;
+        }
+        return rewrite(plan, connectContext);
+    }
+
+    private Plan rewrite(Plan plan, ConnectContext connectContext) {
+        if (plan instanceof LogicalAggregate || plan instanceof LogicalJoin
+                || plan instanceof LogicalProject || plan instanceof LogicalFilter) {
+            Optional<StructInfo> queryStructInfo = StructInfo.of(plan);
+            if (queryStructInfo.isPresent() && isWorthRewriting(queryStructInfo.get())) {
+                List<MTMV> candidates = Env.getCurrentEnv().getMtmvRelationManager()
+                        .getCandidateMTMVs(queryStructInfo.get().getTableIds());
+                for (MTMV mtmv : candidates) {
+                    Optional<Plan> rewritten = rewriteByMTMV(plan, queryStructInfo.get(), mtmv, connectContext);
+                    if (rewritten.isPresent()) {
+                        return rewritten.get();
+                    }
+                }
+            }
+        }
+        List<Plan> newChildren = new ArrayList<>();
+        boolean hasNewChildren = false;
+        for (Plan child : plan.children()) {
+            Plan newChild = rewrite(child, connectContext);
+            if (newChild != child) {
+                hasNewChildren = true;
+            }
+            newChildren.add(newChild);
+        }
+        return hasNewChildren ? plan.withChildren(newChildren) : plan;
+    }
+
+    // reading a MTMV which is a plain copy of one table is no better than reading the table itself
+    private boolean isWorthRewriting(StructInfo structInfo) {
+        return structInfo.getTableIds().size() > 1 || structInfo.hasAggregate()
+                || !structInfo.getPredicates().isEmpty();
+    }
+
+    private Optional<Plan> rewriteByMTMV(Plan plan, StructInfo queryStructInfo, MTMV mtmv,
+            ConnectContext connectContext) {
+        if (!mtmv.isFresh() || !Env.getCurrentEnv().getAccessManager().checkTblPriv(connectContext,
+                InternalCatalog.INTERNAL_CATALOG_NAME, mtmv.getQualifiedDbName(), mtmv.getName(),
+                PrivPredicate.SELECT)) {
+            return Optional.empty();
+        }
+        Optional<StructInfo> mvStructInfo;
+        try {
+            mvStructInfo = StructInfo.of(mtmv.getOrCreateCache().getLogicalPlan());
+        } catch (Exception e) {
+            LOG.warn("failed to build the plan of materialized view {}", mtmv.getName(), e);
+            return Optional.empty();
+        }
+        if (!mvStructInfo.isPresent()) {
+            return Optional.empty();
+        }
+        LogicalOlapScan mvScan = new LogicalOlapScan(StatementScopeIdGenerator.newRelationId(), mtmv,
+                ImmutableList.of(mtmv.getQualifiedDbName()));
+        Optional<Plan> rewritten = rewriteByStructInfo(plan, queryStructInfo, mvStructInfo.get(), mvScan);
+        if (rewritten.isPresent() && LOG.isDebugEnabled()) {
+            LOG.debug("rewrite query {} by materialized view {}", DebugUtil.printId(connectContext.queryId()),
+                    mtmv.getName());
+        }
+        return rewritten;
+    }
+
+    /**
+     * rewrite the query plan to read the materialized view scan.
+     * the outputs of the materialized view plan and the columns of the materialized view scan are in the same order.
+     */
+    static Optional<Plan> rewriteByStructInfo(Plan queryPlan, StructInfo query, StructInfo mv,
+            LogicalOlapScan mvScan) {
+        List<Slot> mvSlots = mvScan.getOutput();
+        if (!query.getTableIds().equals(mv.getTableIds())
+                || mvSlots.size() != mv.getOutputExpressions().size()
+                || (mv.hasAggregate() && !query.hasAggregate())) {
+            return Optional.empty();
+        }
+        // express the materialized view by the slots of query, the table is scanned only once in both of them,
+        // so the slots could be mapped by table and column name
+        Map<Slot, Slot> mvToQuerySlots = Maps.newHashMap();
+        for (Entry<Long, LogicalOlapScan> entry : mv.getScans().entrySet()) {
+            Map<String, Slot> querySlots = Maps.newHashMap();
+            for (Slot slot : query.getScans().get(entry.getKey()).getOutput()) {
+                querySlots.put(slot.getName(), slot);
+            }
+            for (Slot slot : entry.getValue().getOutput()) {
+                Slot querySlot = querySlots.get(slot.getName());
+                if (querySlot != null) {
+                    mvToQuerySlots.put(slot, querySlot);
+                }
+            }
+        }
+
+        Set<Expression> queryPredicates = normalize(query.getPredicates());
+        Set<Expression> mvPredicates = normalize(ExpressionUtils.replace(mv.getPredicates(), mvToQuerySlots));
+        if (!queryPredicates.containsAll(mvPredicates)) {
+            return Optional.empty();
+        }
+
+        // columns of materialized view without aggregate function, and aggregate function columns
+        List<Expression> mvOutputs = ExpressionUtils.replace(mv.getOutputExpressions(), mvToQuerySlots);
+        Map<Expression, Slot> columnMap = Maps.newHashMap();
+        Map<Expression, Slot> aggregateMap = Maps.newHashMap();
+        for (int i = 0; i < mvOutputs.size(); i++) {
+            Expression mvOutput = mvOutputs.get(i);
+            if (!mv.hasAggregate() || !mvOutput.containsType(AggregateFunction.class)) {
+                columnMap.putIfAbsent(mvOutput, mvSlots.get(i));
+            } else if (mvOutput instanceof AggregateFunction) {
+                aggregateMap.putIfAbsent(mvOutput, mvSlots.get(i));
+            }
+        }
+        Set<Slot> mvSlotSet = ImmutableSet.copyOf(mvSlots);
+
+        Set<Expression> compensations = Sets.newLinkedHashSet();
+        for (Expression predicate : Sets.difference(queryPredicates, mvPredicates)) {
+            Expression compensation = ExpressionUtils.replace(predicate, columnMap);
+            if (!mvSlotSet.containsAll(compensation.getInputSlots())) {
+                return Optional.empty();
+            }
+            compensations.add(compensation);
+        }
+        Plan child = compensations.isEmpty() ? mvScan : new LogicalFilter<>(compensations, mvScan);
+
+        if (!query.hasAggregate()) {
+            return project(queryPlan, ExpressionUtils.replace(query.getOutputExpressions(), columnMap), child);
+        }
+
+        List<Slot> groupBySlots = new ArrayList<>();
+        for (Expression groupBy : query.getGroupByExpressions()) {
+            Expression groupBySlot = ExpressionUtils.replace(groupBy, columnMap);
+            if (!mvSlotSet.contains(groupBySlot)) {
+                return Optional.empty();
+            }
+            groupBySlots.add((Slot) groupBySlot);
+        }
+        Set<AggregateFunction> functions = ExpressionUtils.collect(query.getOutputExpressions(),
+                AggregateFunction.class::isInstance);
+        Map<Expression, Expression> functionMap = Maps.newLinkedHashMap();
+
+        if (!mv.hasAggregate()) {
+            // aggregate the detail rows of materialized view
+            for (AggregateFunction function : functions) {
+                List<Expression> children = ExpressionUtils.replace(function.children(), columnMap);
+                for (Expression functionChild : children) {
+                    if (!(functionChild instanceof Literal) && !mvSlotSet.contains(functionChild)) {
+                        return Optional.empty();
+                    }
+                }
+                functionMap.put(function, function.withChildren(children));
+            }
+            return aggregate(queryPlan, query, groupBySlots, functionMap, child);
+        }
+
+        Set<Expression> mvGroupBy = ImmutableSet.copyOf(
+                ExpressionUtils.replace(mv.getGroupByExpressions(), mvToQuerySlots));
+        if (!mvGroupBy.containsAll(query.getGroupByExpressions())) {
+            return Optional.empty();
+        }
+        if (mvGroupBy.equals(ImmutableSet.copyOf(query.getGroupByExpressions()))) {
+            // the same group by keys, every row of materialized view is a group of query
+            Map<Expression, Expression> replaceMap = Maps.newHashMap(columnMap);
+            for (AggregateFunction function : functions) {
+                Slot slot = aggregateMap.get(function);
+                if (slot == null) {
+                    return Optional.empty();
+                }
+                replaceMap.put(function, slot);
+            }
+            return project(queryPlan, ExpressionUtils.replace(query.getOutputExpressions(), replaceMap), child);
+        }
+        // roll up the aggregate functions of materialized view to the coarser group by keys
+        for (AggregateFunction function : functions) {
+            Expression rollup = rollup(function, aggregateMap, columnMap, mvSlotSet,
+                    query.getGroupByExpressions().isEmpty());
+            if (rollup == null) {
+                return Optional.empty();
+            }
+            functionMap.put(function, rollup);
+        }
+        return aggregate(queryPlan, query, groupBySlots, functionMap, child);
+    }
+
+    private static Expression rollup(AggregateFunction function, Map<Expression, Slot> aggregateMap,
+            Map<Expression, Slot> columnMap, Set<Slot> mvSlots, boolean isGlobalAggregate) {
+        if (function.isDistinct() || function instanceof Min || function instanceof Max) {
+            // could be computed from the group by columns of materialized view directly
+            List<Expression> children = ExpressionUtils.replace(function.children(), columnMap);
+            if (mvSlots.containsAll(children)) {
+                return function.withChildren(children);
+            }
+        }
+        Slot slot = aggregateMap.get(function);
+        if (slot == null || function.isDistinct()) {
+            return null;
+        } else if (function instanceof Sum) {
+            return new Sum(slot);
+        } else if (function instanceof Count) {
+            // sum of nothing is null, but count of nothing is 0, which matters when there is no group by
+            return isGlobalAggregate ? new Nvl(new Sum(slot), new BigIntLiteral(0)) : new Sum(slot);
+        } else if (function instanceof Min) {
+            return new Min(slot);
+        } else if (function instanceof Max) {
+            return new Max(slot);
+        }
+        return null;
+    }
+
+    private static Optional<Plan> aggregate(Plan queryPlan, StructInfo query, List<Slot> groupBySlots,
+            Map<Expression, Expression> functionMap, Plan child) {
+        List<Expression> groupByExpressions = ImmutableList.copyOf(ImmutableSet.copyOf(groupBySlots));
+        ImmutableList.Builder<NamedExpression> aggregateOutputs = ImmutableList.builder();
+        for (Expression groupBy : groupByExpressions) {
+            aggregateOutputs.add((Slot) groupBy);
+        }
+        Map<Expression, Expression> replaceMap = Maps.newHashMap();
+        for (int i = 0; i < groupBySlots.size(); i++) {
+            replaceMap.put(query.getGroupByExpressions().get(i), groupBySlots.get(i));
+        }
+        for (Entry<Expression, Expression> entry : functionMap.entrySet()) {
+            // only the aggregate functions are computed by the aggregate, the expressions on them,
+            // e.g. nvl(sum(count_v), 0), are computed by the project above
+            Set<AggregateFunction> rollups = entry.getValue().collect(AggregateFunction.class::isInstance);
+            Map<Expression, Expression> rollupToSlot = Maps.newHashMap();
+            for (AggregateFunction rollup : rollups) {
+                Alias alias = new Alias(rollup, rollup.toSql());
+                aggregateOutputs.add(alias);
+                rollupToSlot.put(rollup, alias.toSlot());
+            }
+            replaceMap.put(entry.getKey(), ExpressionUtils.replace(entry.getValue(), rollupToSlot));
+        }
+        LogicalAggregate<Plan> aggregate = new LogicalAggregate<>(groupByExpressions,
+                aggregateOutputs.build(), child);
+        return project(queryPlan, ExpressionUtils.replace(query.getOutputExpressions(), replaceMap), aggregate);
+    }
+
+    // keep the outputs of query plan, so the parent of the rewritten plan need not to be changed
+    private static Optional<Plan> project(Plan queryPlan, List<Expression> outputs, Plan child) {
+        Set<Slot> childOutputs = child.getOutputSet();
+        List<Slot> queryOutputs = queryPlan.getOutput();
+        ImmutableList.Builder<NamedExpression> projects = ImmutableList.builder();
+        for (int i = 0; i < outputs.size(); i++) {
+            Expression output = outputs.get(i);
+            if (!childOutputs.containsAll(output.getInputSlots())) {
+                return Optional.empty();
+            }
+            Slot queryOutput = queryOutputs.get(i);
+            if (!output.getDataType().equals(queryOutput.getDataType())) {
+                output = new Cast(output, queryOutput.getDataType());
+            }
+            projects.add(new Alias(queryOutput.getExprId(), output, queryOutput.getName()));
+        }
+        return Optional.of(new LogicalProject<>(projects.build(), child));
+    }
+
+    // normalize the predicates, so the same predicates written in different order could be matched
+    private static Set<Expression> normalize(Set<Expression> predicates) {
+        ImmutableSet.Builder<Expression> normalized = ImmutableSet.builder();
+        for (Expression predicate : predicates) {
+            if (predicate instanceof EqualTo
+                    && predicate.child(0).toString().compareTo(predicate.child(1).toString()) > 0) {
+                predicate = ((EqualTo) predicate).commute();
+            } else if (predicate instanceof ComparisonPredicate
+                    && predicate.child(0) instanceof Literal && !(predicate.child(1) instanceof Literal)) {
+                predicate = ((ComparisonPredicate) predicate).commute();
+            }
+            normalized.add(predicate);
+        }
+        return normalized.build();
+    }
+}
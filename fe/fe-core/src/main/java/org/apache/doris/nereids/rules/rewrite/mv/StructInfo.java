@@ -0,0 +1,241 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.rules.rewrite.mv;
+
+import org.apache.doris.nereids.trees.expressions.Alias;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.NamedExpression;
+import org.apache.doris.nereids.trees.expressions.Slot;
+import org.apache.doris.nereids.trees.expressions.WindowExpression;
+import org.apache.doris.nereids.trees.expressions.functions.Nondeterministic;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalAggregate;
+import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
+import org.apache.doris.nereids.trees.plans.logical.LogicalJoin;
+import org.apache.doris.nereids.trees.plans.logical.LogicalOlapScan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalProject;
+import org.apache.doris.nereids.util.ExpressionUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * StructInfo is the normalized select-project-join-group by form of a plan, used by materialized view rewrite
+ * to compare the query and the materialized view structurally.
+ * All the predicates, group by expressions and outputs are expressed by the slots of base table scans,
+ * so the shape of projects, filters and joins does not matter.
+ * Only inner and cross joins of olap tables and at most one aggregate on the top are supported,
+ * and every table could only be scanned once.
+ */
+public class StructInfo {
+    // table id -> scan of the table
+    private final Map<Long, LogicalOlapScan> scans;
+    // the conjuncts of filters and join conditions, without the generated is not null predicates
+    private final Set<Expression> predicates;
+    private final Optional<List<Expression>> groupByExpressions;
+    // the expressions of plan outputs, may contain aggregate functions if the plan has aggregate
+    private final List<Expression> outputExpressions;
+
+    private StructInfo(Map<Long, LogicalOlapScan> scans, Set<Expression> predicates,
+            Optional<List<Expression>> groupByExpressions, List<Expression> outputExpressions) {
+        this.scans = ImmutableMap.copyOf(scans);
+        this.predicates = ImmutableSet.copyOf(predicates);
+        this.groupByExpressions = groupByExpressions.map(ImmutableList::copyOf);
+        this.outputExpressions = ImmutableList.copyOf(outputExpressions);
+    }
+
+    public Map<Long, LogicalOlapScan> getScans() {
+        return scans;
+    }
+
+    public Set<Long> getTableIds() {
+        return scans.keySet();
+    }
+
+    public Set<Expression> getPredicates() {
+        return predicates;
+    }
+
+    public boolean hasAggregate() {
+        return groupByExpressions.isPresent();
+    }
+
+    public List<Expression> getGroupByExpressions() {
+        return groupByExpressions.orElse(ImmutableList.of());
+    }
+
+    public List<Expression> getOutputExpressions() {
+        return outputExpressions;
+    }
+
+    /**
+     * build the StructInfo of the plan, return empty if the plan is not supported.
+     */
+    public static Optional<StructInfo> of(Plan plan) {
+        Collector collector = new Collector();
+        Map<Slot, Expression> slotToExpression = collector.collect(plan);
+        if (slotToExpression == null || collector.scans.isEmpty()) {
+            return Optional.empty();
+        }
+        ImmutableList.Builder<Expression> outputs = ImmutableList.builder();
+        for (Slot slot : plan.getOutput()) {
+            Expression expression = slotToExpression.get(slot);
+            if (expression == null) {
+                return Optional.empty();
+            }
+            outputs.add(expression);
+        }
+        return Optional.of(new StructInfo(collector.scans, collector.predicates,
+                Optional.ofNullable(collector.groupByExpressions), outputs.build()));
+    }
+
+    /**
+     * collect the scans, predicates and aggregate of the plan bottom up.
+     * each visit returns the expressions of the plan outputs, or null if the plan is not supported.
+     */
+    private static class Collector {
+        private final Map<Long, LogicalOlapScan> scans = Maps.newHashMap();
+        private final Set<Expression> predicates = Sets.newHashSet();
+        private List<Expression> groupByExpressions = null;
+
+        private Map<Slot, Expression> collect(Plan plan) {
+            if (plan instanceof LogicalOlapScan) {
+                return collectScan((LogicalOlapScan) plan);
+            } else if (plan instanceof LogicalFilter) {
+                return collectFilter((LogicalFilter<?>) plan);
+            } else if (plan instanceof LogicalProject) {
+                return collectProject((LogicalProject<?>) plan);
+            } else if (plan instanceof LogicalJoin) {
+                return collectJoin((LogicalJoin<?, ?>) plan);
+            } else if (plan instanceof LogicalAggregate) {
+                return collectAggregate((LogicalAggregate<?>) plan);
+            }
+            return null;
+        }
+
+        private Map<Slot, Expression> collectScan(LogicalOlapScan scan) {
+            if (scans.containsKey(scan.getTable().getId())
+                    || !scan.getManuallySpecifiedPartitions().isEmpty()
+                    || !scan.getSelectedTabletIds().isEmpty()
+                    || scan.getTableSample().isPresent()) {
+                return null;
+            }
+            scans.put(scan.getTable().getId(), scan);
+            Map<Slot, Expression> slotToExpression = Maps.newHashMap();
+            for (Slot slot : scan.getOutput()) {
+                slotToExpression.put(slot, slot);
+            }
+            return slotToExpression;
+        }
+
+        private Map<Slot, Expression> collectFilter(LogicalFilter<?> filter) {
+            // having is not supported
+            Map<Slot, Expression> childMap = collect(filter.child());
+            if (childMap == null || groupByExpressions != null) {
+                return null;
+            }
+            return addPredicates(filter.getConjuncts(), childMap) ? childMap : null;
+        }
+
+        private Map<Slot, Expression> collectProject(LogicalProject<?> project) {
+            Map<Slot, Expression> childMap = collect(project.child());
+            if (childMap == null) {
+                return null;
+            }
+            Map<Slot, Expression> slotToExpression = Maps.newHashMap();
+            for (NamedExpression namedExpression : project.getProjects()) {
+                Expression expression = namedExpression instanceof Alias
+                        ? ((Alias) namedExpression).child() : namedExpression;
+                if (!isSupported(expression)) {
+                    return null;
+                }
+                slotToExpression.put(namedExpression.toSlot(), ExpressionUtils.replace(expression, childMap));
+            }
+            return slotToExpression;
+        }
+
+        private Map<Slot, Expression> collectJoin(LogicalJoin<?, ?> join) {
+            if (!join.getJoinType().isInnerOrCrossJoin() || join.isMarkJoin()) {
+                return null;
+            }
+            Map<Slot, Expression> leftMap = collect(join.left());
+            if (leftMap == null || groupByExpressions != null) {
+                return null;
+            }
+            Map<Slot, Expression> rightMap = collect(join.right());
+            if (rightMap == null || groupByExpressions != null) {
+                return null;
+            }
+            Map<Slot, Expression> slotToExpression = Maps.newHashMap(leftMap);
+            slotToExpression.putAll(rightMap);
+            if (!addPredicates(join.getHashJoinConjuncts(), slotToExpression)
+                    || !addPredicates(join.getOtherJoinConjuncts(), slotToExpression)) {
+                return null;
+            }
+            return slotToExpression;
+        }
+
+        private Map<Slot, Expression> collectAggregate(LogicalAggregate<?> aggregate) {
+            if (aggregate.getSourceRepeat().isPresent()) {
+                return null;
+            }
+            Map<Slot, Expression> childMap = collect(aggregate.child());
+            if (childMap == null || groupByExpressions != null) {
+                return null;
+            }
+            groupByExpressions = ExpressionUtils.replace(aggregate.getGroupByExpressions(), childMap);
+            Map<Slot, Expression> slotToExpression = Maps.newHashMap();
+            for (NamedExpression namedExpression : aggregate.getOutputExpressions()) {
+                Expression expression = namedExpression instanceof Alias
+                        ? ((Alias) namedExpression).child() : namedExpression;
+                if (!isSupported(expression)) {
+                    return null;
+                }
+                slotToExpression.put(namedExpression.toSlot(), ExpressionUtils.replace(expression, childMap));
+            }
+            return slotToExpression;
+        }
+
+        private boolean addPredicates(Iterable<? extends Expression> conjuncts, Map<Slot, Expression> slotMap) {
+            for (Expression conjunct : conjuncts) {
+                if (!isSupported(conjunct)) {
+                    return false;
+                }
+                // the generated is not null predicates are inferred from other predicates,
+                // ignore them so the query and materialized view are compared by the predicates written by user
+                if (conjunct.isGeneratedIsNotNull) {
+                    continue;
+                }
+                predicates.addAll(ExpressionUtils.extractConjunction(ExpressionUtils.replace(conjunct, slotMap)));
+            }
+            return true;
+        }
+
+        private boolean isSupported(Expression expression) {
+            return !expression.containsType(WindowExpression.class, Nondeterministic.class);
+        }
+    }
+}
@@ -543,8 +543,7 @@ public class StatsCalculator extends DefaultPlanVisitor<Statistics, Void> {
 
     private Statistics computeAssertNumRows(long desiredNumOfRows) {
         Statistics statistics = groupExpression.childStatistics(0);
-        statistics.withRowCountAndEnforceValid(Math.min(1, statistics.getRowCount()));
-        return statistics;
+        return statistics.withRowCountAndEnforceValid(Math.min(1, statistics.getRowCount()));
     }
 
     private Statistics computeFilter(Filter filter) {
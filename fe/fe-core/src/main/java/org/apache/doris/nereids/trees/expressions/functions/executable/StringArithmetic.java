@@ -0,0 +1,263 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.trees.expressions.functions.executable;
+
+import org.apache.doris.nereids.trees.expressions.ExecFunction;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.literal.BooleanLiteral;
+import org.apache.doris.nereids.trees.expressions.literal.IntegerLiteral;
+import org.apache.doris.nereids.trees.expressions.literal.StringLikeLiteral;
+import org.apache.doris.nereids.trees.expressions.literal.StringLiteral;
+import org.apache.doris.nereids.trees.expressions.literal.VarcharLiteral;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * executable functions:
+ * string functions on literals, so that they are folded in FE without asking BE.
+ * Strings are handled by characters like BE. The functions whose result in BE is not sure the same as java for
+ * some arguments, e.g. upper on non-ascii strings, throw exception for these arguments to skip folding.
+ */
+public class StringArithmetic {
+    private static final int MAX_FOLD_RESULT_LENGTH = 65535;
+
+    /**
+     * Executable string functions concat
+     */
+    @ExecFunction(name = "concat", argTypes = {"VARCHAR", "VARCHAR"}, returnType = "VARCHAR")
+    public static Expression concat(StringLikeLiteral first, StringLikeLiteral second) {
+        return newStringLikeLiteral(first, first.value + second.value);
+    }
+
+    @ExecFunction(name = "concat", argTypes = {"VARCHAR", "VARCHAR", "VARCHAR"}, returnType = "VARCHAR")
+    public static Expression concat(StringLikeLiteral first, StringLikeLiteral second, StringLikeLiteral third) {
+        return newStringLikeLiteral(first, first.value + second.value + third.value);
+    }
+
+    @ExecFunction(name = "upper", argTypes = {"VARCHAR"}, returnType = "VARCHAR")
+    public static Expression upper(StringLikeLiteral literal) {
+        checkAscii(literal.value);
+        return newStringLikeLiteral(literal, literal.value.toUpperCase(Locale.ROOT));
+    }
+
+    @ExecFunction(name = "lower", argTypes = {"VARCHAR"}, returnType = "VARCHAR")
+    public static Expression lower(StringLikeLiteral literal) {
+        checkAscii(literal.value);
+        return newStringLikeLiteral(literal, literal.value.toLowerCase(Locale.ROOT));
+    }
+
+    @ExecFunction(name = "length", argTypes = {"VARCHAR"}, returnType = "INT")
+    public static Expression length(StringLikeLiteral literal) {
+        return new IntegerLiteral(literal.value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * trim, ltrim and rtrim only remove the space characters.
+     */
+    @ExecFunction(name = "trim", argTypes = {"VARCHAR"}, returnType = "VARCHAR")
+    public static Expression trim(StringLikeLiteral literal) {
+        String value = literal.value;
+        int start = trimStart(value);
+        return newStringLikeLiteral(literal, value.substring(start, trimEnd(value, start)));
+    }
+
+    @ExecFunction(name = "ltrim", argTypes = {"VARCHAR"}, returnType = "VARCHAR")
+    public static Expression ltrim(StringLikeLiteral literal) {
+        String value = literal.value;
+        return newStringLikeLiteral(literal, value.substring(trimStart(value)));
+    }
+
+    @ExecFunction(name = "rtrim", argTypes = {"VARCHAR"}, returnType = "VARCHAR")
+    public static Expression rtrim(StringLikeLiteral literal) {
+        String value = literal.value;
+        return newStringLikeLiteral(literal, value.substring(0, trimEnd(value, 0)));
+    }
+
+    /**
+     * reverse by characters.
+     */
+    @ExecFunction(name = "reverse", argTypes = {"VARCHAR"}, returnType = "VARCHAR")
+    public static Expression reverse(StringLikeLiteral literal) {
+        int[] codePoints = literal.value.codePoints().toArray();
+        StringBuilder builder = new StringBuilder(literal.value.length());
+        for (int i = codePoints.length - 1; i >= 0; i--) {
+            builder.appendCodePoint(codePoints[i]);
+        }
+        return newStringLikeLiteral(literal, builder.toString());
+    }
+
+    /**
+     * left, the first len characters, empty string if len is not positive.
+     */
+    @ExecFunction(name = "left", argTypes = {"VARCHAR", "INT"}, returnType = "VARCHAR")
+    public static Expression left(StringLikeLiteral literal, IntegerLiteral len) {
+        String value = literal.value;
+        int charLength = value.codePointCount(0, value.length());
+        if (len.getValue() <= 0) {
+            return newStringLikeLiteral(literal, "");
+        }
+        return newStringLikeLiteral(literal, substringByChars(value, 0, Math.min(len.getValue(), charLength)));
+    }
+
+    /**
+     * right, the last len characters.
+     */
+    @ExecFunction(name = "right", argTypes = {"VARCHAR", "INT"}, returnType = "VARCHAR")
+    public static Expression right(StringLikeLiteral literal, IntegerLiteral len) {
+        if (len.getValue() < 0) {
+            throw new IllegalArgumentException("right with negative length is not folded in FE");
+        }
+        String value = literal.value;
+        int charLength = value.codePointCount(0, value.length());
+        int start = Math.max(0, charLength - len.getValue());
+        return newStringLikeLiteral(literal, substringByChars(value, start, charLength));
+    }
+
+    /**
+     * substring(str, pos, len), pos starts from 1, and negative pos counts from the end of str.
+     */
+    @ExecFunction(name = "substring", argTypes = {"VARCHAR", "INT", "INT"}, returnType = "VARCHAR")
+    public static Expression substring(StringLikeLiteral literal, IntegerLiteral pos, IntegerLiteral len) {
+        String value = literal.value;
+        int charLength = value.codePointCount(0, value.length());
+        int start = pos.getValue();
+        if (start < 0) {
+            start = charLength + start + 1;
+        }
+        if (start <= 0 || start > charLength || len.getValue() <= 0) {
+            return newStringLikeLiteral(literal, "");
+        }
+        int end = (int) Math.min((long) start - 1 + len.getValue(), charLength);
+        return newStringLikeLiteral(literal, substringByChars(value, start - 1, end));
+    }
+
+    @ExecFunction(name = "replace", argTypes = {"VARCHAR", "VARCHAR", "VARCHAR"}, returnType = "VARCHAR")
+    public static Expression replace(StringLikeLiteral literal, StringLikeLiteral from, StringLikeLiteral to) {
+        if (from.value.isEmpty()) {
+            throw new IllegalArgumentException("replace empty string is not folded in FE");
+        }
+        return newStringLikeLiteral(literal, checkLength(literal.value.replace(from.value, to.value)));
+    }
+
+    /**
+     * repeat, return empty string if count is not positive.
+     */
+    @ExecFunction(name = "repeat", argTypes = {"VARCHAR", "INT"}, returnType = "VARCHAR")
+    public static Expression repeat(StringLikeLiteral literal, IntegerLiteral count) {
+        if ((long) literal.value.length() * Math.max(0, count.getValue()) > MAX_FOLD_RESULT_LENGTH) {
+            throw new IllegalArgumentException("result of repeat is too long to fold in FE");
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count.getValue(); i++) {
+            builder.append(literal.value);
+        }
+        return newStringLikeLiteral(literal, builder.toString());
+    }
+
+    /**
+     * locate(substr, str), return the position of the first substr in str starts from 1, or 0 if not found.
+     */
+    @ExecFunction(name = "locate", argTypes = {"VARCHAR", "VARCHAR"}, returnType = "INT")
+    public static Expression locate(StringLikeLiteral substr, StringLikeLiteral literal) {
+        return new IntegerLiteral(position(literal.value, substr.value));
+    }
+
+    @ExecFunction(name = "instr", argTypes = {"VARCHAR", "VARCHAR"}, returnType = "INT")
+    public static Expression instr(StringLikeLiteral literal, StringLikeLiteral substr) {
+        return new IntegerLiteral(position(literal.value, substr.value));
+    }
+
+    /**
+     * ascii, return the code of the first character, 0 for empty string.
+     */
+    @ExecFunction(name = "ascii", argTypes = {"VARCHAR"}, returnType = "INT")
+    public static Expression ascii(StringLikeLiteral literal) {
+        String value = literal.value;
+        if (value.isEmpty()) {
+            return new IntegerLiteral(0);
+        }
+        checkAscii(value.substring(0, 1));
+        return new IntegerLiteral(value.charAt(0));
+    }
+
+    @ExecFunction(name = "starts_with", argTypes = {"VARCHAR", "VARCHAR"}, returnType = "BOOLEAN")
+    public static Expression startsWith(StringLikeLiteral literal, StringLikeLiteral prefix) {
+        return BooleanLiteral.of(literal.value.startsWith(prefix.value));
+    }
+
+    @ExecFunction(name = "ends_with", argTypes = {"VARCHAR", "VARCHAR"}, returnType = "BOOLEAN")
+    public static Expression endsWith(StringLikeLiteral literal, StringLikeLiteral suffix) {
+        return BooleanLiteral.of(literal.value.endsWith(suffix.value));
+    }
+
+    // keep the string type of the first argument, e.g. the result of string functions on STRING is STRING.
+    private static Expression newStringLikeLiteral(StringLikeLiteral first, String value) {
+        checkLength(value);
+        if (first instanceof StringLiteral) {
+            return new StringLiteral(value);
+        }
+        return new VarcharLiteral(value);
+    }
+
+    private static String checkLength(String value) {
+        if (value.length() > MAX_FOLD_RESULT_LENGTH) {
+            throw new IllegalArgumentException("result is too long to fold in FE");
+        }
+        return value;
+    }
+
+    private static void checkAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 127) {
+                throw new IllegalArgumentException("non-ascii string is not folded in FE");
+            }
+        }
+    }
+
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    // substring by the index of characters, which may be different from the index of java chars
+    private static String substringByChars(String value, int startChar, int endChar) {
+        int start = value.offsetByCodePoints(0, startChar);
+        int end = value.offsetByCodePoints(start, endChar - startChar);
+        return value.substring(start, end);
+    }
+
+    private static int position(String value, String substr) {
+        if (substr.isEmpty()) {
+            throw new IllegalArgumentException("position of empty string is not folded in FE");
+        }
+        int index = value.indexOf(substr);
+        return index < 0 ? 0 : value.codePointCount(0, index) + 1;
+    }
+}
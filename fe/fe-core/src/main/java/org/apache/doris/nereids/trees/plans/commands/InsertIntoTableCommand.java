@@ -389,8 +389,8 @@ public class InsertIntoTableCommand extends Command implements ForwardWithSync,
         for (List<Expr> list : materializedConstExprLists) {
             rows.add(GroupCommitPlanner.getRowStringValue(list, filterSize));
         }
-        GroupCommitPlanner groupCommitPlanner = new GroupCommitPlanner(physicalOlapTableSink.getDatabase(),
-                physicalOlapTableSink.getTargetTable(), null, ctx.queryId());
+        GroupCommitPlanner groupCommitPlanner = GroupCommitPlanner.getOrCreate(physicalOlapTableSink.getDatabase(),
+                physicalOlapTableSink.getTargetTable(), null, ctx.getSessionVariable(), ctx.queryId());
         Future<PGroupCommitInsertResponse> future = groupCommitPlanner.executeGroupCommitInsert(ctx, rows);
         PGroupCommitInsertResponse response = future.get();
         TStatusCode code = TStatusCode.findByValue(response.getStatus().getStatusCode());
@@ -49,6 +49,8 @@ public class RuntimeFilter {
     private final long buildSideNdv;
     // use for min-max filter only. specify if the min or max side is valid
     private final TMinMaxRuntimeFilterType tMinMaxType;
+    // the ratio of probe rows expected to be filtered, -1 if unknown
+    private double expectedFilterRatio = -1;
 
     /**
      * constructor
@@ -125,6 +127,14 @@ public class RuntimeFilter {
         return buildSideNdv;
     }
 
+    public double getExpectedFilterRatio() {
+        return expectedFilterRatio;
+    }
+
+    public void setExpectedFilterRatio(double expectedFilterRatio) {
+        this.expectedFilterRatio = expectedFilterRatio;
+    }
+
     public void addTargetSlot(Slot target) {
         targetSlots.add(target);
     }
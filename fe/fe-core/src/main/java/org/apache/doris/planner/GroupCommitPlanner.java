@@ -26,13 +26,16 @@ import org.apache.doris.catalog.Column;
 import org.apache.doris.catalog.Database;
 import org.apache.doris.catalog.Env;
 import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.UserException;
+import org.apache.doris.common.util.TimeUtils;
 import org.apache.doris.proto.InternalService;
 import org.apache.doris.proto.InternalService.PGroupCommitInsertRequest;
 import org.apache.doris.proto.InternalService.PGroupCommitInsertResponse;
 import org.apache.doris.proto.Types;
 import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.SessionVariable;
 import org.apache.doris.rpc.BackendServiceProxy;
 import org.apache.doris.rpc.RpcException;
 import org.apache.doris.system.Backend;
@@ -41,43 +44,269 @@ import org.apache.doris.thrift.TExecPlanFragmentParams;
 import org.apache.doris.thrift.TExecPlanFragmentParamsList;
 import org.apache.doris.thrift.TFileCompressType;
 import org.apache.doris.thrift.TFileFormatType;
+import org.apache.doris.thrift.TFileRangeDesc;
 import org.apache.doris.thrift.TFileType;
 import org.apache.doris.thrift.TMergeType;
 import org.apache.doris.thrift.TNetworkAddress;
+import org.apache.doris.thrift.TQueryGlobals;
 import org.apache.doris.thrift.TScanRangeParams;
 import org.apache.doris.thrift.TStreamLoadPutRequest;
 import org.apache.doris.thrift.TUniqueId;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TException;
 import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TType;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 // Used to generate a plan fragment for a group commit
 // we only support OlapTable now.
 public class GroupCommitPlanner {
     private static final Logger LOG = LogManager.getLogger(GroupCommitPlanner.class);
+    private static final InternalService.PDataColumn NULL_COLUMN =
+            InternalService.PDataColumn.newBuilder().setValue("\\N").build();
+
+    // the plans are shared by the connections, each insert patches its load id into a copy of the serialized plan
+    private static final Cache<String, CachedPlan> PLAN_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(Config.group_commit_plan_cache_size)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
 
     private Database db;
     private OlapTable table;
+    private List<String> targetColumnNames;
     private TUniqueId loadId;
     private Backend backend;
-    private TExecPlanFragmentParamsList paramsList;
+    private TExecPlanFragmentParams execPlanFragmentParams;
     private ByteString execPlanFragmentParamsBytes;
 
+    private static class CachedPlan {
+        private final long metaVersion;
+        private final List<String> backends;
+        // bound to the placeholders of template, never changed after cached
+        private final TExecPlanFragmentParams params;
+        private final PlanTemplate template;
+
+        private CachedPlan(long metaVersion, List<String> backends, TExecPlanFragmentParams params,
+                PlanTemplate template) {
+            this.metaVersion = metaVersion;
+            this.backends = backends;
+            this.params = params;
+            this.template = template;
+        }
+
+        // the sink of plan contains the indexes, partitions, tablets and the nodes info of all backends.
+        // any change of the table meta changes the meta version, loads committed to the table do not.
+        private boolean isValid(OlapTable table, List<String> backends) {
+            return table.isMetaVersionValid(metaVersion) && this.backends.equals(backends);
+        }
+    }
+
+    /**
+     * The serialized plan with the offsets of the fields which differ between inserts: the load id and the query
+     * globals. They are fixed-size in the thrift binary protocol, so each insert copies the bytes and overwrites them
+     * instead of serializing the whole plan, whose sink holds the locations of all tablets.
+     * The offsets are found by binding the plan to random placeholders, which can not appear elsewhere in the plan.
+     */
+    private static class PlanTemplate {
+        // the type and id of a thrift field, followed by its value
+        private static final int FIELD_HEADER_SIZE = 3;
+        private static final int NOW_STRING_LENGTH = "yyyy-MM-dd HH:mm:ss".length();
+
+        private final byte[] bytes;
+        private final List<Integer> loadIdOffsets;
+        private final int instanceIdOffset;
+        private final int nowStringOffset;
+        private final int timestampOffset;
+        private final int nanoSecondsOffset;
+
+        private PlanTemplate(byte[] bytes, List<Integer> loadIdOffsets, int instanceIdOffset, int nowStringOffset,
+                int timestampOffset, int nanoSecondsOffset) {
+            this.bytes = bytes;
+            this.loadIdOffsets = loadIdOffsets;
+            this.instanceIdOffset = instanceIdOffset;
+            this.nowStringOffset = nowStringOffset;
+            this.timestampOffset = timestampOffset;
+            this.nanoSecondsOffset = nanoSecondsOffset;
+        }
+
+        // bind the plan to the placeholders, return null if any field can not be located exactly
+        private static PlanTemplate create(TExecPlanFragmentParams tRequest) throws TException {
+            Random random = new Random();
+            TUniqueId loadId = new TUniqueId(random.nextLong(), random.nextLong());
+            StringBuilder nowString = new StringBuilder();
+            for (int i = 0; i < NOW_STRING_LENGTH; i++) {
+                nowString.append((char) ('a' + random.nextInt(26)));
+            }
+            long timestampMs = random.nextLong();
+            int nanoSeconds = random.nextInt();
+            int loadIdNum = rebind(tRequest, loadId, nowString.toString(), timestampMs, nanoSeconds);
+            byte[] bytes = serialize(tRequest);
+
+            List<Integer> loadIdOffsets = find(bytes, uniqueId(loadId.hi, loadId.lo));
+            List<Integer> instanceIdOffsets = find(bytes, uniqueId(loadId.hi, loadId.lo + 1));
+            // TQueryGlobals: 1: string now_string, 2: i64 timestamp_ms, 5: i32 nano_seconds
+            List<Integer> nowStringOffsets = find(bytes, ByteBuffer.allocate(FIELD_HEADER_SIZE + 4 + NOW_STRING_LENGTH)
+                    .put(TType.STRING).putShort((short) 1).putInt(NOW_STRING_LENGTH)
+                    .put(nowString.toString().getBytes(StandardCharsets.UTF_8)).array());
+            List<Integer> timestampOffsets = find(bytes, ByteBuffer.allocate(FIELD_HEADER_SIZE + 8)
+                    .put(TType.I64).putShort((short) 2).putLong(timestampMs).array());
+            List<Integer> nanoSecondsOffsets = find(bytes, ByteBuffer.allocate(FIELD_HEADER_SIZE + 4)
+                    .put(TType.I32).putShort((short) 5).putInt(nanoSeconds).array());
+            if (loadIdOffsets.size() != loadIdNum || instanceIdOffsets.size() != 1 || nowStringOffsets.size() != 1
+                    || timestampOffsets.size() != 1 || nanoSecondsOffsets.size() != 1) {
+                return null;
+            }
+            return new PlanTemplate(bytes, loadIdOffsets, instanceIdOffsets.get(0), nowStringOffsets.get(0),
+                    timestampOffsets.get(0), nanoSecondsOffsets.get(0));
+        }
+
+        private ByteString bind(TUniqueId loadId) {
+            ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length));
+            for (int offset : loadIdOffsets) {
+                putUniqueId(buffer, offset, loadId.hi, loadId.lo);
+            }
+            putUniqueId(buffer, instanceIdOffset, loadId.hi, loadId.lo + 1);
+            LocalDateTime now = LocalDateTime.now();
+            byte[] nowString = TimeUtils.DATETIME_FORMAT.format(now).getBytes(StandardCharsets.UTF_8);
+            Preconditions.checkState(nowString.length == NOW_STRING_LENGTH);
+            buffer.position(nowStringOffset + FIELD_HEADER_SIZE + 4);
+            buffer.put(nowString);
+            buffer.putLong(timestampOffset + FIELD_HEADER_SIZE, System.currentTimeMillis());
+            buffer.putInt(nanoSecondsOffset + FIELD_HEADER_SIZE, now.getNano());
+            return UnsafeByteOperations.unsafeWrap(buffer.array());
+        }
+
+        // TUniqueId: 1: i64 hi, 2: i64 lo
+        private static byte[] uniqueId(long hi, long lo) {
+            return ByteBuffer.allocate(2 * (FIELD_HEADER_SIZE + 8))
+                    .put(TType.I64).putShort((short) 1).putLong(hi)
+                    .put(TType.I64).putShort((short) 2).putLong(lo).array();
+        }
+
+        private static void putUniqueId(ByteBuffer buffer, int offset, long hi, long lo) {
+            buffer.putLong(offset + FIELD_HEADER_SIZE, hi);
+            buffer.putLong(offset + 2 * FIELD_HEADER_SIZE + 8, lo);
+        }
+
+        private static List<Integer> find(byte[] bytes, byte[] pattern) {
+            List<Integer> offsets = new ArrayList<>();
+            for (int i = 0; i + pattern.length <= bytes.length; i++) {
+                int j = 0;
+                while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                    j++;
+                }
+                if (j == pattern.length) {
+                    offsets.add(i);
+                    i += pattern.length - 1;
+                }
+            }
+            return offsets;
+        }
+    }
+
     public GroupCommitPlanner(Database db, OlapTable table, List<String> targetColumnNames, TUniqueId queryId)
             throws UserException, TException {
+        this(db, table, targetColumnNames, plan(db, table, targetColumnNames, queryId), queryId);
+    }
+
+    private GroupCommitPlanner(Database db, OlapTable table, List<String> targetColumnNames,
+            TExecPlanFragmentParams tRequest, TUniqueId queryId) throws TException {
+        this(db, table, targetColumnNames, tRequest, ByteString.copyFrom(serialize(tRequest)), queryId);
+    }
+
+    private GroupCommitPlanner(Database db, OlapTable table, List<String> targetColumnNames,
+            TExecPlanFragmentParams tRequest, ByteString tRequestBytes, TUniqueId queryId) {
         this.db = db;
         this.table = table;
+        this.targetColumnNames = targetColumnNames;
+        loadId = queryId;
+        execPlanFragmentParams = tRequest;
+        execPlanFragmentParamsBytes = tRequestBytes;
+    }
+
+    // see BackendServiceProxy#execPlanFragmentsAsync
+    private static byte[] serialize(TExecPlanFragmentParams tRequest) throws TException {
+        TExecPlanFragmentParamsList paramsList = new TExecPlanFragmentParamsList();
+        paramsList.addToParamsList(tRequest);
+        return new TSerializer().serialize(paramsList);
+    }
+
+    /**
+     * Get the planner of group commit, the plan is reused for the same table, target columns and session variables,
+     * so only the load id and query globals are set for each insert.
+     */
+    public static GroupCommitPlanner getOrCreate(Database db, OlapTable table, List<String> targetColumnNames,
+            SessionVariable sessionVariable, TUniqueId queryId) throws UserException, TException {
+        if (Config.group_commit_plan_cache_size <= 0) {
+            return new GroupCommitPlanner(db, table, targetColumnNames, queryId);
+        }
+        String key = db.getId() + "." + table.getId() + "."
+                + (targetColumnNames == null ? "*" : String.join(",", targetColumnNames).toLowerCase())
+                + "." + getSessionKey(sessionVariable);
+        List<String> backends = getBackends();
+        CachedPlan cachedPlan = PLAN_CACHE.getIfPresent(key);
+        if (cachedPlan == null || !cachedPlan.isValid(table, backends)) {
+            // read the version before planning, see Table.getMetaVersion()
+            long metaVersion = table.getMetaVersion();
+            TExecPlanFragmentParams params = plan(db, table, targetColumnNames, queryId);
+            if (!table.isMetaVersionValid(metaVersion)) {
+                // the table is being changed, the plan may be inconsistent, so it is only used by this insert
+                return new GroupCommitPlanner(db, table, targetColumnNames, params, queryId);
+            }
+            PlanTemplate template = PlanTemplate.create(params);
+            if (template == null) {
+                LOG.warn("can not locate the load id in the group commit plan of table {}, do not cache it",
+                        table.getName());
+                rebind(params, queryId);
+                return new GroupCommitPlanner(db, table, targetColumnNames, params, queryId);
+            }
+            cachedPlan = new CachedPlan(metaVersion, backends, params, template);
+            PLAN_CACHE.put(key, cachedPlan);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("cache group commit plan of table {}, meta version {}", table.getName(), metaVersion);
+            }
+        }
+        return new GroupCommitPlanner(db, table, targetColumnNames, cachedPlan.params,
+                cachedPlan.template.bind(queryId), queryId);
+    }
+
+    /**
+     * The session variables which may affect the plan, the plans of different sessions are cached separately.
+     */
+    public static String getSessionKey(SessionVariable sessionVariable) {
+        return sessionVariable.getTimeZone() + "|" + sessionVariable.toThrift();
+    }
+
+    // see OlapTableSink#createPaloNodesInfo
+    private static List<String> getBackends() {
+        return Env.getCurrentSystemInfo().getIdToBackend().values().stream()
+                .map(be -> be.getId() + ":" + be.getHost() + ":" + be.getBrpcPort())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static TExecPlanFragmentParams plan(Database db, OlapTable table, List<String> targetColumnNames,
+            TUniqueId queryId) throws UserException {
         TStreamLoadPutRequest streamLoadPutRequest = new TStreamLoadPutRequest();
         if (targetColumnNames != null) {
             streamLoadPutRequest.setColumns(String.join(",", targetColumnNames));
@@ -107,11 +336,39 @@ public class GroupCommitPlanner {
         List<TScanRangeParams> scanRangeParams = tRequest.params.per_node_scan_ranges.values().stream()
                 .flatMap(Collection::stream).collect(Collectors.toList());
         Preconditions.checkState(scanRangeParams.size() == 1);
-        loadId = queryId;
-        // see BackendServiceProxy#execPlanFragmentsAsync
-        paramsList = new TExecPlanFragmentParamsList();
-        paramsList.addToParamsList(tRequest);
-        execPlanFragmentParamsBytes = ByteString.copyFrom(new TSerializer().serialize(paramsList));
+        return tRequest;
+    }
+
+    private static void rebind(TExecPlanFragmentParams tRequest, TUniqueId loadId) {
+        LocalDateTime now = LocalDateTime.now();
+        rebind(tRequest, loadId, TimeUtils.DATETIME_FORMAT.format(now), System.currentTimeMillis(), now.getNano());
+    }
+
+    // see StreamLoadPlanner#plan, the load id is used as query id, and set to the scan ranges and sink.
+    // return the number of fields set to the load id
+    private static int rebind(TExecPlanFragmentParams tRequest, TUniqueId loadId, String nowString,
+            long timestampMs, int nanoSeconds) {
+        int loadIdNum = 1;
+        tRequest.params.setQueryId(loadId);
+        tRequest.params.setFragmentInstanceId(new TUniqueId(loadId.hi, loadId.lo + 1));
+        for (List<TScanRangeParams> scanRanges : tRequest.params.per_node_scan_ranges.values()) {
+            for (TScanRangeParams scanRangeParams : scanRanges) {
+                List<TFileRangeDesc> ranges = scanRangeParams.scan_range.ext_scan_range.file_scan_range.ranges;
+                if (ranges != null) {
+                    ranges.forEach(range -> range.setLoadId(loadId));
+                    loadIdNum += ranges.size();
+                }
+            }
+        }
+        if (tRequest.fragment.output_sink != null && tRequest.fragment.output_sink.olap_table_sink != null) {
+            tRequest.fragment.output_sink.olap_table_sink.setLoadId(loadId);
+            loadIdNum++;
+        }
+        TQueryGlobals queryGlobals = tRequest.query_globals;
+        queryGlobals.setNowString(nowString);
+        queryGlobals.setTimestampMs(timestampMs);
+        queryGlobals.setNanoSeconds(nanoSeconds);
+        return loadIdNum;
     }
 
     public Future<PGroupCommitInsertResponse> executeGroupCommitInsert(ConnectContext ctx,
@@ -126,6 +383,19 @@ public class GroupCommitPlanner {
             backend = Env.getCurrentSystemInfo().getBackend(allBackendIds.get(0));
             ctx.setInsertGroupCommit(this.table.getId(), backend);
         }
+        if (Config.group_commit_insert_coalesce_interval_ms > 0) {
+            return Env.getCurrentEnv().getGroupCommitManager().getInsertCoalescer()
+                    .submit(db, table, targetColumnNames, ctx.getSessionVariable(), backend, rows);
+        }
+        return executeGroupCommitInsert(backend, rows);
+    }
+
+    /**
+     * Send the rows to the backend directly.
+     */
+    public Future<PGroupCommitInsertResponse> executeGroupCommitInsert(Backend backend,
+            List<InternalService.PDataRow> rows) throws RpcException {
+        this.backend = backend;
         PGroupCommitInsertRequest request = PGroupCommitInsertRequest.newBuilder()
                 .setDbId(db.getId())
                 .setTableId(table.getId())
@@ -152,14 +422,14 @@ public class GroupCommitPlanner {
             for (Expr expr : exprs) {
                 if (!expr.isLiteralOrCastExpr() && !(expr instanceof CastExpr)) {
                     if (expr.getChildren().get(0) instanceof NullLiteral) {
-                        row.addColBuilder().setValue("\\N");
+                        row.addCol(NULL_COLUMN);
                         continue;
                     }
                     throw new UserException(
                         "do not support non-literal expr in transactional insert operation: " + expr.toSql());
                 }
                 if (expr instanceof NullLiteral) {
-                    row.addColBuilder().setValue("\\N");
+                    row.addCol(NULL_COLUMN);
                 } else if (expr.getType() instanceof ArrayType) {
                     row.addColBuilder().setValue(expr.getStringValueForArray());
                 } else if (!expr.getChildren().isEmpty()) {
@@ -188,8 +458,14 @@ public class GroupCommitPlanner {
         return backend;
     }
 
-    public TExecPlanFragmentParamsList getParamsList() {
-        return paramsList;
+    // only for test, the params may be shared by other inserts
+    TExecPlanFragmentParams getExecPlanFragmentParams() {
+        return execPlanFragmentParams;
+    }
+
+    // only for test
+    ByteString getExecPlanFragmentParamsBytes() {
+        return execPlanFragmentParamsBytes;
     }
 
 }
@@ -92,6 +92,8 @@ public final class RuntimeFilter {
     private long filterSizeBytes = 0;
 
     private long expectFilterSizeBytes = 0;
+    // The ratio of probe rows expected to be filtered, estimated by nereids. -1 if unknown.
+    private double expectedFilterRatio = -1;
     // If true, the filter is produced by a broadcast join and there is at least one
     // destination scan node which is in the same fragment as the join; set in
     // DistributedPlanner.createHashJoinFragment().
@@ -175,9 +177,11 @@ public final class RuntimeFilter {
             JoinNodeBase node, Expr srcExpr, List<Expr> origTargetExprs,
             List<Map<TupleId, List<SlotId>>> targetSlots,
             RuntimeFilterGenerator.FilterSizeLimits filterSizeLimits) {
-        return new RuntimeFilter(nereidsFilter.getId(), node, srcExpr, nereidsFilter.getExprOrder(), origTargetExprs,
-                targetSlots, nereidsFilter.getType(), filterSizeLimits, nereidsFilter.getBuildSideNdv(),
-                nereidsFilter.gettMinMaxType());
+        RuntimeFilter filter = new RuntimeFilter(nereidsFilter.getId(), node, srcExpr, nereidsFilter.getExprOrder(),
+                origTargetExprs, targetSlots, nereidsFilter.getType(), filterSizeLimits,
+                nereidsFilter.getBuildSideNdv(), nereidsFilter.gettMinMaxType());
+        filter.expectedFilterRatio = nereidsFilter.getExpectedFilterRatio();
+        return filter;
     }
 
     @Override
@@ -717,6 +721,10 @@ public final class RuntimeFilter {
         return expectFilterSizeBytes;
     }
 
+    public double getExpectedFilterRatio() {
+        return expectedFilterRatio;
+    }
+
     public String getExplainString(boolean isBuildNode, boolean isBrief, PlanNodeId targetNodeId) {
         StringBuilder filterStr = new StringBuilder();
         filterStr.append(getFilterId());
@@ -729,7 +737,11 @@ public final class RuntimeFilter {
                 filterStr.append(getSrcExpr().toSql());
                 filterStr.append("(").append(getEstimateNdv()).append("/")
                         .append(getExpectFilterSizeBytes()).append("/")
-                        .append(getFilterSizeBytes()).append(")");
+                        .append(getFilterSizeBytes());
+                if (expectedFilterRatio >= 0) {
+                    filterStr.append("/").append(String.format("%.2f", expectedFilterRatio));
+                }
+                filterStr.append(")");
             } else {
                 filterStr.append(" -> ");
                 filterStr.append(getTargetExpr(targetNodeId).toSql());
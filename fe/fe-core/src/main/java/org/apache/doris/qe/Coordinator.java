@@ -102,6 +102,7 @@ import org.apache.doris.thrift.TResourceLimit;
 import org.apache.doris.thrift.TRuntimeFilterParams;
 import org.apache.doris.thrift.TRuntimeFilterTargetParams;
 import org.apache.doris.thrift.TRuntimeFilterTargetParamsV2;
+import org.apache.doris.thrift.TRuntimeProfileTree;
 import org.apache.doris.thrift.TScanRange;
 import org.apache.doris.thrift.TScanRangeLocation;
 import org.apache.doris.thrift.TScanRangeLocations;
@@ -319,7 +320,8 @@ public class Coordinator implements CoordInterface {
         nextInstanceId.setHi(queryId.hi);
         nextInstanceId.setLo(queryId.lo + 1);
         this.assignedRuntimeFilters = planner.getRuntimeFilters();
-        this.executionProfile = new ExecutionProfile(queryId, fragments.size());
+        this.executionProfile = new ExecutionProfile(queryId, fragments.size(),
+                context.getSessionVariable().enableCompactProfile());
 
     }
 
@@ -2921,7 +2923,7 @@ public class Coordinator implements CoordInterface {
                 return false;
             }
             if (params.isSetProfile()) {
-                instanceProfile.update(params.profile);
+                updateInstanceProfile(instanceProfile, profileFragmentId, params.profile, params.done);
             }
             if (params.isSetLoadChannelProfile()) {
                 loadChannelProfile.update(params.loadChannelProfile);
@@ -3071,7 +3073,7 @@ public class Coordinator implements CoordInterface {
                     }
 
                     if (param.isSetProfile()) {
-                        profile.update(param.profile);
+                        updateInstanceProfile(profile, profileFragmentId, param.profile, params.done);
                     }
                     if (params.isSetLoadChannelProfile()) {
                         loadChannelProfile.update(params.loadChannelProfile);
@@ -3093,7 +3095,7 @@ public class Coordinator implements CoordInterface {
                 }
 
                 if (params.isSetProfile()) {
-                    profile.update(params.profile);
+                    updateInstanceProfile(profile, profileFragmentId, params.profile, params.done);
                 }
                 if (params.isSetLoadChannelProfile()) {
                     loadChannelProfile.update(params.loadChannelProfile);
@@ -3761,6 +3763,17 @@ public class Coordinator implements CoordInterface {
         }
     }
 
+    // In compact mode, only the final report of each instance is merged into execution profile,
+    // the instance profile is left empty.
+    private void updateInstanceProfile(RuntimeProfile instanceProfile, int profileFragmentId,
+            TRuntimeProfileTree reportedProfile, boolean isDone) {
+        if (!executionProfile.isCompact()) {
+            instanceProfile.update(reportedProfile);
+        } else if (isDone) {
+            executionProfile.mergeInstanceProfile(profileFragmentId, reportedProfile);
+        }
+    }
+
     // Runtime filter target fragment instance param
     static class FRuntimeFilterTargetParam {
         public TUniqueId targetFragmentInstanceId;
@@ -41,14 +41,15 @@ import java.util.concurrent.TimeoutException;
 public class ResultReceiver {
     private static final Logger LOG = LogManager.getLogger(ResultReceiver.class);
     private boolean isDone    = false;
-    private boolean isCancel  = false;
+    private volatile boolean isCancel  = false;
     private long packetIdx = 0;
     private long timeoutTs = 0;
     private TNetworkAddress address;
     private Types.PUniqueId queryId;
     private Types.PUniqueId finstId;
     private Long backendId;
-    private Thread currentThread;
+    // Do not guard it by monitor lock, the receiver may run in a virtual thread and block on rpc.
+    private volatile Thread currentThread;
 
     public ResultReceiver(TUniqueId queryId, TUniqueId tid, Long backendId, TNetworkAddress address, long timeoutTs) {
         this.queryId = Types.PUniqueId.newBuilder().setHi(queryId.hi).setLo(queryId.lo).build();
@@ -139,9 +140,7 @@ public class ResultReceiver {
             LOG.warn("fetch result timeout, finstId={}", DebugUtil.printId(finstId), e);
             status.setStatus(new Status(TStatusCode.TIMEOUT, "query timeout"));
         } finally {
-            synchronized (this) {
-                currentThread = null;
-            }
+            currentThread = null;
         }
 
         if (isCancel) {
@@ -152,14 +151,13 @@ public class ResultReceiver {
 
     public void cancel() {
         isCancel = true;
-        synchronized (this) {
-            if (currentThread != null) {
-                // TODO(cmy): we cannot interrupt this thread, or we may throw
-                // java.nio.channels.ClosedByInterruptException when we call
-                // MysqlChannel.realNetSend -> SocketChannelImpl.write
-                // And user will lost connection to Palo
-                // currentThread.interrupt();
-            }
+        Thread thread = currentThread;
+        if (thread != null) {
+            // TODO(cmy): we cannot interrupt this thread, or we may throw
+            // java.nio.channels.ClosedByInterruptException when we call
+            // MysqlChannel.realNetSend -> SocketChannelImpl.write
+            // And user will lost connection to Palo
+            // thread.interrupt();
         }
     }
 }
@@ -78,6 +78,7 @@ public class SessionVariable implements Serializable, Writable {
     public static final String MAX_EXECUTION_TIME = "max_execution_time";
     public static final String INSERT_TIMEOUT = "insert_timeout";
     public static final String ENABLE_PROFILE = "enable_profile";
+    public static final String ENABLE_COMPACT_PROFILE = "enable_compact_profile";
     public static final String SQL_MODE = "sql_mode";
     public static final String WORKLOAD_VARIABLE = "workload_group";
     public static final String RESOURCE_VARIABLE = "resource_group";
@@ -175,6 +176,10 @@ public class SessionVariable implements Serializable, Writable {
     public static final String RUNTIME_FILTER_TYPE = "runtime_filter_type";
     // if the right table is greater than this value in the hash join,  we will ignore IN filter
     public static final String RUNTIME_FILTER_MAX_IN_NUM = "runtime_filter_max_in_num";
+    // choose runtime filter types by statistics instead of runtime_filter_type
+    public static final String ENABLE_COST_BASED_RUNTIME_FILTER = "enable_cost_based_runtime_filter";
+    // runtime filters expected to filter less than this ratio of probe rows are not generated
+    public static final String RUNTIME_FILTER_MIN_FILTER_RATIO = "runtime_filter_min_filter_ratio";
 
     public static final String BE_NUMBER_FOR_TEST = "be_number_for_test";
 
@@ -255,6 +260,10 @@ public class SessionVariable implements Serializable, Writable {
     public static final String ENABLE_NEW_COST_MODEL = "enable_new_cost_model";
     public static final String ENABLE_FALLBACK_TO_ORIGINAL_PLANNER = "enable_fallback_to_original_planner";
     public static final String ENABLE_NEREIDS_TIMEOUT = "enable_nereids_timeout";
+    public static final String NEREIDS_OPTIMIZE_PARALLELISM = "nereids_optimize_parallelism";
+    public static final String ENABLE_DETERMINISTIC_PARALLEL_OPTIMIZE = "enable_deterministic_parallel_optimize";
+    public static final String ENABLE_MATERIALIZED_VIEW_REWRITE = "enable_materialized_view_rewrite";
+    public static final String ENABLE_OPTIMISTIC_PLANNING = "enable_optimistic_planning";
 
     public static final String FORBID_UNKNOWN_COLUMN_STATS = "forbid_unknown_col_stats";
     public static final String BROADCAST_RIGHT_TABLE_SCALE_FACTOR = "broadcast_right_table_scale_factor";
@@ -523,6 +532,14 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = ENABLE_PROFILE, needForward = true)
     public boolean enableProfile = false;
 
+    // if true, the instance profiles are merged into per plan node counters when reported,
+    // and only the aggregated profile is kept.
+    @VariableMgr.VarAttr(name = ENABLE_COMPACT_PROFILE, needForward = true, description = {
+            "开启后，各个 instance 的 profile 在上报时即合并为按 plan node 聚合的计数器，只保留聚合后的 profile。",
+            "If enabled, the profile of each instance is merged into per plan node counters when reported, "
+                    + "and only the aggregated profile is kept."})
+    public boolean enableCompactProfile = false;
+
     // using hashset instead of group by + count can improve performance
     //        but may cause rpc failed when cluster has less BE
     // Whether this switch is turned on depends on the BE number
@@ -810,6 +827,18 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = USE_RF_DEFAULT)
     public boolean useRuntimeFilterDefaultSize = false;
 
+    @VariableMgr.VarAttr(name = ENABLE_COST_BASED_RUNTIME_FILTER, needForward = true, description = {
+            "是否根据统计信息选择 runtime filter 的类型，并丢弃过滤效果差的 runtime filter",
+            "Whether to choose the runtime filter types by statistics, and drop the runtime filters "
+                    + "which are expected to filter few rows"})
+    private boolean enableCostBasedRuntimeFilter = false;
+
+    @VariableMgr.VarAttr(name = RUNTIME_FILTER_MIN_FILTER_RATIO, needForward = true, description = {
+            "开启 enable_cost_based_runtime_filter 时，预计过滤比例低于该值的 runtime filter 不会生成",
+            "When enable_cost_based_runtime_filter is on, the runtime filter whose expected filter ratio "
+                    + "is less than this value is not generated"})
+    private double runtimeFilterMinFilterRatio = 0.1;
+
     public int getBeNumberForTest() {
         return beNumberForTest;
     }
@@ -866,6 +895,26 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = ENABLE_BUSHY_TREE, needForward = true)
     private boolean enableBushyTree = false;
 
+    public int getNereidsOptimizeParallelism() {
+        return nereidsOptimizeParallelism;
+    }
+
+    public boolean isEnableMaterializedViewRewrite() {
+        return enableMaterializedViewRewrite;
+    }
+
+    public void setEnableMaterializedViewRewrite(boolean enableMaterializedViewRewrite) {
+        this.enableMaterializedViewRewrite = enableMaterializedViewRewrite;
+    }
+
+    public boolean isEnableOptimisticPlanning() {
+        return enableOptimisticPlanning;
+    }
+
+    public boolean isEnableDeterministicParallelOptimize() {
+        return enableDeterministicParallelOptimize;
+    }
+
     public int getMaxJoinNumBushyTree() {
         return maxJoinNumBushyTree;
     }
@@ -1042,6 +1091,29 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = ENABLE_NEREIDS_TIMEOUT, needForward = true)
     public boolean enableNereidsTimeout = true;
 
+    @VariableMgr.VarAttr(name = NEREIDS_OPTIMIZE_PARALLELISM, needForward = true, description = {
+            "Nereids 优化器在 Memo 中并行匹配和应用规则的线程数，1 表示串行优化。",
+            "The number of threads used by Nereids to match and apply rules in Memo in parallel, "
+                    + "1 means serial optimization."})
+    public int nereidsOptimizeParallelism = 1;
+
+    @VariableMgr.VarAttr(name = ENABLE_DETERMINISTIC_PARALLEL_OPTIMIZE, needForward = true, description = {
+            "并行优化时是否在当前线程中应用规则，用于测试时得到确定的结果。",
+            "Whether to apply the rules in the current thread in parallel optimization, "
+                    + "used by tests to get deterministic result."})
+    public boolean enableDeterministicParallelOptimize = false;
+
+    @VariableMgr.VarAttr(name = ENABLE_MATERIALIZED_VIEW_REWRITE, needForward = true, description = {
+            "是否开启基于多表异步物化视图的透明改写。",
+            "Whether to enable transparent query rewrite using multi-table async materialized views."})
+    public boolean enableMaterializedViewRewrite = false;
+
+    @VariableMgr.VarAttr(name = ENABLE_OPTIMISTIC_PLANNING, needForward = true, description = {
+            "Nereids 规划时是否不持有表的读锁，规划结束时若表的元数据被并发修改则重新规划，多次失败后加锁规划。",
+            "Whether Nereids plans without holding the read locks of tables. If the meta of some table is changed "
+                    + "concurrently, plan again, and plan with read locks after failing several times."})
+    public boolean enableOptimisticPlanning = true;
+
     @VariableMgr.VarAttr(name = ENABLE_PUSH_DOWN_NO_GROUP_AGG)
     public boolean enablePushDownNoGroupAgg = true;
 
@@ -1601,6 +1673,10 @@ public class SessionVariable implements Serializable, Writable {
         return enableProfile;
     }
 
+    public boolean enableCompactProfile() {
+        return enableCompactProfile;
+    }
+
     public boolean enableSingleDistinctColumnOpt() {
         return enableSingleDistinctColumnOpt;
     }
@@ -2047,6 +2123,18 @@ public class SessionVariable implements Serializable, Writable {
         this.runtimeFilterMaxInNum = runtimeFilterMaxInNum;
     }
 
+    public boolean isEnableCostBasedRuntimeFilter() {
+        return enableCostBasedRuntimeFilter;
+    }
+
+    public void setEnableCostBasedRuntimeFilter(boolean enableCostBasedRuntimeFilter) {
+        this.enableCostBasedRuntimeFilter = enableCostBasedRuntimeFilter;
+    }
+
+    public double getRuntimeFilterMinFilterRatio() {
+        return runtimeFilterMinFilterRatio;
+    }
+
     public void setEnablePipelineEngine(boolean enablePipelineEngine) {
         this.enablePipelineEngine = enablePipelineEngine;
     }
@@ -1346,16 +1346,18 @@ public class StmtExecutor {
                     isSendFields = sendCachedValues(channel, cacheResult.getValuesList(),
                             queryStmt, isSendFields, false);
                 }
-                StatementBase newSelectStmt = cacheAnalyzer.getRewriteStmt();
-                newSelectStmt.reset();
-                analyzer = new Analyzer(context.getEnv(), context);
-                newSelectStmt.analyze(analyzer);
                 if (parsedStmt instanceof LogicalPlanAdapter) {
+                    // replan the parsed plan whose partition range is rewritten to the uncached partitions
                     planner = new NereidsPlanner(statementContext);
+                    planner.plan(cacheAnalyzer.getRewritePlan(), context.getSessionVariable().toThrift());
                 } else {
+                    StatementBase newSelectStmt = cacheAnalyzer.getRewriteStmt();
+                    newSelectStmt.reset();
+                    analyzer = new Analyzer(context.getEnv(), context);
+                    newSelectStmt.analyze(analyzer);
                     planner = new OriginalPlanner(analyzer);
+                    planner.plan(newSelectStmt, context.getSessionVariable().toThrift());
                 }
-                planner.plan(newSelectStmt, context.getSessionVariable().toThrift());
             }
         }
         sendResult(false, isSendFields, queryStmt, channel, cacheAnalyzer, cacheResult);
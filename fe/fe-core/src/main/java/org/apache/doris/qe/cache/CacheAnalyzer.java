@@ -33,6 +33,7 @@ import org.apache.doris.catalog.Column;
 import org.apache.doris.catalog.OlapTable;
 import org.apache.doris.catalog.Partition;
 import org.apache.doris.catalog.PartitionType;
+import org.apache.doris.catalog.PrimitiveType;
 import org.apache.doris.catalog.RangePartitionInfo;
 import org.apache.doris.catalog.TableIf;
 import org.apache.doris.catalog.View;
@@ -41,7 +42,24 @@ import org.apache.doris.common.Status;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.util.DebugUtil;
 import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.nereids.analyzer.UnboundRelation;
+import org.apache.doris.nereids.analyzer.UnboundSlot;
 import org.apache.doris.nereids.glue.LogicalPlanAdapter;
+import org.apache.doris.nereids.trees.expressions.ComparisonPredicate;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.GreaterThan;
+import org.apache.doris.nereids.trees.expressions.GreaterThanEqual;
+import org.apache.doris.nereids.trees.expressions.LessThan;
+import org.apache.doris.nereids.trees.expressions.LessThanEqual;
+import org.apache.doris.nereids.trees.expressions.literal.Literal;
+import org.apache.doris.nereids.trees.plans.logical.LogicalAggregate;
+import org.apache.doris.nereids.trees.plans.logical.LogicalCTE;
+import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
+import org.apache.doris.nereids.trees.plans.logical.LogicalLimit;
+import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalSort;
+import org.apache.doris.nereids.trees.plans.logical.LogicalSubQueryAlias;
+import org.apache.doris.nereids.types.DataType;
 import org.apache.doris.planner.OlapScanNode;
 import org.apache.doris.planner.Planner;
 import org.apache.doris.planner.ScanNode;
@@ -52,6 +70,7 @@ import org.apache.doris.qe.RowBatch;
 import org.apache.doris.thrift.TUniqueId;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -63,6 +82,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Analyze which caching mode a SQL is suitable for
@@ -337,10 +357,9 @@ public class CacheAnalyzer {
     }
 
     private CacheMode innerCheckCacheModeForNereids(long now) {
-        // only sql cache
-        if (!enableSqlCache()) {
+        if (!enableCache()) {
             if (LOG.isDebugEnabled()) {
-                LOG.debug("sql cache is disabled. queryid {}", DebugUtil.printId(queryId));
+                LOG.debug("cache is disabled. queryid {}", DebugUtil.printId(queryId));
             }
             return CacheMode.NoNeed;
         }
@@ -383,7 +402,242 @@ public class CacheAnalyzer {
             MetricRepo.COUNTER_CACHE_ADDED_SQL.increase(1L);
             return CacheMode.Sql;
         }
-        return CacheMode.None;
+        return checkPartitionCacheModeForNereids(now, tblTimeList, allViewExpandStmtListStr);
+    }
+
+    /**
+     * Same as the partition cache of legacy planner, but check the parsed plan of Nereids
+     * 1. Group by of all aggregates contains the partition column, and the partition column is in the output
+     * 2. Only one filter contains the range conjuncts of partition column, like key >= a and key <= b
+     * 3. No sort or limit, because the result is merged by partition, and no cte
+     * 4. The partition table is referenced once, so the partition column can be resolved by its qualifier
+     */
+    private CacheMode checkPartitionCacheModeForNereids(long now, List<CacheTable> tblTimeList,
+            String allViewExpandStmtListStr) {
+        if (!enablePartitionCache()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("partition query cache is disabled. queryid {}", DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        if (!(latestTable.table instanceof OlapTable)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("only support partition cache for olap table now. queryid {}", DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        for (int i = 1; i < tblTimeList.size(); i++) {
+            if ((now - tblTimeList.get(i).latestTime) < Config.cache_last_version_interval_second * 1000L) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("the time of other tables is newer than {} s, queryid {}",
+                            Config.cache_last_version_interval_second, DebugUtil.printId(queryId));
+                }
+                return CacheMode.None;
+            }
+        }
+        OlapTable olapTable = (OlapTable) latestTable.table;
+        if (olapTable.getPartitionInfo().getType() != PartitionType.RANGE
+                || olapTable.getPartitionInfo().getPartitionColumns().size() != 1) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("the partition of OlapTable is not RANGE type with one column, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        partitionInfo = (RangePartitionInfo) olapTable.getPartitionInfo();
+        partColumn = partitionInfo.getPartitionColumns().get(0);
+        PrimitiveType partType = partColumn.getType().getPrimitiveType();
+        if (partType != PrimitiveType.DATE && partType != PrimitiveType.DATEV2
+                && (!partType.isFixedPointType() || partType == PrimitiveType.LARGEINT)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("not support partition column type {}, queryid {}", partType, DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+
+        LogicalPlanAdapter planAdapter = (LogicalPlanAdapter) parsedStmt;
+        LogicalPlan plan = planAdapter.getLogicalPlan();
+        if (plan.anyMatch(p -> p instanceof LogicalSort || p instanceof LogicalLimit || p instanceof LogicalCTE)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("sort, limit or cte is not supported by partition cache, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        Set<String> qualifiers = getPartitionSlotQualifiers(plan, olapTable);
+        if (qualifiers == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("partition table should be referenced once and not in a subquery, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        if (planAdapter.getColLabels().stream().noneMatch(partColumn.getName()::equalsIgnoreCase)
+                || !checkGroupByPartitionKey(plan, partColumn, qualifiers)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("group by columns does not contains all partition column, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+
+        LogicalFilter<?> partitionFilter = null;
+        Set<Expression> originConjuncts = Sets.newHashSet();
+        List<ComparisonPredicate> rangeConjuncts = Lists.newArrayList();
+        List<LogicalFilter<?>> filters = plan.collectToList(LogicalFilter.class::isInstance);
+        for (LogicalFilter<?> filter : filters) {
+            for (Expression conjunct : filter.getConjuncts()) {
+                ComparisonPredicate range = getPartitionKeyRange(conjunct, partColumn, qualifiers);
+                if (range == null) {
+                    continue;
+                }
+                if (partitionFilter != null && partitionFilter != filter) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("more than one filter contain partition column, queryid {}",
+                                DebugUtil.printId(queryId));
+                    }
+                    return CacheMode.None;
+                }
+                partitionFilter = filter;
+                originConjuncts.add(conjunct);
+                rangeConjuncts.add(range);
+            }
+        }
+        if (rangeConjuncts.size() != 2 || isLowerBound(rangeConjuncts.get(0)) == isLowerBound(rangeConjuncts.get(1))) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("partition column should have one lower bound and one upper bound, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        partitionPredicate = toLegacyPartitionPredicate(rangeConjuncts, partColumn);
+        if (partitionPredicate == null) {
+            return CacheMode.None;
+        }
+        String sqlKey = NereidsPartitionCache.buildSqlKey(
+                planAdapter.getStatementContext().getOriginStatement().originStmt, rangeConjuncts);
+        if (sqlKey == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("can not mask the range of partition column in sql, queryid {}",
+                        DebugUtil.printId(queryId));
+            }
+            return CacheMode.None;
+        }
+        cache = new NereidsPartitionCache(this.queryId, planAdapter);
+        ((NereidsPartitionCache) cache).setCacheInfo(this.latestTable, this.partitionInfo, this.partColumn,
+                partitionFilter, originConjuncts, rangeConjuncts, partitionPredicate, sqlKey,
+                context.getDefaultCatalog() + "." + context.getDatabase(), allViewExpandStmtListStr);
+        MetricRepo.COUNTER_CACHE_ADDED_PARTITION.increase(1L);
+        return CacheMode.Partition;
+    }
+
+    /**
+     * Return the qualifiers which refer to the partition table, the empty string means the unqualified slot.
+     * Return null if the partition table is not referenced exactly once, or the query has a subquery in from clause,
+     * which may rename the columns, so the slots can not be resolved on the parsed plan.
+     */
+    private Set<String> getPartitionSlotQualifiers(LogicalPlan plan, OlapTable olapTable) {
+        List<UnboundRelation> relations = plan.collectToList(UnboundRelation.class::isInstance);
+        List<UnboundRelation> partitionRelations = relations.stream()
+                .filter(r -> olapTable.getName().equals(r.getNameParts().get(r.getNameParts().size() - 1)))
+                .collect(Collectors.toList());
+        if (partitionRelations.size() != 1) {
+            return null;
+        }
+        Set<String> qualifiers = Sets.newHashSet(olapTable.getName());
+        if (relations.size() == 1) {
+            qualifiers.add("");
+        }
+        List<LogicalSubQueryAlias<?>> aliases = plan.collectToList(LogicalSubQueryAlias.class::isInstance);
+        for (LogicalSubQueryAlias<?> alias : aliases) {
+            if (!(alias.child() instanceof UnboundRelation)) {
+                return null;
+            }
+            if (alias.child() == partitionRelations.get(0)) {
+                // the table name can not be used once the table has an alias
+                qualifiers.remove(olapTable.getName());
+                qualifiers.add(alias.getAlias());
+            }
+        }
+        return qualifiers;
+    }
+
+    private boolean checkGroupByPartitionKey(LogicalPlan plan, Column partColumn, Set<String> qualifiers) {
+        List<LogicalAggregate<?>> aggregates = plan.collectToList(LogicalAggregate.class::isInstance);
+        if (aggregates.isEmpty()) {
+            return false;
+        }
+        for (LogicalAggregate<?> aggregate : aggregates) {
+            if (aggregate.getGroupByExpressions().stream().noneMatch(e -> isPartitionSlot(e, partColumn, qualifiers))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPartitionSlot(Expression expr, Column partColumn, Set<String> qualifiers) {
+        if (!(expr instanceof UnboundSlot)) {
+            return false;
+        }
+        List<String> nameParts = ((UnboundSlot) expr).getNameParts();
+        String qualifier = nameParts.size() > 1 ? nameParts.get(nameParts.size() - 2) : "";
+        return partColumn.getName().equalsIgnoreCase(nameParts.get(nameParts.size() - 1))
+                && qualifiers.contains(qualifier);
+    }
+
+    /**
+     * Return the conjunct normalized as `partition column op literal`, or null if it is not a range of partition.
+     */
+    private ComparisonPredicate getPartitionKeyRange(Expression conjunct, Column partColumn, Set<String> qualifiers) {
+        if (!(conjunct instanceof GreaterThan || conjunct instanceof GreaterThanEqual
+                || conjunct instanceof LessThan || conjunct instanceof LessThanEqual)) {
+            return null;
+        }
+        ComparisonPredicate predicate = (ComparisonPredicate) conjunct;
+        if (predicate.right() instanceof UnboundSlot) {
+            predicate = predicate.commute();
+        }
+        if (isPartitionSlot(predicate.left(), partColumn, qualifiers) && predicate.right() instanceof Literal) {
+            return predicate;
+        }
+        return null;
+    }
+
+    private boolean isLowerBound(ComparisonPredicate predicate) {
+        return predicate instanceof GreaterThan || predicate instanceof GreaterThanEqual;
+    }
+
+    private CompoundPredicate toLegacyPartitionPredicate(List<ComparisonPredicate> rangeConjuncts,
+            Column partColumn) {
+        DataType partType = DataType.fromCatalogType(partColumn.getType());
+        List<Expr> bounds = Lists.newArrayList();
+        for (ComparisonPredicate predicate : rangeConjuncts) {
+            BinaryPredicate.Operator op;
+            if (predicate instanceof GreaterThan) {
+                op = BinaryPredicate.Operator.GT;
+            } else if (predicate instanceof GreaterThanEqual) {
+                op = BinaryPredicate.Operator.GE;
+            } else if (predicate instanceof LessThan) {
+                op = BinaryPredicate.Operator.LT;
+            } else {
+                op = BinaryPredicate.Operator.LE;
+            }
+            try {
+                Expression literal = ((Literal) predicate.right()).checkedCastTo(partType);
+                if (!(literal instanceof Literal)) {
+                    return null;
+                }
+                bounds.add(new BinaryPredicate(op, new SlotRef(null, partColumn.getName()),
+                        ((Literal) literal).toLegacyLiteral()));
+            } catch (Exception e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("can not cast {} to partition column type, queryid {}", predicate.right(),
+                            DebugUtil.printId(queryId));
+                }
+                return null;
+            }
+        }
+        return new CompoundPredicate(CompoundPredicate.Operator.AND, bounds.get(0), bounds.get(1));
     }
 
     private List<CacheTable> buildCacheTableList() {
@@ -653,6 +907,13 @@ public class CacheAnalyzer {
         return cache.getRewriteStmt();
     }
 
+    public LogicalPlanAdapter getRewritePlan() {
+        if (cacheMode != CacheMode.Partition || !(cache instanceof NereidsPartitionCache)) {
+            return null;
+        }
+        return ((NereidsPartitionCache) cache).getRewritePlan();
+    }
+
     public void copyRowBatch(RowBatch rowBatch) {
         if (cacheMode == CacheMode.None || cacheMode == CacheMode.NoNeed) {
             return;
@@ -0,0 +1,272 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe.cache;
+
+import org.apache.doris.analysis.BinaryPredicate;
+import org.apache.doris.analysis.CompoundPredicate;
+import org.apache.doris.analysis.LiteralExpr;
+import org.apache.doris.analysis.SelectStmt;
+import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.RangePartitionInfo;
+import org.apache.doris.common.Status;
+import org.apache.doris.common.util.DebugUtil;
+import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.nereids.DorisLexer;
+import org.apache.doris.nereids.exceptions.AnalysisException;
+import org.apache.doris.nereids.glue.LogicalPlanAdapter;
+import org.apache.doris.nereids.parser.CaseInsensitiveStream;
+import org.apache.doris.nereids.trees.expressions.ComparisonPredicate;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.literal.Literal;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
+import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
+import org.apache.doris.nereids.types.DataType;
+import org.apache.doris.proto.InternalService;
+import org.apache.doris.qe.RowBatch;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Partition cache for the queries planned by Nereids.
+ * The partition range is analyzed on the parsed plan: the range conjuncts of the partition column are removed
+ * to build the cache key, and rewritten to the uncached partitions to build the plan which reads the missing data.
+ * e.g.
+ * origin plan  : where eventdate >= "2020-01-12" and eventdate <= "2020-01-15" group by eventdate
+ * cache key    : the tokens of sql with the literals of range conjuncts masked, where eventdate >= ? and eventdate <= ?
+ * rewrite plan : where eventdate >= "2020-01-14" and eventdate <= "2020-01-15" group by eventdate
+ */
+public class NereidsPartitionCache extends Cache {
+    private static final Logger LOG = LogManager.getLogger(NereidsPartitionCache.class);
+    private final LogicalPlanAdapter planAdapter;
+    private String sqlKey;
+    private LogicalPlanAdapter rewritePlan;
+    private LogicalFilter<?> partitionFilter;
+    // normalized as `partition column op literal`, aligned with the children of partitionPredicate
+    private List<ComparisonPredicate> rangeConjuncts;
+    private Set<Expression> originConjuncts;
+    private CompoundPredicate partitionPredicate;
+    private OlapTable olapTable;
+    private RangePartitionInfo partitionInfo;
+    private Column partColumn;
+    private String database;
+
+    private PartitionRange range;
+    private List<PartitionRange.PartitionSingle> newRangeList;
+
+    public NereidsPartitionCache(TUniqueId queryId, LogicalPlanAdapter planAdapter) {
+        super(queryId);
+        this.planAdapter = planAdapter;
+    }
+
+    public void setCacheInfo(CacheAnalyzer.CacheTable latestTable, RangePartitionInfo partitionInfo, Column partColumn,
+            LogicalFilter<?> partitionFilter, Set<Expression> originConjuncts,
+            List<ComparisonPredicate> rangeConjuncts, CompoundPredicate partitionPredicate, String sqlKey,
+            String database, String allViewExpandStmtListStr) {
+        this.latestTable = latestTable;
+        this.olapTable = (OlapTable) latestTable.table;
+        this.partitionInfo = partitionInfo;
+        this.partColumn = partColumn;
+        this.partitionFilter = partitionFilter;
+        this.originConjuncts = originConjuncts;
+        this.rangeConjuncts = rangeConjuncts;
+        this.partitionPredicate = partitionPredicate;
+        this.database = database;
+        this.newRangeList = Lists.newArrayList();
+        this.allViewExpandStmtListStr = allViewExpandStmtListStr;
+        this.sqlKey = sqlKey;
+    }
+
+    @Override
+    public SelectStmt getRewriteStmt() {
+        return null;
+    }
+
+    public LogicalPlanAdapter getRewritePlan() {
+        return rewritePlan;
+    }
+
+    public String getSqlWithViewStmt() {
+        return database + "|" + sqlKey + "|" + allViewExpandStmtListStr;
+    }
+
+    /**
+     * Build the cache key from the tokens of sql, the literals of range conjuncts are replaced by `?`,
+     * so the queries only differ in the partition range share the same key.
+     * Return null if the literals can not be located exactly, e.g. the same value is also used by other
+     * expressions, because masking them may make different queries have the same key.
+     */
+    public static String buildSqlKey(String sql, List<ComparisonPredicate> rangeConjuncts) {
+        Map<String, Long> expected = rangeConjuncts.stream()
+                .map(c -> ((Literal) c.right()).getStringValue())
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        Map<String, Long> masked = Maps.newHashMap();
+        StringBuilder key = new StringBuilder();
+        DorisLexer lexer = new DorisLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
+        for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+                continue;
+            }
+            String text = token.getText();
+            String value = null;
+            if (token.getType() == DorisLexer.STRING_LITERAL) {
+                value = text.substring(1, text.length() - 1);
+            } else if (token.getType() == DorisLexer.INTEGER_VALUE) {
+                value = text;
+            }
+            if (value != null && expected.containsKey(value)) {
+                masked.merge(value, 1L, Long::sum);
+                text = "?";
+            }
+            key.append(text).append(' ');
+        }
+        return expected.equals(masked) ? key.toString() : null;
+    }
+
+    @Override
+    public InternalService.PFetchCacheResult getCacheData(Status status) {
+        range = getPartitionRange();
+        if (!range.analytics()) {
+            status.setStatus("analytics range error");
+            return null;
+        }
+
+        InternalService.PFetchCacheRequest request = InternalService.PFetchCacheRequest.newBuilder()
+                .setSqlKey(CacheProxy.getMd5(getSqlWithViewStmt()))
+                .addAllParams(range.getPartitionSingleList().stream().map(
+                        p -> InternalService.PCacheParam.newBuilder()
+                                .setPartitionKey(p.getCacheKey().realValue())
+                                .setLastVersion(p.getPartition().getVisibleVersion())
+                                .setLastVersionTime(p.getPartition().getVisibleVersionTime())
+                                .build()).collect(Collectors.toList())
+                ).build();
+        InternalService.PFetchCacheResult cacheResult = proxy.fetchCache(request, 10000, status);
+        if (status.ok() && cacheResult != null && cacheResult.getStatus() == InternalService.PCacheStatus.CACHE_OK) {
+            for (InternalService.PCacheValue value : cacheResult.getValuesList()) {
+                range.setCacheFlag(value.getParam().getPartitionKey());
+            }
+            cacheResult = cacheResult.toBuilder().setAllCount(range.getPartitionSingleList().size()).build();
+            MetricRepo.COUNTER_CACHE_HIT_PARTITION.increase(1L);
+        }
+
+        range.setTooNewByID(latestTable.latestPartitionId);
+        this.hitRange = range.buildDiskPartitionRange(newRangeList);
+        if (newRangeList != null && newRangeList.size() > 0) {
+            LogicalPlan plan = rewritePartitionFilter(newRangeList);
+            if (plan == null) {
+                // fall back to query all partitions, the missing partitions are still updated to cache
+                this.hitRange = HitRange.None;
+                status.setStatus("rewrite partition range error");
+                return null;
+            }
+            rewritePlan = new LogicalPlanAdapter(plan, planAdapter.getStatementContext());
+        }
+        return cacheResult;
+    }
+
+    @Override
+    public void copyRowBatch(RowBatch rowBatch) {
+        if (rowBatchBuilder == null) {
+            rowBatchBuilder = new RowBatchBuilder(CacheAnalyzer.CacheMode.Partition);
+            rowBatchBuilder.buildPartitionIndex(new ArrayList<>(planAdapter.getResultExprs()),
+                    planAdapter.getColLabels(), partColumn, range.buildUpdatePartitionRange());
+        }
+        if (!super.checkRowLimit()) {
+            return;
+        }
+        rowBatchBuilder.copyRowData(rowBatch);
+    }
+
+    @Override
+    public void updateCache() {
+        if (rowBatchBuilder == null || !super.checkRowLimit()) {
+            return;
+        }
+
+        InternalService.PUpdateCacheRequest updateRequest
+                = rowBatchBuilder.buildPartitionUpdateRequest(getSqlWithViewStmt());
+        if (updateRequest.getValuesCount() > 0) {
+            CacheBeProxy proxy = new CacheBeProxy();
+            Status status = new Status();
+            proxy.updateCache(updateRequest, CacheProxy.UPDATE_TIMEOUT, status);
+            int rowCount = 0;
+            int dataSize = 0;
+            for (InternalService.PCacheValue value : updateRequest.getValuesList()) {
+                rowCount += value.getRowsCount();
+                dataSize += value.getDataSize();
+            }
+            LOG.info("update cache model {}, queryid {}, sqlkey {}, value count {}, row count {}, data size {}",
+                    CacheAnalyzer.CacheMode.Partition, DebugUtil.printId(queryId),
+                    DebugUtil.printId(updateRequest.getSqlKey()),
+                    updateRequest.getValuesCount(), rowCount, dataSize);
+        }
+    }
+
+    public PartitionRange getPartitionRange() {
+        if (range == null) {
+            range = new PartitionRange(this.partitionPredicate, this.olapTable, this.partitionInfo);
+        }
+        return range;
+    }
+
+    /**
+     * Replace the range conjuncts of partition column with the range of newRangeList.
+     * Return null if the range can not be rewritten.
+     */
+    private LogicalPlan rewritePartitionFilter(List<PartitionRange.PartitionSingle> newRangeList) {
+        Set<Expression> conjuncts = Sets.newLinkedHashSet(partitionFilter.getConjuncts());
+        conjuncts.removeAll(originConjuncts);
+        if (!getPartitionRange().rewritePredicate(partitionPredicate, newRangeList)) {
+            return null;
+        }
+        DataType partType = DataType.fromCatalogType(partColumn.getType());
+        for (int i = 0; i < rangeConjuncts.size(); i++) {
+            ComparisonPredicate conjunct = rangeConjuncts.get(i);
+            BinaryPredicate rewritten = (BinaryPredicate) partitionPredicate.getChild(i);
+            if (!(rewritten.getChild(1) instanceof LiteralExpr)) {
+                return null;
+            }
+            LiteralExpr literal = (LiteralExpr) rewritten.getChild(1);
+            try {
+                Expression bound = Literal.fromLegacyLiteral(literal, literal.getType()).checkedCastTo(partType);
+                conjuncts.add(conjunct.withChildren(ImmutableList.of(conjunct.left(), bound)));
+            } catch (AnalysisException e) {
+                LOG.warn("rewrite partition range failed, queryid {}", DebugUtil.printId(queryId), e);
+                return null;
+            }
+        }
+        Plan filter = partitionFilter.withConjuncts(conjuncts);
+        return (LogicalPlan) planAdapter.getLogicalPlan().rewriteUp(p -> p == partitionFilter ? filter : p);
+    }
+}
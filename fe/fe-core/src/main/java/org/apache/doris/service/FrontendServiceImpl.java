@@ -2892,6 +2892,25 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         TGetBinlogResult result = new TGetBinlogResult();
         result.setStatus(new TStatus(TStatusCode.OK));
         long prevCommitSeq = request.getPrevCommitSeq();
+        int numBinlogs = request.isSetNumBinlogs()
+                ? Math.min(request.getNumBinlogs(), Config.max_get_binlog_batch_num) : 1;
+        if (numBinlogs > 1) {
+            Pair<TStatus, List<TBinlog>> statusBinlogsPair = env.getBinlogManager().getBinlogs(
+                    dbId, tableId, prevCommitSeq, numBinlogs);
+            TStatus status = statusBinlogsPair.first;
+            if (status != null && status.getStatusCode() != TStatusCode.OK) {
+                result.setStatus(status);
+                // TOO_OLD return first exist binlog
+                if (status.getStatusCode() != TStatusCode.BINLOG_TOO_OLD_COMMIT_SEQ) {
+                    return result;
+                }
+            }
+            if (statusBinlogsPair.second != null) {
+                result.setBinlogs(statusBinlogsPair.second);
+            }
+            return result;
+        }
+
         Pair<TStatus, TBinlog> statusBinlogPair = env.getBinlogManager().getBinlog(dbId, tableId, prevCommitSeq);
         TStatus status = statusBinlogPair.first;
         if (status != null && status.getStatusCode() != TStatusCode.OK) {
@@ -22,6 +22,7 @@ import org.apache.doris.nereids.trees.expressions.Expression;
 import org.apache.doris.nereids.trees.expressions.Slot;
 
 import java.text.DecimalFormat;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -32,14 +33,18 @@ public class Statistics {
 
     private final double rowCount;
 
-    private final Map<Expression, ColumnStatistic> expressionToColumnStats;
+    // copy on write: the map may be shared with the statistics derived from this one, such as withSel(),
+    // so it must be copied before changed if columnStatsShared is true.
+    private Map<Expression, ColumnStatistic> expressionToColumnStats;
+    private boolean columnStatsShared = false;
 
     // the byte size of one tuple
     private double tupleSize;
 
     public Statistics(Statistics another) {
         this.rowCount = another.rowCount;
-        this.expressionToColumnStats = new HashMap<>(another.expressionToColumnStats);
+        this.expressionToColumnStats = another.shareColumnStats();
+        this.columnStatsShared = true;
         this.tupleSize = another.tupleSize;
     }
 
@@ -48,12 +53,33 @@ public class Statistics {
         this.expressionToColumnStats = expressionToColumnStats;
     }
 
+    Statistics(double rowCount, Map<Expression, ColumnStatistic> expressionToColumnStats, boolean shared) {
+        this.rowCount = rowCount;
+        this.expressionToColumnStats = expressionToColumnStats;
+        this.columnStatsShared = shared;
+    }
+
+    Map<Expression, ColumnStatistic> shareColumnStats() {
+        columnStatsShared = true;
+        return expressionToColumnStats;
+    }
+
+    private void copyColumnStatsOnWrite() {
+        if (columnStatsShared) {
+            expressionToColumnStats = new HashMap<>(expressionToColumnStats);
+            columnStatsShared = false;
+        }
+    }
+
     public ColumnStatistic findColumnStatistics(Expression expression) {
         return expressionToColumnStats.get(expression);
     }
 
+    /**
+     * Return the read only column stats, use addColumnStats() or StatisticsBuilder to change them.
+     */
     public Map<Expression, ColumnStatistic> columnStatistics() {
-        return expressionToColumnStats;
+        return Collections.unmodifiableMap(expressionToColumnStats);
     }
 
     public double getRowCount() {
@@ -61,19 +87,20 @@ public class Statistics {
     }
 
     public Statistics withRowCount(double rowCount) {
-        return new Statistics(rowCount, new HashMap<>(expressionToColumnStats));
+        return new Statistics(rowCount, shareColumnStats(), true);
     }
 
     /**
      * Update by count.
      */
     public Statistics withRowCountAndEnforceValid(double rowCount) {
-        Statistics statistics = new Statistics(rowCount, expressionToColumnStats);
+        Statistics statistics = new Statistics(rowCount, shareColumnStats(), true);
         statistics.enforceValid();
         return statistics;
     }
 
     public void enforceValid() {
+        // the map being iterated is not changed even if it is copied on write in the loop
         for (Entry<Expression, ColumnStatistic> entry : expressionToColumnStats.entrySet()) {
             ColumnStatistic columnStatistic = entry.getValue();
             if (!checkColumnStatsValid(columnStatistic)) {
@@ -83,6 +110,7 @@ public class Statistics {
                 columnStatisticBuilder.setNumNulls(Math.min(columnStatistic.numNulls, rowCount - ndv));
                 columnStatisticBuilder.setCount(rowCount);
                 columnStatistic = columnStatisticBuilder.build();
+                copyColumnStatsOnWrite();
                 expressionToColumnStats.put(entry.getKey(), columnStatistic);
             }
         }
@@ -99,10 +127,11 @@ public class Statistics {
             return this;
         }
         double newCount = rowCount * sel;
-        return new Statistics(newCount, new HashMap<>(expressionToColumnStats));
+        return new Statistics(newCount, shareColumnStats(), true);
     }
 
     public Statistics addColumnStats(Expression expression, ColumnStatistic columnStatistic) {
+        copyColumnStatsOnWrite();
         expressionToColumnStats.put(expression, columnStatistic);
         return this;
     }
@@ -168,6 +197,7 @@ public class Statistics {
             if (otherColStats != null) {
                 ColumnStatistic thisColStats = expressionToColumnStats.get(expr);
                 if (thisColStats.ndv > otherColStats.ndv) {
+                    copyColumnStatsOnWrite();
                     expressionToColumnStats.put(expr,
                             new ColumnStatisticBuilder(thisColStats).setNdv(otherColStats.ndv).build());
                 }
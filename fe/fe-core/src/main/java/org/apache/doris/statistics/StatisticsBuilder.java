@@ -26,7 +26,10 @@ public class StatisticsBuilder {
 
     private double rowCount;
 
-    private final Map<Expression, ColumnStatistic> expressionToColumnStats;
+    private Map<Expression, ColumnStatistic> expressionToColumnStats;
+
+    // share the column stats with the source statistics until they are changed
+    private boolean columnStatsShared = false;
 
     public StatisticsBuilder() {
         expressionToColumnStats = new HashMap<>();
@@ -34,8 +37,8 @@ public class StatisticsBuilder {
 
     public StatisticsBuilder(Statistics statistics) {
         this.rowCount = statistics.getRowCount();
-        expressionToColumnStats = new HashMap<>();
-        expressionToColumnStats.putAll(statistics.columnStatistics());
+        expressionToColumnStats = statistics.shareColumnStats();
+        columnStatsShared = true;
     }
 
     public StatisticsBuilder setRowCount(double rowCount) {
@@ -45,16 +48,27 @@ public class StatisticsBuilder {
 
     public StatisticsBuilder putColumnStatistics(
             Map<Expression, ColumnStatistic> expressionToColumnStats) {
+        copyColumnStatsOnWrite();
         this.expressionToColumnStats.putAll(expressionToColumnStats);
         return this;
     }
 
     public StatisticsBuilder putColumnStatistics(Expression expression, ColumnStatistic columnStatistic) {
+        copyColumnStatsOnWrite();
         expressionToColumnStats.put(expression, columnStatistic);
         return this;
     }
 
     public Statistics build() {
-        return new Statistics(rowCount, expressionToColumnStats);
+        // the built statistics and this builder share the map now
+        columnStatsShared = true;
+        return new Statistics(rowCount, expressionToColumnStats, true);
+    }
+
+    private void copyColumnStatsOnWrite() {
+        if (columnStatsShared) {
+            expressionToColumnStats = new HashMap<>(expressionToColumnStats);
+            columnStatsShared = false;
+        }
     }
 }
@@ -104,6 +104,12 @@ public class Backend implements Writable {
     // this field is set by tablet report, and just for metric monitor, no need to persist.
     private volatile long tabletMaxCompactionScore = 0;
 
+    // load statistics reported by heartbeat, used to balance stream load redirection.
+    // only master FE receives heartbeat, so no need to persist.
+    private volatile long loadMemUsage = 0;
+    private volatile int flushQueueSize = 0;
+    private volatile int loadChannelNum = 0;
+
     // additional backendStatus information for BE, display in JSON format
     @SerializedName("backendStatus")
     private BackendStatus backendStatus = new BackendStatus();
@@ -697,6 +703,12 @@ public class Backend implements Writable {
                 this.nodeRoleTag = Tag.createNotCheck(Tag.TYPE_ROLE, hbResponse.getNodeRole());
             }
 
+            if (hbResponse.hasLoadStatistics()) {
+                this.loadMemUsage = hbResponse.getLoadMemUsage();
+                this.flushQueueSize = hbResponse.getFlushQueueSize();
+                this.loadChannelNum = hbResponse.getLoadChannelNum();
+            }
+
             this.lastUpdateMs = hbResponse.getHbTime();
             if (!isAlive.get()) {
                 isChanged = true;
@@ -748,6 +760,18 @@ public class Backend implements Writable {
         return tabletMaxCompactionScore;
     }
 
+    public long getLoadMemUsage() {
+        return loadMemUsage;
+    }
+
+    public int getFlushQueueSize() {
+        return flushQueueSize;
+    }
+
+    public int getLoadChannelNum() {
+        return loadChannelNum;
+    }
+
     private long getDiskNumByStorageMedium(TStorageMedium storageMedium) {
         return disksRef.values().stream().filter(v -> v.getStorageMedium() == storageMedium).count();
     }
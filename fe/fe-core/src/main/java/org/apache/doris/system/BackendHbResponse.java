@@ -50,6 +50,12 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
     private String version = "";
     @SerializedName(value = "isShutDown")
     private boolean isShutDown = false;
+    // Load statistics of the backend. They change with every heartbeat and only
+    // the master FE uses them, so they are not persisted.
+    private boolean hasLoadStatistics = false;
+    private long loadMemUsage = 0;
+    private int flushQueueSize = 0;
+    private int loadChannelNum = 0;
 
     public BackendHbResponse() {
         super(HeartbeatResponse.Type.BACKEND);
@@ -122,6 +128,29 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
         return isShutDown;
     }
 
+    public void setLoadStatistics(long loadMemUsage, int flushQueueSize, int loadChannelNum) {
+        this.hasLoadStatistics = true;
+        this.loadMemUsage = loadMemUsage;
+        this.flushQueueSize = flushQueueSize;
+        this.loadChannelNum = loadChannelNum;
+    }
+
+    public boolean hasLoadStatistics() {
+        return hasLoadStatistics;
+    }
+
+    public long getLoadMemUsage() {
+        return loadMemUsage;
+    }
+
+    public int getFlushQueueSize() {
+        return flushQueueSize;
+    }
+
+    public int getLoadChannelNum() {
+        return loadChannelNum;
+    }
+
     @Override
     protected void readFields(DataInput in) throws IOException {
         super.readFields(in);
@@ -271,8 +271,13 @@ public class HeartbeatMgr extends MasterDaemon {
                     if (tBackendInfo.isSetIsShutdown()) {
                         isShutDown = tBackendInfo.isIsShutdown();
                     }
-                    return new BackendHbResponse(backendId, bePort, httpPort, brpcPort,
+                    BackendHbResponse hbResponse = new BackendHbResponse(backendId, bePort, httpPort, brpcPort,
                             System.currentTimeMillis(), beStartTime, version, nodeRole, isShutDown, arrowFlightSqlPort);
+                    if (tBackendInfo.isSetLoadMemUsage()) {
+                        hbResponse.setLoadStatistics(tBackendInfo.getLoadMemUsage(),
+                                tBackendInfo.getFlushQueueSize(), tBackendInfo.getLoadChannelNum());
+                    }
+                    return hbResponse;
                 } else {
                     return new BackendHbResponse(backendId, backend.getHost(),
                             result.getStatus().getErrorMsgs().isEmpty()
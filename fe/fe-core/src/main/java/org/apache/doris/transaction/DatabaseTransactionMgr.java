@@ -970,7 +970,7 @@ public class DatabaseTransactionMgr {
         List<Long> tableIdList = transactionState.getTableIdList();
         LOG.debug("finish transaction {} with tables {}", transactionId, tableIdList);
         List<? extends TableIf> tableList = db.getTablesOnIdOrderIfExist(tableIdList);
-        tableList = MetaLockUtils.writeLockTablesIfExist(tableList);
+        tableList = MetaLockUtils.dataWriteLockTablesIfExist(tableList);
         PublishResult publishResult = PublishResult.QUORUM_SUCC;
         try {
             Iterator<TableCommitInfo> tableCommitInfoIterator
@@ -1976,7 +1976,7 @@ public class DatabaseTransactionMgr {
         if (shouldAddTableListLock) {
             db = env.getInternalCatalog().getDbOrMetaException(transactionState.getDbId());
             tableList = db.getTablesOnIdOrderIfExist(transactionState.getTableIdList());
-            tableList = MetaLockUtils.writeLockTablesIfExist(tableList);
+            tableList = MetaLockUtils.dataWriteLockTablesIfExist(tableList);
         }
         writeLock();
         try {
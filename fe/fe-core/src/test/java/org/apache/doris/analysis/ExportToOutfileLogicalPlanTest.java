@@ -24,6 +24,7 @@ import org.apache.doris.nereids.analyzer.UnboundRelation;
 import org.apache.doris.nereids.glue.LogicalPlanAdapter;
 import org.apache.doris.nereids.parser.NereidsParser;
 import org.apache.doris.nereids.trees.plans.commands.ExportCommand;
+import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
 import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
 import org.apache.doris.nereids.util.RelationUtil;
 import org.apache.doris.qe.ConnectContext;
@@ -46,6 +47,7 @@ import java.util.Map;
 public class ExportToOutfileLogicalPlanTest extends TestWithFeService {
     private String dbName = "testDb";
     private String tblName = "table1";
+    private String viewName = "view1";
 
     /**
      * create a database and a table
@@ -65,6 +67,7 @@ public class ExportToOutfileLogicalPlanTest extends TestWithFeService {
                 + "PARTITION p4 VALUES LESS THAN (\"50\")\n" + ")\n"
                 + " distributed by hash(k1) buckets 10\n"
                 + "properties(\"replication_num\" = \"1\");");
+        createView("create view " + viewName + " as select k1, k2 from " + tblName);
     }
 
     /**
@@ -403,6 +406,37 @@ public class ExportToOutfileLogicalPlanTest extends TestWithFeService {
         checkPartitionsAndTablets(getUnboundRelation(plan10, false), currentPartitions, currentTablets10);
     }
 
+    /**
+     * test view parallelism, sql:
+     *
+     * EXPORT TABLE testDb.view1
+     * TO "file:///tmp/exp_"
+     * PROPERTIES(
+     *     "parallelism" = "3"
+     * );
+     *
+     * @throws UserException
+     */
+    @Test
+    public void testViewParallelism() throws UserException {
+        // The origin export sql
+        String exportSql = "EXPORT TABLE testDb.view1\n"
+                + "TO \"file:///tmp/exp_\" "
+                + "PROPERTIES(\n"
+                + "\"parallelism\" = \"3\"\n"
+                + ");";
+
+        // generate outfile
+        List<List<StatementBase>> outfileSqlPerParallel = getOutfileSqlPerParallel(exportSql);
+
+        // check, a filter on the view can not prune the scan of the table under it,
+        // so the view is exported by one part instead of reading the table 3 times
+        Assert.assertEquals(1, outfileSqlPerParallel.size());
+        Assert.assertEquals(1, outfileSqlPerParallel.get(0).size());
+        LogicalPlan plan = ((LogicalPlanAdapter) outfileSqlPerParallel.get(0).get(0)).getLogicalPlan();
+        Assert.assertFalse(plan.anyMatch(LogicalFilter.class::isInstance));
+    }
+
     private LogicalPlan parseSql(String exportSql) {
         StatementBase statementBase = new NereidsParser().parseSQL(exportSql).get(0);
         return ((LogicalPlanAdapter) statementBase).getLogicalPlan();
@@ -31,7 +31,6 @@ import org.junit.Test;
 import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
 
 public class DbBinlogTest {
     private long dbId = 10000L;
@@ -288,7 +287,7 @@ public class DbBinlogTest {
 
             dbBinlog.addBinlog(binlog);
 
-            TreeSet<TBinlog> allbinlogs = (TreeSet<TBinlog>) allBinlogsField.get(dbBinlog);
+            SegmentedBinlogs allbinlogs = (SegmentedBinlogs) allBinlogsField.get(dbBinlog);
             Map<Long, TableBinlog> tableBinlogMap = (Map<Long, TableBinlog>) tableBinlogMapField.get(dbBinlog);
             Assert.assertTrue(allbinlogs.contains(binlog));
             switch (type) {
@@ -0,0 +1,128 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.binlog;
+
+import org.apache.doris.thrift.TBinlog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+
+public class SegmentedBinlogsTest {
+    private final long dbId = 10000L;
+    private final long tableId = 20000L;
+    private final int binlogNum = SegmentedBinlogs.SEGMENT_SIZE * 3 + 10;
+
+    // commitSeq of binlogs are 1, 3, 5 ..., timestamp equals commitSeq
+    private SegmentedBinlogs newBinlogs() {
+        SegmentedBinlogs binlogs = new SegmentedBinlogs(BinlogUtils.newDummyBinlog(dbId, tableId));
+        for (int i = 0; i < binlogNum; ++i) {
+            long commitSeq = 2L * i + 1;
+            Assert.assertTrue(binlogs.add(BinlogTestUtils.newBinlog(dbId, tableId, commitSeq, commitSeq)));
+        }
+        return binlogs;
+    }
+
+    @Test
+    public void testAddAndGet() {
+        SegmentedBinlogs binlogs = newBinlogs();
+        Assert.assertEquals(binlogNum + 1, binlogs.size());
+        Assert.assertEquals(4, binlogs.getSegmentNum());
+        Assert.assertEquals(-1, binlogs.first().getCommitSeq());
+
+        // duplicated commitSeq is ignored
+        Assert.assertFalse(binlogs.add(BinlogTestUtils.newBinlog(dbId, tableId, 3, 3)));
+        // out of order binlog is inserted in place
+        Assert.assertTrue(binlogs.add(BinlogTestUtils.newBinlog(dbId, tableId, 4, 4)));
+        Assert.assertEquals(4, binlogs.higher(3).getCommitSeq());
+        Assert.assertEquals(5, binlogs.higher(4).getCommitSeq());
+        Assert.assertNull(binlogs.higher(2L * binlogNum));
+
+        // batch fetch across segments
+        long prevCommitSeq = 2L * SegmentedBinlogs.SEGMENT_SIZE - 5;
+        List<TBinlog> batch = binlogs.tail(prevCommitSeq, 10);
+        Assert.assertEquals(10, batch.size());
+        long lastSeq = prevCommitSeq;
+        for (TBinlog binlog : batch) {
+            Assert.assertTrue(binlog.getCommitSeq() > lastSeq);
+            lastSeq = binlog.getCommitSeq();
+        }
+        Assert.assertEquals(binlogNum + 1, binlogs.countAfter(0));
+        Assert.assertEquals(1, binlogs.countAfter(2L * binlogNum - 2));
+    }
+
+    @Test
+    public void testRemove() {
+        SegmentedBinlogs binlogs = newBinlogs();
+
+        // remove whole first segment and part of the second one
+        long expiredSeq = 2L * (SegmentedBinlogs.SEGMENT_SIZE + 10) - 1;
+        List<TBinlog> removed = binlogs.removeUpTo(expiredSeq);
+        Assert.assertEquals(SegmentedBinlogs.SEGMENT_SIZE + 10, removed.size());
+        Assert.assertEquals(expiredSeq, removed.get(removed.size() - 1).getCommitSeq());
+        Assert.assertEquals(3, binlogs.getSegmentNum());
+        Assert.assertEquals(expiredSeq + 2, binlogs.higher(-1).getCommitSeq());
+
+        // remove by timestamp
+        long expiredMs = 2L * SegmentedBinlogs.SEGMENT_SIZE * 2;
+        removed = binlogs.removeExpired(expiredMs);
+        Assert.assertEquals(expiredMs - 1, removed.get(removed.size() - 1).getCommitSeq());
+        Assert.assertEquals(binlogNum - SegmentedBinlogs.SEGMENT_SIZE * 2 + 1, binlogs.size());
+
+        // remove from the middle by iterator, dummy binlog is returned first
+        Iterator<TBinlog> iter = binlogs.iterator();
+        Assert.assertEquals(-1, iter.next().getCommitSeq());
+        iter.next();
+        iter.next();
+        iter.remove();
+        Assert.assertEquals(binlogNum - SegmentedBinlogs.SEGMENT_SIZE * 2, binlogs.size());
+        int count = 0;
+        for (TBinlog binlog : binlogs) {
+            Assert.assertNotNull(binlog);
+            ++count;
+        }
+        Assert.assertEquals(binlogs.size(), count);
+    }
+
+    @Test
+    public void testRemoveExpiredAfterMaxTimestampRemoved() {
+        SegmentedBinlogs binlogs = new SegmentedBinlogs(BinlogUtils.newDummyBinlog(dbId, tableId));
+        // timestamp is not monotonic in commit seq, the first binlog has the max timestamp of the segment
+        Assert.assertTrue(binlogs.add(BinlogTestUtils.newBinlog(dbId, tableId, 1, 100)));
+        for (long commitSeq = 2; commitSeq <= 5; ++commitSeq) {
+            Assert.assertTrue(binlogs.add(BinlogTestUtils.newBinlog(dbId, tableId, commitSeq, 10)));
+        }
+
+        // the binlog with the max timestamp is removed by commit seq gc
+        Assert.assertEquals(1, binlogs.removeUpTo(1).size());
+        // all the remaining binlogs are expired, the empty segment is removed
+        Assert.assertEquals(4, binlogs.removeExpired(50).size());
+        Assert.assertEquals(0, binlogs.getSegmentNum());
+        Assert.assertEquals(1, binlogs.size());
+        Assert.assertNull(binlogs.higher(-1));
+
+        // binlogs can still be added and removed
+        Assert.assertTrue(binlogs.add(BinlogTestUtils.newBinlog(dbId, tableId, 6, 60)));
+        Assert.assertEquals(6, binlogs.higher(-1).getCommitSeq());
+        Assert.assertEquals(1, binlogs.removeUpTo(6).size());
+        Assert.assertEquals(0, binlogs.getSegmentNum());
+    }
+}
@@ -124,6 +124,43 @@ public class TableTest {
         table.unmarkDropped();
     }
 
+    @Test
+    public void metaVersionTest() throws Exception {
+        long version = table.getMetaVersion();
+        Assert.assertTrue(table.isMetaVersionValid(version));
+        table.readLock();
+        table.readUnlock();
+        Assert.assertTrue(table.isMetaVersionValid(version));
+
+        table.writeLock();
+        try {
+            // the meta is being changed
+            Assert.assertFalse(table.isMetaVersionValid(table.getMetaVersion()));
+            table.writeLock();
+            table.writeUnlock();
+            Assert.assertFalse(table.isMetaVersionValid(table.getMetaVersion()));
+        } finally {
+            table.writeUnlock();
+        }
+        Assert.assertFalse(table.isMetaVersionValid(version));
+        Assert.assertTrue(table.isMetaVersionValid(table.getMetaVersion()));
+
+        version = table.getMetaVersion();
+        Assert.assertTrue(table.tryWriteLock(1000, TimeUnit.MILLISECONDS));
+        table.writeUnlock();
+        Assert.assertFalse(table.isMetaVersionValid(version));
+
+        // transactions only change the data versions
+        version = table.getMetaVersion();
+        Assert.assertTrue(table.dataWriteLockIfExist());
+        table.writeUnlock();
+        Assert.assertTrue(table.tryDataWriteLockOrMetaException(1000, TimeUnit.MILLISECONDS));
+        table.writeUnlock();
+        table.dataWriteLockOrMetaException();
+        table.writeUnlock();
+        Assert.assertTrue(table.isMetaVersionValid(version));
+    }
+
     @Test
     public void testSerialization() throws Exception {
         // 1. Write objects to file
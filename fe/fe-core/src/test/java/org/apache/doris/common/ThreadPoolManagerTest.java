@@ -18,9 +18,16 @@
 package org.apache.doris.common;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ThreadPoolManagerTest {
 
@@ -77,4 +84,43 @@ public class ThreadPoolManagerTest {
         Assert.assertEquals(0, testFixedThreaddPool.getQueue().size());
         Assert.assertEquals(4, testFixedThreaddPool.getCompletedTaskCount());
     }
+
+    @Test
+    public void testVirtualThreadUnsupported() {
+        Assume.assumeFalse(ThreadPoolManager.isVirtualThreadSupported());
+        Assert.assertNull(ThreadPoolManager.newVirtualThreadPerTaskExecutor("test_vthread"));
+    }
+
+    // Simulate 10k mysql clients, each of them blocks on an rpc future like ResultReceiver.getNext does.
+    @Test
+    public void testVirtualThreadPerTaskExecutor() throws Exception {
+        Assume.assumeTrue(ThreadPoolManager.isVirtualThreadSupported());
+        ExecutorService executor = ThreadPoolManager.newVirtualThreadPerTaskExecutor("test_vthread");
+        Assert.assertNotNull(executor);
+
+        int clientNum = 10000;
+        ScheduledThreadPoolExecutor rpcTimer = ThreadPoolManager.newDaemonScheduledThreadPool(4,
+                "test_rpc_timer", false);
+        CountDownLatch latch = new CountDownLatch(clientNum);
+        AtomicInteger finished = new AtomicInteger(0);
+        AtomicInteger failed = new AtomicInteger(0);
+        for (int i = 0; i < clientNum; i++) {
+            executor.execute(() -> {
+                CompletableFuture<Integer> rpc = new CompletableFuture<>();
+                rpcTimer.schedule(() -> rpc.complete(1), 200, TimeUnit.MILLISECONDS);
+                try {
+                    finished.addAndGet(rpc.get(60, TimeUnit.SECONDS));
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        Assert.assertEquals(0, failed.get());
+        Assert.assertEquals(clientNum, finished.get());
+        executor.shutdown();
+        rpcTimer.shutdown();
+    }
 }
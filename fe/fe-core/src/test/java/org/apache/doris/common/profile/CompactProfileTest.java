@@ -0,0 +1,109 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.profile;
+
+import org.apache.doris.common.util.RuntimeProfile;
+import org.apache.doris.thrift.TCounter;
+import org.apache.doris.thrift.TRuntimeProfileNode;
+import org.apache.doris.thrift.TRuntimeProfileTree;
+import org.apache.doris.thrift.TUnit;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactProfileTest {
+
+    private static TRuntimeProfileNode newNode(String name, int numChildren, long nodeId) {
+        TRuntimeProfileNode node = new TRuntimeProfileNode();
+        node.name = name;
+        node.num_children = numChildren;
+        node.setMetadata(nodeId);
+        node.counters = Lists.newArrayList();
+        node.child_counters_map = Maps.newHashMap();
+        node.info_strings = Maps.newHashMap();
+        node.info_strings_display_order = Lists.newArrayList();
+        node.timestamp = -1;
+        return node;
+    }
+
+    private static TRuntimeProfileTree newInstanceTree(String instanceName, long scanTime, long rows) {
+        TRuntimeProfileTree tree = new TRuntimeProfileTree();
+        TRuntimeProfileNode root = newNode(instanceName, 1, -1);
+        TRuntimeProfileNode scan = newNode("VOLAP_SCAN_NODE (id=0)", 0, 0);
+        scan.counters.add(new TCounter("TotalTime", TUnit.TIME_NS, scanTime));
+        scan.counters.add(new TCounter("RowsRead", TUnit.UNIT, rows));
+        scan.counters.add(new TCounter("RowsFiltered", TUnit.UNIT, 1));
+        scan.child_counters_map.put("RowsRead", Sets.newHashSet("RowsFiltered"));
+        tree.addToNodes(root);
+        tree.addToNodes(scan);
+        return tree;
+    }
+
+    @Test
+    public void testMergeAndSeal() {
+        CompactProfile profile = new CompactProfile(2);
+        for (int i = 1; i <= 100; i++) {
+            profile.merge(0, newInstanceTree("Instance " + i, i * 1000L, 10));
+        }
+        profile.merge(1, newInstanceTree("Instance 101", 5, 7));
+
+        RuntimeProfile live = profile.buildFragmentsProfile(Maps.newHashMap());
+        StringBuilder liveBuilder = new StringBuilder();
+        live.prettyPrint(liveBuilder, "");
+
+        profile.seal();
+        Assert.assertTrue(profile.isSealed());
+        Assert.assertTrue(profile.getSerializedSize() > 0);
+        // reports after seal are ignored
+        profile.merge(0, newInstanceTree("Instance late", 1, 1));
+
+        RuntimeProfile sealed = profile.buildFragmentsProfile(Maps.newHashMap());
+        StringBuilder sealedBuilder = new StringBuilder();
+        sealed.prettyPrint(sealedBuilder, "");
+        Assert.assertEquals(liveBuilder.toString(), sealedBuilder.toString());
+
+        RuntimeProfile fragment0 = sealed.getChildMap().get("Fragment 0");
+        RuntimeProfile instance = fragment0.getChildList().get(0).first;
+        Assert.assertEquals("Instance(instance_num=100)", instance.getName());
+        RuntimeProfile scan = instance.getChildList().get(0).first;
+        Assert.assertEquals(0, scan.nodeId());
+        Assert.assertEquals(1000, scan.getCounterMap().get("RowsRead").getValue());
+        Assert.assertEquals(100, scan.getCounterMap().get("RowsFiltered").getValue());
+        Assert.assertTrue(scan.getChildCounterMap().get("RowsRead").contains("RowsFiltered"));
+    }
+
+    @Test
+    public void testPercentile() {
+        CompactProfile.CounterStats stats = new CompactProfile.CounterStats(RuntimeProfile.ROOT_COUNTER,
+                TUnit.TIME_NS);
+        for (int i = 1; i <= 1000; i++) {
+            stats.add(i);
+        }
+        Assert.assertEquals(1, stats.getMin());
+        Assert.assertEquals(1000, stats.getMax());
+        Assert.assertEquals(500500, stats.getSum());
+        // estimated by the upper bound of power of two buckets
+        long p50 = stats.getPercentile(0.5);
+        Assert.assertTrue(p50 >= 500 && p50 <= 1000);
+        Assert.assertEquals(1000, stats.getPercentile(0.99));
+        Assert.assertEquals(1, stats.getPercentile(0.0001));
+    }
+}
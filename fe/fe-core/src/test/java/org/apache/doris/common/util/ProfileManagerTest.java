@@ -0,0 +1,125 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.common.util;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.profile.Profile;
+import org.apache.doris.common.profile.SummaryProfile;
+
+import com.google.common.collect.ImmutableMap;
+import mockit.Deencapsulation;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+public class ProfileManagerTest {
+    private ProfileManager manager;
+    private File dir;
+    private int maxNum;
+    private long maxMemory;
+    private boolean enableSpill;
+    private String spillDir;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = Deencapsulation.newInstance(ProfileManager.class);
+        dir = Files.createTempDirectory("profile_manager").toFile();
+        maxNum = Config.max_query_profile_num;
+        maxMemory = Config.max_query_profile_memory_bytes;
+        enableSpill = Config.enable_profile_spill;
+        spillDir = Config.spilled_profile_dir;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Config.max_query_profile_num = maxNum;
+        Config.max_query_profile_memory_bytes = maxMemory;
+        Config.enable_profile_spill = enableSpill;
+        Config.spilled_profile_dir = spillDir;
+        FileUtils.deleteDirectory(dir);
+    }
+
+    private static Profile newProfile(String queryId) {
+        Profile profile = new Profile("profile_" + queryId, true) {
+            @Override
+            public String getProfileByLevel() {
+                return "content_" + queryId;
+            }
+
+            @Override
+            public String getProfileBrief() {
+                return "brief_" + queryId;
+            }
+        };
+        profile.getSummaryProfile().update(ImmutableMap.of(SummaryProfile.PROFILE_ID, queryId,
+                SummaryProfile.TASK_TYPE, "QUERY", SummaryProfile.USER, "user"));
+        return profile;
+    }
+
+    @Test
+    public void testEvictByGlobalNumLimit() {
+        Config.enable_profile_spill = false;
+        Config.max_query_profile_num = 3;
+        for (int i = 0; i < 20; i++) {
+            manager.pushProfile(newProfile("query_" + i));
+        }
+        // the limit is for all shards, and the oldest profiles are evicted first
+        List<List<String>> queries = manager.getAllQueries();
+        Assert.assertEquals(3, queries.size());
+        Assert.assertEquals("query_19", queries.get(0).get(0));
+        Assert.assertEquals("query_17", queries.get(2).get(0));
+        Assert.assertNull(manager.getProfile("query_0"));
+
+        // a referenced profile gets a second chance
+        Assert.assertEquals("content_query_17", manager.getProfile("query_17"));
+        manager.pushProfile(newProfile("query_20"));
+        Assert.assertEquals("content_query_17", manager.getProfile("query_17"));
+        Assert.assertNull(manager.getProfile("query_18"));
+
+        manager.cleanProfile();
+        Assert.assertTrue(manager.getAllQueries().isEmpty());
+        manager.pushProfile(newProfile("query_21"));
+        Assert.assertEquals(1, manager.getAllQueries().size());
+    }
+
+    @Test
+    public void testEvictedProfileIsSpilled() throws Exception {
+        Config.enable_profile_spill = true;
+        Config.spilled_profile_dir = dir.getAbsolutePath();
+        Config.max_query_profile_num = 2;
+        for (int i = 0; i < 5; i++) {
+            manager.pushProfile(newProfile("query_" + i));
+        }
+        // evicted profiles are readable while spilling and after spilled
+        Assert.assertEquals("content_query_0", manager.getProfile("query_0"));
+        for (int i = 0; i < 100 && manager.getAllQueries().size() > 2; i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(2, manager.getAllQueries().size());
+        Assert.assertEquals("content_query_0", manager.getProfile("query_0"));
+        Assert.assertEquals("brief_query_1", manager.getProfileBrief("query_1"));
+        manager.checkAuthByUserAndQueryId("user", "query_2");
+    }
+}
@@ -0,0 +1,89 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.util;
+
+import org.apache.doris.common.Config;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public class ProfileSpillStoreTest {
+    private File dir;
+    private long segmentBytes;
+    private long maxBytes;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("profile_spill").toFile();
+        segmentBytes = Config.spilled_profile_segment_bytes;
+        maxBytes = Config.max_spilled_profile_bytes;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Config.spilled_profile_segment_bytes = segmentBytes;
+        Config.max_spilled_profile_bytes = maxBytes;
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testSpillAndReload() throws Exception {
+        ProfileSpillStore store = new ProfileSpillStore(dir.getAbsolutePath());
+        store.init();
+        for (int i = 0; i < 10; i++) {
+            store.spill("query_" + i, "user_" + i, 1000L + i, "content_" + i, "brief_" + i);
+        }
+        ProfileSpillStore.SpilledProfile profile = store.get("query_3");
+        Assert.assertEquals("user_3", profile.user);
+        Assert.assertEquals("content_3", profile.content);
+        Assert.assertEquals("brief_3", profile.brief);
+        Assert.assertNull(store.get("query_not_exist"));
+
+        // the index is rebuilt from segment files
+        ProfileSpillStore reloaded = new ProfileSpillStore(dir.getAbsolutePath());
+        reloaded.init();
+        Assert.assertEquals(store.getTotalSize(), reloaded.getTotalSize());
+        Assert.assertEquals("content_9", reloaded.get("query_9").content);
+        Assert.assertEquals("user_0", reloaded.getUser("query_0"));
+    }
+
+    @Test
+    public void testGcWholeSegments() throws Exception {
+        Config.spilled_profile_segment_bytes = 1;
+        Config.max_spilled_profile_bytes = 1;
+        ProfileSpillStore store = new ProfileSpillStore(dir.getAbsolutePath());
+        store.init();
+        for (int i = 0; i < 5; i++) {
+            store.spill("query_" + i, "user", 1000L + i, "content_" + i, "brief");
+        }
+        // each profile is in its own segment, only the active segment is kept
+        Assert.assertEquals(1, dir.listFiles().length);
+        Assert.assertFalse(store.contains("query_3"));
+        Assert.assertTrue(store.contains("query_4"));
+
+        store.clear();
+        Assert.assertEquals(0, dir.listFiles().length);
+        Assert.assertEquals(0, store.getTotalSize());
+    }
+}
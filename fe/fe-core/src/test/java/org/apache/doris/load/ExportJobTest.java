@@ -0,0 +1,88 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.load;
+
+import org.apache.doris.analysis.PartitionValue;
+import org.apache.doris.catalog.ListPartitionItem;
+import org.apache.doris.catalog.PartitionItem;
+import org.apache.doris.catalog.PartitionKey;
+import org.apache.doris.catalog.Type;
+import org.apache.doris.common.AnalysisException;
+import org.apache.doris.datasource.hive.HiveMetaStoreCache;
+import org.apache.doris.nereids.trees.expressions.And;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.GreaterThanEqual;
+import org.apache.doris.nereids.trees.expressions.IsNull;
+import org.apache.doris.nereids.trees.expressions.LessThan;
+import org.apache.doris.nereids.trees.expressions.Or;
+import org.apache.doris.nereids.trees.expressions.SlotReference;
+import org.apache.doris.nereids.trees.expressions.literal.IntegerLiteral;
+import org.apache.doris.nereids.types.IntegerType;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ExportJobTest {
+
+    private PartitionItem createPartitionItem(String year, String month) throws AnalysisException {
+        List<PartitionValue> values = Lists.newArrayList(
+                new PartitionValue(year, HiveMetaStoreCache.HIVE_DEFAULT_PARTITION.equals(year)),
+                new PartitionValue(month));
+        return new ListPartitionItem(Lists.newArrayList(
+                PartitionKey.createListPartitionKeyWithTypes(values, Lists.newArrayList(Type.INT, Type.INT), true)));
+    }
+
+    @Test
+    public void testPartitionRangePredicates() throws AnalysisException {
+        List<PartitionItem> partitionItems = Lists.newArrayList(
+                createPartitionItem("2021", "1"), createPartitionItem("2020", "1"),
+                createPartitionItem("2020", "2"), createPartitionItem("2021", "2"),
+                createPartitionItem("2020", "3"), createPartitionItem("2021", "3"),
+                createPartitionItem("2023", "1"), createPartitionItem("2022", "1"),
+                createPartitionItem(HiveMetaStoreCache.HIVE_DEFAULT_PARTITION, "1"));
+        SlotReference year = new SlotReference("year", IntegerType.INSTANCE);
+
+        // the partitions of the same year are in the same range, and the ranges have no gap
+        List<Expression> predicates = ExportJob.generatePartitionRangePredicates(year, Type.INT, partitionItems, 4);
+        Assert.assertEquals(ImmutableList.of(
+                new Or(new LessThan(year, new IntegerLiteral(2021)), new IsNull(year)),
+                new And(new GreaterThanEqual(year, new IntegerLiteral(2021)),
+                        new LessThan(year, new IntegerLiteral(2022))),
+                new GreaterThanEqual(year, new IntegerLiteral(2022))), predicates);
+
+        predicates = ExportJob.generatePartitionRangePredicates(year, Type.INT, partitionItems, 2);
+        Assert.assertEquals(ImmutableList.of(
+                new Or(new LessThan(year, new IntegerLiteral(2021)), new IsNull(year)),
+                new GreaterThanEqual(year, new IntegerLiteral(2021))), predicates);
+    }
+
+    @Test
+    public void testPartitionRangePredicatesOfOneValue() throws AnalysisException {
+        List<PartitionItem> partitionItems = Lists.newArrayList(
+                createPartitionItem("2020", "1"), createPartitionItem("2020", "2"));
+        SlotReference year = new SlotReference("year", IntegerType.INSTANCE);
+        // the partitions can not be divided by the first partition column
+        Assert.assertTrue(ExportJob.generatePartitionRangePredicates(year, Type.INT, partitionItems, 4).isEmpty());
+        Assert.assertTrue(ExportJob.generatePartitionRangePredicates(year, Type.INT, ImmutableList.of(), 4).isEmpty());
+    }
+}
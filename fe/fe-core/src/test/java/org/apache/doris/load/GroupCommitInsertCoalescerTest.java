@@ -0,0 +1,165 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.load;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
+import org.apache.doris.proto.InternalService.PDataColumn;
+import org.apache.doris.proto.InternalService.PDataRow;
+import org.apache.doris.proto.InternalService.PGroupCommitInsertResponse;
+import org.apache.doris.proto.Types.PStatus;
+import org.apache.doris.qe.SessionVariable;
+import org.apache.doris.system.Backend;
+import org.apache.doris.thrift.TStatusCode;
+
+import com.google.common.collect.Lists;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class GroupCommitInsertCoalescerTest {
+    @Mocked
+    private Database db;
+    @Mocked
+    private OlapTable table;
+
+    private long intervalMs;
+    private final SessionVariable sessionVariable = new SessionVariable();
+    private final Backend backend = new Backend(1, "127.0.0.1", 9050);
+    // the row number of each request sent to BE
+    private final List<Integer> requests = Collections.synchronizedList(Lists.newArrayList());
+
+    // the row `bad` is filtered, and the row `error` fails the request
+    private final GroupCommitInsertCoalescer coalescer = new GroupCommitInsertCoalescer() {
+        @Override
+        protected PGroupCommitInsertResponse send(Database db, OlapTable table, List<String> targetColumnNames,
+                SessionVariable sessionVariable, Backend backend, List<PDataRow> rows) {
+            requests.add(rows.size());
+            long filteredRows = rows.stream().filter(row -> row.getCol(0).getValue().equals("bad")).count();
+            boolean error = rows.stream().anyMatch(row -> row.getCol(0).getValue().equals("error"));
+            TStatusCode code = error ? TStatusCode.INTERNAL_ERROR : TStatusCode.OK;
+            return PGroupCommitInsertResponse.newBuilder()
+                    .setStatus(PStatus.newBuilder().setStatusCode(code.getValue()))
+                    .setLoadedRows(error ? 0 : rows.size() - filteredRows)
+                    .setFilteredRows(error ? 0 : filteredRows)
+                    .build();
+        }
+    };
+
+    @Before
+    public void setUp() {
+        intervalMs = Config.group_commit_insert_coalesce_interval_ms;
+        Config.group_commit_insert_coalesce_interval_ms = 100;
+    }
+
+    @After
+    public void tearDown() {
+        Config.group_commit_insert_coalesce_interval_ms = intervalMs;
+    }
+
+    private List<PDataRow> rows(String... values) {
+        List<PDataRow> rows = Lists.newArrayList();
+        for (String value : values) {
+            rows.add(PDataRow.newBuilder().addCol(PDataColumn.newBuilder().setValue(value)).build());
+        }
+        return rows;
+    }
+
+    private Future<PGroupCommitInsertResponse> submit(Backend backend, String... values) {
+        return coalescer.submit(db, table, null, sessionVariable, backend, rows(values));
+    }
+
+    private PGroupCommitInsertResponse get(Future<PGroupCommitInsertResponse> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        Future<PGroupCommitInsertResponse> first = submit(backend, "a", "b");
+        Future<PGroupCommitInsertResponse> second = submit(backend, "c");
+        Assert.assertEquals(2, get(first).getLoadedRows());
+        Assert.assertEquals(1, get(second).getLoadedRows());
+        Assert.assertEquals(0, get(second).getFilteredRows());
+        Assert.assertEquals(Lists.newArrayList(3), requests);
+    }
+
+    @Test
+    public void testBatchPerBackend() throws Exception {
+        Future<PGroupCommitInsertResponse> first = submit(backend, "a");
+        Future<PGroupCommitInsertResponse> second = submit(new Backend(2, "127.0.0.2", 9050), "b");
+        Assert.assertEquals(1, get(first).getLoadedRows());
+        Assert.assertEquals(1, get(second).getLoadedRows());
+        Assert.assertEquals(Lists.newArrayList(1, 1), requests);
+    }
+
+    @Test
+    public void testFailedBatchResentOneByOne() throws Exception {
+        Future<PGroupCommitInsertResponse> good = submit(backend, "a", "b");
+        Future<PGroupCommitInsertResponse> bad = submit(backend, "error");
+        Assert.assertEquals(TStatusCode.OK.getValue(), get(good).getStatus().getStatusCode());
+        Assert.assertEquals(2, get(good).getLoadedRows());
+        Assert.assertEquals(TStatusCode.INTERNAL_ERROR.getValue(), get(bad).getStatus().getStatusCode());
+        Assert.assertEquals(Lists.newArrayList(3, 2, 1), requests);
+    }
+
+    @Test
+    public void testFilteredRows() throws Exception {
+        // all rows are filtered, so the filtered rows of each insert are exact
+        Future<PGroupCommitInsertResponse> first = submit(backend, "bad");
+        Future<PGroupCommitInsertResponse> second = submit(backend, "bad", "bad");
+        Assert.assertEquals(1, get(first).getFilteredRows());
+        Assert.assertEquals(0, get(first).getLoadedRows());
+        Assert.assertEquals(2, get(second).getFilteredRows());
+        Assert.assertEquals(0, get(second).getLoadedRows());
+
+        // the inserts are not coalesced after rows are filtered, so the filtered rows of each insert are exact
+        requests.clear();
+        Future<PGroupCommitInsertResponse> good = submit(backend, "a", "b");
+        Future<PGroupCommitInsertResponse> bad = submit(backend, "a", "bad");
+        Assert.assertEquals(2, get(good).getLoadedRows());
+        Assert.assertEquals(0, get(good).getFilteredRows());
+        Assert.assertEquals(1, get(bad).getLoadedRows());
+        Assert.assertEquals(1, get(bad).getFilteredRows());
+        Assert.assertEquals(Lists.newArrayList(2, 2), requests);
+    }
+
+    @Test
+    public void testMixedBatchFilteredRows() throws Exception {
+        // some rows are filtered, it is unknown which inserts they belong to,
+        // so each insert gets the counts of the whole request instead of a guess
+        Future<PGroupCommitInsertResponse> good = submit(backend, "a", "b");
+        Future<PGroupCommitInsertResponse> bad = submit(backend, "c", "bad");
+        Assert.assertEquals(TStatusCode.OK.getValue(), get(good).getStatus().getStatusCode());
+        Assert.assertEquals(3, get(good).getLoadedRows());
+        Assert.assertEquals(1, get(good).getFilteredRows());
+        Assert.assertEquals(TStatusCode.OK.getValue(), get(bad).getStatus().getStatusCode());
+        Assert.assertEquals(3, get(bad).getLoadedRows());
+        Assert.assertEquals(1, get(bad).getFilteredRows());
+        // the written rows are not resent
+        Assert.assertEquals(Lists.newArrayList(4), requests);
+    }
+}
@@ -0,0 +1,103 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.load;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Replica;
+import org.apache.doris.catalog.Replica.ReplicaState;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.util.UnitTestUtil;
+import org.apache.doris.system.Backend;
+import org.apache.doris.system.BackendHbResponse;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class StreamLoadRedirectPolicyTest {
+
+    private Backend createBackend(long id, long loadMemUsage, int flushQueueSize, int loadChannelNum) {
+        Backend backend = new Backend(id, "127.0.0." + id, 9050);
+        BackendHbResponse hbResponse = new BackendHbResponse(id, 9060, 8040, 8060,
+                System.currentTimeMillis(), 1000, "", "mix", false, -1);
+        hbResponse.setLoadStatistics(loadMemUsage, flushQueueSize, loadChannelNum);
+        backend.handleHbResponse(hbResponse, false);
+        return backend;
+    }
+
+    @Test
+    public void testSelectLessLoaded() {
+        StreamLoadRedirectPolicy policy = new StreamLoadRedirectPolicy();
+        Backend idle = createBackend(1, 0, 0, 0);
+        Backend busy = createBackend(2, 4L * 1024 * 1024 * 1024, 10, 20);
+        Assert.assertEquals(20, busy.getLoadChannelNum());
+        List<Backend> candidates = Lists.newArrayList(idle, busy);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(idle.getId(), policy.select(candidates, null, null).getId());
+        }
+        Assert.assertEquals(10, policy.getInFlight(idle.getId()));
+        Assert.assertEquals(0, policy.getInFlight(busy.getId()));
+    }
+
+    @Test
+    public void testInFlightSpreadsLoad() {
+        StreamLoadRedirectPolicy policy = new StreamLoadRedirectPolicy();
+        List<Backend> candidates = Lists.newArrayList(createBackend(1, 0, 0, 0), createBackend(2, 0, 0, 0));
+        for (int i = 0; i < 10; i++) {
+            policy.select(candidates, null, null);
+        }
+        // with only two candidates both are compared every time, so in-flight counters stay balanced
+        Assert.assertTrue(Math.abs(policy.getInFlight(1) - policy.getInFlight(2)) <= 1);
+    }
+
+    @Test
+    public void testLocalityCache() {
+        StreamLoadRedirectPolicy policy = new StreamLoadRedirectPolicy();
+        // one tablet with replicas on backend 10, 11 and 12
+        Database db = UnitTestUtil.createDb(1, 2, 3, 4, 5, 10, 1);
+        OlapTable table = (OlapTable) db.getTableNullable(UnitTestUtil.TABLE_NAME);
+        Map<Long, Double> locality = policy.getLocality(table);
+        Assert.assertEquals(1.0, locality.get(10L), 0);
+        Assert.assertNull(locality.get(13L));
+        Assert.assertSame(locality, policy.getLocality(table));
+
+        // loads don't change the locality
+        table.dataWriteLockIfExist();
+        table.writeUnlock();
+        Assert.assertSame(locality, policy.getLocality(table));
+
+        // move the replica from backend 12 to 13
+        Tablet tablet = table.getPartitions().iterator().next().getBaseIndex().getTablets().get(0);
+        table.writeLock();
+        try {
+            tablet.addReplica(new Replica(100, 13, ReplicaState.NORMAL, 1, 0));
+            tablet.deleteReplicaByBackendId(12);
+        } finally {
+            table.writeUnlock();
+        }
+        locality = policy.getLocality(table);
+        Assert.assertEquals(1.0, locality.get(13L), 0);
+        Assert.assertNull(locality.get(12L));
+        Assert.assertSame(locality, policy.getLocality(table));
+    }
+}
@@ -382,6 +382,34 @@ public class BrokerLoadJobTest {
         }
     }
 
+    @Test
+    public void testSubmitTaskPerTableOnFinishedWithUnfinishedTask(
+            @Injectable BrokerPendingTaskAttachment attachment,
+            @Injectable LoadTask pendingTask, @Injectable LoadTask loadingTask) {
+        BrokerLoadJob brokerLoadJob = new BrokerLoadJob();
+        Deencapsulation.setField(brokerLoadJob, "state", JobState.LOADING);
+        Deencapsulation.setField(brokerLoadJob, "submitTaskPerTable", true);
+        Map<Long, LoadTask> idToTasks = Maps.newHashMap();
+        idToTasks.put(1L, pendingTask);
+        idToTasks.put(2L, loadingTask);
+        Deencapsulation.setField(brokerLoadJob, "idToTasks", idToTasks);
+        new Expectations() {
+            {
+                attachment.getTaskId();
+                minTimes = 0;
+                result = 1L;
+            }
+        };
+
+        // loading tasks are already submitted by the pending task, so no more task is created,
+        // and txn is not committed before the loading task finished.
+        brokerLoadJob.onTaskFinished(attachment);
+        Set<Long> finishedTaskIds = Deencapsulation.getField(brokerLoadJob, "finishedTaskIds");
+        Assert.assertEquals(1, finishedTaskIds.size());
+        Assert.assertEquals(2, idToTasks.size());
+        Assert.assertEquals(JobState.LOADING, brokerLoadJob.getState());
+    }
+
     @Test
     public void testLoadingTaskOnFinishedWithUnfinishedTask(@Injectable BrokerLoadingTaskAttachment attachment,
                                                             @Injectable LoadTask loadTask1,
@@ -33,6 +33,7 @@ import mockit.Injectable;
 import mockit.Mock;
 import mockit.MockUp;
 import mockit.Mocked;
+import mockit.Verifications;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -81,4 +82,71 @@ public class BrokerLoadPendingTaskTest {
         Assert.assertEquals(1, brokerPendingTaskAttachment.getFileNumByTable(aggKey));
         Assert.assertEquals(tBrokerFileStatus, brokerPendingTaskAttachment.getFileStatusByTable(aggKey).get(0).get(0));
     }
+
+    @Test
+    public void testExecuteSubmitTaskPerTable(@Injectable BrokerLoadJob brokerLoadJob,
+                                         @Injectable BrokerFileGroup brokerFileGroup1,
+                                         @Injectable BrokerFileGroup brokerFileGroup2,
+                                         @Injectable BrokerFileGroup brokerFileGroup3,
+                                         @Injectable BrokerDesc brokerDesc,
+                                         @Mocked Env env) throws UserException {
+        Map<FileGroupAggKey, List<BrokerFileGroup>> aggKeyToFileGroups = Maps.newLinkedHashMap();
+        List<BrokerFileGroup> brokerFileGroups1 = Lists.newArrayList(brokerFileGroup1, brokerFileGroup2);
+        List<BrokerFileGroup> brokerFileGroups2 = Lists.newArrayList(brokerFileGroup3);
+        FileGroupAggKey aggKey1 = new FileGroupAggKey(1L, null);
+        FileGroupAggKey aggKey2 = new FileGroupAggKey(2L, null);
+        aggKeyToFileGroups.put(aggKey1, brokerFileGroups1);
+        aggKeyToFileGroups.put(aggKey2, brokerFileGroups2);
+        new Expectations() {
+            {
+                env.getNextId();
+                result = 1L;
+                brokerLoadJob.isSubmitTaskPerTable();
+                result = true;
+                brokerFileGroup1.getFilePaths();
+                result = "hdfs://localhost:8900/test_column1";
+                brokerFileGroup2.getFilePaths();
+                result = "hdfs://localhost:8900/test_column2";
+                brokerFileGroup3.getFilePaths();
+                result = "hdfs://localhost:8900/test_column3";
+            }
+        };
+
+        // each path has 3 files
+        new MockUp<BrokerUtil>() {
+            @Mock
+            public void parseFile(String path, BrokerDesc brokerDesc, List<TBrokerFileStatus> fileStatuses) {
+                for (int i = 0; i < 3; i++) {
+                    fileStatuses.add(tBrokerFileStatus);
+                }
+            }
+        };
+
+        BrokerLoadPendingTask brokerLoadPendingTask = new BrokerLoadPendingTask(brokerLoadJob, aggKeyToFileGroups,
+                brokerDesc, LoadTask.Priority.NORMAL);
+        brokerLoadPendingTask.executeTask();
+
+        // all files of one table are loaded by one loading task, so the tablets are written only once in the txn
+        List<List<List<TBrokerFileStatus>>> fileStatusLists = Lists.newArrayList();
+        new Verifications() {
+            {
+                brokerLoadJob.beginTxn();
+                times = 1;
+                brokerLoadJob.submitLoadingTask(withEqual(aggKey1), withEqual(brokerFileGroups1),
+                        withCapture(fileStatusLists), withEqual(6));
+                times = 1;
+                brokerLoadJob.submitLoadingTask(withEqual(aggKey2), withEqual(brokerFileGroups2),
+                        withCapture(fileStatusLists), withEqual(3));
+                times = 1;
+            }
+        };
+        Assert.assertEquals(2, fileStatusLists.size());
+        Assert.assertEquals(2, fileStatusLists.get(0).size());
+        Assert.assertEquals(3, fileStatusLists.get(0).get(0).size());
+        Assert.assertEquals(3, fileStatusLists.get(0).get(1).size());
+        Assert.assertEquals(1, fileStatusLists.get(1).size());
+        BrokerPendingTaskAttachment brokerPendingTaskAttachment = Deencapsulation.getField(brokerLoadPendingTask,
+                "attachment");
+        Assert.assertNull(brokerPendingTaskAttachment.getFileStatusByTable(aggKey1));
+    }
 }
@@ -0,0 +1,125 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.load.loadv2;
+
+import org.apache.doris.load.loadv2.MysqlLoadManager.MySqlLoadContext;
+import org.apache.doris.load.loadv2.MysqlLoadManager.MysqlChannelEntity;
+import org.apache.doris.mysql.MysqlChannel;
+import org.apache.doris.qe.ConnectContext;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class MysqlChannelEntityTest {
+    @Mocked
+    private ConnectContext context;
+
+    // the packets sent by mysql client, null is returned after all packets are fetched, i.e. the client is closed
+    private Deque<ByteBuffer> mockPackets(String... packets) {
+        Deque<ByteBuffer> queue = new ArrayDeque<>();
+        for (String packet : packets) {
+            queue.add(ByteBuffer.wrap(packet.getBytes(StandardCharsets.UTF_8)));
+        }
+        MysqlChannel channel = new MysqlChannel() {
+            @Override
+            public ByteBuffer fetchOnePacket() {
+                return queue.poll();
+            }
+        };
+        new Expectations() {
+            {
+                context.getMysqlChannel();
+                minTimes = 0;
+                result = channel;
+            }
+        };
+        return queue;
+    }
+
+    @Test
+    public void testWriteUntilEmptyPacket() throws IOException {
+        Deque<ByteBuffer> packets = mockPackets("1,a\n", "2,b\n", "", "next command");
+        MySqlLoadContext loadContext = new MySqlLoadContext();
+        MysqlChannelEntity entity = new MysqlChannelEntity(context, loadContext);
+        Assert.assertTrue(entity.isStreaming());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+        Assert.assertEquals("1,a\n2,b\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertTrue(loadContext.isFinished());
+        Assert.assertFalse(entity.isStreaming());
+        // the packets after eof are not consumed
+        Assert.assertEquals(1, packets.size());
+    }
+
+    @Test
+    public void testClientDisconnect() {
+        mockPackets("1,a\n");
+        MySqlLoadContext loadContext = new MySqlLoadContext();
+        MysqlChannelEntity entity = new MysqlChannelEntity(context, loadContext);
+        Assert.assertThrows(IOException.class, () -> entity.writeTo(new ByteArrayOutputStream()));
+        Assert.assertFalse(loadContext.isFinished());
+    }
+
+    @Test
+    public void testDrainAfterBackendFailure() throws IOException {
+        Deque<ByteBuffer> packets = mockPackets("1,a\n", "2,b\n", "3,c\n", "", "next command");
+        MySqlLoadContext loadContext = new MySqlLoadContext();
+        MysqlChannelEntity entity = new MysqlChannelEntity(context, loadContext);
+        // the connection to BE is broken after the first packet is written
+        OutputStream out = new OutputStream() {
+            private int packetNum = 0;
+
+            @Override
+            public void write(int b) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (++packetNum > 1) {
+                    throw new IOException("connection reset by backend");
+                }
+            }
+        };
+        Assert.assertThrows(IOException.class, () -> entity.writeTo(out));
+        Assert.assertFalse(loadContext.isFinished());
+
+        MysqlLoadManager.drainMysqlChannel(context);
+        Assert.assertEquals(1, packets.size());
+        Assert.assertEquals("next command", new String(packets.peek().array(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDrainClosedClient() throws IOException {
+        Deque<ByteBuffer> packets = mockPackets("1,a\n");
+        MysqlLoadManager.drainMysqlChannel(context);
+        Assert.assertTrue(packets.isEmpty());
+    }
+}
@@ -198,6 +198,70 @@ public class KafkaRoutineLoadJobTest {
         }
     }
 
+    @Test
+    public void testAdaptiveBatchScale() {
+        KafkaRoutineLoadJob routineLoadJob =
+                new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                        1L, "127.0.0.1:9020", "topic1", UserIdentity.ADMIN);
+        Deencapsulation.setField(routineLoadJob, "maxBatchRows", 100L);
+        Map<Integer, Long> cachedOffsets = Deencapsulation.getField(routineLoadJob,
+                "cachedPartitionWithLatestOffsets");
+        cachedOffsets.put(1, 1000L);
+        cachedOffsets.put(2, 150L);
+
+        Map<Integer, Long> partitionIdToOffset = Maps.newHashMap();
+        partitionIdToOffset.put(1, 900L);
+        partitionIdToOffset.put(2, 0L);
+
+        boolean enabled = Config.enable_routine_load_adaptive_schedule;
+        int maxScale = Config.routine_load_max_batch_scale;
+        try {
+            Config.enable_routine_load_adaptive_schedule = false;
+            Assert.assertEquals(1, routineLoadJob.getBatchScale(partitionIdToOffset));
+
+            Config.enable_routine_load_adaptive_schedule = true;
+            Config.routine_load_max_batch_scale = 4;
+            // lag is 100 + 150
+            Assert.assertEquals(2, routineLoadJob.getBatchScale(partitionIdToOffset));
+
+            partitionIdToOffset.put(2, -1L);
+            Assert.assertEquals(1, routineLoadJob.getBatchScale(partitionIdToOffset));
+
+            partitionIdToOffset.put(1, 0L);
+            Assert.assertEquals(4, routineLoadJob.getBatchScale(partitionIdToOffset));
+        } finally {
+            Config.enable_routine_load_adaptive_schedule = enabled;
+            Config.routine_load_max_batch_scale = maxScale;
+        }
+    }
+
+    @Test
+    public void testIdleBackoff(@Injectable RoutineLoadManager routineLoadManager) {
+        Env env = Deencapsulation.newInstance(Env.class);
+        new Expectations(env) {
+            {
+                env.getRoutineLoadManager();
+                minTimes = 0;
+                result = routineLoadManager;
+            }
+        };
+
+        KafkaTaskInfo taskInfo = new KafkaTaskInfo(UUID.randomUUID(), 1L, "default", 20000,
+                Maps.newHashMap(), false);
+        Assert.assertFalse(taskInfo.isIdleBackoff(System.currentTimeMillis()));
+
+        taskInfo.backoffIdle(10000);
+        Assert.assertTrue(taskInfo.isIdleBackoff(System.currentTimeMillis()));
+        Assert.assertEquals(1000L, (long) Deencapsulation.getField(taskInfo, "idleBackoffMs"));
+        for (int i = 0; i < 10; i++) {
+            taskInfo.backoffIdle(10000);
+        }
+        Assert.assertEquals(10000L, (long) Deencapsulation.getField(taskInfo, "idleBackoffMs"));
+
+        taskInfo.resetIdleBackoff();
+        Assert.assertFalse(taskInfo.isIdleBackoff(System.currentTimeMillis()));
+    }
+
     @Test
     public void testProcessTimeOutTasks(@Injectable GlobalTransactionMgr globalTransactionMgr,
                                         @Injectable RoutineLoadManager routineLoadManager,
@@ -0,0 +1,109 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.mtmv;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MTMV;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.utframe.TestWithFeService;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+class MTMVRelationManagerTest extends TestWithFeService {
+    private Database db;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        FeConstants.runningUnitTest = true;
+        createDatabase("test");
+        useDatabase("test");
+        for (String name : new String[] {"t1", "t2", "t3"}) {
+            createTable("create table " + name + " (k1 int, v1 int) duplicate key(k1) "
+                    + "distributed by hash(k1) buckets 1 properties(\"replication_num\" = \"1\");");
+        }
+        db = Env.getCurrentInternalCatalog().getDbOrMetaException("default_cluster:test");
+    }
+
+    private BaseTableInfo baseTable(String name) {
+        Table table = db.getTableNullable(name);
+        return new BaseTableInfo(db.getId(), table.getId());
+    }
+
+    private Set<Long> tableIds(String... names) {
+        ImmutableSet.Builder<Long> ids = ImmutableSet.builder();
+        for (String name : names) {
+            ids.add(db.getTableNullable(name).getId());
+        }
+        return ids.build();
+    }
+
+    private MTMV createMTMV(Database mtmvDb, String name, String... baseTableNames) {
+        MTMV mtmv = new MTMV();
+        mtmv.setId(Env.getCurrentEnv().getNextId());
+        mtmv.setName(name);
+        ImmutableSet.Builder<BaseTableInfo> baseTables = ImmutableSet.builder();
+        for (String baseTableName : baseTableNames) {
+            baseTables.add(baseTable(baseTableName));
+        }
+        mtmv.setDefinition("select 1", null, baseTables.build());
+        mtmvDb.createTable(mtmv);
+        return mtmv;
+    }
+
+    @Test
+    void testSetDefinition() {
+        MTMVRelationManager manager = Env.getCurrentEnv().getMtmvRelationManager();
+        Database mtmvDb = new Database(Env.getCurrentEnv().getNextId(), "default_cluster:mtmv_def");
+        MTMV mtmv = createMTMV(mtmvDb, "mv1", "t1", "t2");
+        Assertions.assertTrue(manager.getCandidateMTMVs(tableIds("t1", "t2")).contains(mtmv));
+
+        // the MTMV is registered with the base tables of its new definition
+        mtmv.setDefinition("select 2", null, ImmutableSet.of(baseTable("t1"), baseTable("t3")));
+        Assertions.assertFalse(manager.getCandidateMTMVs(tableIds("t1", "t2")).contains(mtmv));
+        Assertions.assertTrue(manager.getCandidateMTMVs(tableIds("t1", "t3")).contains(mtmv));
+
+        // an MTMV which is not registered is not registered by setting its definition
+        mtmvDb.dropTable("mv1");
+        Assertions.assertFalse(manager.isRegistered(mtmv.getId()));
+        mtmv.setDefinition("select 1", null, ImmutableSet.of(baseTable("t1"), baseTable("t2")));
+        Assertions.assertFalse(manager.isRegistered(mtmv.getId()));
+    }
+
+    @Test
+    void testDropDb() {
+        MTMVRelationManager manager = Env.getCurrentEnv().getMtmvRelationManager();
+        Database mtmvDb = new Database(Env.getCurrentEnv().getNextId(), "default_cluster:mtmv_drop");
+        MTMV mtmv1 = createMTMV(mtmvDb, "mv1", "t1", "t2");
+        MTMV mtmv2 = createMTMV(mtmvDb, "mv2", "t2", "t3");
+        Assertions.assertTrue(manager.isRegistered(mtmv1.getId()));
+        Assertions.assertTrue(manager.isRegistered(mtmv2.getId()));
+
+        manager.deregisterMTMVs(mtmvDb);
+        Assertions.assertFalse(manager.isRegistered(mtmv1.getId()));
+        Assertions.assertFalse(manager.isRegistered(mtmv2.getId()));
+        Assertions.assertFalse(manager.getCandidateMTMVs(tableIds("t1", "t2")).contains(mtmv1));
+        Assertions.assertFalse(manager.getCandidateMTMVs(tableIds("t2", "t3")).contains(mtmv2));
+    }
+}
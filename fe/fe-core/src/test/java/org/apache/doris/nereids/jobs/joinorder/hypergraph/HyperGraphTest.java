@@ -17,6 +17,7 @@
 
 package org.apache.doris.nereids.jobs.joinorder.hypergraph;
 
+import org.apache.doris.nereids.jobs.joinorder.hypergraph.node.DPhyperNode;
 import org.apache.doris.nereids.trees.plans.JoinType;
 import org.apache.doris.nereids.util.HyperGraphBuilder;
 
@@ -105,4 +106,16 @@ public class HyperGraphTest {
             Assertions.assertEquals(hyperGraph.getEdges().size(), edgeNum);
         }
     }
+
+    @Test
+    void testLargeQuery() {
+        // the join with more tables than a LongBitmap can hold keeps some join subtrees as nodes
+        int tableNum = 70;
+        HyperGraph hyperGraph = new HyperGraphBuilder().randomBuildWith(tableNum, tableNum - 1);
+        Assertions.assertEquals(HyperGraph.MAX_NODE_NUM, hyperGraph.getNodes().size());
+        Assertions.assertEquals(HyperGraph.MAX_NODE_NUM - 1, hyperGraph.getEdges().size());
+        Assertions.assertTrue(hyperGraph.getNodes().stream()
+                .anyMatch(node -> HyperGraph.isValidJoin(
+                        ((DPhyperNode) node).getGroup().getLogicalExpression().getPlan())));
+    }
 }
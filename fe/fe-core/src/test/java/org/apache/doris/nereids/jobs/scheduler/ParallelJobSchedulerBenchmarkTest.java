@@ -0,0 +1,87 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.jobs.scheduler;
+
+import org.apache.doris.nereids.datasets.ssb.SSBTestBase;
+import org.apache.doris.nereids.datasets.ssb.SSBUtils;
+import org.apache.doris.nereids.util.PlanChecker;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+
+/**
+ * Benchmark of the optimize time of the star join queries with ParallelJobScheduler.
+ * It is skipped by default, run it by:
+ * mvn test -Dtest=ParallelJobSchedulerBenchmarkTest -Dnereids.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "nereids.benchmark", matches = "true")
+public class ParallelJobSchedulerBenchmarkTest extends SSBTestBase {
+    private static final Logger LOG = LogManager.getLogger(ParallelJobSchedulerBenchmarkTest.class);
+    private static final String[] STAR_JOIN_QUERIES = {SSBUtils.Q4_1, SSBUtils.Q4_2, SSBUtils.Q4_3};
+    private static final int PARALLELISM = 4;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    @AfterEach
+    public void resetSessionVariable() {
+        connectContext.getSessionVariable().nereidsOptimizeParallelism = 1;
+    }
+
+    @Test
+    public void benchmarkStarJoin() {
+        Assumptions.assumeTrue(Runtime.getRuntime().availableProcessors() >= PARALLELISM);
+        long serialNanos = medianOptimizeNanos(1);
+        long parallelNanos = medianOptimizeNanos(PARALLELISM);
+        LOG.info("optimize star join queries, serial: {} us, parallelism {}: {} us, speedup: {}",
+                serialNanos / 1000, PARALLELISM, parallelNanos / 1000, (double) serialNanos / parallelNanos);
+        Assertions.assertTrue(parallelNanos < serialNanos,
+                "parallel optimize " + parallelNanos + "ns is not faster than serial " + serialNanos + "ns");
+    }
+
+    private long medianOptimizeNanos(int parallelism) {
+        connectContext.getSessionVariable().nereidsOptimizeParallelism = parallelism;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            optimizeNanos();
+        }
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            nanos[i] = optimizeNanos();
+        }
+        Arrays.sort(nanos);
+        return nanos[ROUNDS / 2];
+    }
+
+    // only the optimize phase is timed, the analyze and rewrite phases are not changed by the scheduler
+    private long optimizeNanos() {
+        long nanos = 0;
+        for (String sql : STAR_JOIN_QUERIES) {
+            PlanChecker checker = PlanChecker.from(connectContext).analyze(sql).rewrite();
+            long start = System.nanoTime();
+            checker.optimize();
+            nanos += System.nanoTime() - start;
+        }
+        return nanos;
+    }
+}
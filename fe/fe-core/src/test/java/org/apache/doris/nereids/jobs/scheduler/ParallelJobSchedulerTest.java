@@ -0,0 +1,104 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.jobs.scheduler;
+
+import org.apache.doris.nereids.CascadesContext;
+import org.apache.doris.nereids.datasets.ssb.SSBTestBase;
+import org.apache.doris.nereids.datasets.ssb.SSBUtils;
+import org.apache.doris.nereids.util.PlanChecker;
+import org.apache.doris.qe.SessionVariable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class ParallelJobSchedulerTest extends SSBTestBase {
+
+    @AfterEach
+    public void resetSessionVariable() {
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        sessionVariable.nereidsOptimizeParallelism = 1;
+        sessionVariable.enableDeterministicParallelOptimize = false;
+    }
+
+    @Test
+    public void testChooseScheduler() {
+        Assertions.assertTrue(PlanChecker.from(connectContext).analyze(SSBUtils.Q4_1)
+                .getCascadesContext().getJobScheduler() instanceof SimpleJobScheduler);
+        connectContext.getSessionVariable().nereidsOptimizeParallelism = 4;
+        Assertions.assertTrue(PlanChecker.from(connectContext).analyze(SSBUtils.Q4_1)
+                .getCascadesContext().getJobScheduler() instanceof ParallelJobScheduler);
+    }
+
+    @Test
+    public void testStarJoinDeterministic() {
+        for (String sql : new String[] {SSBUtils.Q4_1, SSBUtils.Q4_2, SSBUtils.Q4_3}) {
+            String serial = optimize(sql, 1, false);
+            connectContext.getSessionVariable().enableDeterministicParallelOptimize = true;
+            Assertions.assertEquals(serial, optimize(sql, 4, true));
+        }
+    }
+
+    @Test
+    public void testStarJoinParallel() {
+        for (String sql : new String[] {SSBUtils.Q4_1, SSBUtils.Q4_2, SSBUtils.Q4_3}) {
+            // the expr ids may be allocated in different order, so only compare the shape of best plan
+            String serial = shape(sql, 1);
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertEquals(serial, shape(sql, 4));
+            }
+        }
+    }
+
+    @Test
+    public void testSerialRuleAppliedOnce() {
+        // OrExpansion registers the cte consumers it creates into the statement context
+        String sql = "select * from lineorder join customer on lo_custkey = c_custkey or lo_suppkey = c_custkey";
+        int serial = cteConsumerNum(sql, 1);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(serial, cteConsumerNum(sql, 4));
+        }
+    }
+
+    private int cteConsumerNum(String sql, int parallelism) {
+        connectContext.getSessionVariable().nereidsOptimizeParallelism = parallelism;
+        CascadesContext cascadesContext = PlanChecker.from(connectContext)
+                .analyze(sql)
+                .rewrite()
+                .optimize()
+                .getCascadesContext();
+        return cascadesContext.getCteIdToConsumers().values().stream().mapToInt(Set::size).sum();
+    }
+
+    private String optimize(String sql, int parallelism, boolean deterministic) {
+        connectContext.getSessionVariable().nereidsOptimizeParallelism = parallelism;
+        connectContext.getSessionVariable().enableDeterministicParallelOptimize = deterministic;
+        return PlanChecker.from(connectContext)
+                .analyze(sql)
+                .rewrite()
+                .optimize()
+                .getBestPlanTree()
+                .treeString();
+    }
+
+    private String shape(String sql, int parallelism) {
+        return optimize(sql, parallelism, false).replaceAll("#\\d+", "");
+    }
+}
@@ -132,6 +132,29 @@ class MemoTest implements MemoPatternMatchSupported {
         Assertions.assertEquals(0, srcParentExpression.arity());
     }
 
+    @Test
+    void testGroupExpressionLookupKey() {
+        Group group1 = new Group(new GroupId(1), new GroupExpression(new FakePlan()),
+                new LogicalProperties(ArrayList::new));
+        Group group2 = new Group(new GroupId(2), new GroupExpression(new FakePlan()),
+                new LogicalProperties(ArrayList::new));
+        FakePlan fakePlan = new FakePlan();
+        GroupExpression groupExpression = new GroupExpression(fakePlan, Lists.newArrayList(group1));
+
+        // lookup key doesn't reference the children groups
+        GroupExpression lookupKey = GroupExpression.lookupKey(fakePlan, ImmutableList.of(group1));
+        Assertions.assertEquals(groupExpression, lookupKey);
+        Assertions.assertEquals(groupExpression.hashCode(), lookupKey.hashCode());
+        Assertions.assertEquals(1, group1.getParentGroupExpressions().size());
+        Assertions.assertNotEquals(groupExpression, GroupExpression.lookupKey(fakePlan, ImmutableList.of(group2)));
+
+        // hash code is recomputed after children changed
+        groupExpression.replaceChild(group1, group2);
+        Assertions.assertEquals(GroupExpression.lookupKey(fakePlan, ImmutableList.of(group2)), groupExpression);
+        Assertions.assertEquals(GroupExpression.lookupKey(fakePlan, ImmutableList.of(group2)).hashCode(),
+                groupExpression.hashCode());
+    }
+
     /**
      * Original:
      * Group 0: LogicalOlapScan C
@@ -58,6 +58,18 @@ public class NereidsParserTest extends ParserTestBase {
         Assertions.assertEquals(2, logicalPlanList.size());
     }
 
+    @Test
+    public void testParseMultipleWithCachedParseTree() {
+        NereidsParser nereidsParser = new NereidsParser();
+        String sql = "SELECT a, b FROM test WHERE a = 1;";
+        List<Pair<LogicalPlan, StatementContext>> first = nereidsParser.parseMultiple(sql);
+        List<Pair<LogicalPlan, StatementContext>> second = nereidsParser.parseMultiple(sql);
+        // the plan is built again from the cached parse tree
+        Assertions.assertNotSame(first.get(0).first, second.get(0).first);
+        Assertions.assertNotSame(first.get(0).second, second.get(0).second);
+        Assertions.assertEquals(first.get(0).first.getType(), second.get(0).first.getType());
+    }
+
     @Test
     public void testSingle() {
         NereidsParser nereidsParser = new NereidsParser();
@@ -0,0 +1,96 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.postprocess;
+
+import org.apache.doris.nereids.processor.post.RuntimeFilterSelector;
+import org.apache.doris.qe.SessionVariable;
+import org.apache.doris.statistics.ColumnStatistic;
+import org.apache.doris.statistics.ColumnStatisticBuilder;
+import org.apache.doris.thrift.TRuntimeFilterType;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RuntimeFilterSelectorTest {
+    private final List<TRuntimeFilterType> legalTypes = ImmutableList.of(TRuntimeFilterType.IN,
+            TRuntimeFilterType.BLOOM, TRuntimeFilterType.MIN_MAX, TRuntimeFilterType.IN_OR_BLOOM);
+    private final RuntimeFilterSelector selector = new RuntimeFilterSelector(new SessionVariable());
+
+    private static ColumnStatistic stats(double ndv, double min, double max) {
+        return new ColumnStatisticBuilder().setCount(ndv).setNdv(ndv).setMinValue(min).setMaxValue(max).build();
+    }
+
+    @Test
+    public void testSmallBuildSide() {
+        RuntimeFilterSelector.Selection selection = selector.select(
+                stats(100000, 0, 100000), stats(100, 0, 100000), legalTypes);
+        Assertions.assertEquals(ImmutableList.of(TRuntimeFilterType.IN), selection.types);
+        Assertions.assertTrue(selection.expectedFilterRatio > 0.99);
+    }
+
+    @Test
+    public void testLargeBuildSide() {
+        RuntimeFilterSelector.Selection selection = selector.select(
+                stats(1000000, 0, 1000000), stats(100000, 0, 100000), legalTypes);
+        Assertions.assertEquals(ImmutableList.of(TRuntimeFilterType.BLOOM, TRuntimeFilterType.MIN_MAX),
+                selection.types);
+        Assertions.assertEquals(0.9, selection.expectedFilterRatio, 0.01);
+    }
+
+    @Test
+    public void testUselessFilter() {
+        RuntimeFilterSelector.Selection selection = selector.select(
+                stats(1000, 0, 1000), stats(1000, 0, 1000), legalTypes);
+        Assertions.assertTrue(selection.types.isEmpty());
+    }
+
+    @Test
+    public void testUnknownStats() {
+        RuntimeFilterSelector.Selection selection = selector.select(
+                ColumnStatistic.UNKNOWN, stats(1000, 0, 1000), legalTypes);
+        Assertions.assertEquals(legalTypes, selection.types);
+        Assertions.assertEquals(-1, selection.expectedFilterRatio);
+    }
+
+    @Test
+    public void testUncertainBuildNdv() {
+        // the build ndv is close to runtime_filter_max_in_num, let BE choose by the real ndv
+        RuntimeFilterSelector.Selection selection = selector.select(
+                stats(1000000, 0, 1000000), stats(1000, 0, 1000000), legalTypes);
+        Assertions.assertEquals(ImmutableList.of(TRuntimeFilterType.IN_OR_BLOOM), selection.types);
+    }
+
+    @Test
+    public void testOnlyLegalTypes() {
+        // the default runtime_filter_type only allows IN_OR_BLOOM
+        List<TRuntimeFilterType> inOrBloom = ImmutableList.of(TRuntimeFilterType.IN_OR_BLOOM);
+        RuntimeFilterSelector.Selection selection = selector.select(
+                stats(100000, 0, 100000), stats(100, 0, 100000), inOrBloom);
+        Assertions.assertEquals(inOrBloom, selection.types);
+        selection = selector.select(stats(1000000, 0, 1000000), stats(100000, 0, 100000), inOrBloom);
+        Assertions.assertEquals(inOrBloom, selection.types);
+
+        // an IN filter is not chosen for a large build side
+        selection = selector.select(stats(1000000, 0, 1000000), stats(100000, 0, 100000),
+                ImmutableList.of(TRuntimeFilterType.IN, TRuntimeFilterType.MIN_MAX));
+        Assertions.assertEquals(ImmutableList.of(TRuntimeFilterType.MIN_MAX), selection.types);
+    }
+}
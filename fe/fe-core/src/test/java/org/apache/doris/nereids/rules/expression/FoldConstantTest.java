@@ -31,6 +31,7 @@ import org.apache.doris.nereids.trees.expressions.SlotReference;
 import org.apache.doris.nereids.trees.expressions.TimestampArithmetic;
 import org.apache.doris.nereids.trees.expressions.functions.executable.DateTimeArithmetic;
 import org.apache.doris.nereids.trees.expressions.functions.executable.DateTimeExtractAndTransform;
+import org.apache.doris.nereids.trees.expressions.functions.executable.StringArithmetic;
 import org.apache.doris.nereids.trees.expressions.literal.BigIntLiteral;
 import org.apache.doris.nereids.trees.expressions.literal.DateLiteral;
 import org.apache.doris.nereids.trees.expressions.literal.DateTimeLiteral;
@@ -618,6 +619,49 @@ class FoldConstantTest extends ExpressionRewriteTestHelper {
         assertRewriteExpression("cast ('2022-12-02 22:23:24.999999' as datetimev2(3))", "'2022-12-02 22:23:25.000'");
     }
 
+    @Test
+    void testStringFunctions() {
+        VarcharLiteral hello = new VarcharLiteral("  Hello 数据  ");
+        Assertions.assertEquals("'  HELLO'", StringArithmetic.upper(new VarcharLiteral("  Hello")).toSql());
+        Assertions.assertEquals("'hello'", StringArithmetic.lower(new VarcharLiteral("Hello")).toSql());
+        // the case mapping doesn't depend on the default locale of FE, e.g. 'i' is upper cased to dotted 'İ' in Turkish
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+            Assertions.assertEquals("'TITLE'", StringArithmetic.upper(new VarcharLiteral("title")).toSql());
+            Assertions.assertEquals("'title'", StringArithmetic.lower(new VarcharLiteral("TITLE")).toSql());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        Assertions.assertEquals("'Hello 数据'", StringArithmetic.trim(hello).toSql());
+        Assertions.assertEquals("'Hello 数据  '", StringArithmetic.ltrim(hello).toSql());
+        Assertions.assertEquals("'  Hello 数据'", StringArithmetic.rtrim(hello).toSql());
+        Assertions.assertEquals("''", StringArithmetic.trim(new VarcharLiteral("   ")).toSql());
+        Assertions.assertEquals("16", StringArithmetic.length(hello).toSql());
+        Assertions.assertEquals("'  据数 olleH  '", StringArithmetic.reverse(hello).toSql());
+        Assertions.assertEquals("'  Hello 数'",
+                StringArithmetic.left(hello, new IntegerLiteral(9)).toSql());
+        Assertions.assertEquals("'据  '", StringArithmetic.right(hello, new IntegerLiteral(3)).toSql());
+        Assertions.assertEquals("'数据'",
+                StringArithmetic.substring(hello, new IntegerLiteral(9), new IntegerLiteral(2)).toSql());
+        Assertions.assertEquals("'据  '",
+                StringArithmetic.substring(hello, new IntegerLiteral(-3), new IntegerLiteral(10)).toSql());
+        Assertions.assertEquals("''",
+                StringArithmetic.substring(hello, new IntegerLiteral(0), new IntegerLiteral(2)).toSql());
+        Assertions.assertEquals("10", StringArithmetic.locate(new VarcharLiteral("据"), hello).toSql());
+        Assertions.assertEquals("0", StringArithmetic.instr(hello, new VarcharLiteral("xyz")).toSql());
+        Assertions.assertEquals("'abab'",
+                StringArithmetic.repeat(new VarcharLiteral("ab"), new IntegerLiteral(2)).toSql());
+        Assertions.assertEquals("'a-c'", StringArithmetic.replace(new VarcharLiteral("abc"),
+                new VarcharLiteral("b"), new VarcharLiteral("-")).toSql());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> StringArithmetic.upper(new VarcharLiteral("ß")));
+
+        assertRewriteExpression("concat('a', 'b', 'c')", "'abc'");
+        assertRewriteExpression("upper(concat('a', 'b'))", "'AB'");
+        assertRewriteExpression("substring('hello', 2, 3)", "'ell'");
+    }
+
     @Test
     void testFoldTypeOfNullLiteral() {
         String actualExpression = "append_trailing_char_if_absent(cast(version() as varchar), cast(null as varchar))";
@@ -0,0 +1,146 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.rules.rewrite.mv;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.mtmv.MTMVCache;
+import org.apache.doris.nereids.CascadesContext;
+import org.apache.doris.nereids.jobs.executor.Rewriter;
+import org.apache.doris.nereids.trees.expressions.StatementScopeIdGenerator;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.Nvl;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalAggregate;
+import org.apache.doris.nereids.trees.plans.logical.LogicalFilter;
+import org.apache.doris.nereids.trees.plans.logical.LogicalOlapScan;
+import org.apache.doris.nereids.trees.plans.logical.LogicalProject;
+import org.apache.doris.nereids.trees.plans.logical.LogicalSink;
+import org.apache.doris.nereids.util.PlanChecker;
+import org.apache.doris.utframe.TestWithFeService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+class MaterializedViewRewriteTest extends TestWithFeService {
+
+    private static final String MV_SQL = "select t1.k2, t2.k3, sum(t1.v1), count(t1.v1) "
+            + "from t1 join t2 on t1.k1 = t2.k1 group by t1.k2, t2.k3";
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        FeConstants.runningUnitTest = true;
+        createDatabase("test");
+        useDatabase("test");
+        createTable("create table t1 (k1 int, k2 int, v1 int) duplicate key(k1) "
+                + "distributed by hash(k1) buckets 1 properties(\"replication_num\" = \"1\");");
+        createTable("create table t2 (k1 int, k3 int) duplicate key(k1) "
+                + "distributed by hash(k1) buckets 1 properties(\"replication_num\" = \"1\");");
+        // the columns are in the same order as the outputs of MV_SQL
+        createTable("create table mv1 (k2 int, k3 int, sum_v1 bigint, count_v1 bigint) duplicate key(k2) "
+                + "distributed by hash(k2) buckets 1 properties(\"replication_num\" = \"1\");");
+    }
+
+    @Test
+    void testRollup() {
+        Plan plan = rewriteByMv("select t1.k2, sum(t1.v1), count(t1.v1) "
+                + "from t1 join t2 on t1.k1 = t2.k1 group by t1.k2", MV_SQL).get();
+        Assertions.assertTrue(plan.anyMatch(LogicalAggregate.class::isInstance));
+        assertOnlyScanMv(plan);
+    }
+
+    @Test
+    void testRollupCountWithoutGroupBy() {
+        Plan plan = rewriteByMv("select count(t1.v1), sum(t1.v1) from t1 join t2 on t1.k1 = t2.k1", MV_SQL).get();
+        assertOnlyScanMv(plan);
+        // count of empty materialized view should be 0 instead of null
+        Assertions.assertTrue(plan.anyMatch(p -> p instanceof LogicalProject && ((LogicalProject<?>) p).getProjects()
+                .stream().anyMatch(e -> e.anyMatch(Nvl.class::isInstance))));
+        LogicalAggregate<?> aggregate = (LogicalAggregate<?>) plan.collectToList(
+                LogicalAggregate.class::isInstance).get(0);
+        Assertions.assertTrue(aggregate.getGroupByExpressions().isEmpty());
+        Assertions.assertFalse(aggregate.getOutputExpressions().stream().anyMatch(e -> e.anyMatch(Nvl.class::isInstance)));
+    }
+
+    @Test
+    void testMvPlanNotPruned() {
+        // the tablets of the materialized view plan are not pruned by its predicates, so it could still be matched
+        String mvSql = "select t1.k2, t2.k3, sum(t1.v1), count(t1.v1) from t1 join t2 on t1.k1 = t2.k1 "
+                + "where t1.k1 = 1 group by t1.k2, t2.k3";
+        Plan mvPlan = MTMVCache.buildPlan(mvSql, connectContext);
+        List<LogicalOlapScan> scans = mvPlan.collectToList(LogicalOlapScan.class::isInstance);
+        Assertions.assertEquals(2, scans.size());
+        scans.forEach(scan -> Assertions.assertTrue(scan.getSelectedTabletIds().isEmpty()));
+        Assertions.assertTrue(StructInfo.of(mvPlan).isPresent());
+        Assertions.assertTrue(rewriteByMv("select t1.k2, sum(t1.v1) from t1 join t2 on t1.k1 = t2.k1 "
+                + "where t1.k1 = 1 group by t1.k2", mvSql).isPresent());
+    }
+
+    @Test
+    void testCompensatePredicates() {
+        Plan plan = rewriteByMv("select t1.k2, t2.k3, sum(t1.v1) "
+                + "from t1 join t2 on t1.k1 = t2.k1 where t2.k3 > 1 group by t1.k2, t2.k3", MV_SQL).get();
+        Assertions.assertFalse(plan.anyMatch(LogicalAggregate.class::isInstance));
+        Assertions.assertTrue(plan.anyMatch(LogicalFilter.class::isInstance));
+        assertOnlyScanMv(plan);
+    }
+
+    @Test
+    void testNotMatch() {
+        // the predicate on v1 could not be compensated on the aggregated materialized view
+        Assertions.assertFalse(rewriteByMv("select t1.k2, sum(t1.v1) from t1 join t2 on t1.k1 = t2.k1 "
+                + "where t1.v1 > 1 group by t1.k2", MV_SQL).isPresent());
+        // max(v1) is not in the materialized view
+        Assertions.assertFalse(rewriteByMv("select t1.k2, max(t1.v1) from t1 join t2 on t1.k1 = t2.k1 "
+                + "group by t1.k2", MV_SQL).isPresent());
+        // the materialized view has more predicates than the query
+        Assertions.assertFalse(rewriteByMv("select t1.k2, t2.k3, sum(t1.v1), count(t1.v1) "
+                + "from t1 join t2 on t1.k1 = t2.k1 group by t1.k2, t2.k3",
+                "select t1.k2, t2.k3, sum(t1.v1), count(t1.v1) from t1 join t2 on t1.k1 = t2.k1 "
+                        + "where t2.k3 > 1 group by t1.k2, t2.k3").isPresent());
+    }
+
+    private Optional<Plan> rewriteByMv(String querySql, String mvSql) {
+        Plan queryPlan = rewrite(querySql);
+        Plan mvPlan = MTMVCache.buildPlan(mvSql, connectContext);
+        OlapTable mvTable = (OlapTable) Env.getCurrentInternalCatalog().getDbNullable("default_cluster:test")
+                .getTableNullable("mv1");
+        LogicalOlapScan mvScan = new LogicalOlapScan(StatementScopeIdGenerator.newRelationId(), mvTable);
+        Optional<Plan> rewritten = MaterializedViewRewrite.rewriteByStructInfo(queryPlan,
+                StructInfo.of(queryPlan).get(), StructInfo.of(mvPlan).get(), mvScan);
+        rewritten.ifPresent(plan -> Assertions.assertEquals(queryPlan.getOutput(), plan.getOutput()));
+        return rewritten;
+    }
+
+    // the query plan at the stage of materialized view rewrite
+    private Plan rewrite(String sql) {
+        CascadesContext cascadesContext = PlanChecker.from(connectContext).analyze(sql).getCascadesContext();
+        Rewriter.getWholeTreeRewriterBeforeMaterializedViewRewrite(cascadesContext).execute();
+        Plan plan = cascadesContext.getRewritePlan();
+        return plan instanceof LogicalSink ? plan.child(0) : plan;
+    }
+
+    private void assertOnlyScanMv(Plan plan) {
+        List<LogicalOlapScan> scans = plan.collectToList(LogicalOlapScan.class::isInstance);
+        Assertions.assertEquals(1, scans.size());
+        Assertions.assertEquals("mv1", scans.get(0).getTable().getName());
+    }
+}
@@ -145,6 +145,35 @@ public class JoinOrderJobTest extends SqlTestBase {
                 .getBestPlanTree();
     }
 
+    @Test
+    void testPairLimitIsReproducible() {
+        // the clique has far more csg-cmp pairs than the pair limit, with enough time budget
+        // the pair limit is reached first, so the same graph is always ordered in the same way
+        long timeLimit = connectContext.getSessionVariable().joinReorderTimeLimit;
+        connectContext.getSessionVariable().joinReorderTimeLimit = 600 * 1000;
+        try {
+            HyperGraphBuilder hyperGraphBuilder = new HyperGraphBuilder(Sets.newHashSet(JoinType.INNER_JOIN));
+            Plan plan = hyperGraphBuilder.randomBuildPlanWith(12, 12 * 11 / 2);
+            plan = new LogicalProject(plan.getOutput(), plan);
+            String firstPlan = null;
+            for (int i = 0; i < 2; i++) {
+                CascadesContext cascadesContext = MemoTestUtils.createCascadesContext(connectContext, plan);
+                hyperGraphBuilder.initStats(cascadesContext);
+                String bestPlan = PlanChecker.from(cascadesContext)
+                        .dpHypOptimize()
+                        .getBestPlanTree()
+                        .treeString();
+                if (firstPlan == null) {
+                    firstPlan = bestPlan;
+                } else {
+                    Assertions.assertEquals(firstPlan, bestPlan);
+                }
+            }
+        } finally {
+            connectContext.getSessionVariable().joinReorderTimeLimit = timeLimit;
+        }
+    }
+
     @Disabled
     @Test
     void test64CliqueJoin() {
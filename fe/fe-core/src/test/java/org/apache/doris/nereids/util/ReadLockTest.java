@@ -17,16 +17,23 @@
 
 package org.apache.doris.nereids.util;
 
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.Table;
 import org.apache.doris.catalog.TableIf;
 import org.apache.doris.nereids.CascadesContext;
 import org.apache.doris.nereids.NereidsPlanner;
 import org.apache.doris.nereids.StatementContext;
 import org.apache.doris.nereids.datasets.ssb.SSBTestBase;
+import org.apache.doris.nereids.hint.Hint;
+import org.apache.doris.nereids.minidump.MinidumpUtils;
 import org.apache.doris.nereids.parser.NereidsParser;
 import org.apache.doris.nereids.properties.PhysicalProperties;
+import org.apache.doris.nereids.trees.plans.Plan;
 import org.apache.doris.nereids.trees.plans.commands.InsertIntoTableCommand;
 import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
 
+import mockit.Mock;
+import mockit.MockUp;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -124,4 +131,64 @@ public class ReadLockTest extends SSBTestBase {
         Assertions.assertTrue(tableNames.contains("supplier"));
         Assertions.assertTrue(tableNames.contains("lineorder"));
     }
+
+    @Test
+    public void testPlanAgainAfterMetaChanged() throws Exception {
+        // the leading hint and the cte consumers are collected into the statement context during planning
+        String sql = "WITH cte1 AS (SELECT lo_orderkey, lo_suppkey FROM lineorder WHERE lo_orderkey < 30)\n"
+                + "SELECT /*+ leading(supplier t1 t2) */ * FROM cte1 t1\n"
+                + "JOIN cte1 t2 ON t1.lo_orderkey = t2.lo_orderkey\n"
+                + "JOIN supplier ON t1.lo_suppkey = s_suppkey";
+        String cleanShape = planShape(sql, null);
+
+        Table lineorder = Env.getCurrentInternalCatalog().getDbOrMetaException("default_cluster:test")
+                .getTableOrMetaException("lineorder");
+        int[] planTimes = {0};
+        new MockUp<MinidumpUtils>() {
+            @Mock
+            public void serializeInputsToDumpFile(Plan parsedPlan, List<TableIf> tables) {
+                if (planTimes[0]++ == 0) {
+                    // change the meta during the first optimistic planning
+                    lineorder.writeLock();
+                    lineorder.writeUnlock();
+                }
+            }
+        };
+        Hint[] leading = new Hint[1];
+        Assertions.assertEquals(cleanShape, planShape(sql, leading));
+        Assertions.assertEquals(2, planTimes[0]);
+        Assertions.assertTrue(leading[0].isSuccess());
+    }
+
+    @Test
+    public void testLoadNotChangeMeta() throws Exception {
+        String sql = "SELECT s_suppkey FROM supplier";
+        Table supplier = Env.getCurrentInternalCatalog().getDbOrMetaException("default_cluster:test")
+                .getTableOrMetaException("supplier");
+        int[] planTimes = {0};
+        new MockUp<MinidumpUtils>() {
+            @Mock
+            public void serializeInputsToDumpFile(Plan parsedPlan, List<TableIf> tables) {
+                planTimes[0]++;
+                // a transaction is committed during planning
+                Assertions.assertTrue(supplier.dataWriteLockIfExist());
+                supplier.writeUnlock();
+            }
+        };
+        planShape(sql, null);
+        Assertions.assertEquals(1, planTimes[0]);
+    }
+
+    private String planShape(String sql, Hint[] leading) {
+        StatementContext statementContext = MemoTestUtils.createStatementContext(connectContext, sql);
+        NereidsPlanner planner = new NereidsPlanner(statementContext);
+        String shape = planner.plan(
+                parser.parseSingle(sql),
+                PhysicalProperties.ANY
+        ).shape("");
+        if (leading != null) {
+            leading[0] = statementContext.getHintMap().get("Leading");
+        }
+        return shape;
+    }
 }
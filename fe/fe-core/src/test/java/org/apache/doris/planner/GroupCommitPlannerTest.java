@@ -0,0 +1,149 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.planner;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Replica;
+import org.apache.doris.catalog.Replica.ReplicaState;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.util.TimeUtils;
+import org.apache.doris.thrift.TExecPlanFragmentParams;
+import org.apache.doris.thrift.TExecPlanFragmentParamsList;
+import org.apache.doris.thrift.TFileRangeDesc;
+import org.apache.doris.thrift.TSlotDescriptor;
+import org.apache.doris.thrift.TTabletLocation;
+import org.apache.doris.thrift.TUniqueId;
+import org.apache.doris.utframe.TestWithFeService;
+
+import org.apache.thrift.TDeserializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+public class GroupCommitPlannerTest extends TestWithFeService {
+    private Database db;
+    private OlapTable table;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        createDatabase("test");
+        createTable("create table test.tbl(k1 int, k2 int, v1 int) duplicate key(k1) "
+                + "distributed by hash(k1) buckets 1 properties('replication_num' = '1');");
+        db = Env.getCurrentInternalCatalog().getDbOrMetaException("default_cluster:test");
+        table = (OlapTable) db.getTableOrMetaException("tbl");
+    }
+
+    @Override
+    protected int backendNum() {
+        return 2;
+    }
+
+    private TExecPlanFragmentParams getPlan() throws Exception {
+        return GroupCommitPlanner.getOrCreate(db, table, null, connectContext.getSessionVariable(),
+                new TUniqueId(1, 1)).getExecPlanFragmentParams();
+    }
+
+    @Test
+    public void testPlanCache() throws Exception {
+        TExecPlanFragmentParams params = getPlan();
+        Assertions.assertSame(params, getPlan());
+
+        String timeZone = connectContext.getSessionVariable().getTimeZone();
+        connectContext.getSessionVariable().setTimeZone("Asia/Tokyo");
+        try {
+            Assertions.assertNotSame(params, getPlan());
+        } finally {
+            connectContext.getSessionVariable().setTimeZone(timeZone);
+        }
+        Assertions.assertSame(params, getPlan());
+    }
+
+    @Test
+    public void testPlanStaleAfterRollup() throws Exception {
+        TExecPlanFragmentParams params = getPlan();
+        int indexNum = params.fragment.output_sink.olap_table_sink.schema.indexes.size();
+        addRollup("alter table test.tbl add rollup r1(k2, k1)");
+        params = getPlan();
+        Assertions.assertEquals(indexNum + 1, params.fragment.output_sink.olap_table_sink.schema.indexes.size());
+        Assertions.assertSame(params, getPlan());
+    }
+
+    @Test
+    public void testPlanStaleAfterSchemaChange() throws Exception {
+        TExecPlanFragmentParams params = getPlan();
+        alterTableSync("alter table test.tbl add column v2 int default '0'");
+        params = getPlan();
+        Assertions.assertTrue(params.fragment.output_sink.olap_table_sink.schema.slot_descs.stream()
+                .map(TSlotDescriptor::getColName).anyMatch("v2"::equalsIgnoreCase));
+        Assertions.assertSame(params, getPlan());
+    }
+
+    @Test
+    public void testPlanStaleAfterTabletMigration() throws Exception {
+        TExecPlanFragmentParams params = getPlan();
+        Tablet tablet = table.getPartitions().iterator().next().getBaseIndex().getTablets().get(0);
+        Replica replica = tablet.getReplicas().get(0);
+        long destBackendId = Env.getCurrentSystemInfo().getAllBackendIds(false).stream()
+                .filter(id -> id != replica.getBackendId()).findFirst().get();
+        // see TabletSchedCtx#finishCloneTask, the replica is moved under the write lock of table
+        table.writeLock();
+        try {
+            tablet.addReplica(new Replica(Env.getCurrentEnv().getNextId(), destBackendId, ReplicaState.NORMAL,
+                    replica.getVersion(), replica.getSchemaHash()));
+            tablet.deleteReplicaByBackendId(replica.getBackendId());
+        } finally {
+            table.writeUnlock();
+        }
+
+        Assertions.assertNotSame(params, getPlan());
+        TTabletLocation location = getPlan().fragment.output_sink.olap_table_sink.location.tablets.stream()
+                .filter(l -> l.getTabletId() == tablet.getId()).findFirst().get();
+        Assertions.assertTrue(location.getNodeIds().contains(destBackendId));
+    }
+
+    @Test
+    public void testBindLoadId() throws Exception {
+        getPlan();
+        TUniqueId loadId = new TUniqueId(100, 200);
+        long startMs = System.currentTimeMillis();
+        GroupCommitPlanner planner = GroupCommitPlanner.getOrCreate(db, table, null,
+                connectContext.getSessionVariable(), loadId);
+        TExecPlanFragmentParamsList paramsList = new TExecPlanFragmentParamsList();
+        new TDeserializer().deserialize(paramsList, planner.getExecPlanFragmentParamsBytes().toByteArray());
+        TExecPlanFragmentParams params = paramsList.getParamsList().get(0);
+
+        Assertions.assertEquals(loadId, params.params.query_id);
+        Assertions.assertEquals(new TUniqueId(100, 201), params.params.fragment_instance_id);
+        Assertions.assertEquals(loadId, params.fragment.output_sink.olap_table_sink.load_id);
+        params.params.per_node_scan_ranges.values().stream()
+                .flatMap(scanRanges -> scanRanges.stream())
+                .flatMap(scanRange -> scanRange.scan_range.ext_scan_range.file_scan_range.ranges.stream())
+                .map(TFileRangeDesc::getLoadId)
+                .forEach(id -> Assertions.assertEquals(loadId, id));
+        Assertions.assertTrue(params.query_globals.timestamp_ms >= startMs);
+        Assertions.assertTrue(params.query_globals.nano_seconds >= 0);
+        LocalDateTime now = LocalDateTime.parse(params.query_globals.now_string, TimeUtils.DATETIME_FORMAT);
+        Assertions.assertFalse(now.isAfter(LocalDateTime.now()));
+        // the cached plan is not changed by the insert
+        Assertions.assertNotEquals(loadId, planner.getExecPlanFragmentParams().params.query_id);
+    }
+}
@@ -70,6 +70,7 @@ import org.apache.doris.qe.cache.CacheAnalyzer;
 import org.apache.doris.qe.cache.CacheAnalyzer.CacheMode;
 import org.apache.doris.qe.cache.CacheCoordinator;
 import org.apache.doris.qe.cache.CacheProxy;
+import org.apache.doris.qe.cache.NereidsPartitionCache;
 import org.apache.doris.qe.cache.PartitionCache;
 import org.apache.doris.qe.cache.PartitionRange;
 import org.apache.doris.qe.cache.RowBatchBuilder;
@@ -628,6 +629,84 @@ public class OlapQueryCacheTest {
         Assert.assertEquals(ca.getCacheMode(), CacheMode.Partition);
     }
 
+    @Test
+    public void testPartitionModelForNereids() throws Exception {
+        StatementBase parseStmt = parseSqlByNereids(
+                "SELECT eventdate, COUNT(userid) FROM testDb.appevent WHERE eventdate>=\"2020-01-12\" and "
+                        + "eventdate<=\"2020-01-14\" GROUP BY eventdate"
+        );
+        ArrayList<Long> selectedPartitionIds
+                = Lists.newArrayList(20200112L, 20200113L, 20200114L);
+        List<ScanNode> scanNodes = Lists.newArrayList(createEventScanNode(selectedPartitionIds));
+        CacheAnalyzer ca = new CacheAnalyzer(context, parseStmt, scanNodes);
+        ca.checkCacheModeForNereids(1578675600000L); // set now to 2020-01-11 1:00:00, for hit partition cache
+        Assert.assertEquals(ca.getCacheMode(), CacheMode.Partition);
+
+        NereidsPartitionCache cache = (NereidsPartitionCache) ca.getCache();
+        String sqlKey = cache.getSqlWithViewStmt();
+        Assert.assertFalse(sqlKey.contains("2020-01-1"));
+
+        PartitionRange range = cache.getPartitionRange();
+        Assert.assertTrue(range.analytics());
+        Assert.assertEquals(range.getPartitionSingleList().size(), 3);
+
+        range.setCacheFlag(20200113);
+        range.setCacheFlag(20200114);
+        hitRange = range.buildDiskPartitionRange(newRangeList);
+        Assert.assertEquals(hitRange, Cache.HitRange.Right);
+        Assert.assertEquals(newRangeList.get(0).getCacheKey().realValue(), 20200112);
+
+        parseStmt = parseSqlByNereids(
+                "SELECT eventdate, COUNT(userid) FROM testDb.appevent WHERE eventdate>=\"2020-01-12\" and "
+                        + "eventdate<=\"2020-01-14\" GROUP BY eventdate ORDER BY eventdate"
+        );
+        ca = new CacheAnalyzer(context, parseStmt, scanNodes);
+        ca.checkCacheModeForNereids(1578675600000L);
+        Assert.assertEquals(ca.getCacheMode(), CacheMode.None);
+    }
+
+    @Test
+    public void testPartitionKeyForNereids() throws Exception {
+        ArrayList<Long> selectedPartitionIds
+                = Lists.newArrayList(20200112L, 20200113L, 20200114L);
+        List<ScanNode> scanNodes = Lists.newArrayList(createEventScanNode(selectedPartitionIds));
+        String sqlKey = getNereidsPartitionKey(
+                "SELECT eventdate, COUNT(userid) FROM testDb.appevent WHERE eventdate>=\"2020-01-12\" and "
+                        + "eventdate<=\"2020-01-14\" GROUP BY eventdate", scanNodes);
+        // the key is the same for another range
+        Assert.assertEquals(sqlKey, getNereidsPartitionKey(
+                "SELECT eventdate, COUNT(userid) FROM testDb.appevent WHERE eventdate>=\"2020-01-13\" and "
+                        + "eventdate<=\"2020-01-14\" GROUP BY eventdate", scanNodes));
+        // but differs for other predicates
+        Assert.assertNotEquals(sqlKey, getNereidsPartitionKey(
+                "SELECT eventdate, COUNT(userid) FROM testDb.appevent WHERE eventdate>=\"2020-01-12\" and "
+                        + "eventdate<=\"2020-01-14\" and userid > 1 GROUP BY eventdate", scanNodes));
+
+        // the qualified partition column
+        Assert.assertNotNull(getNereidsPartitionKey(
+                "SELECT a.eventdate, COUNT(userid) FROM testDb.appevent a WHERE a.eventdate>=\"2020-01-12\" and "
+                        + "a.eventdate<=\"2020-01-14\" GROUP BY a.eventdate", scanNodes));
+        // the qualifier does not refer to the partition table
+        Assert.assertNull(getNereidsPartitionKey(
+                "SELECT a.eventdate, COUNT(a.userid) FROM testDb.appevent a JOIN testDb.appevent b "
+                        + "ON a.userid = b.userid WHERE b.eventdate>=\"2020-01-12\" and "
+                        + "b.eventdate<=\"2020-01-14\" GROUP BY a.eventdate", scanNodes));
+        // the range literal is also used by other expression, so it can not be masked
+        Assert.assertNull(getNereidsPartitionKey(
+                "SELECT eventdate, COUNT(userid) FROM testDb.appevent WHERE eventdate>=\"2020-01-12\" and "
+                        + "eventdate<=\"2020-01-14\" and date_add(eventdate, 1) <> \"2020-01-12\" "
+                        + "GROUP BY eventdate", scanNodes));
+    }
+
+    private String getNereidsPartitionKey(String sql, List<ScanNode> scanNodes) {
+        CacheAnalyzer ca = new CacheAnalyzer(context, parseSqlByNereids(sql), scanNodes);
+        ca.checkCacheModeForNereids(1578675600000L);
+        if (ca.getCacheMode() != CacheMode.Partition) {
+            return null;
+        }
+        return ((NereidsPartitionCache) ca.getCache()).getSqlWithViewStmt();
+    }
+
     @Test
     public void testParseByte() throws Exception {
         RowBatchBuilder sb = new RowBatchBuilder(CacheMode.Partition);
@@ -0,0 +1,77 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.statistics;
+
+import org.apache.doris.nereids.trees.expressions.SlotReference;
+import org.apache.doris.nereids.types.IntegerType;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+public class StatisticsTest {
+    private final SlotReference a = new SlotReference("a", IntegerType.INSTANCE);
+    private final SlotReference b = new SlotReference("b", IntegerType.INSTANCE);
+
+    private ColumnStatistic columnStats(double ndv) {
+        return new ColumnStatisticBuilder().setCount(100).setNdv(ndv).setAvgSizeByte(4).build();
+    }
+
+    @Test
+    public void testCopyOnWrite() {
+        Statistics origin = new Statistics(100, new HashMap<>());
+        origin.addColumnStats(a, columnStats(100));
+
+        // derived statistics don't change the origin one
+        Statistics derived = origin.withSel(0.5);
+        derived.addColumnStats(b, columnStats(10));
+        Assertions.assertNull(origin.findColumnStatistics(b));
+        Assertions.assertNotNull(derived.findColumnStatistics(a));
+
+        // the origin statistics don't change the derived one
+        origin.addColumnStats(a, columnStats(1));
+        Assertions.assertEquals(100, derived.findColumnStatistics(a).ndv);
+        Assertions.assertEquals(1, origin.findColumnStatistics(a).ndv);
+    }
+
+    @Test
+    public void testEnforceValidNotChangeSource() {
+        Statistics origin = new Statistics(100, new HashMap<>());
+        origin.addColumnStats(a, columnStats(100));
+        Statistics limited = origin.withRowCountAndEnforceValid(10);
+        Assertions.assertEquals(10, limited.findColumnStatistics(a).ndv);
+        Assertions.assertEquals(100, origin.findColumnStatistics(a).ndv);
+    }
+
+    @Test
+    public void testBuilderCopyOnWrite() {
+        Statistics origin = new Statistics(100, new HashMap<>());
+        origin.addColumnStats(a, columnStats(100));
+        StatisticsBuilder builder = new StatisticsBuilder(origin);
+        Statistics built = builder.setRowCount(50).build();
+        builder.putColumnStatistics(b, columnStats(10));
+        Statistics builtAgain = builder.build();
+
+        Assertions.assertNull(origin.findColumnStatistics(b));
+        Assertions.assertNull(built.findColumnStatistics(b));
+        Assertions.assertNotNull(builtAgain.findColumnStatistics(b));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> origin.columnStatistics().put(b, columnStats(1)));
+    }
+}
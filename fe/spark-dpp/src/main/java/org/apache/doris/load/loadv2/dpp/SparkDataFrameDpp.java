@@ -0,0 +1,360 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.load.loadv2.dpp;
+
+import org.apache.doris.common.SparkDppException;
+import org.apache.doris.sparkdpp.EtlJobConfig;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.api.java.UDF2;
+import org.apache.spark.sql.expressions.UserDefinedFunction;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
+import org.apache.spark.util.LongAccumulator;
+import org.apache.spark.util.SerializableConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * DataFrame based pipeline of SparkDpp.
+ * The rows are kept in Spark's binary row format from the source dataframe to the parquet files:
+ * the bucket of each row is computed from its partition and distribution columns only,
+ * the rollups are computed by Spark aggregations, and the files are written by Spark's parquet writer.
+ * It supports the duplicate and aggregate tables whose value columns are aggregated by SUM/MAX/MIN,
+ * the other tables are still processed by the RDD pipeline in SparkDpp.
+ */
+public class SparkDataFrameDpp implements Serializable {
+    private static final Logger LOG = LoggerFactory.getLogger(SparkDataFrameDpp.class);
+
+    // set it in the spark properties of the spark resource to enable this pipeline
+    public static final String ENABLE_DATAFRAME_DPP = "spark.doris.dpp.dataframe.enabled";
+    private static final String TMP_OUTPUT_DIR = "_dataframe_tmp";
+
+    private final transient SparkSession spark;
+    private final EtlJobConfig etlJobConfig;
+    private final LongAccumulator abnormalRowAcc;
+    private final StringAccumulator invalidRows;
+    private final SerializableConfiguration serializableHadoopConf;
+
+    public SparkDataFrameDpp(SparkSession spark, EtlJobConfig etlJobConfig, LongAccumulator abnormalRowAcc,
+                             StringAccumulator invalidRows, SerializableConfiguration serializableHadoopConf) {
+        this.spark = spark;
+        this.etlJobConfig = etlJobConfig;
+        this.abnormalRowAcc = abnormalRowAcc;
+        this.invalidRows = invalidRows;
+        this.serializableHadoopConf = serializableHadoopConf;
+    }
+
+    public static boolean isEnabled(SparkSession spark) {
+        return Boolean.parseBoolean(spark.conf().get(ENABLE_DATAFRAME_DPP, "false"));
+    }
+
+    /**
+     * Whether all indexes of the table can be processed by Spark aggregations.
+     * REPLACE depends on the order of rows, and HLL/BITMAP/LARGEINT need the aggregators of SparkRDDAggregator.
+     */
+    public static boolean isSupported(EtlJobConfig.EtlTable etlTable, Set<String> dictBitmapColumns,
+                                      Set<String> binaryBitmapColumns) {
+        if (!dictBitmapColumns.isEmpty() || !binaryBitmapColumns.isEmpty()) {
+            return false;
+        }
+        for (EtlJobConfig.EtlIndex index : etlTable.indexes) {
+            if (StringUtils.equalsIgnoreCase(index.indexType, "UNIQUE")) {
+                return false;
+            }
+            boolean isAggregate = StringUtils.equalsIgnoreCase(index.indexType, "AGGREGATE");
+            for (EtlJobConfig.EtlColumn column : index.columns) {
+                switch (column.columnType.toUpperCase()) {
+                    case "HLL":
+                    case "BITMAP":
+                    case "OBJECT":
+                    case "LARGEINT":
+                        return false;
+                    default:
+                        break;
+                }
+                if (isAggregate && !column.isKey) {
+                    String aggType = StringUtils.lowerCase(column.aggregationType);
+                    if (!"sum".equals(aggType) && !"max".equals(aggType) && !"min".equals(aggType)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validates the rows and adds the bucket column, which is "partitionId_bucketId", to the dataframe
+     * of one file group. The invalid rows and the rows not in the valid partitions are filtered out.
+     */
+    public Dataset<Row> fillBucketColumn(Dataset<Row> dataframe, EtlJobConfig.EtlPartitionInfo partitionInfo,
+            List<DorisRangePartitioner.PartitionRangeKey> partitionRangeKeys, StructType dstTableSchema,
+            EtlJobConfig.EtlIndex baseIndex, List<Long> validPartitionIds) {
+        List<String> partitionColumns = partitionInfo.partitionColumnRefs;
+        List<String> distributeColumns = partitionInfo.distributionColumnRefs;
+        List<Integer> partitionKeyIndexes = new ArrayList<>();
+        for (int i = 0; i < partitionColumns.size(); i++) {
+            partitionKeyIndexes.add(i);
+        }
+        DorisRangePartitioner partitioner = new DorisRangePartitioner(partitionInfo, partitionKeyIndexes,
+                partitionRangeKeys);
+        Set<Integer> validPartitionIndex = new HashSet<>();
+        for (int i = 0; i < partitionInfo.partitions.size(); ++i) {
+            if (validPartitionIds == null || validPartitionIds.contains(partitionInfo.partitions.get(i).partitionId)) {
+                validPartitionIndex.add(i);
+            }
+        }
+
+        // only the partition and distribution columns are passed to the udf as a row
+        List<Column> bucketColumns = new ArrayList<>();
+        Set<String> bucketColumnNames = new HashSet<>();
+        for (String name : partitionColumns) {
+            if (bucketColumnNames.add(name)) {
+                bucketColumns.add(functions.col(name));
+            }
+        }
+        for (String name : distributeColumns) {
+            if (bucketColumnNames.add(name)) {
+                bucketColumns.add(functions.col(name));
+            }
+        }
+
+        LongAccumulator abnormalRowAcc = this.abnormalRowAcc;
+        StringAccumulator invalidRows = this.invalidRows;
+        UserDefinedFunction bucketKeyUdf = functions.udf((UDF2<Boolean, Row, String>) (valid, row) -> {
+            if (!valid) {
+                abnormalRowAcc.add(1);
+                return null;
+            }
+            List<Object> partitionKey = new ArrayList<>(partitionColumns.size());
+            for (String name : partitionColumns) {
+                partitionKey.add(row.get(row.fieldIndex(name)));
+            }
+            int pid = partitioner.getPartition(new DppColumns(partitionKey));
+            if (!validPartitionIndex.contains(pid)) {
+                LOG.warn("invalid partition for row:" + row + ", pid:" + pid);
+                abnormalRowAcc.add(1);
+                if (abnormalRowAcc.value() < 5) {
+                    invalidRows.add(row.toString());
+                }
+                return null;
+            }
+            long hashValue = DppUtils.getHashValue(row, distributeColumns, dstTableSchema);
+            int bucketId = (int) ((hashValue & 0xffffffff) % partitionInfo.partitions.get(pid).bucketNum);
+            return partitionInfo.partitions.get(pid).partitionId + "_" + bucketId;
+        }, DataTypes.StringType).asNondeterministic();
+
+        Column bucketStruct = bucketColumns.isEmpty() ? functions.struct(functions.lit(null))
+                : functions.struct(bucketColumns.toArray(new Column[0]));
+        List<Column> dstColumns = new ArrayList<>();
+        dstColumns.add(bucketKeyUdf.apply(buildValidCondition(baseIndex), bucketStruct).as(DppUtils.BUCKET_ID));
+        for (EtlJobConfig.EtlColumn column : baseIndex.columns) {
+            dstColumns.add(functions.col(column.columnName));
+        }
+        return dataframe.select(dstColumns.toArray(new Column[0]))
+                .filter(functions.col(DppUtils.BUCKET_ID).isNotNull());
+    }
+
+    // the same check as SparkDpp.validateData(), but evaluated on the binary rows
+    private Column buildValidCondition(EtlJobConfig.EtlIndex baseIndex) {
+        Column valid = functions.lit(true);
+        for (EtlJobConfig.EtlColumn column : baseIndex.columns) {
+            Column col = functions.col(column.columnName);
+            Column byteLength = functions.length(functions.encode(col, "UTF-8"));
+            switch (column.columnType.toUpperCase()) {
+                case "DECIMALV2":
+                case "DECIMAL32":
+                case "DECIMAL64":
+                case "DECIMAL128":
+                    DecimalParser decimalParser = new DecimalParser(column);
+                    valid = valid.and(col.isNull().or(
+                            col.between(decimalParser.getMinValue(), decimalParser.getMaxValue())));
+                    break;
+                case "CHAR":
+                case "VARCHAR":
+                    valid = valid.and(col.isNull().or(byteLength.leq(column.stringLength)));
+                    break;
+                case "STRING":
+                case "TEXT":
+                    valid = valid.and(col.isNull().or(byteLength.leq(DppUtils.STRING_LENGTH_LIMIT)));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Computes the indexes of the rollup tree level by level like SparkDpp.processRollupTree(),
+     * each index is aggregated from its parent index and written to the files of its buckets.
+     */
+    public void processRollupTree(RollupTreeNode rootNode, Dataset<Row> baseDataframe, long tableId,
+            EtlJobConfig.EtlIndex baseIndex, EtlJobConfig.EtlPartitionInfo partitionInfo)
+            throws SparkDppException, IOException {
+        // the same settings as the parquet writer of the RDD pipeline
+        spark.conf().set("spark.sql.parquet.writeLegacyFormat", "false");
+        spark.conf().set("spark.sql.parquet.outputTimestampType", "INT96");
+        int bucketNum = 0;
+        for (EtlJobConfig.EtlPartition partition : partitionInfo.partitions) {
+            bucketNum += partition.bucketNum;
+        }
+
+        Queue<RollupTreeNode> nodeQueue = new LinkedList<>();
+        nodeQueue.offer(rootNode);
+        int currentLevel = 0;
+        Map<Long, Dataset<Row>> parentMap = new HashMap<>();
+        parentMap.put(baseIndex.indexId, baseDataframe);
+        Map<Long, Dataset<Row>> childrenMap = new HashMap<>();
+        while (!nodeQueue.isEmpty()) {
+            RollupTreeNode curNode = nodeQueue.poll();
+            LOG.info("start to process index:" + curNode.indexId);
+            if (curNode.children != null) {
+                for (RollupTreeNode child : curNode.children) {
+                    nodeQueue.offer(child);
+                }
+            }
+            if (curNode.level != currentLevel) {
+                for (Dataset<Row> dataframe : parentMap.values()) {
+                    dataframe.unpersist();
+                }
+                currentLevel = curNode.level;
+                parentMap = childrenMap;
+                childrenMap = new HashMap<>();
+            }
+
+            long parentIndexId = curNode.parent == null ? baseIndex.indexId : curNode.parent.indexId;
+            Dataset<Row> curDataframe = aggregate(parentMap.get(parentIndexId), curNode.indexMeta);
+            childrenMap.put(curNode.indexId, curDataframe);
+            if (curNode.children != null && curNode.children.size() > 1) {
+                // if the children number larger than 1, persist the dataframe for performance
+                curDataframe.persist(StorageLevel.MEMORY_AND_DISK());
+            }
+            writeIndex(curDataframe, tableId, curNode.indexMeta, bucketNum);
+        }
+    }
+
+    private Dataset<Row> aggregate(Dataset<Row> parent, EtlJobConfig.EtlIndex index) {
+        boolean isAggregate = StringUtils.equalsIgnoreCase(index.indexType, "AGGREGATE");
+        StructType dstSchema = DppUtils.createDstTableSchema(index.columns, false, false);
+        List<Column> keyColumns = new ArrayList<>();
+        keyColumns.add(functions.col(DppUtils.BUCKET_ID));
+        List<Column> outputColumns = new ArrayList<>();
+        outputColumns.add(functions.col(DppUtils.BUCKET_ID));
+        List<Column> aggColumns = new ArrayList<>();
+        for (EtlJobConfig.EtlColumn column : index.columns) {
+            outputColumns.add(functions.col(column.columnName));
+            if (column.isKey) {
+                keyColumns.add(functions.col(column.columnName));
+                continue;
+            }
+            if (isAggregate) {
+                Column col = functions.col(column.columnName);
+                String aggType = StringUtils.lowerCase(column.aggregationType);
+                Column aggColumn = "sum".equals(aggType) ? functions.sum(col)
+                        : "max".equals(aggType) ? functions.max(col) : functions.min(col);
+                // spark widens the type of sum, cast it back to the column type
+                aggColumns.add(aggColumn.cast(dstSchema.apply(column.columnName).dataType()).as(column.columnName));
+            }
+        }
+        Column[] output = outputColumns.toArray(new Column[0]);
+        if (!isAggregate) {
+            return parent.select(output);
+        }
+        if (aggColumns.isEmpty()) {
+            return parent.select(output).distinct();
+        }
+        return parent.groupBy(keyColumns.toArray(new Column[0]))
+                .agg(aggColumns.get(0), aggColumns.subList(1, aggColumns.size()).toArray(new Column[0]))
+                .select(output);
+    }
+
+    // Spark writes the files of each bucket into the directory "__bucketId__=partitionId_bucketId",
+    // they are moved to the path of the bucket which BE reads after writing.
+    private void writeIndex(Dataset<Row> dataframe, long tableId, EtlJobConfig.EtlIndex indexMeta, int bucketNum)
+            throws SparkDppException, IOException {
+        List<Column> sortColumns = new ArrayList<>();
+        sortColumns.add(functions.col(DppUtils.BUCKET_ID));
+        for (EtlJobConfig.EtlColumn column : indexMeta.columns) {
+            if (column.isKey) {
+                sortColumns.add(functions.col(column.columnName));
+            }
+        }
+        String tmpPath = etlJobConfig.outputPath + "/" + TMP_OUTPUT_DIR + "/" + tableId + "_" + indexMeta.indexId;
+        // all rows of a bucket are in one spark partition and sorted by key,
+        // so that each bucket is written to one file
+        dataframe.repartition(Math.max(bucketNum, 1), functions.col(DppUtils.BUCKET_ID))
+                .sortWithinPartitions(sortColumns.toArray(new Column[0]))
+                .write()
+                .mode(SaveMode.Overwrite)
+                .option("compression", "snappy")
+                .option("maxRecordsPerFile", 0)
+                .partitionBy(DppUtils.BUCKET_ID)
+                .parquet(tmpPath);
+
+        String pathPattern = etlJobConfig.outputPath + "/" + etlJobConfig.outputFilePattern;
+        FileSystem fs = FileSystem.get(new Path(tmpPath).toUri(), serializableHadoopConf.value());
+        String bucketDirPrefix = DppUtils.BUCKET_ID + "=";
+        for (FileStatus bucketDir : fs.listStatus(new Path(tmpPath))) {
+            String dirName = bucketDir.getPath().getName();
+            if (!bucketDir.isDirectory() || !dirName.startsWith(bucketDirPrefix)) {
+                continue;
+            }
+            String[] bucketKey = dirName.substring(bucketDirPrefix.length()).split("_");
+            if (bucketKey.length != 2) {
+                throw new SparkDppException("invalid bucket directory:" + bucketDir.getPath());
+            }
+            FileStatus[] files = fs.listStatus(bucketDir.getPath(), path -> path.getName().endsWith(".parquet"));
+            if (files.length != 1) {
+                throw new SparkDppException("expect one file in bucket directory:" + bucketDir.getPath()
+                        + ", but found " + files.length);
+            }
+            long partitionId = Long.parseLong(bucketKey[0]);
+            int bucketId = Integer.parseInt(bucketKey[1]);
+            Path dstPath = new Path(String.format(pathPattern, tableId, partitionId, indexMeta.indexId, bucketId,
+                    indexMeta.schemaHash));
+            fs.mkdirs(dstPath.getParent());
+            if (!fs.rename(files[0].getPath(), dstPath)) {
+                throw new SparkDppException("rename from " + files[0].getPath() + " to " + dstPath + " failed");
+            }
+        }
+        fs.delete(new Path(tmpPath), true);
+    }
+}
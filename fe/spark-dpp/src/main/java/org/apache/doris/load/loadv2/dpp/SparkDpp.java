@@ -1072,6 +1072,15 @@ public final class SparkDpp implements java.io.Serializable {
                 RollupTreeNode rootNode = rollupTreeParser.build(etlTable);
                 LOG.info("Start to process rollup tree:" + rootNode);
 
+                boolean useDataFrame = SparkDataFrameDpp.isEnabled(spark)
+                        && SparkDataFrameDpp.isSupported(etlTable, dictBitmapColumnSet, binaryBitmapColumnSet);
+                SparkDataFrameDpp dataFrameDpp = null;
+                if (useDataFrame) {
+                    LOG.info("use dataframe pipeline for table:" + tableId);
+                    dataFrameDpp = new SparkDataFrameDpp(spark, etlJobConfig, abnormalRowAcc, invalidRows,
+                            serializableHadoopConf);
+                }
+                Dataset<Row> tableDataframe = null;
                 JavaPairRDD<List<Object>, Object[]> tablePairRDD = null;
                 for (EtlJobConfig.EtlFileGroup fileGroup : etlTable.fileGroups) {
                     List<String> filePaths = fileGroup.filePaths;
@@ -1091,6 +1100,14 @@ public final class SparkDpp implements java.io.Serializable {
                         continue;
                     }
 
+                    if (useDataFrame) {
+                        Dataset<Row> bucketedDataframe = dataFrameDpp.fillBucketColumn(fileGroupDataframe,
+                                partitionInfo, partitionRangeKeys, dstTableSchema, baseIndex, fileGroup.partitions);
+                        tableDataframe = tableDataframe == null ? bucketedDataframe
+                                : tableDataframe.union(bucketedDataframe);
+                        continue;
+                    }
+
                     JavaPairRDD<List<Object>, Object[]> ret = fillTupleWithPartitionColumn(
                             fileGroupDataframe,
                             partitionInfo, partitionKeyIndex,
@@ -1103,6 +1120,12 @@ public final class SparkDpp implements java.io.Serializable {
                         tablePairRDD.union(ret);
                     }
                 }
+                if (useDataFrame) {
+                    if (tableDataframe != null) {
+                        dataFrameDpp.processRollupTree(rootNode, tableDataframe, tableId, baseIndex, partitionInfo);
+                    }
+                    continue;
+                }
                 processRollupTree(rootNode, tablePairRDD, tableId, baseIndex);
             }
             LOG.info("invalid rows contents:" + invalidRows.value());
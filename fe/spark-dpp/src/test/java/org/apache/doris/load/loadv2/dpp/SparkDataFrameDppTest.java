@@ -0,0 +1,59 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.load.loadv2.dpp;
+
+import org.apache.doris.sparkdpp.EtlJobConfig;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+
+public class SparkDataFrameDppTest {
+
+    @Test
+    public void testIsSupported() {
+        EtlJobConfig.EtlColumn k1 = new EtlJobConfig.EtlColumn("k1", "INT", false, true, "NONE", "0", 0, 0, 0);
+        EtlJobConfig.EtlColumn k2 = new EtlJobConfig.EtlColumn("k2", "VARCHAR", false, true, "NONE", "0", 10, 0, 0);
+        EtlJobConfig.EtlColumn v1 = new EtlJobConfig.EtlColumn("v1", "BIGINT", false, false, "SUM", "0", 0, 0, 0);
+        EtlJobConfig.EtlColumn v2 = new EtlJobConfig.EtlColumn("v2", "DECIMALV2", false, false, "MAX", "0", 0, 9, 2);
+        EtlJobConfig.EtlIndex baseIndex = new EtlJobConfig.EtlIndex(10000, Lists.newArrayList(k1, k2, v1, v2),
+                12345, "AGGREGATE", true);
+        EtlJobConfig.EtlIndex rollup = new EtlJobConfig.EtlIndex(10001, Lists.newArrayList(k1, v1),
+                12346, "AGGREGATE", false);
+        EtlJobConfig.EtlTable table = new EtlJobConfig.EtlTable(Lists.newArrayList(baseIndex, rollup), null);
+        Assert.assertTrue(SparkDataFrameDpp.isSupported(table, new HashSet<>(), new HashSet<>()));
+        // bitmap dict columns need the global dict
+        Assert.assertFalse(SparkDataFrameDpp.isSupported(table, Sets.newHashSet("v1"), new HashSet<>()));
+
+        // REPLACE depends on the order of rows
+        EtlJobConfig.EtlColumn v3 = new EtlJobConfig.EtlColumn("v3", "INT", true, false, "REPLACE", "0", 0, 0, 0);
+        baseIndex.columns.add(v3);
+        Assert.assertFalse(SparkDataFrameDpp.isSupported(table, new HashSet<>(), new HashSet<>()));
+
+        EtlJobConfig.EtlColumn hll = new EtlJobConfig.EtlColumn("v4", "HLL", true, false, "NONE", "0", 0, 0, 0);
+        EtlJobConfig.EtlIndex duplicateIndex = new EtlJobConfig.EtlIndex(10002, Lists.newArrayList(k1, k2, v1),
+                12347, "DUPLICATE", true);
+        EtlJobConfig.EtlTable duplicateTable = new EtlJobConfig.EtlTable(Lists.newArrayList(duplicateIndex), null);
+        Assert.assertTrue(SparkDataFrameDpp.isSupported(duplicateTable, new HashSet<>(), new HashSet<>()));
+        duplicateIndex.columns.add(hll);
+        Assert.assertFalse(SparkDataFrameDpp.isSupported(duplicateTable, new HashSet<>(), new HashSet<>()));
+    }
+}
@@ -48,6 +48,8 @@ struct TKafkaLoadInfo {
     2: required string topic;
     3: required map<i32, i64> partition_begin_offset;
     4: optional map<string, string> properties;
+    // for multi-table load, the destination table is the key of the kafka message
+    5: optional bool table_name_from_key;
 }
 
 struct TRoutineLoadTask {
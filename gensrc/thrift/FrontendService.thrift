@@ -1035,6 +1035,7 @@ struct TGetBinlogRequest {
     7: optional string user_ip
     8: optional string token
     9: optional i64 prev_commit_seq
+    10: optional i32 num_binlogs // max number of binlogs to return, 1 if not set
 }
 
 enum TBinlogType {
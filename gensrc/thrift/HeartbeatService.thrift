@@ -51,6 +51,10 @@ struct TBackendInfo {
     7: optional string be_node_role
     8: optional bool is_shutdown
     9: optional Types.TPort arrow_flight_sql_port
+    // load statistics used by FE to balance stream load redirection
+    10: optional i64 load_mem_usage
+    11: optional i32 flush_queue_size
+    12: optional i32 load_channel_num
 }
 
 struct THeartbeatResult {
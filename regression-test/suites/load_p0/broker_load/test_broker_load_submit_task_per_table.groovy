@@ -0,0 +1,108 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+suite("test_broker_load_submit_task_per_table", "load_p0") {
+    def testTable1 = "tbl_test_broker_load_submit_task_per_table_1"
+    def testTable2 = "tbl_test_broker_load_submit_task_per_table_2"
+
+    def create_test_table = {testTablex ->
+        sql """ DROP TABLE IF EXISTS ${testTablex} """
+        sql """
+            CREATE TABLE IF NOT EXISTS ${testTablex} (
+                `k1` INT NOT NULL,
+                `k2` VARCHAR(10) NULL,
+                `v1` INT NULL
+            ) ENGINE=OLAP
+            DUPLICATE KEY(`k1`)
+            DISTRIBUTED BY HASH(`k1`) BUCKETS 4
+            PROPERTIES (
+                "replication_allocation" = "tag.location.default: 1"
+            );
+            """
+    }
+
+    def check_load_result = {checklabel ->
+        def max_try_milli_secs = 60000
+        while (max_try_milli_secs > 0) {
+            def result = sql "show load where label = '${checklabel}'"
+            if (result[0][2] == "FINISHED") {
+                break
+            }
+            assertTrue(result[0][2] != "CANCELLED", "load is cancelled: ${result[0]}")
+            sleep(1000)
+            max_try_milli_secs -= 1000
+        }
+        assertTrue(max_try_milli_secs > 0, "load is not finished in time")
+    }
+
+    // if 'enableHdfs' in regression-conf.groovy has been set to true,
+    // the test will run these case as below.
+    if (enableHdfs()) {
+        def brokerName = getBrokerName()
+        def hdfsUser = getHdfsUser()
+        def hdfsPasswd = getHdfsPasswd()
+        def hdfs_file_path1 = uploadToHdfs "load_p0/broker_load/broker_load_submit_task_per_table_1.csv"
+        uploadToHdfs "load_p0/broker_load/broker_load_submit_task_per_table_2.csv"
+        def hdfs_file_path3 = uploadToHdfs "load_p0/broker_load/broker_load_submit_task_per_table_3.csv"
+        def hdfs_file_pattern = hdfs_file_path1.replace("broker_load_submit_task_per_table_1.csv", "broker_load_submit_task_per_table_*.csv")
+
+        try {
+            sql """ ADMIN SET FRONTEND CONFIG ("enable_broker_load_submit_task_per_table" = "true") """
+            create_test_table.call(testTable1)
+            create_test_table.call(testTable2)
+
+            // table1 is loaded from 4 files in 2 file groups, table2 from 1 file,
+            // all of them are written by the same txn.
+            def test_load_label = UUID.randomUUID().toString().replaceAll("-", "")
+            sql """
+                LOAD LABEL ${test_load_label} (
+                    DATA INFILE("${hdfs_file_pattern}")
+                    INTO TABLE ${testTable1}
+                    COLUMNS TERMINATED BY ","
+                    FORMAT AS "csv",
+                    DATA INFILE("${hdfs_file_path3}")
+                    INTO TABLE ${testTable1}
+                    COLUMNS TERMINATED BY ","
+                    FORMAT AS "csv",
+                    DATA INFILE("${hdfs_file_path3}")
+                    INTO TABLE ${testTable2}
+                    COLUMNS TERMINATED BY ","
+                    FORMAT AS "csv"
+                )
+                WITH BROKER "${brokerName}" (
+                    "username"="${hdfsUser}",
+                    "password"="${hdfsPasswd}")
+                PROPERTIES (
+                    "timeout"="1200"
+                );
+                """
+            check_load_result.call(test_load_label)
+
+            sql "sync"
+            def rows1 = sql "select count(*), sum(v1) from ${testTable1}"
+            assertEquals(13L, rows1[0][0] as long)
+            assertEquals(750L, rows1[0][1] as long)
+            def rows2 = sql "select count(*), sum(v1) from ${testTable2}"
+            assertEquals(4L, rows2[0][0] as long)
+            assertEquals(300L, rows2[0][1] as long)
+        } finally {
+            sql """ ADMIN SET FRONTEND CONFIG ("enable_broker_load_submit_task_per_table" = "false") """
+            try_sql("DROP TABLE IF EXISTS ${testTable1}")
+            try_sql("DROP TABLE IF EXISTS ${testTable2}")
+        }
+    }
+}
@@ -0,0 +1,131 @@
+#!/usr/bin/env python
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+# Compare the planned and the actual filter ratio of runtime filters.
+#
+# Every query is run twice with profile: with runtime filters off and with cost based runtime filters on.
+# The actual filter ratio of a scan node is 1 - rows(rf on) / rows(rf off), the rows are read from the
+# profile by the qerror api. The planned filter ratio is combined from the expected filter ratio of runtime
+# filters targeting the scan node, which is printed in `explain` as the last item of (ndv/expect size/size/ratio).
+
+import os
+import re
+import subprocess
+
+import requests
+import json
+import time
+
+# Change the host port username password and database name on your need
+mycli_cmd = "mysql -h127.0.0.1 -P9030 -uroot -Dtpch1G"
+
+# FE http://host:port
+feHttp = "http://localhost:8030"
+trace_url = feHttp + '/rest/v2/manager/query/trace_id/{}'
+qerror_url = feHttp + '/rest/v2/manager/query/qerror/{}'
+
+# SQL under this directory would be tested.
+original_sql_dir = "add your tpc-h/tpch-ds/ssb sql directory path here"
+
+session_prefix = """
+    SET enable_nereids_planner=true;
+    SET enable_fallback_to_original_planner=false;
+    SET enable_profile=true;
+    SET enable_cost_based_runtime_filter=true;
+    SET runtime_filter_mode={};
+    SET session_context='trace_id:{}';
+"""
+
+node_pattern = re.compile(r"(\d+):V[A-Z]")
+build_rf_pattern = re.compile(r"(RF\d+)\[\w+\] <- [^(]*\(\d+/\d+/\d+/([\d.]+)\)")
+target_rf_pattern = re.compile(r"(RF\d+)\[\w+\] -> ")
+
+
+def execute_command(cmd: str):
+    result = subprocess.run(cmd, shell=True, stdout=subprocess.PIPE, stderr=subprocess.PIPE)
+    return result.stdout.decode("utf-8")
+
+
+def run_sql(sql: str, mode: str, trace_id: str):
+    sql_file = "/tmp/rf_evaluate_{}.sql".format(trace_id)
+    with open(sql_file, "w") as f:
+        f.write(session_prefix.format(mode, trace_id))
+        f.write(sql)
+    execute_command(mycli_cmd + " < " + sql_file)
+    os.remove(sql_file)
+
+
+def get_actual_rows(trace_id: str) -> dict:
+    time.sleep(1)
+    # 'YWRtaW46' is the base64 encoded result for 'admin:'
+    headers = {'Authorization': 'BASIC YWRtaW46'}
+    query_id = json.loads(requests.get(trace_url.format(trace_id), headers=headers).text)["data"]
+    stats = json.loads(requests.get(qerror_url.format(query_id), headers=headers).text)
+    return {int(k): v["second"] for k, v in stats["legacyPlanIdToPhysicalPlan"].items()}
+
+
+def get_planned_ratio(sql: str) -> dict:
+    explain = execute_command(mycli_cmd + " -e \"SET enable_cost_based_runtime_filter=true; explain "
+                              + sql.replace('"', '\\"').rstrip().rstrip(';') + "\"")
+    rf_ratios = {}
+    rf_targets = {}
+    node_id = None
+    for line in explain.splitlines():
+        node = node_pattern.search(line)
+        if node:
+            node_id = int(node.group(1))
+        for rf, ratio in build_rf_pattern.findall(line):
+            rf_ratios[rf] = float(ratio)
+        if node_id is not None and "runtime filters" in line:
+            for rf in target_rf_pattern.findall(line):
+                rf_targets.setdefault(node_id, []).append(rf)
+    planned = {}
+    for node_id, rfs in rf_targets.items():
+        remain = 1.0
+        for rf in rfs:
+            remain *= 1 - rf_ratios.get(rf, 0)
+        planned[node_id] = 1 - remain
+    return planned
+
+
+def evaluate(name: str, sql: str) -> list:
+    run_sql(sql, "OFF", name + "_off")
+    rows_off = get_actual_rows(name + "_off")
+    run_sql(sql, "GLOBAL", name + "_on")
+    rows_on = get_actual_rows(name + "_on")
+    results = []
+    for node_id, planned in get_planned_ratio(sql).items():
+        if node_id not in rows_off or node_id not in rows_on or rows_off[node_id] <= 0:
+            continue
+        actual = 1 - rows_on[node_id] / rows_off[node_id]
+        results.append((name, node_id, planned, actual))
+        print("{} node {}: planned filter ratio {:.2f}, actual filter ratio {:.2f}".format(
+            name, node_id, planned, actual))
+    return results
+
+
+if __name__ == '__main__':
+    all_results = []
+    files = [f for f in os.listdir(original_sql_dir) if f.endswith(".sql")]
+    files.sort()
+    for filename in files:
+        with open(os.path.join(original_sql_dir, filename), "r") as f:
+            all_results.extend(evaluate(filename[:-len(".sql")], f.read()))
+    if all_results:
+        error = sum(abs(r[2] - r[3]) for r in all_results) / len(all_results)
+        print("AVG absolute error of filter ratio: {:.4f}".format(error))